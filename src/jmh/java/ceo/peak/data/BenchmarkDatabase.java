@@ -0,0 +1,60 @@
+package ceo.peak.data;
+
+import ceo.peak.data.repository.CompanyDataRepositoryCustom;
+import ceo.peak.data.repository.CompanyDataRepositoryCustomImpl;
+import ceo.peak.data.repository.PageValidatorRepositoryCustom;
+import ceo.peak.data.repository.PageValidatorRepositoryCustomImpl;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+
+/**
+ * 벤치마크용 임베디드 PostgreSQL. 테스트와 같은 schema.sql (src/test/resources) 로 테이블을 만들고,
+ * JPA 없이 리포지토리의 JDBC 구현(…CustomImpl)을 제공한다.
+ */
+public class BenchmarkDatabase implements AutoCloseable {
+
+    private final EmbeddedPostgres postgres;
+    private final HikariDataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+
+    public BenchmarkDatabase() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        // 운영과 같이 커넥션 풀을 거치도록 (임베디드 DB 의 DataSource 는 매번 새 연결을 만듦)
+        HikariConfig config = new HikariConfig();
+        config.setDataSource(postgres.getPostgresDatabase());
+        config.setMaximumPoolSize(10);
+        dataSource = new HikariDataSource(config);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        for (String statement : Fixtures.read("schema.sql").split(";")) {
+            if (!statement.isBlank()) {
+                jdbcTemplate.execute(statement);
+            }
+        }
+    }
+
+    public HikariDataSource dataSource() {
+        return dataSource;
+    }
+
+    public JdbcTemplate jdbcTemplate() {
+        return jdbcTemplate;
+    }
+
+    public PageValidatorRepositoryCustom pageValidatorRepository() {
+        return new PageValidatorRepositoryCustomImpl(jdbcTemplate);
+    }
+
+    public CompanyDataRepositoryCustom companyDataRepository() {
+        return new CompanyDataRepositoryCustomImpl(jdbcTemplate);
+    }
+
+    @Override
+    public void close() throws IOException {
+        dataSource.close();
+        postgres.close();
+    }
+}
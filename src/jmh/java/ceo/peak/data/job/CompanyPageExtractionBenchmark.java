@@ -0,0 +1,52 @@
+package ceo.peak.data.job;
+
+import ceo.peak.data.Fixtures;
+import ceo.peak.data.crawl.ExtractionSpec;
+import ceo.peak.data.crawl.SaraminCompanySource;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 회사 상세 페이지 파싱 + 필드 추출 (CompanyDataProcessor 의 네트워크 이후 구간, 추출 규칙은 SaraminCompanySource).
+ * fixture 는 크기가 다른 합성 페이지 세 개 (small ≈ 4KB, medium ≈ 30KB, large ≈ 200KB).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CompanyPageExtractionBenchmark {
+
+    private static final String URL = "https://www.saramin.co.kr/zf_user/company-info/view?csn=1234567890";
+    private static final ExtractionSpec COMPANY_PAGE = new SaraminCompanySource().detailPage();
+
+    @Param({"small", "medium", "large"})
+    public String fixture;
+
+    private String html;
+    private Document document;
+
+    @Setup
+    public void setUp() {
+        html = Fixtures.read("fixtures/company-" + fixture + ".html");
+        document = Jsoup.parse(html, URL);
+    }
+
+    @Benchmark
+    public ExtractionSpec.Result parseAndExtract() {
+        return COMPANY_PAGE.extract(Jsoup.parse(html, URL));
+    }
+
+    @Benchmark
+    public ExtractionSpec.Result extractOnly() {
+        return COMPANY_PAGE.extract(document);
+    }
+}
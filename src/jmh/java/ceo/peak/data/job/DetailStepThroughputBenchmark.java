@@ -0,0 +1,161 @@
+package ceo.peak.data.job;
+
+import ceo.peak.data.Fixtures;
+import ceo.peak.data.config.SaraminProperties;
+import ceo.peak.data.crawl.CompanySources;
+import ceo.peak.data.crawl.PageFetcher;
+import ceo.peak.data.crawl.SaraminCompanySource;
+import ceo.peak.data.repository.CrawlDeadLetterRepository;
+import ceo.peak.data.repository.PageValidatorRepository;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.repository.support.ResourcelessJobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.item.support.ListItemReader;
+import org.springframework.batch.repeat.policy.SimpleCompletionPolicy;
+import org.springframework.batch.support.transaction.ResourcelessTransactionManager;
+import org.springframework.retry.support.RetryTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * 상세 Step 한 번(ITEMS 건, 청크 100)의 소요 시간을 순차 처리와 비동기 처리(saramin.async.enabled)로 비교한다.
+ * 상세 페이지는 latencyMs 만큼 늦게 small fixture 를 돌려주는 로컬 서버에서 받고, 요청/파싱/추출은 CompanyDataProcessor 그대로 사용한다.
+ * 호스트별 속도 제한은 처리 방식의 차이만 보도록 넉넉하게 열어 둔다 (운영 설정의 max-rate 20/s 에서는 비동기의 이득도 그 안으로 제한됨).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class DetailStepThroughputBenchmark {
+
+    private static final int ITEMS = 200;
+
+    static {
+        // JDK HttpServer 의 작은 응답이 Nagle + delayed ACK 로 40ms 씩 늦어지지 않도록 (latencyMs 만 지연이 되게)
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    @Param({"false", "true"})
+    public boolean async;
+
+    @Param({"20", "100"})
+    public int latencyMs;
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private SaraminCompanySource source;
+    private SaraminBatch batch;
+    private CompanyDataProcessor processor;
+    private ResourcelessJobRepository jobRepository;
+    private final AtomicInteger written = new AtomicInteger();
+    private Step step;
+
+    @Setup
+    public void setUp() throws IOException {
+        byte[] body = Fixtures.read("fixtures/company-small.html").getBytes(StandardCharsets.UTF_8);
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        serverExecutor = Executors.newFixedThreadPool(32);
+        server.setExecutor(serverExecutor);
+        server.createContext("/company", exchange -> {
+            try {
+                Thread.sleep(latencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getResponseHeaders().add("Content-Type", "text/html; charset=UTF-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+
+        SaraminProperties properties = new SaraminProperties();
+        properties.getArchive().setEnabled(false);
+        properties.getAsync().setEnabled(async);
+        properties.getHttp().setInitialRate(10_000.0);
+        properties.getHttp().setMaxRate(10_000.0);
+        properties.getHttp().setInitialConcurrency(properties.getHttp().getMaxConcurrency());
+
+        // 사람인 추출 규칙을 그대로 쓰고 상세 페이지 주소만 로컬 서버로 바꾼 소스
+        source = new SaraminCompanySource() {
+            @Override
+            public String host() {
+                return "127.0.0.1";
+            }
+
+            @Override
+            public String detailUrl(String code) {
+                return baseUrl + "/company/" + code;
+            }
+        };
+        PageFetcher pageFetcher = new PageFetcher(properties);
+        CompanySources companySources = new CompanySources(List.of(source), properties, pageFetcher);
+        CrawlMetrics crawlMetrics = new CrawlMetrics(new SimpleMeterRegistry());
+        processor = new CompanyDataProcessor(companySources, pageFetcher,
+                new PageValidatorPrefetch(mock(PageValidatorRepository.class), false), crawlMetrics, new RetryTemplate(), false);
+        jobRepository = new ResourcelessJobRepository();
+        batch = new SaraminBatch(jobRepository, null, properties, null, null, null, null, crawlMetrics,
+                mock(JobProgressBroadcaster.class), null, null, null, mock(CrawlDeadLetterRepository.class), companySources,
+                null, null);
+    }
+
+    @Setup(Level.Invocation)
+    public void buildStep() {
+        List<String> codes = new ArrayList<>(ITEMS);
+        for (int i = 0; i < ITEMS; i++) {
+            codes.add(String.valueOf(i));
+        }
+        written.set(0);
+        step = batch.buildDetailStep(new StepBuilder("detailStep", jobRepository), source,
+                new ListItemReader<>(codes), processor, chunk -> written.addAndGet(chunk.size()),
+                new SimpleCompletionPolicy(100), false, new ResourcelessTransactionManager());
+    }
+
+    @Benchmark
+    public StepExecution detailStep() throws Exception {
+        StepExecution stepExecution = jobRepository.createJobExecution("detailJob", new JobParameters())
+                .createStepExecution("detailStep");
+        step.execute(stepExecution);
+        return stepExecution;
+    }
+
+    @TearDown(Level.Invocation)
+    public void checkWritten() {
+        // 실패로 건너뛴 항목이 있으면 빠르게 끝난 실행을 측정한 것이므로 결과로 쓰지 않음
+        if (written.get() != ITEMS) {
+            throw new IllegalStateException("Expected " + ITEMS + " written items but was " + written.get());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,52 @@
+package ceo.peak.data.job;
+
+import ceo.peak.data.Fixtures;
+import ceo.peak.data.crawl.SaraminCompanySource;
+import org.jsoup.Jsoup;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 연봉 목록 페이지에서 회사 코드(csn)를 뽑는 구간 (SaraminCompanySource).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ListingPageBenchmark {
+
+    private static final String URL = "https://www.saramin.co.kr/zf_user/salaries/total-salary/list?page=1";
+
+    private final SaraminCompanySource source = new SaraminCompanySource();
+
+    private String html;
+    private List<String> hrefs;
+
+    @Setup
+    public void setUp() {
+        html = Fixtures.read("fixtures/listing.html");
+        hrefs = Jsoup.parse(html, URL).select("a.link_tit").stream()
+                .map(link -> link.attr("href"))
+                .toList();
+    }
+
+    @Benchmark
+    public List<String> parseAndExtractCompanyCodes() {
+        return source.extractCodes(Jsoup.parse(html, URL));
+    }
+
+    @Benchmark
+    public void extractCsn(Blackhole blackhole) {
+        for (String href : hrefs) {
+            blackhole.consume(source.codeOf(href));
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package ceo.peak.data.job;
+
+import ceo.peak.data.BenchmarkDatabase;
+import ceo.peak.data.config.CacheConfig;
+import ceo.peak.data.entity.CompanyData;
+import ceo.peak.data.index.CompanyMatchIndex;
+import ceo.peak.data.service.CompanyQueryService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.batch.item.Chunk;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 기본 writer(SaraminCompanyDataUpsertWriter)와 COPY writer 의 청크 처리량. 임베디드 PostgreSQL 에 대해 측정한다.
+ * insert: 매번 새 csn, unchanged: 같은 청크 반복(지문이 같아 갱신 없음), update: 매번 매출액만 바뀜.
+ * 결과는 청크/초이므로 청크 크기가 다른 결과는 chunkSize 를 곱한 행/초로 비교한다.
+ * JPA writer 는 EntityManager 가 필요해 여기서는 측정하지 않는다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class UpsertWriterBenchmark {
+
+    @Param({"insert", "unchanged", "update"})
+    public String scenario;
+
+    @Param({"upsert", "copy"})
+    public String writeMode;
+
+    // 상세 Step 의 chunkSize Job 파라미터 (기본 100)
+    @Param({"100", "1000"})
+    public int chunkSize;
+
+    private BenchmarkDatabase database;
+    private TransactionTemplate transactionTemplate;
+    private SaraminCompanyDataUpsertWriter writer;
+    private Chunk<CompanyData> chunk;
+    private int round;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        database = new BenchmarkDatabase();
+
+        CompanyMatchIndex companyMatchIndex = new CompanyMatchIndex(database.jdbcTemplate());
+        companyMatchIndex.load();
+        CompanyQueryService companyQueryService = new CompanyQueryService(database.companyDataRepository(),
+                new ConcurrentMapCacheManager(CacheConfig.COMPANY_CACHE, CacheConfig.COMPANY_PAGE_CACHE));
+        CrawlMetrics crawlMetrics = new CrawlMetrics(new SimpleMeterRegistry());
+        writer = switch (writeMode) {
+            case "upsert" -> new SaraminCompanyDataUpsertWriter(database.jdbcTemplate(), companyMatchIndex,
+                    database.pageValidatorRepository(), crawlMetrics, companyQueryService);
+            case "copy" -> new SaraminCompanyDataCopyWriter(database.jdbcTemplate(), companyMatchIndex,
+                    database.pageValidatorRepository(), crawlMetrics, companyQueryService);
+            default -> throw new IllegalArgumentException(writeMode);
+        };
+        // 운영과 같이 청크 하나를 트랜잭션 하나로 커밋
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(database.dataSource()));
+
+        if (!scenario.equals("insert")) {
+            write(companies("base", "0"));
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void prepareChunk() {
+        round++;
+        chunk = switch (scenario) {
+            case "insert" -> companies("r" + round, "0");
+            case "unchanged" -> companies("base", "0");
+            case "update" -> companies("base", String.valueOf(round));
+            default -> throw new IllegalArgumentException(scenario);
+        };
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        database.close();
+    }
+
+    @Benchmark
+    public void writeChunk() {
+        write(chunk);
+    }
+
+    private void write(Chunk<CompanyData> items) {
+        transactionTemplate.executeWithoutResult(status -> {
+            try {
+                writer.write(items);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    private Chunk<CompanyData> companies(String csnPrefix, String salesSuffix) {
+        List<CompanyData> items = new ArrayList<>(chunkSize);
+        for (int i = 0; i < chunkSize; i++) {
+            CompanyData data = CompanyData.of("벤치마크기업" + i,
+                    "대표" + i,
+                    "응용 소프트웨어 개발 및 공급업",
+                    "서울 강남구 테헤란로 " + (100 + i) + " " + (i % 20 + 1) + "층",
+                    "https://example.com/" + i,
+                    "-", "-",
+                    (i + 1) + "억 " + salesSuffix + "만원",
+                    "-",
+                    "https://example.com/logo/" + i + ".png");
+            data.attachSource(csnPrefix + "-" + i, "\"etag-" + i + "\"", null);
+            items.add(data);
+        }
+        return new Chunk<>(items);
+    }
+}
@@ -0,0 +1,97 @@
+package ceo.peak.data.service;
+
+import ceo.peak.data.BenchmarkDatabase;
+import ceo.peak.data.config.CacheConfig;
+import ceo.peak.data.dto.CompanyPageResponse;
+import ceo.peak.data.dto.CompanyResponse;
+import ceo.peak.data.repository.CompanyDataRepositoryCustom;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 조회 API 의 동시 부하 지연 시간. SampleTime 결과의 p0.99 가 목표(한 자릿수 ms)를 만족하는지 확인한다.
+ * 캐시를 거치는 경로(service)와 매번 DB 를 조회하는 경로(repository)를 함께 측정한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(8)
+public class CompanyReadBenchmark {
+
+    private static final int ROWS = 100_000;
+    private static final int INDUSTRIES = 50;
+    private static final int COMPANY_NAMES = 20_000;
+    // 조회가 몰리는 일부 회사 (캐시 적중 경로)
+    private static final int HOT_IDS = 1_000;
+
+    private BenchmarkDatabase database;
+    private CompanyDataRepositoryCustom companyDataRepository;
+    private CompanyQueryService companyQueryService;
+
+    @Setup
+    public void setUp() throws IOException {
+        database = new BenchmarkDatabase();
+        database.jdbcTemplate().update(
+                "INSERT INTO company_data (id, csn, company, key_executive, industry, address, homepage, sales, " +
+                        "logo_url, content_hash, created_at, updated_at) " +
+                        "SELECT g, 'csn-' || g, '회사' || (g % " + COMPANY_NAMES + "), '대표' || g, " +
+                        "'업종' || (g % " + INDUSTRIES + "), '서울 강남구 테헤란로 ' || g, 'https://example.com/' || g, " +
+                        "(g % 900) || '억', 'https://example.com/logo/' || g || '.png', md5(g::text), " +
+                        "LOCALTIMESTAMP, LOCALTIMESTAMP " +
+                        "FROM generate_series(1, " + ROWS + ") AS g");
+        database.jdbcTemplate().execute("ANALYZE company_data");
+
+        companyDataRepository = database.companyDataRepository();
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(CacheConfig.COMPANY_CACHE, CacheConfig.COMPANY_PAGE_CACHE);
+        cacheManager.setCacheSpecification("maximumSize=10000,expireAfterWrite=10m");
+        companyQueryService = new CompanyQueryService(companyDataRepository, cacheManager);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        database.close();
+    }
+
+    @Benchmark
+    public Optional<CompanyResponse> byIdCached() {
+        return companyQueryService.findById(1 + ThreadLocalRandom.current().nextInt(HOT_IDS));
+    }
+
+    @Benchmark
+    public Optional<CompanyResponse> byIdDatabase() {
+        return companyDataRepository.findResponseById(1 + ThreadLocalRandom.current().nextInt(ROWS));
+    }
+
+    @Benchmark
+    public CompanyPageResponse industryFirstPageCached() {
+        return companyQueryService.findPage(null, "업종" + ThreadLocalRandom.current().nextInt(INDUSTRIES), null, 20);
+    }
+
+    // 깊은 페이지도 OFFSET 없이 (industry, id) 인덱스에서 바로 시작 위치를 찾으므로 첫 페이지와 비용이 비슷해야 함
+    @Benchmark
+    public List<CompanyResponse> industryDeepPageDatabase() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return companyDataRepository.findResponsesAfter(null, "업종" + random.nextInt(INDUSTRIES),
+                (long) random.nextInt(ROWS), 20);
+    }
+
+    @Benchmark
+    public List<CompanyResponse> companyNameDatabase() {
+        return companyDataRepository.findResponsesAfter("회사" + ThreadLocalRandom.current().nextInt(COMPANY_NAMES),
+                null, null, 20);
+    }
+}
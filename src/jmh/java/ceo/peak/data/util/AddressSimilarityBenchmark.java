@@ -0,0 +1,79 @@
+package ceo.peak.data.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 실제 주소 형태의 쌍(같은 주소의 표기 차이 / 다른 주소)에 대한 유사도 계산.
+ * 한 번의 호출에 PAIRS 의 모든 쌍을 비교하므로 결과는 쌍 개수로 나눠서 본다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AddressSimilarityBenchmark {
+
+    private static final double THRESHOLD = AddressSimilarity.SAME_COMPANY_THRESHOLD;
+
+    private static final String[][] SHORT = {
+            {"서울 강남구 테헤란로 152", "서울 강남구 테헤란로 152"},
+            {"서울 강남구 테헤란로 152", "서울특별시 강남구 테헤란로 152"},
+            {"서울 금천구 가산디지털1로 2", "서울 금천구 가산디지털2로 2"},
+            {"부산 해운대구 해운대로 383", "서울 마포구 월드컵북로 21"},
+    };
+
+    private static final String[][] MEDIUM = {
+            {"경기 성남시 분당구 판교역로 235 에이치스퀘어 N동 7층", "경기도 성남시 분당구 판교역로 235, 에이치스퀘어 N동 7층"},
+            {"서울 송파구 올림픽로 300 롯데월드타워 35층", "서울 송파구 올림픽로 300 롯데월드타워 36층"},
+            {"서울 중구 세종대로 110 서울특별시청 본관", "서울 구로구 디지털로 300 지밸리비즈플라자 12층"},
+            {"대전 유성구 대학로 291 한국과학기술원 창업원", "대전광역시 유성구 대학로 291 KAIST 창업원"},
+    };
+
+    private static final String[][] LONG = {
+            {"부산 해운대구 해운대로 383 (우동, 해운대 센텀 비즈니스 타워) 12층 1201호 대한물류시스템 본사",
+                    "부산광역시 해운대구 해운대로 383, 해운대 센텀 비즈니스 타워 12층 1201호 (우동) 대한물류시스템"},
+            {"경기 수원시 영통구 삼성로 129 (매탄동) 삼성디지털시티 R4 연구동 3층 301호 소프트웨어센터",
+                    "경기 수원시 영통구 삼성로 129 (매탄동) 삼성디지털시티 R4 연구동 3층 302호 소프트웨어센터"},
+            {"인천 연수구 송도과학로 32 (송도동, 송도테크노파크 IT센터) M동 21층 2101호 바이오연구소",
+                    "광주 북구 첨단과기로 123 (오룡동, 광주과학기술원 산학협력관) 2층 204호 에너지연구실"},
+            {"서울 영등포구 여의대로 108 (여의도동, 파크원 타워1) 52층 금융플랫폼본부 디지털전략팀",
+                    "서울 영등포구 여의대로 108 파크원 타워1 52층"},
+    };
+
+    @Param({"short", "medium", "long"})
+    public String length;
+
+    private String[][] pairs;
+
+    @Setup
+    public void setUp() {
+        pairs = switch (length) {
+            case "short" -> SHORT;
+            case "medium" -> MEDIUM;
+            case "long" -> LONG;
+            default -> throw new IllegalArgumentException(length);
+        };
+    }
+
+    @Benchmark
+    public void similarity(Blackhole blackhole) {
+        for (String[] pair : pairs) {
+            blackhole.consume(AddressSimilarity.similarity(pair[0], pair[1]) > THRESHOLD);
+        }
+    }
+
+    @Benchmark
+    public void isSimilar(Blackhole blackhole) {
+        for (String[] pair : pairs) {
+            blackhole.consume(AddressSimilarity.isSimilar(pair[0], pair[1], THRESHOLD));
+        }
+    }
+}
@@ -1,17 +1,25 @@
 package ceo.peak.data;
 
+import ceo.peak.data.scheduler.SaraminBatchRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
 @EnableScheduling
 @EnableJpaAuditing
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class DataApplication {
 
     public static void main(String[] args) {
-        SpringApplication.run(DataApplication.class, args);
+        ConfigurableApplicationContext context = SpringApplication.run(DataApplication.class, args);
+        // batch 프로필은 saraminJob 을 한 번 실행한 뒤 Job 결과를 종료 코드로 남기고 끝남
+        if (context.getEnvironment().matchesProfiles(SaraminBatchRunner.PROFILE)) {
+            System.exit(SpringApplication.exit(context));
+        }
     }
 
 }
@@ -0,0 +1,41 @@
+package ceo.peak.data.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Spring Batch 기본 스키마에는 BATCH_JOB_EXECUTION 의 외래 키/상태 컬럼 인덱스가 없어
+ * 실패한 실행 조회와 인스턴스별 실행 조회가 전체 테이블을 읽으므로, 없으면 만든다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BatchMetadataIndexInitializer implements ApplicationRunner {
+
+    private static final String[] INDEXES = {
+            // 최근 실패한 실행 조회 (SaraminJobLauncher.findLatestFailed)
+            "CREATE INDEX IF NOT EXISTS ix_batch_job_execution_status_start ON BATCH_JOB_EXECUTION (STATUS, START_TIME)",
+            // 인스턴스별 실행 조회, 같은 인스턴스의 이후 실행 확인
+            "CREATE INDEX IF NOT EXISTS ix_batch_job_execution_instance ON BATCH_JOB_EXECUTION (JOB_INSTANCE_ID, JOB_EXECUTION_ID)",
+            "CREATE INDEX IF NOT EXISTS ix_batch_step_execution_job_execution ON BATCH_STEP_EXECUTION (JOB_EXECUTION_ID)"
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        for (String index : INDEXES) {
+            try {
+                jdbcTemplate.execute(index);
+            } catch (DataAccessException e) {
+                // 메타데이터 테이블이 아직 없는 환경에서도 애플리케이션은 시작되도록
+                log.warn("Could not create batch metadata index: {}", e.getMessage());
+            }
+        }
+    }
+}
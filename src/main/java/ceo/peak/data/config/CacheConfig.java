@@ -0,0 +1,23 @@
+package ceo.peak.data.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class CacheConfig {
+
+    public static final String COMPANY_CACHE = "company";
+    public static final String COMPANY_PAGE_CACHE = "companyPage";
+
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${company.cache.spec:maximumSize=10000,expireAfterWrite=10m}") String cacheSpec) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(COMPANY_CACHE, COMPANY_PAGE_CACHE);
+        cacheManager.setCacheSpecification(cacheSpec);
+        // 커밋 후 무효화와 무효화 전에 읽은 값의 재캐시 방지는 CompanyQueryService 가 처리
+        return cacheManager;
+    }
+}
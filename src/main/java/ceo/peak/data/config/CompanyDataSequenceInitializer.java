@@ -0,0 +1,32 @@
+package ceo.peak.data.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * company_data 의 id 가 IDENTITY 에서 시퀀스로 바뀌면서 새로 생성된 company_data_seq 가
+ * 기존 행의 id 와 겹치지 않도록, 시퀀스 값이 MAX(id) 보다 작으면 MAX(id) 로 맞춘다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CompanyDataSequenceInitializer implements ApplicationRunner {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Long adjusted = jdbcTemplate.query(
+                "SELECT setval('company_data_seq', m.max_id) " +
+                        "FROM (SELECT MAX(id) AS max_id FROM company_data) m " +
+                        "WHERE m.max_id > (SELECT last_value FROM company_data_seq)",
+                rs -> rs.next() ? rs.getLong(1) : null);
+        if (adjusted != null) {
+            log.info("Adjusted company_data_seq to existing max id: {}", adjusted);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package ceo.peak.data.config;
+
+import ceo.peak.data.service.CompanyExportService;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "saramin")
+public class SaraminProperties {
+
+    private final Async async = new Async();
+    private final Archive archive = new Archive();
+    private final Http http = new Http();
+    private final Export export = new Export();
+    private final Partition partition = new Partition();
+    // 소스 이름(CompanySource.name())별 설정. 없는 소스는 기본값으로 실행
+    private final Map<String, Source> sources = new LinkedHashMap<>();
+    // STARTED 로 남아 있어도 이 시간 동안 Job/Step 실행 기록이 갱신되지 않았으면 JVM 이 비정상 종료된 실행으로 보고 FAILED 로 표시
+    private Duration staleExecutionTimeout = Duration.ofHours(1);
+
+    @Getter
+    @Setter
+    public static class Async {
+
+        // true 이면 상세 페이지 요청을 청크 내에서 동시에 처리
+        private boolean enabled = false;
+
+        // 동시에 진행 중인 상세 페이지 요청 수 상한
+        private int maxConcurrency = 10;
+
+        // JDK 21 이상에서만 사용 가능
+        private boolean virtualThreads = false;
+    }
+
+    @Getter
+    @Setter
+    public static class Archive {
+
+        // true 이면 실제로 받은 응답을 디스크 아카이브에 기록
+        private boolean enabled = false;
+
+        private String dir = "crawl-archive";
+    }
+
+    @Getter
+    @Setter
+    public static class Http {
+
+        private Duration connectTimeout = Duration.ofSeconds(5);
+        private Duration requestTimeout = Duration.ofSeconds(20);
+        private String userAgent = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/122.0.0.0 Safari/537.36";
+
+        // 호스트별 초당 요청 수 (AIMD 로 minRate ~ maxRate 사이에서 조절)
+        private double initialRate = 2.0;
+        private double minRate = 0.2;
+        private double maxRate = 20.0;
+        private double additiveIncrease = 0.1;
+
+        // 호스트별 동시 요청 수
+        private int initialConcurrency = 4;
+        private int maxConcurrency = 16;
+
+        // 이보다 느린 응답은 과부하 신호로 보고 속도를 줄임
+        private Duration slowLatency = Duration.ofSeconds(5);
+        private Duration decreaseCooldown = Duration.ofSeconds(1);
+
+        // 상세 페이지의 일시적인 실패(시간 초과, 429/5xx)는 지수 백오프(무작위 지연 포함)로 최대 retryMaxAttempts 번까지 요청
+        private int retryMaxAttempts = 3;
+        private Duration retryInitialBackoff = Duration.ofSeconds(1);
+        private Duration retryMaxBackoff = Duration.ofSeconds(30);
+
+        // 호스트별 회로 차단기. 연속 실패가 threshold 번이면 openDuration 동안 요청하지 않음
+        private int circuitFailureThreshold = 20;
+        private Duration circuitOpenDuration = Duration.ofSeconds(30);
+    }
+
+    @Getter
+    @Setter
+    public static class Export {
+
+        // true 이면 saraminJob 이 끝날 때 companyExportStep 으로 파일을 내보냄
+        private boolean enabled = false;
+
+        private String dir = "exports";
+
+        private CompanyExportService.Format format = CompanyExportService.Format.NDJSON;
+
+        // true 이면 이번 Job 에서 바뀐 행만, false 이면 전체
+        private boolean deltaOnly = true;
+    }
+
+    @Getter
+    @Setter
+    public static class Partition {
+
+        // local: 한 JVM 안에서 스레드로 파티션 실행
+        // manager: 상세 Step 파티션 요청을 채널로 보내고 공유 JobRepository 에서 결과 확인
+        // worker: 채널에서 파티션 요청을 받아 실행만 함 (Job 을 시작하지 않음)
+        // manager-worker: 둘 다. transport=memory 와 함께 한 JVM 에서 원격 파티션 경로를 확인할 때 사용
+        private Mode mode = Mode.LOCAL;
+
+        private Transport transport = Transport.JDBC;
+
+        // manager 가 작업자 파티션의 종료 여부를 JobRepository 에서 확인하는 주기
+        private Duration pollInterval = Duration.ofSeconds(5);
+
+        // 한 JVM 에서 동시에 실행하는 목록/상세 파티션 수 상한. gridSize 가 더 크면 나머지 파티션은 대기
+        private int maxThreads = 8;
+
+        public enum Mode {
+            LOCAL, MANAGER, WORKER, MANAGER_WORKER;
+
+            public boolean dispatchesRemotely() {
+                return this == MANAGER || this == MANAGER_WORKER;
+            }
+
+            public boolean executesRemotely() {
+                return this == WORKER || this == MANAGER_WORKER;
+            }
+        }
+
+        public enum Transport {
+            // 공유 PostgreSQL 의 INT_CHANNEL_MESSAGE 테이블을 큐로 사용 (JVM 간)
+            JDBC,
+            // 같은 JVM 안의 큐 (manager-worker 전용)
+            MEMORY
+        }
+    }
+
+    /**
+     * 소스 하나의 실행 여부와 자원 한도. 기본 소스(사람인)의 목록 구간과 파티션 수는 Job 파라미터를 따른다.
+     */
+    @Getter
+    @Setter
+    public static class Source {
+
+        // false 이면 saraminJob 에서 이 소스의 흐름을 만들지 않음 (기본 소스는 끌 수 없음)
+        private boolean enabled = true;
+
+        // 목록 페이지 1 ~ pages 를 읽음
+        private int pages = 100;
+
+        // 목록/상세 Step 의 파티션 수
+        private int gridSize = 1;
+
+        // 동시에 진행 중인 상세 페이지 요청 수 상한. 없으면 saramin.async.max-concurrency
+        private Integer maxConcurrency;
+
+        // 이 소스 호스트의 초당 요청 수 상한. 없으면 saramin.http.max-rate
+        private Double maxRate;
+    }
+}
@@ -0,0 +1,90 @@
+package ceo.peak.data.controller;
+
+import ceo.peak.data.dto.CompanyPageResponse;
+import ceo.peak.data.dto.CompanyResponse;
+import ceo.peak.data.dto.CompanySearchHit;
+import ceo.peak.data.index.CompanySearchIndex;
+import ceo.peak.data.service.CompanyExportService;
+import ceo.peak.data.service.CompanyQueryService;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+
+@RestController
+// 원격 파티션 작업자 JVM 은 API 를 제공하지 않고 파티션 요청만 처리
+@ConditionalOnExpression("!'${saramin.partition.mode:local}'.equalsIgnoreCase('worker')")
+@RequiredArgsConstructor
+@RequestMapping("/api")
+public class CompanyController {
+
+    private static final int MAX_SEARCH_SIZE = 100;
+    private static final Duration EXPORT_TIMEOUT = Duration.ofMinutes(30);
+
+    private final CompanyQueryService companyQueryService;
+    private final CompanySearchIndex companySearchIndex;
+    private final CompanyExportService companyExportService;
+
+    @GetMapping("/v1/companies/{id}")
+    public ResponseEntity<CompanyResponse> company(@PathVariable Long id) {
+        return companyQueryService.findById(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    // 다음 페이지는 응답의 nextCursor 를 after 로 넘겨 조회
+    @GetMapping("/v1/companies")
+    public CompanyPageResponse companies(@RequestParam(required = false) String company,
+                                         @RequestParam(required = false) String industry,
+                                         @RequestParam(required = false) Long after,
+                                         @RequestParam(defaultValue = "20") int size) {
+        return companyQueryService.findPage(company, industry, after, size);
+    }
+
+    // 오타, 띄어쓰기, (주) 같은 표기 차이가 있어도 찾을 수 있는 회사명/업종/주소 검색
+    @GetMapping("/v1/companies/search")
+    public List<CompanySearchHit> search(@RequestParam String q,
+                                         @RequestParam(defaultValue = "20") int size) {
+        return companySearchIndex.search(q, Math.max(1, Math.min(size, MAX_SEARCH_SIZE)));
+    }
+
+    // 전체 또는 updatedAfter 이후 바뀐 회사를 gzip NDJSON/CSV 파일로 스트리밍. 예) ?format=csv&updatedAfter=2026-01-01T00:00:00
+    @GetMapping("/v1/companies/export")
+    public WebAsyncTask<Void> export(@RequestParam(defaultValue = "ndjson") String format,
+                                     @RequestParam(required = false)
+                                     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedAfter,
+                                     HttpServletResponse response) {
+        CompanyExportService.Format exportFormat;
+        try {
+            exportFormat = CompanyExportService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown export format: " + format);
+        }
+
+        String fileName = exportFormat.fileName(updatedAfter == null ? "companies" : "companies-delta");
+        response.setContentType("application/gzip");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString());
+        // 응답 스트림에 바로 쓰므로 요청 스레드가 아닌 MVC 비동기 스레드에서 트랜잭션을 열고 커서를 읽음.
+        // 전체 내보내기는 기본 비동기 제한 시간(30초)보다 오래 걸리므로 이 요청에만 긴 제한 시간을 줌
+        return new WebAsyncTask<>(EXPORT_TIMEOUT.toMillis(), () -> {
+            companyExportService.export(exportFormat, updatedAfter, response.getOutputStream());
+            return null;
+        });
+    }
+}
@@ -1,43 +1,134 @@
 package ceo.peak.data.controller;
 
+import ceo.peak.data.dto.JobProgress;
+import ceo.peak.data.job.JobProgressBroadcaster;
+import ceo.peak.data.job.SaraminJobLauncher;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.batch.core.JobExecution;
 import org.springframework.batch.core.JobParameters;
 import org.springframework.batch.core.JobParametersBuilder;
-import org.springframework.batch.core.configuration.JobRegistry;
-import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.repository.JobExecutionAlreadyRunningException;
+import org.springframework.batch.core.repository.JobInstanceAlreadyCompleteException;
+import org.springframework.batch.core.repository.JobRestartException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
 
 @Slf4j
 @RestController
+// 원격 파티션 작업자 JVM 은 API 를 제공하지 않고 파티션 요청만 처리
+@ConditionalOnExpression("!'${saramin.partition.mode:local}'.equalsIgnoreCase('worker')")
 @RequiredArgsConstructor
 @RequestMapping("/api")
 public class TestController {
 
-    private final JobLauncher jobLauncher;
-    private final JobRegistry jobRegistry;
+    private final SaraminJobLauncher saraminJobLauncher;
+    private final JobExplorer jobExplorer;
+    private final JobProgressBroadcaster jobProgressBroadcaster;
 
+    // Job 은 백그라운드에서 실행되고 실행 id 를 바로 반환. 진행 상황은 아래 조회/스트림 API 로 확인
     @PutMapping("/v1/saramin")
-    public String testJob() throws Exception {
+    public ResponseEntity<JobProgress> testJob(@RequestParam(defaultValue = "false") boolean replay,
+                                               @RequestParam(defaultValue = "false") boolean incremental,
+                                               @RequestParam(defaultValue = "upsert") String writeMode,
+                                               @RequestParam(defaultValue = "100") int chunkSize) throws Exception {
         String value = LocalDateTime.now().toString();
 
         JobParameters jobParameters = new JobParametersBuilder()
                 .addString("date", value)
                 .addLong("time", System.currentTimeMillis())
+                .addString("replay", String.valueOf(replay)) // true 이면 응답 아카이브로만 재처리
+                .addString("incremental", String.valueOf(incremental)) // true 이면 이미 저장된 회사가 연속으로 나오면 중단
+                .addString("writeMode", writeMode) // upsert(기본), copy(COPY + 병합) 또는 jpa
+                .addString("chunkSize", String.valueOf(chunkSize)) // 상세 Step 의 청크 크기
                 .toJobParameters();
 
         log.info("Starting job with parameters: {}", jobParameters);
 
-        JobExecution jobExecution = jobLauncher.run(jobRegistry.getJob("saraminJob"), jobParameters);
+        JobExecution jobExecution = saraminJobLauncher.launch(jobParameters);
 
-        log.info("Job finished with status: {}", jobExecution.getStatus());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(JobProgress.of(jobExecution));
+    }
+
+    // 실패/중지된 saraminJob 실행을 같은 JobInstance 로 재시작. 각 파티션은 마지막으로 커밋된 목록 페이지/위치부터 이어서 읽음
+    @PutMapping("/v1/saramin/{executionId}/restart")
+    public ResponseEntity<JobProgress> restartJob(@PathVariable Long executionId) throws Exception {
+        JobExecution failed = jobExplorer.getJobExecution(executionId);
+        if (failed == null) {
+            return ResponseEntity.notFound().build();
+        }
+        JobExecution jobExecution = saraminJobLauncher.restart(failed);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(JobProgress.of(jobExecution));
+    }
+
+    // 재시도까지 실패해 dead-letter 로 남은 csn 의 상세 페이지만 다시 처리
+    @PutMapping("/v1/saramin/retry-failed")
+    public ResponseEntity<JobProgress> retryFailedJob(@RequestParam(defaultValue = "false") boolean includePermanent)
+            throws Exception {
+        JobExecution jobExecution = saraminJobLauncher.launchRetryFailed(includePermanent);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(JobProgress.of(jobExecution));
+    }
+
+    // 비슷한 회사명/주소의 중복 행을 합침. 기본은 dryRun 으로 묶음 수만 Step ExecutionContext 에 기록
+    @PutMapping("/v1/saramin/dedup")
+    public ResponseEntity<JobProgress> dedupJob(@RequestParam(defaultValue = "true") boolean dryRun,
+                                                @RequestParam(defaultValue = "20") int window) throws Exception {
+        JobExecution jobExecution = saraminJobLauncher.launchDedup(Math.max(2, window), dryRun);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(JobProgress.of(jobExecution));
+    }
 
-        return "Job status: " + jobExecution.getStatus();
+    @GetMapping("/v1/saramin/{executionId}")
+    public ResponseEntity<JobProgress> jobStatus(@PathVariable Long executionId) {
+        JobExecution jobExecution = jobExplorer.getJobExecution(executionId);
+        if (jobExecution == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(JobProgress.of(jobExecution));
     }
 
+    // 청크마다 progress 이벤트, 종료 시 finished 이벤트를 보낸다
+    @GetMapping(value = "/v1/saramin/{executionId}/progress", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> jobProgress(@PathVariable Long executionId) {
+        JobExecution jobExecution = jobExplorer.getJobExecution(executionId);
+        if (jobExecution == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(jobProgressBroadcaster.subscribe(jobExecution));
+    }
+
+    // 실행 중인 Job 이 있으면 새로 시작하지 않고 실행 중인 Job 의 상태를 409 로 반환
+    @ExceptionHandler(JobExecutionAlreadyRunningException.class)
+    public ResponseEntity<JobProgress> alreadyRunning(JobExecutionAlreadyRunningException e) {
+        log.warn(e.getMessage());
+        return saraminJobLauncher.findRunning()
+                .or(saraminJobLauncher::findRunningRetryFailed)
+                .map(running -> ResponseEntity.status(HttpStatus.CONFLICT).body(JobProgress.of(running)))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.CONFLICT).build());
+    }
+
+    // 다른 Job 의 실행이거나 FAILED/STOPPED 가 아니어서 재시작할 수 없는 경우
+    @ExceptionHandler(JobRestartException.class)
+    public ResponseEntity<Void> notRestartable(JobRestartException e) {
+        log.warn(e.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+
+    @ExceptionHandler(JobInstanceAlreadyCompleteException.class)
+    public ResponseEntity<Void> alreadyComplete(JobInstanceAlreadyCompleteException e) {
+        log.warn(e.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
 }
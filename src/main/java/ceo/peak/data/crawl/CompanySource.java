@@ -0,0 +1,47 @@
+package ceo.peak.data.crawl;
+
+import ceo.peak.data.entity.CompanyData;
+import org.jsoup.nodes.Document;
+
+import java.util.List;
+
+/**
+ * 회사 정보를 수집하는 사이트 하나. 목록 페이지에서 회사 코드를 찾고(discovery), 코드로 상세 페이지를 받아 필드를 뽑은 뒤(detail)
+ * {@link CompanyData} 로 옮긴다(field mapping). 빈으로 등록하면 {@link CompanySources} 가 모아 소스마다 별도의 흐름으로 실행한다.
+ * 구현체는 상태가 없어 여러 스레드에서 공유한다.
+ */
+public interface CompanySource {
+
+    /**
+     * 설정(saramin.sources.&lt;name&gt;)과 Step 이름, crawl_frontier 코드 접두어에 쓰이는 이름. 영문 소문자와 숫자만 사용
+     */
+    String name();
+
+    /**
+     * 기본 소스는 코드에 접두어를 붙이지 않고 company_data.csn 에 그대로 저장한다. 하나만 있어야 한다.
+     */
+    default boolean isPrimary() {
+        return false;
+    }
+
+    // 요청 속도/동시 요청 상한을 적용할 호스트
+    String host();
+
+    String listingUrl(int page);
+
+    List<String> extractCodes(Document listingPage);
+
+    String detailUrl(String code);
+
+    /**
+     * 상세 페이지 url 의 회사 코드. 이 소스의 url 이 아니면 null
+     */
+    String codeOf(String detailUrl);
+
+    ExtractionSpec detailPage();
+
+    /**
+     * 추출한 필드를 CompanyData 로 옮긴다. 회사명을 찾지 못했으면 null
+     */
+    CompanyData map(ExtractionSpec.Result fields);
+}
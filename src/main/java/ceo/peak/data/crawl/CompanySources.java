@@ -0,0 +1,140 @@
+package ceo.peak.data.crawl;
+
+import ceo.peak.data.config.SaraminProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * 등록된 {@link CompanySource} 빈 목록과 소스별 설정.
+ * 여러 소스의 회사 코드가 crawl_frontier/crawl_dead_letter 에서 겹치지 않도록 기본 소스가 아닌 코드에는 "이름:" 접두어를 붙이며,
+ * 접두어로 코드의 소스를 되찾을 수 있어 실패한 코드 재처리처럼 소스가 섞인 Step 에서도 코드만으로 처리할 수 있다.
+ */
+@Slf4j
+@Component
+public class CompanySources {
+
+    private static final char SEPARATOR = ':';
+    private static final Pattern NAME_PATTERN = Pattern.compile("[a-z0-9]+");
+
+    private final Map<String, CompanySource> sourcesByName = new LinkedHashMap<>();
+    private final Map<String, SaraminProperties.Source> settings;
+    private final CompanySource primary;
+
+    public CompanySources(List<CompanySource> sources, SaraminProperties saraminProperties, PageFetcher pageFetcher) {
+        this.settings = saraminProperties.getSources();
+        CompanySource primarySource = null;
+        for (CompanySource source : sources) {
+            if (!NAME_PATTERN.matcher(source.name()).matches()) {
+                throw new IllegalStateException("Invalid company source name: " + source.name());
+            }
+            if (sourcesByName.putIfAbsent(source.name(), source) != null) {
+                throw new IllegalStateException("Duplicate company source: " + source.name());
+            }
+            if (source.isPrimary()) {
+                if (primarySource != null) {
+                    throw new IllegalStateException("More than one primary company source: "
+                            + primarySource.name() + ", " + source.name());
+                }
+                primarySource = source;
+            }
+        }
+        if (primarySource == null) {
+            throw new IllegalStateException("No primary company source registered");
+        }
+        if (!settings(primarySource).isEnabled()) {
+            throw new IllegalStateException("Primary company source cannot be disabled: " + primarySource.name());
+        }
+        this.primary = primarySource;
+
+        // 소스마다 호스트가 다르므로 호스트별 상한이 곧 소스별 요청 예산
+        SaraminProperties.Http http = saraminProperties.getHttp();
+        for (CompanySource source : sourcesByName.values()) {
+            SaraminProperties.Source settings = settings(source);
+            if (settings.getMaxRate() != null || settings.getMaxConcurrency() != null) {
+                pageFetcher.limitHost(source.host(),
+                        settings.getMaxRate() != null ? settings.getMaxRate() : http.getMaxRate(),
+                        settings.getMaxConcurrency() != null ? settings.getMaxConcurrency() : http.getMaxConcurrency());
+            }
+        }
+        log.info("Company sources: {}, enabled: {}", sourcesByName.keySet(), enabled().stream().map(CompanySource::name).toList());
+    }
+
+    public CompanySource primary() {
+        return primary;
+    }
+
+    /**
+     * 실행할 소스. 기본 소스가 처음에 온다.
+     */
+    public List<CompanySource> enabled() {
+        List<CompanySource> result = new ArrayList<>();
+        result.add(primary);
+        for (CompanySource source : sourcesByName.values()) {
+            if (!source.isPrimary() && settings(source).isEnabled()) {
+                result.add(source);
+            }
+        }
+        return result;
+    }
+
+    public CompanySource get(String name) {
+        CompanySource source = sourcesByName.get(name);
+        if (source == null) {
+            throw new IllegalArgumentException("Unknown company source: " + name);
+        }
+        return source;
+    }
+
+    public SaraminProperties.Source settings(CompanySource source) {
+        return settings.getOrDefault(source.name(), new SaraminProperties.Source());
+    }
+
+    /**
+     * crawl_frontier 등에 저장하는 코드. 기본 소스는 코드 그대로, 나머지는 "이름:코드"
+     */
+    public static String qualify(CompanySource source, String code) {
+        return source.isPrimary() ? code : source.name() + SEPARATOR + code;
+    }
+
+    /**
+     * source 의 코드만 고르는 PostgreSQL 정규식
+     */
+    public static String codePattern(CompanySource source) {
+        return source.isPrimary() ? "^[^" + SEPARATOR + "]+$" : "^" + source.name() + SEPARATOR;
+    }
+
+    public record Code(CompanySource source, String code) {
+    }
+
+    /**
+     * {@link #qualify} 로 만든 코드의 소스와 원래 코드
+     */
+    public Code resolve(String qualifiedCode) {
+        int separator = qualifiedCode.indexOf(SEPARATOR);
+        if (separator < 0) {
+            return new Code(primary, qualifiedCode);
+        }
+        return new Code(get(qualifiedCode.substring(0, separator)), qualifiedCode.substring(separator + 1));
+    }
+
+    /**
+     * 상세 페이지 url 의 코드. 어느 소스의 url 도 아니면 null
+     */
+    public String codeOf(String detailUrl) {
+        String host = URI.create(detailUrl).getHost();
+        for (CompanySource source : sourcesByName.values()) {
+            String code = source.host().equalsIgnoreCase(host) ? source.codeOf(detailUrl) : null;
+            if (code != null) {
+                return qualify(source, code);
+            }
+        }
+        return null;
+    }
+}
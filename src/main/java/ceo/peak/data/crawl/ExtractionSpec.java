@@ -0,0 +1,115 @@
+package ceo.peak.data.crawl;
+
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.select.Evaluator;
+import org.jsoup.select.NodeFilter;
+import org.jsoup.select.NodeTraversor;
+import org.jsoup.select.QueryParser;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 페이지에서 뽑아낼 필드(이름, CSS 선택자, 후처리)를 선언하고, 선택자를 미리 {@link Evaluator} 로 컴파일해 둔다.
+ * {@link #extract(Element)} 는 문서를 한 번만 순회하면서 각 필드의 첫 번째 일치 요소를 후처리하고,
+ * 모든 필드를 찾으면 순회를 중단한다. 후처리 결과가 null 이면 찾지 못한 것으로 보고 다음 요소를 계속 확인한다.
+ * 생성 이후에는 상태가 없으므로 여러 스레드에서 공유할 수 있다.
+ */
+public final class ExtractionSpec {
+
+    private final String[] names;
+    private final Evaluator[] evaluators;
+    private final List<Function<Element, String>> extractors;
+    private final Map<String, Integer> indexByName;
+
+    private ExtractionSpec(List<String> names, List<Evaluator> evaluators, List<Function<Element, String>> extractors) {
+        this.names = names.toArray(new String[0]);
+        this.evaluators = evaluators.toArray(new Evaluator[0]);
+        this.extractors = List.copyOf(extractors);
+        this.indexByName = new HashMap<>();
+        for (int i = 0; i < this.names.length; i++) {
+            indexByName.put(this.names[i], i);
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public Result extract(Element root) {
+        String[] values = new String[names.length];
+        int[] remaining = {names.length};
+
+        NodeTraversor.filter(new NodeFilter() {
+            @Override
+            public FilterResult head(Node node, int depth) {
+                if (!(node instanceof Element element)) {
+                    return FilterResult.CONTINUE;
+                }
+                for (int i = 0; i < evaluators.length; i++) {
+                    if (values[i] == null && evaluators[i].matches(root, element)) {
+                        String value = extractors.get(i).apply(element);
+                        if (value != null) {
+                            values[i] = value;
+                            remaining[0]--;
+                        }
+                    }
+                }
+                return remaining[0] == 0 ? FilterResult.STOP : FilterResult.CONTINUE;
+            }
+
+            @Override
+            public FilterResult tail(Node node, int depth) {
+                return FilterResult.CONTINUE;
+            }
+        }, root);
+
+        return new Result(values);
+    }
+
+    public final class Result {
+
+        private final String[] values;
+
+        private Result(String[] values) {
+            this.values = values;
+        }
+
+        public String get(String name, String defaultValue) {
+            Integer index = indexByName.get(name);
+            if (index == null) {
+                throw new IllegalArgumentException("Unknown field: " + name);
+            }
+            String value = values[index];
+            return value == null ? defaultValue : value;
+        }
+    }
+
+    public static final class Builder {
+
+        private final List<String> names = new ArrayList<>();
+        private final List<Evaluator> evaluators = new ArrayList<>();
+        private final List<Function<Element, String>> extractors = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        public Builder field(String name, String cssQuery, Function<Element, String> extractor) {
+            if (names.contains(name)) {
+                throw new IllegalArgumentException("Duplicate field: " + name);
+            }
+            names.add(name);
+            evaluators.add(QueryParser.parse(cssQuery));
+            extractors.add(extractor);
+            return this;
+        }
+
+        public ExtractionSpec build() {
+            return new ExtractionSpec(names, evaluators, extractors);
+        }
+    }
+}
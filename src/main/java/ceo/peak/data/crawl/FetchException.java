@@ -0,0 +1,60 @@
+package ceo.peak.data.crawl;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+
+/**
+ * 페이지를 가져오거나 해석하지 못한 경우. 다시 시도하면 성공할 수 있는지에 따라
+ * {@link TransientFetchException} 또는 {@link PermanentFetchException} 으로 나눈다.
+ */
+public abstract class FetchException extends IOException {
+
+    private final String url;
+    // HTTP 응답을 받지 못했으면 0
+    private final int statusCode;
+
+    protected FetchException(String message, String url, int statusCode, Throwable cause) {
+        super(message, cause);
+        this.url = url;
+        this.statusCode = statusCode;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public abstract boolean isTransient();
+
+    /**
+     * 408/425/429 와 5xx 는 일시적, 나머지 실패 응답(404 등)은 영구적인 실패로 본다.
+     */
+    public static FetchException forStatus(String url, int statusCode) {
+        String message = "HTTP " + statusCode + " fetching " + url;
+        if (isTransientStatus(statusCode)) {
+            return new TransientFetchException(message, url, statusCode, null);
+        }
+        return new PermanentFetchException(message, url, statusCode, null);
+    }
+
+    /**
+     * 네트워크 오류와 시간 초과는 일시적, 아카이브에 응답이 없거나 본문을 해석하지 못한 경우는 영구적인 실패로 본다.
+     */
+    public static FetchException of(String url, Exception cause) {
+        if (cause instanceof FetchException fetchException) {
+            return fetchException;
+        }
+        String message = cause.getClass().getSimpleName() + " fetching " + url + ": " + cause.getMessage();
+        if (cause instanceof IOException && !(cause instanceof FileNotFoundException)) {
+            return new TransientFetchException(message, url, 0, cause);
+        }
+        return new PermanentFetchException(message, url, 0, cause);
+    }
+
+    public static boolean isTransientStatus(int statusCode) {
+        return statusCode == 408 || statusCode == 425 || statusCode == 429 || statusCode >= 500;
+    }
+}
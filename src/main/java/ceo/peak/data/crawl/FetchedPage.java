@@ -0,0 +1,26 @@
+package ceo.peak.data.crawl;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 한 번의 HTTP 응답. 헤더 이름은 소문자로 저장한다.
+ */
+public record FetchedPage(String url, int statusCode, String body, Map<String, String> headers, long fetchedAt) {
+
+    public static final String ETAG = "etag";
+    public static final String LAST_MODIFIED = "last-modified";
+    public static final String CONTENT_TYPE = "content-type";
+
+    public String header(String name) {
+        return headers.get(name.toLowerCase(Locale.ROOT));
+    }
+
+    public boolean isNotModified() {
+        return statusCode == 304;
+    }
+
+    public boolean isSuccessful() {
+        return statusCode >= 200 && statusCode < 300;
+    }
+}
@@ -0,0 +1,113 @@
+package ceo.peak.data.crawl;
+
+import ceo.peak.data.config.SaraminProperties;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 한 호스트에 대한 회로 차단기.
+ * <ul>
+ *     <li>429/5xx 또는 네트워크 오류가 failureThreshold 번 연속되면 열리고, openDuration 동안은 요청을 보내지 않고 기다리게 한다.</li>
+ *     <li>openDuration 이 지나면 한 요청만 시험으로 보내 성공하면 닫고, 실패하면 다시 openDuration 동안 연다.</li>
+ * </ul>
+ * 속도 조절은 {@link HostRateLimiter} 가 하고, 이 클래스는 호스트가 계속 실패할 때 요청과 재시도가 쌓이지 않게 막는다.
+ * 열려 있는 동안의 요청을 실패로 끝내면 Step 의 skipLimit 을 실제 요청 없이 다 써 버리므로, 실패로 기록되는 것은 시험 요청뿐이다.
+ * 응답을 받기 전에 이쪽에서 그만둔 요청(Job 중지, 비동기 처리 취소로 인한 인터럽트)은 호스트의 실패가 아니므로 {@link #abandon} 으로 알린다.
+ */
+@Slf4j
+public class HostCircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String host;
+    private final int failureThreshold;
+    private final long openNanos;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAtNanos;
+    private long probeStartedAtNanos;
+
+    public HostCircuitBreaker(String host, SaraminProperties.Http properties) {
+        this.host = host;
+        this.failureThreshold = properties.getCircuitFailureThreshold();
+        this.openNanos = properties.getCircuitOpenDuration().toNanos();
+    }
+
+    /**
+     * 요청을 보내도 될 때까지 기다린다. 열려 있으면 openDuration 이 지날 때까지, 시험 요청 중이면 그 결과가 나올 때까지 기다린다.
+     * 돌아온 요청은 결과를 onSuccess 또는 onFailure 로, 결과 없이 그만두면 abandon 으로 알려야 한다.
+     *
+     * @return 이 요청이 시험 요청이면 true
+     */
+    public synchronized boolean acquire() throws InterruptedException {
+        while (true) {
+            long now = System.nanoTime();
+            switch (state) {
+                case CLOSED:
+                    return false;
+                case OPEN:
+                    long remaining = openNanos - (now - openedAtNanos);
+                    if (remaining <= 0) {
+                        startProbe(now);
+                        return true;
+                    }
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                    break;
+                case HALF_OPEN:
+                    // 시험 요청이 결과를 알리지 못하고 끝났으면 openDuration 뒤 다른 요청이 시험을 이어받음
+                    long probeRemaining = openNanos - (now - probeStartedAtNanos);
+                    if (probeRemaining <= 0) {
+                        startProbe(now);
+                        return true;
+                    }
+                    TimeUnit.NANOSECONDS.timedWait(this, probeRemaining);
+                    break;
+            }
+        }
+    }
+
+    private void startProbe(long now) {
+        state = State.HALF_OPEN;
+        probeStartedAtNanos = now;
+    }
+
+    public synchronized void onSuccess() {
+        if (state != State.CLOSED) {
+            log.info("Circuit closed for host: {}", host);
+        }
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        notifyAll();
+    }
+
+    public synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            log.warn("Circuit opened for host: {} after {} consecutive failures", host, consecutiveFailures);
+            state = State.OPEN;
+            openedAtNanos = System.nanoTime();
+            notifyAll();
+        }
+    }
+
+    /**
+     * 결과 없이 끝난 요청. 상태와 연속 실패 수는 바꾸지 않으며, 시험 요청이었으면 기다리던 요청이 바로 시험을 이어받는다.
+     *
+     * @param probe acquire 가 돌려준 값
+     */
+    public synchronized void abandon(boolean probe) {
+        if (probe && state == State.HALF_OPEN) {
+            state = State.OPEN;
+            openedAtNanos = System.nanoTime() - openNanos;
+            notifyAll();
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+}
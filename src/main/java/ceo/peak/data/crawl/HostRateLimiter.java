@@ -0,0 +1,133 @@
+package ceo.peak.data.crawl;
+
+import ceo.peak.data.config.SaraminProperties;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 한 호스트에 대한 요청 속도(초당 요청 수)와 동시 요청 수를 AIMD 방식으로 조절하는 토큰 버킷.
+ * <ul>
+ *     <li>정상 응답이 느리지 않으면 속도를 조금씩 올리고, 현재 동시 요청 수만큼 연속 성공하면 동시 요청 수를 1 늘린다.</li>
+ *     <li>429/5xx, 네트워크 오류, 또는 응답이 slowLatency 보다 느리면 속도와 동시 요청 수를 절반으로 줄인다.
+ *     이미 보낸 요청들이 연달아 실패해 계속 줄어드는 것을 막기 위해 감소 후 decreaseCooldown 동안은 다시 줄이지 않는다.</li>
+ * </ul>
+ */
+public class HostRateLimiter {
+
+    private final double minRate;
+    private final double maxRate;
+    private final double additiveIncrease;
+    private final int maxConcurrency;
+    private final long slowLatencyNanos;
+    private final long decreaseCooldownNanos;
+
+    private double rate;
+    private double tokens;
+    private long lastRefillNanos;
+    private int concurrencyLimit;
+    private int inFlight;
+    private int successesSinceIncrease;
+    private long lastDecreaseNanos;
+
+    public HostRateLimiter(SaraminProperties.Http properties) {
+        this(properties, properties.getMaxRate(), properties.getMaxConcurrency());
+    }
+
+    /**
+     * 속도와 동시 요청 수의 상한만 호스트별 값으로 바꾼다. 시작 값이 상한보다 크면 상한에서 시작한다.
+     */
+    public HostRateLimiter(SaraminProperties.Http properties, double maxRate, int maxConcurrency) {
+        this.minRate = Math.min(properties.getMinRate(), maxRate);
+        this.maxRate = maxRate;
+        this.additiveIncrease = properties.getAdditiveIncrease();
+        this.maxConcurrency = maxConcurrency;
+        this.slowLatencyNanos = properties.getSlowLatency().toNanos();
+        this.decreaseCooldownNanos = properties.getDecreaseCooldown().toNanos();
+        this.rate = Math.min(properties.getInitialRate(), maxRate);
+        this.concurrencyLimit = Math.min(properties.getInitialConcurrency(), maxConcurrency);
+        this.tokens = 1;
+        this.lastRefillNanos = System.nanoTime();
+        this.lastDecreaseNanos = lastRefillNanos - decreaseCooldownNanos;
+    }
+
+    /**
+     * 토큰과 동시 요청 슬롯을 모두 얻을 때까지 대기한다. 요청이 끝나면 반드시 release, releaseOnError 또는 abandon 을 호출해야 한다.
+     */
+    public synchronized void acquire() throws InterruptedException {
+        while (true) {
+            refill();
+            if (inFlight < concurrencyLimit && tokens >= 1) {
+                tokens -= 1;
+                inFlight++;
+                return;
+            }
+            long waitMillis = inFlight < concurrencyLimit
+                    ? (long) Math.ceil((1 - tokens) / rate * 1000)
+                    : 100; // release 시 깨어나지만, 속도 변경을 놓치지 않도록 주기적으로 재확인
+            wait(Math.max(1, waitMillis));
+        }
+    }
+
+    public synchronized void release(int statusCode, long latencyNanos) {
+        inFlight--;
+        if (statusCode == 429 || statusCode >= 500 || latencyNanos > slowLatencyNanos) {
+            decrease();
+        } else {
+            increase();
+        }
+        notifyAll();
+    }
+
+    public synchronized void releaseOnError() {
+        inFlight--;
+        decrease();
+        notifyAll();
+    }
+
+    // 응답 없이 이쪽에서 그만둔 요청(인터럽트). 호스트의 상태를 알려 주지 않으므로 슬롯만 돌려주고 속도는 그대로 둠
+    public synchronized void abandon() {
+        inFlight--;
+        notifyAll();
+    }
+
+    public synchronized double getRate() {
+        return rate;
+    }
+
+    public synchronized int getConcurrencyLimit() {
+        return concurrencyLimit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        double elapsedSeconds = (now - lastRefillNanos) / (double) TimeUnit.SECONDS.toNanos(1);
+        // 버킷 용량은 1초 분량 (최소 1개)
+        tokens = Math.min(Math.max(1, rate), tokens + elapsedSeconds * rate);
+        lastRefillNanos = now;
+    }
+
+    private void increase() {
+        rate = Math.min(maxRate, rate + additiveIncrease);
+        if (++successesSinceIncrease >= concurrencyLimit) {
+            concurrencyLimit = Math.min(maxConcurrency, concurrencyLimit + 1);
+            successesSinceIncrease = 0;
+        }
+    }
+
+    private void decrease() {
+        long now = System.nanoTime();
+        successesSinceIncrease = 0;
+        if (now - lastDecreaseNanos < decreaseCooldownNanos) {
+            return;
+        }
+        refill();
+        rate = Math.max(minRate, rate / 2);
+        concurrencyLimit = Math.max(1, concurrencyLimit / 2);
+        tokens = Math.min(tokens, 1);
+        lastDecreaseNanos = now;
+    }
+}
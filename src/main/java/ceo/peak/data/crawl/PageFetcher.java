@@ -0,0 +1,199 @@
+package ceo.peak.data.crawl;
+
+import ceo.peak.data.config.SaraminProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * 목록/상세 페이지 요청을 한 곳에서 처리한다.
+ * 모든 요청은 keep-alive 연결을 재사용하는 하나의 {@link HttpClient}(가능하면 HTTP/2)로 보내며,
+ * 호스트마다 {@link HostRateLimiter} 로 요청 속도와 동시 요청 수를 조절하고,
+ * 호스트가 계속 실패하면 {@link HostCircuitBreaker} 가 열려 있는 동안 요청을 보내지 않고 시험 요청이 성공할 때까지 기다린다.
+ * 아카이브가 켜져 있으면 실제 응답을 {@link ResponseArchive} 에 기록하고,
+ * replay 모드에서는 네트워크 대신 아카이브에 저장된 마지막 응답을 돌려준다.
+ */
+@Slf4j
+@Component
+public class PageFetcher implements DisposableBean {
+
+    private static final String[] ARCHIVED_HEADERS = {FetchedPage.ETAG, FetchedPage.LAST_MODIFIED, FetchedPage.CONTENT_TYPE};
+    private static final Pattern CHARSET_PATTERN = Pattern.compile("(?i)charset=\"?([^\";\\s]+)");
+
+    private final SaraminProperties.Archive archiveProperties;
+    private final SaraminProperties.Http httpProperties;
+    private final HttpClient httpClient;
+    private final Map<String, HostRateLimiter> rateLimiters = new ConcurrentHashMap<>();
+    private final Map<String, HostCircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+    private final AtomicBoolean fetched = new AtomicBoolean();
+    private volatile ResponseArchive archive;
+
+    public PageFetcher(SaraminProperties saraminProperties) {
+        this.archiveProperties = saraminProperties.getArchive();
+        this.httpProperties = saraminProperties.getHttp();
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2) // 서버가 지원하지 않으면 HTTP/1.1 로 동작
+                .connectTimeout(httpProperties.getConnectTimeout())
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
+    public FetchedPage fetch(String url, Map<String, String> requestHeaders, boolean replay) throws IOException {
+        if (replay) {
+            return archive().find(url)
+                    .orElseThrow(() -> new FileNotFoundException("No archived response for url: " + url));
+        }
+
+        URI uri = URI.create(url);
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                .timeout(httpProperties.getRequestTimeout())
+                .header("User-Agent", httpProperties.getUserAgent())
+                .header("Accept-Encoding", "gzip")
+                .GET();
+        requestHeaders.forEach(request::header);
+
+        HostCircuitBreaker circuitBreaker = circuitBreaker(uri.getHost());
+        boolean probe;
+        try {
+            probe = circuitBreaker.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for circuit: " + url);
+        }
+        HostRateLimiter rateLimiter = rateLimiter(uri.getHost());
+        try {
+            rateLimiter.acquire();
+        } catch (InterruptedException e) {
+            circuitBreaker.abandon(probe);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for rate limit: " + url);
+        }
+
+        if (!fetched.get() && fetched.compareAndSet(false, true)) {
+            // 실행마다 새로 시작하는 batch 프로필의 시작 비용 비교용 (time-to-first-fetch)
+            log.info("First fetch started {}ms after JVM start", ManagementFactory.getRuntimeMXBean().getUptime());
+        }
+        long start = System.nanoTime();
+        HttpResponse<byte[]> response;
+        try {
+            response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (InterruptedException e) {
+            // 호스트의 실패가 아니므로 속도를 줄이거나 회로를 열지 않음
+            rateLimiter.abandon();
+            circuitBreaker.abandon(probe);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while fetching: " + url);
+        } catch (IOException e) {
+            rateLimiter.releaseOnError();
+            circuitBreaker.onFailure();
+            throw e;
+        }
+        rateLimiter.release(response.statusCode(), System.nanoTime() - start);
+        if (response.statusCode() == 429 || response.statusCode() >= 500) {
+            circuitBreaker.onFailure();
+        } else {
+            circuitBreaker.onSuccess();
+        }
+
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (String name : ARCHIVED_HEADERS) {
+            response.headers().firstValue(name).ifPresent(value -> headers.put(name, value));
+        }
+        FetchedPage page = new FetchedPage(url, response.statusCode(), decodeBody(response), headers, System.currentTimeMillis());
+
+        // 304 는 본문이 없으므로 재생에 쓸 수 없어 기록하지 않음
+        if (archiveProperties.isEnabled() && !page.isNotModified()) {
+            archive().append(page);
+        }
+        return page;
+    }
+
+    /**
+     * 호스트별 현재 허용 속도(초당 요청 수).
+     */
+    public Map<String, Double> currentRates() {
+        Map<String, Double> rates = new LinkedHashMap<>();
+        rateLimiters.forEach((host, limiter) -> rates.put(host, limiter.getRate()));
+        return rates;
+    }
+
+    public HostRateLimiter rateLimiter(String host) {
+        return rateLimiters.computeIfAbsent(host, key -> new HostRateLimiter(httpProperties));
+    }
+
+    /**
+     * host 의 속도/동시 요청 상한을 기본 설정 대신 maxRate/maxConcurrency 로 정한다. 그 호스트에 첫 요청을 보내기 전에 호출해야 한다.
+     */
+    public void limitHost(String host, double maxRate, int maxConcurrency) {
+        rateLimiters.put(host, new HostRateLimiter(httpProperties, maxRate, maxConcurrency));
+    }
+
+    public HostCircuitBreaker circuitBreaker(String host) {
+        return circuitBreakers.computeIfAbsent(host, key -> new HostCircuitBreaker(key, httpProperties));
+    }
+
+    private static String decodeBody(HttpResponse<byte[]> response) throws IOException {
+        byte[] body = response.body();
+        if (response.headers().firstValue("Content-Encoding").filter("gzip"::equalsIgnoreCase).isPresent()) {
+            try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+                body = in.readAllBytes();
+            }
+        }
+        return new String(body, charset(response.headers().firstValue(FetchedPage.CONTENT_TYPE).orElse(null)));
+    }
+
+    private static Charset charset(String contentType) {
+        if (contentType != null) {
+            Matcher matcher = CHARSET_PATTERN.matcher(contentType);
+            if (matcher.find()) {
+                try {
+                    return Charset.forName(matcher.group(1));
+                } catch (IllegalArgumentException e) {
+                    log.warn("Unsupported charset in content type: {}", contentType);
+                }
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    private ResponseArchive archive() throws IOException {
+        ResponseArchive current = archive;
+        if (current == null) {
+            synchronized (this) {
+                current = archive;
+                if (current == null) {
+                    current = ResponseArchive.open(Path.of(archiveProperties.getDir()));
+                    archive = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        if (archive != null) {
+            archive.close();
+        }
+    }
+}
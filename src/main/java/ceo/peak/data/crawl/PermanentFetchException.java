@@ -0,0 +1,16 @@
+package ceo.peak.data.crawl;
+
+/**
+ * 404 같은 실패 응답이나 본문 해석 실패처럼 같은 요청을 다시 보내도 결과가 달라지지 않는 실패.
+ */
+public class PermanentFetchException extends FetchException {
+
+    public PermanentFetchException(String message, String url, int statusCode, Throwable cause) {
+        super(message, url, statusCode, cause);
+    }
+
+    @Override
+    public boolean isTransient() {
+        return false;
+    }
+}
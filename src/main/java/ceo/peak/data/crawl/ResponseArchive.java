@@ -0,0 +1,192 @@
+package ceo.peak.data.crawl;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 크롤링한 HTTP 응답을 디스크에 추가만 하는(append-only) 압축 아카이브.
+ * <ul>
+ *     <li>responses.dat: gzip 으로 압축한 응답 레코드를 이어 붙인 파일</li>
+ *     <li>responses.idx: 32바이트 고정 길이 항목(URL 해시, 요청 시각, 오프셋, 길이, 상태 코드)을 이어 붙인 파일</li>
+ * </ul>
+ * 열 때 인덱스 파일을 메모리 매핑으로 한 번 훑어 URL 별 최신 레코드 위치를 만들고,
+ * 이후 조회는 데이터 파일의 해당 위치만 읽는다. 쓰기 도중 중단되어 인덱스에 남은 불완전한 항목은 열 때 잘라낸다.
+ */
+@Slf4j
+public class ResponseArchive implements Closeable {
+
+    static final String DATA_FILE = "responses.dat";
+    static final String INDEX_FILE = "responses.idx";
+    static final int INDEX_ENTRY_SIZE = 32;
+
+    private final FileChannel dataChannel;
+    private final FileChannel indexChannel;
+    private final Map<Long, Location> latestByUrlHash = new HashMap<>();
+
+    private record Location(long fetchedAt, long offset, int length, int statusCode) {
+    }
+
+    private ResponseArchive(FileChannel dataChannel, FileChannel indexChannel) {
+        this.dataChannel = dataChannel;
+        this.indexChannel = indexChannel;
+    }
+
+    public static ResponseArchive open(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        FileChannel dataChannel = FileChannel.open(directory.resolve(DATA_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        FileChannel indexChannel = FileChannel.open(directory.resolve(INDEX_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        ResponseArchive archive = new ResponseArchive(dataChannel, indexChannel);
+        archive.loadIndex();
+        return archive;
+    }
+
+    private void loadIndex() throws IOException {
+        long indexSize = indexChannel.size();
+        long completeSize = indexSize - (indexSize % INDEX_ENTRY_SIZE);
+        if (completeSize != indexSize) {
+            log.warn("Truncating incomplete response archive index entry. Size: {}", indexSize);
+            indexChannel.truncate(completeSize);
+        }
+        if (completeSize == 0) {
+            return;
+        }
+
+        long dataSize = dataChannel.size();
+        MappedByteBuffer index = indexChannel.map(FileChannel.MapMode.READ_ONLY, 0, completeSize);
+        while (index.remaining() >= INDEX_ENTRY_SIZE) {
+            long urlHash = index.getLong();
+            Location location = new Location(index.getLong(), index.getLong(), index.getInt(), index.getInt());
+            if (location.offset() + location.length() <= dataSize) {
+                latestByUrlHash.merge(urlHash, location,
+                        (previous, current) -> current.fetchedAt() >= previous.fetchedAt() ? current : previous);
+            }
+        }
+        log.info("Opened response archive. Urls: {}, entries: {}", latestByUrlHash.size(), completeSize / INDEX_ENTRY_SIZE);
+    }
+
+    public synchronized void append(FetchedPage page) throws IOException {
+        byte[] record = encode(page);
+
+        long offset = dataChannel.size();
+        writeFully(dataChannel, ByteBuffer.wrap(record), offset);
+
+        ByteBuffer entry = ByteBuffer.allocate(INDEX_ENTRY_SIZE);
+        long urlHash = hash(page.url());
+        entry.putLong(urlHash).putLong(page.fetchedAt()).putLong(offset).putInt(record.length).putInt(page.statusCode());
+        entry.flip();
+        // 인덱스 항목은 데이터가 기록된 뒤에만 추가되므로 중단되더라도 인덱스가 없는 데이터만 남음
+        writeFully(indexChannel, entry, indexChannel.size());
+
+        latestByUrlHash.put(urlHash, new Location(page.fetchedAt(), offset, record.length, page.statusCode()));
+    }
+
+    /**
+     * URL 의 가장 최근 응답을 반환한다.
+     */
+    public Optional<FetchedPage> find(String url) throws IOException {
+        Location location;
+        synchronized (this) {
+            location = latestByUrlHash.get(hash(url));
+        }
+        if (location == null) {
+            return Optional.empty();
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(location.length());
+        long position = location.offset();
+        while (buffer.hasRemaining()) {
+            int read = dataChannel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Unexpected end of response archive at offset " + location.offset());
+            }
+            position += read;
+        }
+        FetchedPage page = decode(buffer.array());
+        // 해시 충돌이면 다른 URL 의 레코드이므로 없는 것으로 처리
+        return page.url().equals(url) ? Optional.of(page) : Optional.empty();
+    }
+
+    public synchronized int size() {
+        return latestByUrlHash.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            dataChannel.close();
+        } finally {
+            indexChannel.close();
+        }
+    }
+
+    private static byte[] encode(FetchedPage page) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(bytes))) {
+            out.writeUTF(page.url());
+            out.writeLong(page.fetchedAt());
+            out.writeInt(page.statusCode());
+            out.writeInt(page.headers().size());
+            for (Map.Entry<String, String> header : page.headers().entrySet()) {
+                out.writeUTF(header.getKey());
+                out.writeUTF(header.getValue());
+            }
+            byte[] body = page.body() == null ? new byte[0] : page.body().getBytes(StandardCharsets.UTF_8);
+            out.writeInt(body.length);
+            out.write(body);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static FetchedPage decode(byte[] record) throws IOException {
+        try (DataInputStream in = new DataInputStream(new GZIPInputStream(new ByteArrayInputStream(record)))) {
+            String url = in.readUTF();
+            long fetchedAt = in.readLong();
+            int statusCode = in.readInt();
+            int headerCount = in.readInt();
+            Map<String, String> headers = new LinkedHashMap<>();
+            for (int i = 0; i < headerCount; i++) {
+                headers.put(in.readUTF(), in.readUTF());
+            }
+            byte[] body = in.readNBytes(in.readInt());
+            return new FetchedPage(url, statusCode, new String(body, StandardCharsets.UTF_8), headers, fetchedAt);
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    // 64비트 FNV-1a
+    static long hash(String url) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : url.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= (b & 0xff);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,139 @@
+package ceo.peak.data.crawl;
+
+import ceo.peak.data.entity.CompanyData;
+import ceo.peak.data.util.CompanyNames;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Evaluator;
+import org.jsoup.select.QueryParser;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 사람인. 연봉 목록(등록일순)에서 회사 코드(csn)를 찾고 기업 정보 페이지에서 필드를 뽑는 기본 소스.
+ * 이메일, 전화번호, 투자 유치 금액은 페이지에 없어 "-" 로 채운다.
+ */
+@Component
+public class SaraminCompanySource implements CompanySource {
+
+    public static final String NAME = "saramin";
+
+    private static final String LISTING_URL = "https://www.saramin.co.kr/zf_user/salaries/total-salary/list?";
+    private static final String LISTING_PARAMS = "order=reg_dt&industry_cd=&company_cd=&rec_status=&group_cd=0&search_company_nm_org=&search_company_nm=&min_salary=1000&max_salary=10000&request_modify_company_nm=";
+    private static final String DETAIL_URL = "https://www.saramin.co.kr/zf_user/company-info/view?csn=";
+    private static final String MISSING = "-";
+
+    private static final Pattern CSN_PATTERN = Pattern.compile("csn=([^&]+)");
+    private static final Evaluator COMPANY_LINK = QueryParser.parse("a.link_tit");
+
+    private static final Evaluator DETAILS_GROUP = QueryParser.parse("div.company_details_group");
+    private static final Evaluator DETAILS_DESC = QueryParser.parse("dd.desc");
+    private static final Evaluator ADDRESS_TEXT = QueryParser.parse("p.ellipsis");
+    private static final Evaluator SUMMARY_ITEM = QueryParser.parse("li.company_summary_item");
+    private static final Evaluator SUMMARY_VALUE = QueryParser.parse("strong.company_summary_tit");
+
+    private static final ExtractionSpec COMPANY_PAGE = ExtractionSpec.builder()
+            .field("company", "h1.tit_company", h1 -> CompanyNames.strip(h1.attr("title"))) // 괄호 안의 문자와 "주식회사" 제거
+            .field("keyExecutive", detailsLabel("대표자명"), dt -> detailsDesc(dt, false))
+            .field("industry", detailsLabel("업종"), dt -> detailsDesc(dt, false))
+            .field("address", detailsLabel("주소"), dt -> detailsDesc(dt, true))
+            .field("homepage", detailsLabel("홈페이지"), dt -> detailsDesc(dt, false))
+            .field("sales", "ul.company_summary li.company_summary_item p.company_summary_desc:matches(^매출액$)",
+                    desc -> {
+                        Element item = desc.closest(SUMMARY_ITEM);
+                        Element value = item == null ? null : item.selectFirst(SUMMARY_VALUE);
+                        return value == null ? null : value.text();
+                    })
+            .field("logoUrl", "div.box_logo img", img -> img.attr("src"))
+            .build();
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public boolean isPrimary() {
+        return true;
+    }
+
+    @Override
+    public String host() {
+        return "www.saramin.co.kr";
+    }
+
+    @Override
+    public String listingUrl(int page) {
+        return LISTING_URL + "page=" + page + "&" + LISTING_PARAMS;
+    }
+
+    @Override
+    public List<String> extractCodes(Document listingPage) {
+        List<String> companyCodes = new ArrayList<>();
+        for (Element link : listingPage.select(COMPANY_LINK)) {
+            String csn = codeOf(link.attr("href"));
+            if (csn != null) {
+                companyCodes.add(csn);
+            }
+        }
+        return companyCodes;
+    }
+
+    @Override
+    public String detailUrl(String code) {
+        return DETAIL_URL + code;
+    }
+
+    @Override
+    public String codeOf(String detailUrl) {
+        if (detailUrl == null) {
+            return null;
+        }
+        Matcher matcher = CSN_PATTERN.matcher(detailUrl);
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
+    @Override
+    public ExtractionSpec detailPage() {
+        return COMPANY_PAGE;
+    }
+
+    @Override
+    public CompanyData map(ExtractionSpec.Result fields) {
+        String company = fields.get("company", MISSING);
+        if (company.equals(MISSING)) {
+            return null;
+        }
+        return CompanyData.of(company,
+                fields.get("keyExecutive", MISSING),
+                fields.get("industry", MISSING),
+                fields.get("address", MISSING),
+                fields.get("homepage", MISSING),
+                MISSING, MISSING,
+                fields.get("sales", MISSING),
+                MISSING,
+                fields.get("logoUrl", MISSING));
+    }
+
+    private static String detailsLabel(String label) {
+        return "div.company_details_group dt.tit:matches(^" + label + "$)";
+    }
+
+    // dt 와 같은 company_details_group 안의 dd.desc (주소는 그 안의 p.ellipsis) 텍스트
+    private static String detailsDesc(Element dt, boolean address) {
+        Element group = dt.closest(DETAILS_GROUP);
+        Element desc = group == null ? null : group.selectFirst(DETAILS_DESC);
+        if (desc == null) {
+            return null;
+        }
+        if (!address) {
+            return desc.text();
+        }
+        Element text = desc.selectFirst(ADDRESS_TEXT);
+        return text == null ? null : text.text();
+    }
+}
@@ -0,0 +1,16 @@
+package ceo.peak.data.crawl;
+
+/**
+ * 시간 초과, 연결 실패, 429/5xx 응답처럼 잠시 뒤 다시 시도하면 성공할 수 있는 실패.
+ */
+public class TransientFetchException extends FetchException {
+
+    public TransientFetchException(String message, String url, int statusCode, Throwable cause) {
+        super(message, url, statusCode, cause);
+    }
+
+    @Override
+    public boolean isTransient() {
+        return true;
+    }
+}
@@ -0,0 +1,9 @@
+package ceo.peak.data.dto;
+
+import java.util.List;
+
+/**
+ * id 순 목록의 한 페이지. 다음 페이지는 nextCursor 를 after 로 넘겨 조회하며, 마지막 페이지이면 null.
+ */
+public record CompanyPageResponse(List<CompanyResponse> items, Long nextCursor) {
+}
@@ -0,0 +1,18 @@
+package ceo.peak.data.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * 회사 조회 API 응답. 엔티티 대신 필요한 컬럼만 조회해 만든다.
+ */
+public record CompanyResponse(Long id,
+                              String csn,
+                              String company,
+                              String keyExecutive,
+                              String industry,
+                              String address,
+                              String homepage,
+                              String sales,
+                              String logoUrl,
+                              LocalDateTime updatedAt) {
+}
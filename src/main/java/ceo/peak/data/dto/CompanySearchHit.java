@@ -0,0 +1,7 @@
+package ceo.peak.data.dto;
+
+/**
+ * 회사 검색 결과. score 는 0~1 이며 클수록 검색어와 가깝다.
+ */
+public record CompanySearchHit(Long id, String company, String industry, String address, double score) {
+}
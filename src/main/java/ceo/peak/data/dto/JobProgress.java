@@ -0,0 +1,50 @@
+package ceo.peak.data.dto;
+
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+
+import java.time.LocalDateTime;
+
+/**
+ * saraminJob 실행의 진행 상황. 건수는 상세 페이지를 처리하는 모든 파티션 Step 의 합계이고,
+ * partition/page 는 이 값을 만든 청크의 파티션과 읽고 있던 목록 페이지이다. (상태 조회에서는 null)
+ */
+public record JobProgress(Long executionId,
+                          String status,
+                          String partition,
+                          Integer page,
+                          long readCount,
+                          long writeCount,
+                          long skipCount,
+                          LocalDateTime startTime,
+                          LocalDateTime endTime) {
+
+    private static final String DETAIL_PARTITION_PREFIX = "saraminWorkerStep:";
+
+    public static JobProgress of(JobExecution jobExecution) {
+        return of(jobExecution, null, null);
+    }
+
+    public static JobProgress of(JobExecution jobExecution, StepExecution current, Integer page) {
+        long read = 0;
+        long write = 0;
+        long skip = 0;
+        for (StepExecution stepExecution : jobExecution.getStepExecutions()) {
+            // 파티션 Step 은 "saraminWorkerStep:partition0" 형태. manager Step 은 종료 시 합계를 갖게 되므로 제외하고,
+            // 목록 Step(saraminDiscoveryWorkerStep)은 같은 csn 을 한 번 더 세게 되므로 제외
+            if (!stepExecution.getStepName().startsWith(DETAIL_PARTITION_PREFIX)) {
+                continue;
+            }
+            read += stepExecution.getReadCount();
+            write += stepExecution.getWriteCount();
+            skip += stepExecution.getSkipCount();
+        }
+        return new JobProgress(jobExecution.getId(),
+                jobExecution.getStatus().name(),
+                current == null ? null : current.getStepName(),
+                page,
+                read, write, skip,
+                jobExecution.getStartTime(),
+                jobExecution.getEndTime());
+    }
+}
@@ -1,6 +1,7 @@
 package ceo.peak.data.entity;
 
 import ceo.peak.data.dto.Timestamped;
+import ceo.peak.data.util.ContentFingerprint;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -8,10 +9,20 @@ import lombok.NoArgsConstructor;
 @Getter
 @Entity
 @NoArgsConstructor
+@Table(name = "company_data", indexes = {
+        @Index(name = "ux_company_data_csn", columnList = "csn", unique = true),
+        // 조회 API 의 회사명/업종 조건 + id 순 keyset 페이지네이션용
+        @Index(name = "ix_company_data_company_id", columnList = "company, id"),
+        @Index(name = "ix_company_data_industry_id", columnList = "industry, id"),
+        // 검색 색인 갱신, 변경분 내보내기의 updated_at 워터마크 조회용
+        @Index(name = "ix_company_data_updated_at", columnList = "updated_at")
+})
 public class CompanyData extends Timestamped {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // IDENTITY 는 INSERT 마다 즉시 실행되어 JDBC 배치가 불가능하므로 시퀀스를 100 단위로 미리 할당
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "company_data_seq")
+    @SequenceGenerator(name = "company_data_seq", sequenceName = "company_data_seq", allocationSize = 100)
     private Long id;
 
     @Column(length = 100, nullable = false)
@@ -42,6 +53,25 @@ public class CompanyData extends Timestamped {
 
     private String logoUrl;
 
+    // 크롤링한 필드들의 지문. 값이 같으면 변경이 없는 것으로 보고 UPDATE 를 생략
+    @Column(length = 64)
+    private String contentHash;
+
+    // 사람인 회사 코드. 이 값이 생기기 전에 저장된 행은 null
+    @Column(length = 50)
+    private String csn;
+
+    // 아래 필드는 크롤링 결과를 writer 까지 전달하기 위한 값으로 저장하지 않음
+    @Transient
+    private String etag;
+
+    @Transient
+    private String lastModified;
+
+    // 기본 소스가 아닌 소스의 코드("이름:코드"). 이 값이 있으면 csn 은 비어 있음
+    @Transient
+    private String sourceCode;
+
     private CompanyData(String company, String keyExecutive, String industry, String address,
                         String homepage, String email, String phoneNumber, String sales,
                         String totalFunding, String logoUrl) {
@@ -55,6 +85,7 @@ public class CompanyData extends Timestamped {
         this.sales = sales;
         this.totalFunding = totalFunding;
         this.logoUrl = logoUrl;
+        this.contentHash = fingerprint(company, keyExecutive, industry, address, homepage, sales, logoUrl);
     }
 
     public static CompanyData of(String company, String keyExecutive, String industry, String address,
@@ -73,5 +104,30 @@ public class CompanyData extends Timestamped {
         this.homepage = homepage;
         this.sales = sales;
         this.logoUrl = logoUrl;
+        this.contentHash = fingerprint(company, keyExecutive, industry, address, homepage, sales, logoUrl);
+    }
+
+    public void assignCsn(String csn) {
+        this.csn = csn;
+    }
+
+    public void attachSource(String csn, String etag, String lastModified) {
+        this.csn = csn;
+        this.etag = etag;
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * 기본 소스(사람인)가 아닌 소스에서 가져온 항목. csn 은 사람인 회사 코드이므로 비워 둔다.
+     */
+    public void attachSecondarySource(String sourceCode, String etag, String lastModified) {
+        this.sourceCode = sourceCode;
+        this.etag = etag;
+        this.lastModified = lastModified;
+    }
+
+    private static String fingerprint(String company, String keyExecutive, String industry, String address,
+                                      String homepage, String sales, String logoUrl) {
+        return ContentFingerprint.of(company, keyExecutive, industry, address, homepage, sales, logoUrl);
     }
 }
@@ -0,0 +1,56 @@
+package ceo.peak.data.entity;
+
+import ceo.peak.data.dto.Timestamped;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 재시도까지 모두 실패해 건너뛴 상세 페이지 요청. retryFailedJob 이 이 csn 들만 다시 처리하고,
+ * 이후 실행에서 성공하면 행이 삭제된다.
+ */
+@Getter
+@Entity
+@NoArgsConstructor
+@Table(name = "crawl_dead_letter")
+public class CrawlDeadLetter extends Timestamped {
+
+    public enum Kind {
+        // 시간 초과, 429/5xx, 열린 회로 차단기. retryFailedJob 의 기본 대상
+        TRANSIENT,
+        // 404 등 실패 응답, 본문 해석 실패
+        PERMANENT
+    }
+
+    @Id
+    @Column(length = 50)
+    private String csn;
+
+    // 마지막으로 실패한 JobInstance id
+    private Long runId;
+
+    @Column(length = 500)
+    private String url;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20, nullable = false)
+    private Kind kind;
+
+    // HTTP 응답을 받지 못했으면 0
+    private int statusCode;
+
+    @Column(length = 1000)
+    private String error;
+
+    private int failures;
+
+    // 같은 실행에서 이후에 성공했는지 crawl_frontier.claimed_at 과 비교하는 데 사용
+    private LocalDateTime lastFailedAt;
+}
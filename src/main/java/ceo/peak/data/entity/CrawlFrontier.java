@@ -0,0 +1,52 @@
+package ceo.peak.data.entity;
+
+import ceo.peak.data.dto.Timestamped;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 목록 페이지에서 찾은 회사 코드(csn)와 상세 페이지 처리 상태. 목록 수집과 상세 수집을 나누는 작업 큐이다.
+ * runId 는 이 csn 을 마지막으로 찾은 saraminJob 의 JobInstance id 로, 같은 실행 안에서 중복으로 찾은 csn 은 다시 넣지 않는다.
+ */
+@Getter
+@Entity
+@NoArgsConstructor
+@Table(name = "crawl_frontier", indexes = {
+        // 상세 Step 이 처리할 행을 가져오는 조회용
+        @Index(name = "ix_crawl_frontier_run_status", columnList = "run_id, status")
+})
+public class CrawlFrontier extends Timestamped {
+
+    public enum Status {
+        PENDING, IN_PROGRESS, DONE, FAILED
+    }
+
+    @Id
+    @Column(length = 50)
+    private String csn;
+
+    @Column(nullable = false)
+    private Long runId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20, nullable = false)
+    private Status status;
+
+    // 상세 Step 이 가져간 횟수. 중단된 작업자가 놓고 간 행도 다시 가져가면 1 증가
+    private int attempts;
+
+    // 가져간 작업자(파티션 Step 이름)와 시각
+    @Column(length = 100)
+    private String claimedBy;
+
+    private LocalDateTime claimedAt;
+}
@@ -0,0 +1,36 @@
+package ceo.peak.data.entity;
+
+import ceo.peak.data.dto.Timestamped;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 회사 상세 페이지의 조건부 요청(If-None-Match / If-Modified-Since)에 사용할 마지막 응답의 검증자.
+ */
+@Getter
+@Entity
+@NoArgsConstructor
+public class PageValidator extends Timestamped {
+
+    @Id
+    @Column(length = 50)
+    private String csn;
+
+    private String etag;
+
+    @Column(length = 100)
+    private String lastModified;
+
+    private PageValidator(String csn, String etag, String lastModified) {
+        this.csn = csn;
+        this.etag = etag;
+        this.lastModified = lastModified;
+    }
+
+    public static PageValidator of(String csn, String etag, String lastModified) {
+        return new PageValidator(csn, etag, lastModified);
+    }
+}
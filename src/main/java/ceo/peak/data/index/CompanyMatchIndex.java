@@ -0,0 +1,199 @@
+package ceo.peak.data.index;
+
+import ceo.peak.data.util.AddressSimilarity;
+import ceo.peak.data.util.CompanyNames;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * company_data 의 (id, 정규화된 회사명, 주소 bigram) 을 메모리에 들고 있는 blocking 인덱스.
+ * Step 시작 시 한 번 적재되고, 이후에는 writer 가 갱신/저장한 행을 반영한다.
+ * 후보 id 만 돌려주며 최종 판단(주소 유사도)은 호출하는 쪽에서 한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CompanyMatchIndex implements StepExecutionListener {
+
+    // 이보다 많은 행에 등장하는 bigram("서울", "특별" 등)은 후보를 좁히는 데 도움이 되지 않으므로 건너뜀
+    private static final int MAX_POSTING_SIZE = 2_000;
+    private static final double MIN_GRAM_OVERLAP = 0.6;
+    private static final double NAME_SIMILARITY_THRESHOLD = 0.7;
+    private static final int MAX_FUZZY_CANDIDATES = 20;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final Map<String, Set<Long>> idsByName = new HashMap<>();
+    private final Map<String, Set<Long>> idsByAddressGram = new HashMap<>();
+
+    // oncePerJob 리스너로 마지막에 적재한 JobExecution
+    private Long loadedJobExecutionId;
+
+    private record Entry(String nameKey, String addressKey) {
+    }
+
+    @Override
+    public void beforeStep(StepExecution stepExecution) {
+        load();
+    }
+
+    /**
+     * 같은 Job 실행 안에서는 처음 시작한 Step 에서만 적재하는 리스너. 여러 소스의 상세 Step 이 동시에 실행될 때
+     * 늦게 시작한 Step 이 다시 적재하면서 다른 Step 이 반영해 둔 아직 커밋되지 않은 행을 지우지 않도록 한다.
+     */
+    public StepExecutionListener oncePerJob() {
+        return new StepExecutionListener() {
+            @Override
+            public void beforeStep(StepExecution stepExecution) {
+                synchronized (CompanyMatchIndex.this) {
+                    if (!Objects.equals(loadedJobExecutionId, stepExecution.getJobExecutionId())) {
+                        load();
+                        loadedJobExecutionId = stepExecution.getJobExecutionId();
+                    }
+                }
+            }
+        };
+    }
+
+    public void load() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            idsByName.clear();
+            idsByAddressGram.clear();
+            jdbcTemplate.query("SELECT id, company, address FROM company_data",
+                    rs -> {
+                        add(rs.getLong("id"), rs.getString("company"), rs.getString("address"));
+                    });
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Loaded company match index. Rows: {}, elapsed: {}ms", size(), System.currentTimeMillis() - start);
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 새로 저장되었거나 회사명/주소가 바뀐 행을 반영한다.
+     */
+    public void put(long id, String company, String address) {
+        lock.writeLock().lock();
+        try {
+            remove(id);
+            add(id, company, address);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 정규화된 회사명이 같은 행, 그리고 주소 bigram 이 충분히 겹치면서 회사명이 비슷한 행의 id 를 반환한다.
+     */
+    public Set<Long> candidates(String company, String address) {
+        String nameKey = CompanyNames.normalize(company);
+        String addressKey = address == null ? "" : CompanyNames.normalizeAddress(address);
+
+        lock.readLock().lock();
+        try {
+            Set<Long> result = new LinkedHashSet<>(idsByName.getOrDefault(nameKey, Set.of()));
+
+            Set<String> grams = bigrams(addressKey);
+            if (grams.isEmpty()) {
+                return result;
+            }
+            Map<Long, Integer> overlaps = new HashMap<>();
+            for (String gram : grams) {
+                Set<Long> posting = idsByAddressGram.get(gram);
+                if (posting == null || posting.size() > MAX_POSTING_SIZE) {
+                    continue;
+                }
+                for (Long id : posting) {
+                    overlaps.merge(id, 1, Integer::sum);
+                }
+            }
+
+            int minOverlap = (int) Math.ceil(grams.size() * MIN_GRAM_OVERLAP);
+            List<Map.Entry<Long, Integer>> fuzzy = new ArrayList<>();
+            for (Map.Entry<Long, Integer> overlap : overlaps.entrySet()) {
+                if (overlap.getValue() < minOverlap || result.contains(overlap.getKey())) {
+                    continue;
+                }
+                Entry entry = entries.get(overlap.getKey());
+                if (AddressSimilarity.isSimilar(entry.nameKey(), nameKey, NAME_SIMILARITY_THRESHOLD)) {
+                    fuzzy.add(overlap);
+                }
+            }
+            fuzzy.sort(Map.Entry.<Long, Integer>comparingByValue().reversed());
+            for (int i = 0; i < fuzzy.size() && i < MAX_FUZZY_CANDIDATES; i++) {
+                result.add(fuzzy.get(i).getKey());
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(long id, String company, String address) {
+        String nameKey = CompanyNames.normalize(company);
+        String addressKey = address == null ? "" : CompanyNames.normalizeAddress(address);
+        entries.put(id, new Entry(nameKey, addressKey));
+        idsByName.computeIfAbsent(nameKey, key -> new HashSet<>()).add(id);
+        for (String gram : bigrams(addressKey)) {
+            idsByAddressGram.computeIfAbsent(gram, key -> new HashSet<>()).add(id);
+        }
+    }
+
+    private void remove(long id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return;
+        }
+        removeFrom(idsByName, entry.nameKey(), id);
+        for (String gram : bigrams(entry.addressKey())) {
+            removeFrom(idsByAddressGram, gram, id);
+        }
+    }
+
+    private static void removeFrom(Map<String, Set<Long>> postings, String key, long id) {
+        Set<Long> ids = postings.get(key);
+        if (ids != null && ids.remove(id) && ids.isEmpty()) {
+            postings.remove(key);
+        }
+    }
+
+    private static Set<String> bigrams(String key) {
+        if (key.length() < 2) {
+            return Set.of();
+        }
+        Set<String> grams = new HashSet<>(key.length());
+        for (int i = 0; i + 2 <= key.length(); i++) {
+            grams.add(key.substring(i, i + 2));
+        }
+        return grams;
+    }
+}
@@ -0,0 +1,421 @@
+package ceo.peak.data.index;
+
+import ceo.peak.data.dto.CompanySearchHit;
+import ceo.peak.data.util.AddressSimilarity;
+import ceo.peak.data.util.CompanyNames;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * company/industry/address 의 문자 bigram 역색인. 회사명 일부나 오타가 섞인 검색어로도 찾을 수 있다.
+ * posting list 는 문서 번호 int[] 이며, 검색은 불변 스냅숏을 읽고 갱신은 새 스냅숏을 만들어 교체하므로
+ * 갱신 중에도 검색이 막히지 않는다. 회사명은 {@link CompanyNames#normalize}, 업종/주소는
+ * {@link CompanyNames#normalizeAddress} 키로 색인하며 검색어도 필드마다 같은 방식으로 정규화한다.
+ * 시작할 때 {@link CompanySearchIndexInitializer} 가 전체를 읽어 만들고, saraminJob 이 끝나면 updatedAt 워터마크 이후에 바뀐 행만 읽어 반영한다.
+ * 다른 JVM 에서 끝난 실행은 {@link CompanySearchIndexInitializer} 가 Job 실행 기록을 확인해 반영한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CompanySearchIndex implements JobExecutionListener {
+
+    private static final int COMPANY = 0;
+    private static final int INDUSTRY = 1;
+    private static final int ADDRESS = 2;
+    private static final int[] FIELD_WEIGHTS = {3, 1, 1};
+
+    // 회사명 검색어 bigram 수의 이 비율 이상의 서로 다른 검색어 bigram 이 어느 필드에든 나와야 후보 (오타 1~2 글자 허용)
+    private static final double MIN_GRAM_MATCH = 0.5;
+    // 최종 점수 = 회사명 유사도와 필드 가중 bigram 일치율의 가중합
+    private static final double NAME_SCORE_WEIGHT = 0.7;
+    private static final double GRAM_SCORE_WEIGHT = 0.3;
+    private static final int MAX_RERANK_CANDIDATES = 200;
+    // 삭제 표시된 문서가 이 비율을 넘으면 남은 문서로 색인을 새로 만듦
+    private static final double MAX_DELETED_RATIO = 0.25;
+    // 긴 트랜잭션이 워터마크보다 이른 updatedAt 으로 늦게 커밋되는 경우를 위해 조금 겹쳐서 읽음 (같은 행은 교체되므로 무해)
+    private static final Duration WATERMARK_OVERLAP = Duration.ofMinutes(5);
+
+    private static final String SELECT_ALL = "SELECT id, company, industry, address, updated_at FROM company_data";
+    private static final String SELECT_CHANGED = SELECT_ALL + " WHERE updated_at > ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    private LocalDateTime watermark;
+    // 행 id -> 현재 문서 번호. 검색은 쓰지 않고 rebuild/refresh(synchronized) 에서만 바꾸므로 스냅숏마다 복사하지 않음
+    private LongIntMap docById = new LongIntMap();
+
+    private record Doc(long id, String company, String industry, String address) {
+    }
+
+    /**
+     * 문서 번호는 추가된 순서. 바뀐 행은 기존 번호를 deleted 로 표시하고 뒤에 새 번호로 추가한다.
+     */
+    private record Snapshot(Doc[] docs, String[] nameKeys, List<Map<String, int[]>> postings, BitSet deleted) {
+
+        static final Snapshot EMPTY = new Snapshot(new Doc[0], new String[0],
+                List.of(Map.of(), Map.of(), Map.of()), new BitSet());
+
+        int liveCount() {
+            return docs.length - deleted.cardinality();
+        }
+    }
+
+    @Override
+    public synchronized void afterJob(JobExecution jobExecution) {
+        // 시작할 때 색인을 만들지 않은 JVM(batch 프로필)은 Job 이 끝나면 종료되므로 여기서도 만들지 않음
+        if (watermark != null) {
+            refresh();
+        }
+    }
+
+    /**
+     * company_data 전체로 색인을 새로 만든다.
+     */
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        List<Doc> docs = new ArrayList<>();
+        LocalDateTime[] maxUpdatedAt = new LocalDateTime[1];
+        jdbcTemplate.query(SELECT_ALL, rs -> {
+            docs.add(readDoc(rs.getLong("id"), rs.getString("company"), rs.getString("industry"), rs.getString("address")));
+            maxUpdatedAt[0] = max(maxUpdatedAt[0], rs.getTimestamp("updated_at"));
+        });
+        LongIntMap ids = new LongIntMap();
+        snapshot = append(Snapshot.EMPTY, docs, ids);
+        docById = ids;
+        watermark = maxUpdatedAt[0];
+        log.info("Built company search index. Docs: {}, grams: {}, elapsed: {}ms",
+                docs.size(), snapshot.postings().get(COMPANY).size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 워터마크 이후에 저장/갱신된 행만 읽어 반영한다.
+     */
+    public synchronized void refresh() {
+        if (watermark == null) {
+            rebuild();
+            return;
+        }
+        long start = System.currentTimeMillis();
+        Map<Long, Doc> changed = new HashMap<>();
+        LocalDateTime[] maxUpdatedAt = {watermark};
+        jdbcTemplate.query(SELECT_CHANGED, rs -> {
+            long id = rs.getLong("id");
+            changed.put(id, readDoc(id, rs.getString("company"), rs.getString("industry"), rs.getString("address")));
+            maxUpdatedAt[0] = max(maxUpdatedAt[0], rs.getTimestamp("updated_at"));
+        }, Timestamp.valueOf(watermark.minus(WATERMARK_OVERLAP)));
+        if (changed.isEmpty()) {
+            return;
+        }
+
+        Snapshot next = append(snapshot, changed.values(), docById);
+        if (next.deleted().cardinality() > next.docs().length * MAX_DELETED_RATIO) {
+            LongIntMap ids = new LongIntMap();
+            next = append(Snapshot.EMPTY, liveDocs(next), ids);
+            docById = ids;
+        }
+        snapshot = next;
+        watermark = maxUpdatedAt[0];
+        log.info("Refreshed company search index. Changed: {}, live docs: {}, elapsed: {}ms",
+                changed.size(), next.liveCount(), System.currentTimeMillis() - start);
+    }
+
+    public int size() {
+        return snapshot.liveCount();
+    }
+
+    /**
+     * 검색어 bigram 이 많이 겹치는 문서를 고른 뒤 회사명 유사도로 다시 정렬한다.
+     */
+    public List<CompanySearchHit> search(String query, int limit) {
+        Snapshot current = snapshot;
+        // "(주)피크" 로 찾아도 저장된 회사명 키("피크")와 비교하도록 회사명 필드는 회사명 규칙으로 정규화
+        String nameQuery = CompanyNames.normalize(query);
+        String textQuery = CompanyNames.normalizeAddress(query);
+        Set<String> nameGrams = bigrams(nameQuery);
+        Set<String> textGrams = bigrams(textQuery);
+        if ((nameGrams.isEmpty() && textGrams.isEmpty()) || current.docs().length == 0) {
+            return List.of();
+        }
+
+        // 문서별 필드 가중 일치 수와 서로 다른 검색어 bigram 일치 수. 문서 수가 아니라 겹친 posting 수에 비례하는 크기로 검색마다 만듦
+        ScoreAccumulator scores = new ScoreAccumulator(Math.min(current.docs().length,
+                postingCount(current, COMPANY, nameGrams) + postingCount(current, INDUSTRY, textGrams)
+                        + postingCount(current, ADDRESS, textGrams)));
+        // 두 정규화 결과에 모두 있는 bigram 은 한 번만 세도록 bigram 마다 번호를 붙여 모든 필드를 이어서 더함
+        Set<String> queryGrams = new LinkedHashSet<>(nameGrams);
+        queryGrams.addAll(textGrams);
+        int gramNo = 0;
+        for (String gram : queryGrams) {
+            for (int field = COMPANY; field <= ADDRESS; field++) {
+                if (!(field == COMPANY ? nameGrams : textGrams).contains(gram)) {
+                    continue;
+                }
+                int[] posting = current.postings().get(field).get(gram);
+                if (posting == null) {
+                    continue;
+                }
+                for (int doc : posting) {
+                    scores.add(doc, gramNo, FIELD_WEIGHTS[field], field == COMPANY);
+                }
+            }
+            gramNo++;
+        }
+
+        // 후보 기준은 가중치 없는 서로 다른 bigram 수. "(주)" 처럼 회사명 정규화에서 빠지는 글자는 기준 길이에 넣지 않음
+        int minMatchedGrams = (int) Math.ceil((nameGrams.isEmpty() ? textGrams.size() : nameGrams.size()) * MIN_GRAM_MATCH);
+        int maxScore = nameGrams.size() * FIELD_WEIGHTS[COMPANY]
+                + textGrams.size() * (FIELD_WEIGHTS[INDUSTRY] + FIELD_WEIGHTS[ADDRESS]);
+        List<int[]> candidates = new ArrayList<>(); // {doc, score, companyMatches}
+        for (int slot = 0; slot < scores.docs.length; slot++) {
+            int doc = scores.docs[slot];
+            if (doc >= 0 && scores.matchedGrams[slot] >= minMatchedGrams && !current.deleted().get(doc)) {
+                candidates.add(new int[]{doc, scores.scores[slot], scores.companyMatches[slot]});
+            }
+        }
+        candidates.sort((a, b) -> Integer.compare(b[1], a[1]));
+
+        // 후보는 회사명 편집 거리 유사도로 다시 정렬 (회사명에 검색어가 그대로 들어 있으면 최고점)
+        List<CompanySearchHit> hits = new ArrayList<>();
+        for (int i = 0; i < candidates.size() && i < MAX_RERANK_CANDIDATES; i++) {
+            int doc = candidates.get(i)[0];
+            String nameKey = current.nameKeys()[doc];
+            double nameScore;
+            if (candidates.get(i)[2] == 0 || nameQuery.isEmpty()) {
+                nameScore = 0;
+            } else if (nameKey.contains(nameQuery)) {
+                nameScore = 1.0;
+            } else {
+                nameScore = Math.max(0, AddressSimilarity.similarity(nameQuery, nameKey));
+            }
+            double score = NAME_SCORE_WEIGHT * nameScore + GRAM_SCORE_WEIGHT * candidates.get(i)[1] / maxScore;
+            Doc d = current.docs()[doc];
+            hits.add(new CompanySearchHit(d.id(), d.company(), d.industry(), d.address(), score));
+        }
+        hits.sort((a, b) -> Double.compare(b.score(), a.score()));
+        return hits.size() > limit ? List.copyOf(hits.subList(0, limit)) : hits;
+    }
+
+    private static int postingCount(Snapshot snapshot, int field, Set<String> grams) {
+        int count = 0;
+        for (String gram : grams) {
+            int[] posting = snapshot.postings().get(field).get(gram);
+            count += posting == null ? 0 : posting.length;
+        }
+        return count;
+    }
+
+    private static Doc readDoc(long id, String company, String industry, String address) {
+        return new Doc(id, company == null ? "" : company, industry == null ? "" : industry, address == null ? "" : address);
+    }
+
+    /**
+     * 기존 스냅숏은 그대로 두고, 바뀐 문서를 반영한 새 스냅숏을 만든다.
+     * 새 문서 번호는 항상 기존 번호보다 크므로 posting list 뒤에 이어 붙여도 정렬이 유지된다.
+     * docById 는 새 번호로 바로 갱신한다.
+     */
+    private static Snapshot append(Snapshot base, Collection<Doc> changed, LongIntMap docById) {
+        int baseCount = base.docs().length;
+        Doc[] docs = Arrays.copyOf(base.docs(), baseCount + changed.size());
+        String[] nameKeys = Arrays.copyOf(base.nameKeys(), docs.length);
+        BitSet deleted = (BitSet) base.deleted().clone();
+
+        List<Map<String, IntList>> added = List.of(new HashMap<>(), new HashMap<>(), new HashMap<>());
+        int doc = baseCount;
+        for (Doc d : changed) {
+            int previous = docById.put(d.id(), doc);
+            if (previous >= 0) {
+                deleted.set(previous);
+            }
+            docs[doc] = d;
+            nameKeys[doc] = CompanyNames.normalize(d.company());
+            addGrams(added.get(COMPANY), nameKeys[doc], doc);
+            addGrams(added.get(INDUSTRY), CompanyNames.normalizeAddress(d.industry()), doc);
+            addGrams(added.get(ADDRESS), CompanyNames.normalizeAddress(d.address()), doc);
+            doc++;
+        }
+
+        List<Map<String, int[]>> postings = new ArrayList<>(3);
+        for (int field = COMPANY; field <= ADDRESS; field++) {
+            Map<String, int[]> merged = new HashMap<>(base.postings().get(field));
+            for (Map.Entry<String, IntList> entry : added.get(field).entrySet()) {
+                int[] existing = merged.getOrDefault(entry.getKey(), IntList.EMPTY);
+                merged.put(entry.getKey(), entry.getValue().appendTo(existing));
+            }
+            postings.add(merged);
+        }
+        return new Snapshot(docs, nameKeys, postings, deleted);
+    }
+
+    private static List<Doc> liveDocs(Snapshot snapshot) {
+        List<Doc> docs = new ArrayList<>(snapshot.liveCount());
+        for (int doc = 0; doc < snapshot.docs().length; doc++) {
+            if (!snapshot.deleted().get(doc)) {
+                docs.add(snapshot.docs()[doc]);
+            }
+        }
+        return docs;
+    }
+
+    private static void addGrams(Map<String, IntList> postings, String key, int doc) {
+        for (String gram : bigrams(key)) {
+            postings.computeIfAbsent(gram, g -> new IntList()).add(doc);
+        }
+    }
+
+    private static Set<String> bigrams(String key) {
+        if (key.length() < 2) {
+            return Set.of();
+        }
+        Set<String> grams = new LinkedHashSet<>(key.length());
+        for (int i = 0; i + 2 <= key.length(); i++) {
+            grams.add(key.substring(i, i + 2));
+        }
+        return grams;
+    }
+
+    private static LocalDateTime max(LocalDateTime current, Timestamp candidate) {
+        if (candidate == null) {
+            return current;
+        }
+        LocalDateTime value = candidate.toLocalDateTime();
+        return current == null || value.isAfter(current) ? value : current;
+    }
+
+    // 색인 생성 중에만 쓰는 int 가변 배열 (boxing 없이 posting 을 모으기 위함)
+    private static final class IntList {
+
+        static final int[] EMPTY = new int[0];
+
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] appendTo(int[] existing) {
+            int[] merged = Arrays.copyOf(existing, existing.length + size);
+            System.arraycopy(values, 0, merged, existing.length, size);
+            return merged;
+        }
+    }
+
+    // 검색 한 번의 문서별 점수. 문서 번호 -> (점수, 서로 다른 bigram 일치 수, 회사명 일치 수) 의 open addressing 표 (빈 칸은 -1)
+    private static final class ScoreAccumulator {
+
+        private final int[] docs;
+        private final int[] scores;
+        private final int[] matchedGrams;
+        private final int[] lastGrams;
+        private final int[] companyMatches;
+        private final int mask;
+
+        ScoreAccumulator(int expectedDocs) {
+            int capacity = Integer.highestOneBit(Math.max(4, expectedDocs * 2 - 1)) << 1;
+            docs = new int[capacity];
+            Arrays.fill(docs, -1);
+            scores = new int[capacity];
+            matchedGrams = new int[capacity];
+            lastGrams = new int[capacity];
+            companyMatches = new int[capacity];
+            mask = capacity - 1;
+        }
+
+        // 서로 다른 문서 수는 생성할 때 넘긴 값을 넘지 않으므로 표가 가득 차지 않음.
+        // 같은 bigram 은 번호 순서대로 이어서 더하므로 직전 번호만 보면 한 번만 셀 수 있음
+        void add(int doc, int gramNo, int weight, boolean company) {
+            int slot = mix(doc) & mask;
+            while (docs[slot] >= 0 && docs[slot] != doc) {
+                slot = (slot + 1) & mask;
+            }
+            if (docs[slot] < 0 || lastGrams[slot] != gramNo) {
+                matchedGrams[slot]++;
+                lastGrams[slot] = gramNo;
+            }
+            docs[slot] = doc;
+            scores[slot] += weight;
+            if (company) {
+                companyMatches[slot]++;
+            }
+        }
+
+        private static int mix(int value) {
+            int h = value * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+
+    // 행 id -> 문서 번호 (boxing 없는 open addressing 표, 없으면 -1)
+    private static final class LongIntMap {
+
+        private long[] keys = new long[16];
+        private int[] values = new int[16];
+        private boolean[] used = new boolean[16];
+        private int size;
+
+        int put(long key, int value) {
+            if ((size + 1) * 2 > keys.length) {
+                resize();
+            }
+            int slot = slot(keys, used, key);
+            if (used[slot]) {
+                int previous = values[slot];
+                values[slot] = value;
+                return previous;
+            }
+            used[slot] = true;
+            keys[slot] = key;
+            values[slot] = value;
+            size++;
+            return -1;
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            boolean[] oldUsed = used;
+            keys = new long[oldKeys.length * 2];
+            values = new int[oldKeys.length * 2];
+            used = new boolean[oldKeys.length * 2];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldUsed[i]) {
+                    int slot = slot(keys, used, oldKeys[i]);
+                    used[slot] = true;
+                    keys[slot] = oldKeys[i];
+                    values[slot] = oldValues[i];
+                }
+            }
+        }
+
+        private static int slot(long[] keys, boolean[] used, long key) {
+            int mask = keys.length - 1;
+            long h = key * 0x9E3779B97F4A7C15L;
+            int slot = (int) (h ^ (h >>> 32)) & mask;
+            while (used[slot] && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+    }
+}
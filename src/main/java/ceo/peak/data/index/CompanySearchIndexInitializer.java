@@ -0,0 +1,94 @@
+package ceo.peak.data.index;
+
+import ceo.peak.data.scheduler.SaraminBatchRunner;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobInstance;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 애플리케이션이 시작되면 검색 색인을 만든다. 검색 API 가 없는 원격 파티션 작업자 JVM 과
+ * saraminJob 을 한 번 실행하고 끝나는 batch 프로필 JVM 에서는 만들지 않는다.
+ * 다른 JVM(batch 프로필)에서 끝난 실행은 이 JVM 의 Job 리스너가 보지 못하므로, Job 실행 기록을 주기적으로 확인해
+ * 새로 끝난 실행이 있으면 색인에 반영한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnExpression("!'${saramin.partition.mode:local}'.equalsIgnoreCase('worker')")
+@Profile("!" + SaraminBatchRunner.PROFILE)
+public class CompanySearchIndexInitializer {
+
+    // 행을 삭제하는 Job. 삭제는 워터마크로 알 수 없으므로 전체를 다시 만들고, 나머지는 워터마크 이후의 행만 읽음
+    private static final String DEDUP_JOB = "companyDedupJob";
+    private static final List<String> JOB_NAMES = List.of("saraminJob", "retryFailedJob", DEDUP_JOB);
+
+    private final CompanySearchIndex companySearchIndex;
+    private final JobExplorer jobExplorer;
+
+    // Job 이름 -> 마지막으로 반영한 실행 id
+    private final Map<String, Long> seenExecutionIds = new HashMap<>();
+    private boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void onApplicationReady() {
+        // 이미 끝난 실행은 전체 색인에 들어 있으므로 기준으로만 기록
+        for (String jobName : JOB_NAMES) {
+            JobExecution latest = latestFinished(jobName);
+            if (latest != null) {
+                seenExecutionIds.put(jobName, latest.getId());
+            }
+        }
+        companySearchIndex.rebuild();
+        ready = true;
+    }
+
+    @Scheduled(fixedDelayString = "${saramin.search-index.poll-interval:1m}")
+    public synchronized void refreshAfterFinishedJobs() {
+        if (!ready) {
+            return;
+        }
+        boolean refresh = false;
+        boolean rebuild = false;
+        for (String jobName : JOB_NAMES) {
+            JobExecution latest = latestFinished(jobName);
+            if (latest == null || latest.getId().equals(seenExecutionIds.get(jobName))) {
+                continue;
+            }
+            seenExecutionIds.put(jobName, latest.getId());
+            log.info("Found finished {} execution {}. Updating company search index", jobName, latest.getId());
+            if (DEDUP_JOB.equals(jobName)) {
+                rebuild = true;
+            } else {
+                refresh = true;
+            }
+        }
+        // 이 JVM 에서 실행한 Job 이면 리스너가 이미 반영했으므로 refresh 는 바뀐 행이 없어 바로 끝남
+        if (rebuild) {
+            companySearchIndex.rebuild();
+        } else if (refresh) {
+            companySearchIndex.refresh();
+        }
+    }
+
+    // 가장 최근 JobInstance 의 마지막 실행이 끝났으면 그 실행, 아니면 null (재시작된 실행도 같은 인스턴스의 새 실행)
+    private JobExecution latestFinished(String jobName) {
+        List<JobInstance> instances = jobExplorer.getJobInstances(jobName, 0, 1);
+        if (instances.isEmpty()) {
+            return null;
+        }
+        JobExecution last = jobExplorer.getLastJobExecution(instances.get(0));
+        return last != null && last.getEndTime() != null ? last : null;
+    }
+}
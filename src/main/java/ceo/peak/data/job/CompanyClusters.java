@@ -0,0 +1,108 @@
+package ceo.peak.data.job;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 중복 쌍을 union-find 로 묶는다. 중복으로 나온 행만 담으므로 메모리는 전체 행 수가 아닌 중복 행 수에 비례한다.
+ * 한 묶음에는 csn 이 있는 행이 최대 하나만 들어가도록, csn 이 다른 두 묶음을 잇는 쌍은 합치지 않고 버린다.
+ */
+class CompanyClusters {
+
+    private final Map<Long, Long> parent = new HashMap<>();
+    private final Map<Long, Integer> sizes = new HashMap<>();
+    // 묶음 대표(root)별 csn 과 그 csn 을 가진 행
+    private final Map<Long, String> csnByRoot = new HashMap<>();
+    private final Map<Long, Long> csnRowByRoot = new HashMap<>();
+    private long rejected;
+
+    /**
+     * @return 두 행이 이번 호출로 같은 묶음이 되었으면 true
+     */
+    boolean union(long a, String aCsn, long b, String bCsn) {
+        long rootA = find(a, aCsn);
+        long rootB = find(b, bCsn);
+        if (rootA == rootB) {
+            return false;
+        }
+        String csnA = csnByRoot.get(rootA);
+        String csnB = csnByRoot.get(rootB);
+        if (csnA != null && csnB != null) {
+            rejected++;
+            return false;
+        }
+        if (sizes.get(rootA) < sizes.get(rootB)) {
+            long swap = rootA;
+            rootA = rootB;
+            rootB = swap;
+        }
+        parent.put(rootB, rootA);
+        sizes.put(rootA, sizes.get(rootA) + sizes.remove(rootB));
+        if (csnA == null && csnB != null) {
+            csnByRoot.put(rootA, csnByRoot.remove(rootB));
+            csnRowByRoot.put(rootA, csnRowByRoot.remove(rootB));
+        }
+        return true;
+    }
+
+    /**
+     * 묶음마다 남길 행(csn 이 있는 행, 없으면 가장 먼저 저장된 작은 id)과 합쳐서 지울 행들.
+     */
+    Map<Long, List<Long>> survivors() {
+        Map<Long, List<Long>> members = new LinkedHashMap<>();
+        for (Long id : parent.keySet()) {
+            members.computeIfAbsent(find(id), key -> new ArrayList<>()).add(id);
+        }
+        Map<Long, List<Long>> result = new LinkedHashMap<>();
+        members.forEach((root, ids) -> {
+            if (ids.size() < 2) {
+                return; // 합치지 못하고 버린 쌍의 행
+            }
+            Long survivor = csnRowByRoot.get(root);
+            if (survivor == null) {
+                survivor = ids.stream().min(Long::compare).orElseThrow();
+            }
+            List<Long> losers = new ArrayList<>(ids);
+            losers.remove(survivor);
+            result.put(survivor, losers);
+        });
+        return result;
+    }
+
+    int size() {
+        return parent.size();
+    }
+
+    long getRejected() {
+        return rejected;
+    }
+
+    private long find(long id, String csn) {
+        if (!parent.containsKey(id)) {
+            parent.put(id, id);
+            sizes.put(id, 1);
+            if (csn != null) {
+                csnByRoot.put(id, csn);
+                csnRowByRoot.put(id, id);
+            }
+            return id;
+        }
+        return find(id);
+    }
+
+    // 경로 절반 압축
+    private long find(long id) {
+        long current = id;
+        long next = parent.get(current);
+        while (next != current) {
+            long grandParent = parent.get(next);
+            parent.put(current, grandParent);
+            current = next;
+            next = grandParent;
+        }
+        return current;
+    }
+}
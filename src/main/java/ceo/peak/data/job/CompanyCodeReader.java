@@ -0,0 +1,183 @@
+package ceo.peak.data.job;
+
+import ceo.peak.data.crawl.CompanySource;
+import ceo.peak.data.crawl.CompanySources;
+import ceo.peak.data.crawl.FetchedPage;
+import ceo.peak.data.crawl.PageFetcher;
+import lombok.extern.slf4j.Slf4j;
+import org.jsoup.HttpStatusException;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamReader;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * 소스(기본은 사람인 연봉 목록)의 목록 페이지 [startPage, endPage] 구간을 순회하며 회사 코드(csn)를 읽는다.
+ * 기본 소스가 아닌 코드는 {@link CompanySources#qualify} 로 소스 이름을 붙여 돌려준다.
+ * 파티션마다 별도 인스턴스가 생성되며, 진행 위치는 각 파티션의 ExecutionContext 에 저장된다.
+ * replay 이면 네트워크 대신 응답 아카이브에서 목록 페이지를 읽는다.
+ * 증분 모드에서는 목록이 등록일순(order=reg_dt)이므로 이미 저장된 csn 이 knownRunLimit 개 연속으로 나오면 읽기를 멈춘다.
+ * 이미 저장되었는지는 목록 페이지를 받을 때마다 그 페이지의 csn 만 조회해 확인한다.
+ * 읽는 중인 목록 페이지의 csn 도 함께 저장하므로, 재시작하면 그 페이지를 다시 요청하지 않고 커밋된 다음 항목부터 이어 읽는다.
+ */
+@Slf4j
+public class CompanyCodeReader implements ItemStreamReader<String> {
+
+    public static final String CURRENT_PAGE_KEY = "currentPage";
+    private static final String NEXT_INDEX_KEY = "nextIndex";
+    private static final String KNOWN_RUN_KEY = "knownRun";
+    private static final String COMPANY_CODES_KEY = "companyCodes";
+
+    private final CompanySource source;
+    private final PageFetcher pageFetcher;
+    private final CrawlMetrics crawlMetrics;
+    private final boolean replay;
+    private final int startPage;
+    private final int maxPage;
+    private final Function<List<String>, Set<String>> knownCsnLookup;
+    private final int knownRunLimit;
+
+    private int currentPage;
+    private List<String> companyCodes;
+    // companyCodes 중 이미 저장된 csn. 페이지가 바뀌면 다시 조회
+    private Set<String> knownOnPage;
+    private int nextIndex = 0;
+    private int knownRun = 0;
+    // 목록이 저장되지 않은 이전 버전의 ExecutionContext 로 재시작한 경우, 같은 페이지를 다시 받아 이 위치부터 읽음
+    private int resumeIndex = 0;
+
+    public CompanyCodeReader(CompanySource source, PageFetcher pageFetcher, CrawlMetrics crawlMetrics, boolean replay,
+            int startPage, int maxPage) {
+        this(source, pageFetcher, crawlMetrics, replay, startPage, maxPage, null, 0);
+    }
+
+    /**
+     * @param knownCsnLookup 목록 페이지의 csn 중 이미 저장된 것을 돌려준다. null 이면 전체 구간을 읽는다.
+     * @param knownRunLimit 이 개수만큼 연속으로 이미 저장된 csn 이 나오면 읽기를 멈춘다.
+     */
+    public CompanyCodeReader(CompanySource source, PageFetcher pageFetcher, CrawlMetrics crawlMetrics, boolean replay,
+            int startPage, int maxPage, Function<List<String>, Set<String>> knownCsnLookup,
+            int knownRunLimit) {
+        this.source = source;
+        this.pageFetcher = pageFetcher;
+        this.crawlMetrics = crawlMetrics;
+        this.replay = replay;
+        this.startPage = startPage;
+        this.maxPage = maxPage;
+        this.currentPage = startPage;
+        this.knownCsnLookup = knownCsnLookup;
+        this.knownRunLimit = knownRunLimit;
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) throws ItemStreamException {
+        if (executionContext.containsKey(CURRENT_PAGE_KEY) && executionContext.containsKey(NEXT_INDEX_KEY)) {
+            currentPage = executionContext.getInt(CURRENT_PAGE_KEY);
+            nextIndex = executionContext.getInt(NEXT_INDEX_KEY);
+            knownRun = executionContext.getInt(KNOWN_RUN_KEY, 0);
+            // currentPage 는 다음에 요청할 페이지이고 nextIndex 는 이미 받은 이전 페이지 안의 위치
+            companyCodes = restoreCompanyCodes(executionContext);
+            knownOnPage = null;
+            log.info("Resuming company code reader at page: {}, index: {}, saved codes: {}", currentPage - 1, nextIndex,
+                    companyCodes == null ? 0 : companyCodes.size());
+            if (companyCodes == null && nextIndex > 0) {
+                currentPage--;
+                resumeIndex = nextIndex;
+            }
+        } else {
+            currentPage = startPage;
+            companyCodes = null;
+            knownOnPage = null;
+            nextIndex = 0;
+            knownRun = 0;
+            resumeIndex = 0;
+        }
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) throws ItemStreamException {
+        executionContext.putInt(CURRENT_PAGE_KEY, currentPage);
+        executionContext.putInt(NEXT_INDEX_KEY, nextIndex);
+        executionContext.putInt(KNOWN_RUN_KEY, knownRun);
+        if (companyCodes != null) {
+            executionContext.put(COMPANY_CODES_KEY, new ArrayList<>(companyCodes));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> restoreCompanyCodes(ExecutionContext executionContext) {
+        Object saved = executionContext.get(COMPANY_CODES_KEY);
+        return saved instanceof List<?> codes ? new ArrayList<>((List<String>) codes) : null;
+    }
+
+    @Override
+    public String read() throws Exception {
+        if (isIncremental() && knownRun >= knownRunLimit) {
+            log.info("Reached {} already known company codes in a row. Stopping at page: {}", knownRun, currentPage - 1);
+            return null;
+        }
+        if (companyCodes == null || nextIndex >= companyCodes.size()) {
+            if (currentPage > maxPage) {
+                log.info("No more company codes to read. Current page: {}, Max page: {}", currentPage, maxPage);
+                return null; // 더 이상 읽을 데이터가 없음
+            }
+            log.info("Fetching company codes from page: {}", currentPage);
+            companyCodes = performSaraminCompanyCodeCrawling(currentPage);
+            knownOnPage = null;
+            if (companyCodes.isEmpty()) {
+                log.warn("No company codes found on page: {}", currentPage);
+                return null;
+            }
+            nextIndex = Math.min(resumeIndex, companyCodes.size());
+            resumeIndex = 0;
+            currentPage++;
+            if (nextIndex >= companyCodes.size()) {
+                return read();
+            }
+        }
+
+        String csn = companyCodes.get(nextIndex++);
+        if (isIncremental()) {
+            // 이미 저장된 회사도 조건부 요청으로 변경 여부만 확인하도록 그대로 넘김
+            if (knownOnPage == null) {
+                knownOnPage = knownCsnLookup.apply(companyCodes);
+            }
+            knownRun = knownOnPage.contains(csn) ? knownRun + 1 : 0;
+        }
+        return csn;
+    }
+
+    private boolean isIncremental() {
+        return knownCsnLookup != null && knownRunLimit > 0;
+    }
+
+    private List<String> performSaraminCompanyCodeCrawling(int page) throws IOException {
+        List<String> companyCodes = new ArrayList<>();
+        try {
+            String url = source.listingUrl(page);
+            FetchedPage fetched = crawlMetrics.timeFetch(CrawlMetrics.LISTING, () -> pageFetcher.fetch(url, Map.of(), replay));
+            if (!fetched.isSuccessful()) {
+                throw new HttpStatusException("HTTP error fetching URL", fetched.statusCode(), url);
+            }
+            long parseStart = System.nanoTime();
+            Document doc = Jsoup.parse(fetched.body(), url);
+            for (String code : source.extractCodes(doc)) {
+                companyCodes.add(CompanySources.qualify(source, code));
+            }
+            crawlMetrics.record(CrawlMetrics.PARSE, parseStart, "page", CrawlMetrics.LISTING);
+            log.info("Found {} company codes on {} page {}", companyCodes.size(), source.name(), page);
+        } catch (IOException e) {
+            log.error("Error while crawling company codes from " + source.name() + " page " + page, e);
+            throw e; // IOException 발생 시 예외를 던져 Spring Batch가 재시도 또는 스킵하도록 처리
+        }
+        return companyCodes;
+    }
+}
@@ -0,0 +1,208 @@
+package ceo.peak.data.job;
+
+import ceo.peak.data.entity.CompanyData;
+import ceo.peak.data.entity.PageValidator;
+import ceo.peak.data.index.CompanyMatchIndex;
+import ceo.peak.data.repository.PageValidatorRepositoryCustom;
+import ceo.peak.data.service.CompanyQueryService;
+import ceo.peak.data.util.AddressSimilarity;
+import ceo.peak.data.util.CompanyNames;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * 모든 소스의 상세 Step 이 함께 쓰는 writer. 기본 소스(사람인) 항목은 writeMode 에 따른 delegate 로 저장하고,
+ * 다른 소스의 항목은 회사명/주소가 일치하는 기존 행의 비어 있는 이메일/전화번호/투자 유치 금액만 채운다.
+ * 사람인이 관리하는 필드는 덮어쓰지 않으므로 소스가 늘어나도 사람인 항목의 내용 지문이 흔들리지 않는다.
+ * 일치하는 행이 없으면 csn 없이 새로 저장하며, 나중에 사람인에서 같은 회사를 찾으면 upsert writer 가 그 행에 csn 을 붙여 이어 쓴다.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class CompanyDataMergeWriter implements ItemWriter<CompanyData> {
+
+    private static final String CANDIDATE_SQL = "SELECT id, address FROM company_data WHERE id = ANY(?::bigint[])";
+
+    // 기존 값이 비어 있고("-" 포함) 채울 값이 있는 컬럼만 바꾸며, 바뀌는 컬럼이 없는 행은 갱신하지 않음.
+    // 시각은 upsert writer 와 같이 JVM 시각을 파라미터로 받음
+    private static final String FILL_SQL =
+            "UPDATE company_data c SET " +
+                    "email = CASE WHEN " + missing("c.email") + " THEN COALESCE(NULLIF(t.email, '-'), c.email) ELSE c.email END, " +
+                    "phone_number = CASE WHEN " + missing("c.phone_number") + " THEN COALESCE(NULLIF(t.phone_number, '-'), c.phone_number) ELSE c.phone_number END, " +
+                    "total_funding = CASE WHEN " + missing("c.total_funding") + " THEN COALESCE(NULLIF(t.total_funding, '-'), c.total_funding) ELSE c.total_funding END, " +
+                    "updated_at = ?::timestamp " +
+                    "FROM unnest(?::bigint[], ?::varchar[], ?::varchar[], ?::varchar[]) AS t(id, email, phone_number, total_funding) " +
+                    "WHERE c.id = t.id AND (" +
+                    "(" + missing("c.email") + " AND NULLIF(t.email, '-') IS NOT NULL) OR " +
+                    "(" + missing("c.phone_number") + " AND NULLIF(t.phone_number, '-') IS NOT NULL) OR " +
+                    "(" + missing("c.total_funding") + " AND NULLIF(t.total_funding, '-') IS NOT NULL)) " +
+                    "RETURNING c.id";
+
+    private static final String INSERT_SQL = SaraminCompanyDataUpsertWriter.INSERT_INTO +
+            "SELECT nextval('company_data_seq'), NULL, t.*, ?::timestamp, ?::timestamp " +
+            "FROM unnest(?::varchar[], ?::text[], ?::varchar[], ?::text[], ?::varchar[], " +
+            "?::varchar[], ?::varchar[], ?::text[], ?::varchar[], ?::varchar[], ?::varchar[]) " +
+            "AS t(company, key_executive, industry, address, homepage, email, " +
+            "phone_number, sales, total_funding, logo_url, content_hash) " +
+            "RETURNING id, company, industry, address";
+
+    private final ItemWriter<CompanyData> primaryWriter;
+    private final JdbcTemplate jdbcTemplate;
+    private final CompanyMatchIndex companyMatchIndex;
+    private final PageValidatorRepositoryCustom pageValidatorRepository;
+    private final CrawlMetrics crawlMetrics;
+    private final CompanyQueryService companyQueryService;
+
+    @Override
+    public void write(Chunk<? extends CompanyData> items) throws Exception {
+        // 한 상세 Step 은 한 소스의 코드만 가져가므로 대부분의 청크는 어느 한쪽만 있음
+        List<CompanyData> primary = new ArrayList<>();
+        Map<String, CompanyData> secondary = new LinkedHashMap<>();
+        for (CompanyData item : items) {
+            if (item.getSourceCode() == null) {
+                primary.add(item);
+            } else {
+                secondary.put(item.getSourceCode(), item);
+            }
+        }
+        if (!primary.isEmpty()) {
+            primaryWriter.write(secondary.isEmpty() ? items : new Chunk<>(primary));
+        }
+        if (!secondary.isEmpty()) {
+            merge(new ArrayList<>(secondary.values()));
+        }
+    }
+
+    private void merge(List<CompanyData> items) {
+        long matchStart = System.nanoTime();
+        List<Set<Long>> candidateIds = new ArrayList<>(items.size());
+        Set<Long> allCandidateIds = new LinkedHashSet<>();
+        for (CompanyData item : items) {
+            Set<Long> ids = companyMatchIndex.candidates(item.getCompany(), item.getAddress());
+            candidateIds.add(ids);
+            allCandidateIds.addAll(ids);
+        }
+        Map<Long, String> candidateAddresses = new HashMap<>();
+        if (!allCandidateIds.isEmpty()) {
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(CANDIDATE_SQL);
+                ps.setArray(1, con.createArrayOf("bigint", allCandidateIds.toArray()));
+                return ps;
+            }, rs -> {
+                candidateAddresses.put(rs.getLong("id"), rs.getString("address"));
+            });
+        }
+
+        // 같은 행에 여러 항목이 일치하면 먼저 온 항목의 값으로 채움
+        Map<Long, CompanyData> fills = new LinkedHashMap<>();
+        List<CompanyData> newItems = new ArrayList<>();
+        List<PageValidator> validators = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            CompanyData item = items.get(i);
+            if (item.getEtag() != null || item.getLastModified() != null) {
+                validators.add(PageValidator.of(item.getSourceCode(), item.getEtag(), item.getLastModified()));
+            }
+            Long matched = null;
+            for (Long id : candidateIds.get(i)) {
+                if (isSameAddress(candidateAddresses.get(id), item.getAddress())) {
+                    matched = id;
+                    break;
+                }
+            }
+            if (matched != null) {
+                fills.putIfAbsent(matched, item);
+            } else if (!isPending(newItems, item)) {
+                newItems.add(item);
+            }
+        }
+        crawlMetrics.record(CrawlMetrics.MATCH, matchStart, "writer", "merge");
+
+        long writeStart = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        List<CompanyQueryService.CompanyChange> changes = new ArrayList<>();
+        if (!fills.isEmpty()) {
+            List<Long> ids = new ArrayList<>(fills.keySet());
+            List<CompanyData> values = new ArrayList<>(fills.values());
+            // 채우는 컬럼은 목록 조건(회사명/업종)이 아니므로 그 행이 들어 있는 목록만 무효화
+            changes.addAll(jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(FILL_SQL);
+                ps.setObject(1, now);
+                ps.setArray(2, con.createArrayOf("bigint", ids.toArray()));
+                ps.setArray(3, SaraminCompanyDataUpsertWriter.column(con, "varchar", values, CompanyData::getEmail));
+                ps.setArray(4, SaraminCompanyDataUpsertWriter.column(con, "varchar", values, CompanyData::getPhoneNumber));
+                ps.setArray(5, SaraminCompanyDataUpsertWriter.column(con, "varchar", values, CompanyData::getTotalFunding));
+                return ps;
+            }, (rs, rowNum) -> CompanyQueryService.CompanyChange.inPlace(rs.getLong(1))));
+        }
+        int filled = changes.size();
+        if (!newItems.isEmpty()) {
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(INSERT_SQL);
+                ps.setObject(1, now);
+                ps.setObject(2, now);
+                ps.setArray(3, SaraminCompanyDataUpsertWriter.column(con, "varchar", newItems, CompanyData::getCompany));
+                ps.setArray(4, SaraminCompanyDataUpsertWriter.column(con, "text", newItems, CompanyData::getKeyExecutive));
+                ps.setArray(5, SaraminCompanyDataUpsertWriter.column(con, "varchar", newItems, CompanyData::getIndustry));
+                ps.setArray(6, SaraminCompanyDataUpsertWriter.column(con, "text", newItems, CompanyData::getAddress));
+                ps.setArray(7, SaraminCompanyDataUpsertWriter.column(con, "varchar", newItems, CompanyData::getHomepage));
+                ps.setArray(8, SaraminCompanyDataUpsertWriter.column(con, "varchar", newItems, CompanyData::getEmail));
+                ps.setArray(9, SaraminCompanyDataUpsertWriter.column(con, "varchar", newItems, CompanyData::getPhoneNumber));
+                ps.setArray(10, SaraminCompanyDataUpsertWriter.column(con, "text", newItems, CompanyData::getSales));
+                ps.setArray(11, SaraminCompanyDataUpsertWriter.column(con, "varchar", newItems, CompanyData::getTotalFunding));
+                ps.setArray(12, SaraminCompanyDataUpsertWriter.column(con, "varchar", newItems, CompanyData::getLogoUrl));
+                ps.setArray(13, SaraminCompanyDataUpsertWriter.column(con, "varchar", newItems, CompanyData::getContentHash));
+                return ps;
+            }, rs -> {
+                // 청크가 롤백되더라도 인덱스에 남은 id 는 조회되지 않으므로 후보에서 자연히 빠짐
+                companyMatchIndex.put(rs.getLong("id"), rs.getString("company"), rs.getString("address"));
+                changes.add(CompanyQueryService.CompanyChange.of(rs.getLong("id"), rs.getString("company"),
+                        rs.getString("industry")));
+            });
+        }
+        pageValidatorRepository.upsertAll(validators);
+        crawlMetrics.record(CrawlMetrics.WRITE, writeStart, "writer", "merge");
+        companyQueryService.evict(changes); // 조회 캐시는 커밋 후 무효화
+
+        int unchangedCount = fills.size() - filled + (items.size() - fills.size() - newItems.size());
+        CrawlCounters.increment(CrawlCounters.UNCHANGED, unchangedCount);
+        CrawlCounters.increment(CrawlCounters.FILLED, filled);
+        CrawlCounters.increment(CrawlCounters.INSERTED, newItems.size());
+        log.info("Merged company data chunk from other sources. Unchanged: {}, Filled: {}, Inserted: {}",
+                unchangedCount, filled, newItems.size());
+    }
+
+    // 같은 청크에서 먼저 새로 저장될 항목과 같은 회사인지
+    private static boolean isPending(List<CompanyData> pending, CompanyData item) {
+        String nameKey = CompanyNames.normalize(item.getCompany());
+        for (CompanyData candidate : pending) {
+            if (Objects.equals(CompanyNames.normalize(candidate.getCompany()), nameKey)
+                    && isSameAddress(candidate.getAddress(), item.getAddress())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // 주소가 없는 항목은 회사명만으로 합치지 않음
+    private static boolean isSameAddress(String address, String other) {
+        return address != null && other != null
+                && AddressSimilarity.isSimilar(address, other, AddressSimilarity.SAME_COMPANY_THRESHOLD);
+    }
+
+    private static String missing(String column) {
+        return "(" + column + " IS NULL OR " + column + " = '-')";
+    }
+}
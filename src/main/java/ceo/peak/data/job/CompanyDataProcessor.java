@@ -0,0 +1,123 @@
+package ceo.peak.data.job;
+
+import ceo.peak.data.crawl.CompanySource;
+import ceo.peak.data.crawl.CompanySources;
+import ceo.peak.data.crawl.ExtractionSpec;
+import ceo.peak.data.crawl.FetchException;
+import ceo.peak.data.crawl.FetchedPage;
+import ceo.peak.data.crawl.PageFetcher;
+import ceo.peak.data.crawl.PermanentFetchException;
+import ceo.peak.data.entity.CompanyData;
+import lombok.extern.slf4j.Slf4j;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.springframework.batch.item.ItemProcessor;
+import org.springframework.retry.support.RetryTemplate;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 회사 코드(csn)로 소스의 기업 정보 페이지를 가져와 {@link CompanyData} 로 변환한다.
+ * 코드의 접두어로 소스를 찾으므로({@link CompanySources#resolve}) 여러 소스의 코드가 섞여 있어도 처리할 수 있다.
+ * 일시적인 요청 실패는 fetchRetry 로 다시 요청하고, 그래도 실패하거나 영구적인 실패이면 {@link FetchException} 을 던져
+ * Step 이 건너뛰고 dead-letter 로 기록하게 한다.
+ */
+@Slf4j
+public class CompanyDataProcessor implements ItemProcessor<String, CompanyData> {
+
+    private final CompanySources companySources;
+    private final PageFetcher pageFetcher;
+    private final PageValidatorPrefetch pageValidatorPrefetch;
+    private final CrawlMetrics crawlMetrics;
+    private final RetryTemplate fetchRetry;
+    private final boolean replay;
+
+    public CompanyDataProcessor(CompanySources companySources, PageFetcher pageFetcher,
+            PageValidatorPrefetch pageValidatorPrefetch,
+            CrawlMetrics crawlMetrics, RetryTemplate fetchRetry, boolean replay) {
+        this.companySources = companySources;
+        this.pageFetcher = pageFetcher;
+        this.crawlMetrics = crawlMetrics;
+        this.pageValidatorPrefetch = pageValidatorPrefetch;
+        this.fetchRetry = fetchRetry;
+        this.replay = replay;
+    }
+
+    @Override
+    public CompanyData process(String companyCode) throws FetchException {
+        // 크롤링할 URL
+        CompanySources.Code code = companySources.resolve(companyCode);
+        CompanySource source = code.source();
+        String url = source.detailUrl(code.code());
+        String etag;
+        String lastModified;
+        ExtractionSpec.Result fields;
+
+        // 이전 응답의 ETag/Last-Modified 가 있으면 조건부 요청 (replay 에서는 아카이브의 응답을 그대로 사용)
+        // 검증자는 reader 가 가져간 배치 단위로 미리 조회해 둠 (PageValidatorPrefetch)
+        // 조회 실패는 요청 실패가 아니므로 FetchException 으로 바꾸지 않고 Step 의 재시도 설정을 따름
+        Map<String, String> requestHeaders = new HashMap<>();
+        if (!replay) {
+            pageValidatorPrefetch.take(companyCode).ifPresent(validator -> {
+                if (validator.getEtag() != null) {
+                    requestHeaders.put("If-None-Match", validator.getEtag());
+                }
+                if (validator.getLastModified() != null) {
+                    requestHeaders.put("If-Modified-Since", validator.getLastModified());
+                }
+            });
+        }
+
+        try {
+            // HTML 문서 가져오기. 일시적인 실패(TransientFetchException)만 백오프 후 다시 요청
+            FetchedPage page = fetchRetry.execute(context -> fetch(url, requestHeaders));
+            if (page.isNotModified()) {
+                log.debug("Company page not modified: {}", companyCode);
+                CrawlCounters.increment(CrawlCounters.NOT_MODIFIED, 1);
+                return null; // 변경이 없으면 쓰기 생략
+            }
+            etag = page.header(FetchedPage.ETAG);
+            lastModified = page.header(FetchedPage.LAST_MODIFIED);
+
+            long parseStart = System.nanoTime();
+            Document doc = Jsoup.parse(page.body(), url);
+            fields = source.detailPage().extract(doc);
+            crawlMetrics.record(CrawlMetrics.PARSE, parseStart, "page", CrawlMetrics.DETAIL);
+        } catch (Exception e) {
+            FetchException failure = FetchException.of(url, e);
+            log.warn("Failed to process company code: {} ({}). {}", companyCode,
+                    failure.isTransient() ? "transient" : "permanent", failure.getMessage());
+            throw failure;
+        }
+
+        CompanyData companyData = source.map(fields);
+        if (companyData == null) {
+            // 회사가 없어졌거나 페이지 구조가 바뀐 경우. 빈 행을 저장하지 않고 dead-letter 로 남김
+            throw new PermanentFetchException("Company name not found. csn: " + companyCode, url, 200, null);
+        }
+        log.info("Processed company: {}", companyData.getCompany());
+
+        if (source.isPrimary()) {
+            companyData.attachSource(code.code(), etag, lastModified);
+        } else {
+            companyData.attachSecondarySource(companyCode, etag, lastModified);
+        }
+        return companyData;
+    }
+
+    private FetchedPage fetch(String url, Map<String, String> requestHeaders) throws IOException {
+        FetchedPage page;
+        try {
+            page = crawlMetrics.timeFetch(CrawlMetrics.DETAIL, () -> pageFetcher.fetch(url, requestHeaders, replay));
+        } catch (IOException e) {
+            // 시간 초과, 연결 실패도 fetchRetry 가 다시 요청하도록 재시도 안에서 분류
+            throw FetchException.of(url, e);
+        }
+        if (!page.isSuccessful() && !page.isNotModified()) {
+            throw FetchException.forStatus(url, page.statusCode());
+        }
+        return page;
+    }
+}
@@ -0,0 +1,242 @@
+package ceo.peak.data.job;
+
+import ceo.peak.data.index.CompanySearchIndex;
+import ceo.peak.data.repository.CompanyDataRepository;
+import ceo.peak.data.service.CompanyQueryService;
+import ceo.peak.data.util.CompanyNames;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * company_data 전체에서 회사명/주소가 비슷한 중복 행을 찾아 합친다 (companyDedupJob).
+ * <ul>
+ *     <li>blocking 키로 정렬한 결과를 서버 측 커서로 읽으며, 각 행을 정렬 순서상 앞 window - 1 개 행과만 비교한다 (sorted-neighborhood).
+ *     정렬 키를 바꿔 두 번 읽어 한 키에서 떨어져 있던 중복도 찾는다.</li>
+ *     <li>읽은 행은 BLOCK_SIZE 개씩 ForkJoinPool 에서 비교하고, 진행 중인 블록 수를 제한해 메모리에 올라오는 행 수를 일정하게 유지한다.</li>
+ *     <li>찾은 쌍은 union-find 로 묶은 뒤 묶음마다 한 행만 남기고, 나머지의 빈 필드를 채운 뒤 삭제한다.
+ *     MERGE_BATCH_SIZE 묶음씩 별도 트랜잭션으로 커밋한다.</li>
+ * </ul>
+ * dryRun 이면 묶음 수만 기록하고 합치지 않는다.
+ */
+@Slf4j
+public class CompanyDedupTasklet implements Tasklet {
+
+    public static final String ROWS_KEY = "dedup.rows";
+    public static final String PAIRS_KEY = "dedup.pairs";
+    public static final String CLUSTERS_KEY = "dedup.clusters";
+    public static final String MERGED_KEY = "dedup.merged";
+    public static final String REJECTED_KEY = "dedup.rejected";
+
+    private static final int FETCH_SIZE = 1000;
+    private static final int BLOCK_SIZE = 10_000;
+    private static final int MERGE_BATCH_SIZE = 500;
+
+    // CompanyNames.normalize 와 같은 정규화. 정렬에만 쓰이므로 다소 달라도 비교 결과에는 영향이 없음
+    private static final String NAME_KEY =
+            "lower(regexp_replace(regexp_replace(company, '\\([^)]*\\)\\s*|주식회사\\s*', '', 'g'), '\\s+', '', 'g'))";
+    // 시/도 앞 두 글자(서울특별시/서울 -> 서울) + 시/군/구
+    private static final String REGION_KEY = "left(split_part(address, ' ', 1), 2), split_part(address, ' ', 2)";
+    private static final String SELECT =
+            "SELECT id, csn, company, address FROM company_data WHERE address IS NOT NULL AND address <> '-' ";
+
+    enum Pass {
+        // 회사명 접두어가 같은 행끼리 이웃
+        NAME(SELECT + "ORDER BY " + NAME_KEY + ", address, id"),
+        // 같은 지역 안에서 회사명 순. 회사명 앞부분이 달라 NAME 에서 멀리 떨어진 중복용
+        REGION(SELECT + "ORDER BY " + REGION_KEY + ", " + NAME_KEY + ", id");
+
+        private final String sql;
+
+        Pass(String sql) {
+            this.sql = sql;
+        }
+    }
+
+    private final CompanyDataRepository companyDataRepository;
+    private final CompanyQueryService companyQueryService;
+    private final CompanySearchIndex companySearchIndex;
+    private final JdbcTemplate cursorJdbcTemplate;
+    private final TransactionTemplate mergeTransaction;
+    private final int window;
+    private final int parallelism;
+    private final boolean dryRun;
+
+    public CompanyDedupTasklet(CompanyDataRepository companyDataRepository,
+                               CompanyQueryService companyQueryService,
+                               CompanySearchIndex companySearchIndex,
+                               DataSource dataSource,
+                               PlatformTransactionManager transactionManager,
+                               int window, int parallelism, boolean dryRun) {
+        this.companyDataRepository = companyDataRepository;
+        this.companyQueryService = companyQueryService;
+        this.companySearchIndex = companySearchIndex;
+        // PostgreSQL 드라이버는 트랜잭션 안에서 fetchSize 가 있을 때만 서버 측 커서로 나눠 읽음 (tasklet 트랜잭션 사용)
+        this.cursorJdbcTemplate = new JdbcTemplate(dataSource);
+        this.cursorJdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.mergeTransaction = new TransactionTemplate(transactionManager);
+        // 읽기용 tasklet 트랜잭션과 별개로 묶음 배치마다 커밋
+        this.mergeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.window = window;
+        this.parallelism = parallelism;
+        this.dryRun = dryRun;
+    }
+
+    @Override
+    public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) {
+        long startTime = System.currentTimeMillis();
+        CompanyClusters clusters = new CompanyClusters();
+        long rows = 0;
+        long pairs = 0;
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            for (Pass pass : Pass.values()) {
+                PassScanner scanner = new PassScanner(pool, clusters);
+                cursorJdbcTemplate.query(pass.sql, scanner);
+                scanner.finish();
+                log.info("Dedup pass {} done. Rows: {}, pairs: {}, clustered rows: {}, elapsed: {}ms",
+                        pass, scanner.rows, scanner.pairs, clusters.size(), System.currentTimeMillis() - startTime);
+                rows = Math.max(rows, scanner.rows);
+                pairs += scanner.pairs;
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        Map<Long, List<Long>> survivors = clusters.survivors();
+        long merged = dryRun ? 0 : merge(survivors);
+
+        ExecutionContext executionContext = contribution.getStepExecution().getExecutionContext();
+        executionContext.putLong(ROWS_KEY, rows);
+        executionContext.putLong(PAIRS_KEY, pairs);
+        executionContext.putLong(CLUSTERS_KEY, survivors.size());
+        executionContext.putLong(MERGED_KEY, merged);
+        executionContext.putLong(REJECTED_KEY, clusters.getRejected());
+        log.info("Dedup finished. Rows: {}, pairs: {}, clusters: {}, merged rows: {}, rejected csn conflicts: {}, " +
+                        "dry run: {}, elapsed: {}ms",
+                rows, pairs, survivors.size(), merged, clusters.getRejected(), dryRun,
+                System.currentTimeMillis() - startTime);
+        return RepeatStatus.FINISHED;
+    }
+
+    private long merge(Map<Long, List<Long>> survivors) {
+        long merged = 0;
+        List<Long> survivorIds = new ArrayList<>();
+        List<Long> loserIds = new ArrayList<>();
+        int clustersInBatch = 0;
+        for (Map.Entry<Long, List<Long>> cluster : survivors.entrySet()) {
+            for (Long loser : cluster.getValue()) {
+                survivorIds.add(cluster.getKey());
+                loserIds.add(loser);
+            }
+            if (++clustersInBatch >= MERGE_BATCH_SIZE) {
+                merged += mergeBatch(survivorIds, loserIds);
+                survivorIds.clear();
+                loserIds.clear();
+                clustersInBatch = 0;
+            }
+        }
+        merged += mergeBatch(survivorIds, loserIds);
+
+        if (merged > 0) {
+            // 삭제된 행은 워터마크 갱신으로 반영되지 않으므로 검색 색인을 다시 만듦
+            companySearchIndex.rebuild();
+        }
+        return merged;
+    }
+
+    private int mergeBatch(List<Long> survivorIds, List<Long> loserIds) {
+        if (survivorIds.isEmpty()) {
+            return 0;
+        }
+        Integer deleted = mergeTransaction.execute(status ->
+                companyDataRepository.mergeDuplicates(survivorIds, loserIds));
+        List<Long> changedIds = new ArrayList<>(survivorIds);
+        changedIds.addAll(loserIds);
+        // 행이 삭제되므로 목록 캐시는 모두 무효화
+        companyQueryService.evictAllPages(changedIds);
+        return deleted == null ? 0 : deleted;
+    }
+
+    /**
+     * 정렬된 커서의 행을 블록으로 모아 비교 작업을 제출한다. 다음 블록은 이전 블록의 마지막 window - 1 개 행으로 시작해
+     * 블록 경계의 이웃도 비교한다. 진행 중인 블록이 parallelism 의 두 배를 넘으면 가장 오래된 블록의 결과를 기다린다.
+     */
+    private class PassScanner implements RowCallbackHandler {
+
+        private final ForkJoinPool pool;
+        private final CompanyClusters clusters;
+        private final Deque<ForkJoinTask<List<SortedNeighborhoodTask.Match>>> inFlight = new ArrayDeque<>();
+        private List<SortedNeighborhoodTask.Row> block = new ArrayList<>(BLOCK_SIZE + window);
+        // block 앞부분 중 이전 블록에서 이미 비교한 행 수
+        private int carried;
+        private long rows;
+        private long pairs;
+
+        PassScanner(ForkJoinPool pool, CompanyClusters clusters) {
+            this.pool = pool;
+            this.clusters = clusters;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            String company = rs.getString("company");
+            block.add(new SortedNeighborhoodTask.Row(rs.getLong("id"), rs.getString("csn"),
+                    company == null ? "" : CompanyNames.normalize(company),
+                    CompanyNames.normalizeAddress(rs.getString("address"))));
+            rows++;
+            if (block.size() - carried >= BLOCK_SIZE) {
+                submit();
+            }
+        }
+
+        void finish() {
+            if (block.size() > carried) {
+                submit();
+            }
+            while (!inFlight.isEmpty()) {
+                collect(inFlight.poll());
+            }
+        }
+
+        private void submit() {
+            inFlight.add(pool.submit(new SortedNeighborhoodTask(block, carried, block.size(), window)));
+            int overlap = Math.min(window - 1, block.size());
+            List<SortedNeighborhoodTask.Row> next = new ArrayList<>(BLOCK_SIZE + window);
+            next.addAll(block.subList(block.size() - overlap, block.size()));
+            block = next;
+            carried = overlap;
+            while (inFlight.size() > parallelism * 2) {
+                collect(inFlight.poll());
+            }
+        }
+
+        // union-find 는 커서를 읽는 이 스레드에서만 갱신
+        private void collect(ForkJoinTask<List<SortedNeighborhoodTask.Match>> task) {
+            for (SortedNeighborhoodTask.Match match : task.join()) {
+                pairs++;
+                clusters.union(match.left().id(), match.left().csn(), match.right().id(), match.right().csn());
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package ceo.peak.data.job;
+
+import ceo.peak.data.service.CompanyExportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.repeat.RepeatStatus;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Objects;
+
+/**
+ * saraminJob 마지막 Step. company_data 를 gzip NDJSON/CSV 파일로 내보낸다.
+ * 임시 파일에 다 쓴 뒤 이름을 바꾸므로 다른 팀이 쓰는 중인 파일을 읽는 일은 없다.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class CompanyExportTasklet implements Tasklet {
+
+    public static final String FILE_KEY = "export.file";
+    public static final String ROWS_KEY = "export.rows";
+
+    private final CompanyExportService companyExportService;
+    private final JobExplorer jobExplorer;
+    private final Path dir;
+    private final CompanyExportService.Format format;
+    // true 이면 이번 Job 에서 바뀐 행만 (재시작한 경우 첫 실행 시작 시각 이후)
+    private final boolean deltaOnly;
+
+    @Override
+    public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) throws Exception {
+        JobExecution jobExecution = chunkContext.getStepContext().getStepExecution().getJobExecution();
+        LocalDateTime updatedAfter = deltaOnly ? firstStartTime(jobExecution) : null;
+
+        Files.createDirectories(dir);
+        Path target = dir.resolve(format.fileName("companies-" + jobExecution.getJobInstance().getInstanceId()));
+        Path temp = Files.createTempFile(dir, "companies-", ".tmp");
+        long rows;
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                rows = companyExportService.export(format, updatedAfter, out);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+
+        ExecutionContext executionContext = contribution.getStepExecution().getExecutionContext();
+        executionContext.putString(FILE_KEY, target.toAbsolutePath().toString());
+        executionContext.putLong(ROWS_KEY, rows);
+        log.info("Exported {} companies to {}. updatedAfter: {}", rows, target, updatedAfter);
+        return RepeatStatus.FINISHED;
+    }
+
+    private LocalDateTime firstStartTime(JobExecution jobExecution) {
+        return jobExplorer.getJobExecutions(jobExecution.getJobInstance()).stream()
+                .map(JobExecution::getStartTime)
+                .filter(Objects::nonNull)
+                .min(Comparator.naturalOrder())
+                .orElse(jobExecution.getStartTime());
+    }
+}
@@ -0,0 +1,65 @@
+package ceo.peak.data.job;
+
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.util.List;
+
+/**
+ * 현재 Step 의 ExecutionContext 에 회사 데이터 처리 결과 건수를 누적한다.
+ * 청크가 롤백되어 재시도되면 그만큼 중복 집계될 수 있으므로 정확한 값이 아닌 운영 지표로 사용한다.
+ */
+public final class CrawlCounters {
+
+    public static final String UNCHANGED = "companies.unchanged";
+    public static final String UPDATED = "companies.updated";
+    public static final String INSERTED = "companies.inserted";
+    public static final String NOT_MODIFIED = "companies.notModified";
+    // 목록 Step 에서 crawl_frontier 에 이번 실행의 처리 대상으로 추가한 csn 수
+    public static final String DISCOVERED = "companies.discovered";
+    // 다른 소스의 항목으로 기존 행의 빈 필드를 채운 수
+    public static final String FILLED = "companies.filled";
+    // 재시도까지 실패해 crawl_dead_letter 에 기록한 csn 수
+    public static final String DEAD_LETTERS = "companies.deadLettered";
+
+    // 실행별 요약용 페이지 수와 단계별 누적 소요 시간(ns). 값은 CrawlMetrics 가 타이머와 함께 기록
+    public static final String LISTING_PAGES = "pages.listing";
+    public static final String DETAIL_PAGES = "pages.detail";
+    public static final String FETCH_NANOS = "time.fetch";
+    public static final String PARSE_NANOS = "time.parse";
+    public static final String MATCH_NANOS = "time.match";
+    public static final String WRITE_NANOS = "time.write";
+    public static final String CHUNK_NANOS = "time.chunk";
+    public static final String RETRIES = "faults.retries";
+
+    public static final List<String> KEYS = List.of(UNCHANGED, UPDATED, INSERTED, NOT_MODIFIED, DISCOVERED, FILLED, DEAD_LETTERS,
+            LISTING_PAGES, DETAIL_PAGES, FETCH_NANOS, PARSE_NANOS, MATCH_NANOS, WRITE_NANOS, CHUNK_NANOS, RETRIES);
+
+    private CrawlCounters() {
+    }
+
+    public static void increment(String key, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        StepContext context = StepSynchronizationManager.getContext();
+        if (context == null) {
+            return;
+        }
+        ExecutionContext executionContext = context.getStepExecution().getExecutionContext();
+        // 비동기 처리 스레드에서도 호출되므로 같은 Step 의 ExecutionContext 단위로 동기화
+        synchronized (executionContext) {
+            executionContext.putLong(key, executionContext.getLong(key, 0L) + delta);
+        }
+    }
+
+    public static void add(ExecutionContext target, ExecutionContext source) {
+        for (String key : KEYS) {
+            long value = source.getLong(key, 0L);
+            if (value != 0) {
+                target.putLong(key, target.getLong(key, 0L) + value);
+            }
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package ceo.peak.data.job;
+
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.partition.support.DefaultStepExecutionAggregator;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.util.Collection;
+
+/**
+ * 기본 건수 집계에 더해 각 파티션의 {@link CrawlCounters} 값을 manager Step 의 ExecutionContext 에 합산한다.
+ */
+public class CrawlCountersAggregator extends DefaultStepExecutionAggregator {
+
+    @Override
+    public void aggregate(StepExecution result, Collection<StepExecution> executions) {
+        super.aggregate(result, executions);
+
+        ExecutionContext target = result.getExecutionContext();
+        for (String key : CrawlCounters.KEYS) {
+            target.remove(key);
+        }
+        for (StepExecution execution : executions) {
+            CrawlCounters.add(target, execution.getExecutionContext());
+        }
+    }
+}
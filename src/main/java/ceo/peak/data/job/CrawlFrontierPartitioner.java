@@ -0,0 +1,36 @@
+package ceo.peak.data.job;
+
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 상세 Step 의 파티션. 나눌 구간 없이 작업자 수만큼 빈 파티션을 만들고, 각 파티션은 crawl_frontier 에서 source 의 코드만 가져간다.
+ * 파티션 수는 Step 설정이 아닌 Job 파라미터나 소스 설정으로 정해지므로 partition() 의 gridSize 인자는 사용하지 않는다.
+ */
+public class CrawlFrontierPartitioner implements Partitioner {
+
+    private final String source;
+    private final int gridSize;
+
+    public CrawlFrontierPartitioner(String source, int gridSize) {
+        if (gridSize < 1) {
+            throw new IllegalArgumentException("gridSize must be positive: " + gridSize);
+        }
+        this.source = source;
+        this.gridSize = gridSize;
+    }
+
+    @Override
+    public Map<String, ExecutionContext> partition(int ignored) {
+        Map<String, ExecutionContext> result = new LinkedHashMap<>();
+        for (int i = 0; i < gridSize; i++) {
+            ExecutionContext context = new ExecutionContext();
+            context.putString(SaraminPagePartitioner.SOURCE_KEY, source);
+            result.put("partition" + i, context);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,106 @@
+package ceo.peak.data.job;
+
+import ceo.peak.data.repository.CrawlFrontierRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * crawl_frontier 에서 이번 실행(runId)의 대기 중인 csn 을 batchSize 개씩 가져와 읽는다. codePattern 이 있으면 그 소스의 코드만 가져간다.
+ * 가져간 행은 별도 트랜잭션으로 바로 처리 중 표시를 커밋하므로 다른 파티션이나 JVM 은 그 행을 건너뛴다.
+ * 청크가 커밋되면 그 청크에서 읽은 csn 을 완료(건너뛰어 dead-letter 로 기록된 csn 은 실패)로 표시하고, 끝내지 못한 행은
+ * lease 가 지나거나 같은 파티션이 재시작할 때 다시 대기 상태가 된다. 가져갈 수 있는 횟수를 다 쓴 행은
+ * 재시작할 때와 대기 중인 행이 더 없을 때 실패로 표시하고 dead-letter 에 기록한다.
+ * 가져간 배치의 검증자는 {@link PageValidatorPrefetch} 로 한 번에 조회해 processor 에 넘긴다.
+ * Step 에 자동으로 ChunkListener 로도 등록된다.
+ */
+@Slf4j
+public class CrawlFrontierReader implements ItemStreamReader<String>, ChunkListener {
+
+    static final int MAX_ATTEMPTS = 3;
+    // 상세 페이지 한 청크를 처리하는 데 걸리는 시간보다 충분히 길게
+    static final Duration LEASE = Duration.ofMinutes(30);
+
+    private final CrawlFrontierRepository crawlFrontierRepository;
+    private final PageValidatorPrefetch pageValidatorPrefetch;
+    private final TransactionTemplate claimTransaction;
+    private final long runId;
+    private final String codePattern;
+    private final String worker;
+    private final int batchSize;
+
+    private final Deque<String> claimed = new ArrayDeque<>();
+    // 읽었지만 아직 청크가 커밋되지 않은 csn
+    private final List<String> inFlight = new ArrayList<>();
+    private boolean exhausted;
+
+    public CrawlFrontierReader(CrawlFrontierRepository crawlFrontierRepository,
+                               PageValidatorPrefetch pageValidatorPrefetch,
+                               PlatformTransactionManager transactionManager,
+                               long runId, String codePattern, String worker, int batchSize) {
+        this.crawlFrontierRepository = crawlFrontierRepository;
+        this.pageValidatorPrefetch = pageValidatorPrefetch;
+        this.claimTransaction = new TransactionTemplate(transactionManager);
+        // 청크 트랜잭션이 롤백되어도 가져간 기록(attempts)은 남도록 별도 트랜잭션
+        this.claimTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.runId = runId;
+        this.codePattern = codePattern;
+        this.worker = worker;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) throws ItemStreamException {
+        // 재시작이면 이 파티션이 이전 실행에서 가져간 채 끝내지 못한 행부터 다시 처리
+        claimTransaction.executeWithoutResult(status -> {
+            crawlFrontierRepository.release(runId, worker, MAX_ATTEMPTS);
+            crawlFrontierRepository.failExhausted(runId, worker, MAX_ATTEMPTS, LEASE);
+        });
+        claimed.clear();
+        inFlight.clear();
+        exhausted = false;
+    }
+
+    @Override
+    public String read() {
+        if (claimed.isEmpty() && !exhausted) {
+            List<String> batch = claimTransaction.execute(status ->
+                    crawlFrontierRepository.claim(runId, codePattern, worker, batchSize, MAX_ATTEMPTS, LEASE));
+            if (batch == null || batch.isEmpty()) {
+                log.info("Crawl frontier drained. Worker: {}", worker);
+                exhausted = true;
+                // 다른 작업자가 끝내지 못하고 횟수를 다 쓴 행은 claim 이 다시 가져가지 않으므로 여기서 정리
+                claimTransaction.executeWithoutResult(status ->
+                        crawlFrontierRepository.failExhausted(runId, null, MAX_ATTEMPTS, LEASE));
+            } else {
+                claimed.addAll(batch);
+                // processor 가 항목마다 조회하지 않도록 가져간 배치의 검증자를 한 번에 조회
+                pageValidatorPrefetch.load(batch);
+            }
+        }
+        String csn = claimed.poll();
+        if (csn != null) {
+            inFlight.add(csn);
+        }
+        return csn;
+    }
+
+    @Override
+    public void afterChunk(ChunkContext context) {
+        // 저장했거나 변경이 없어 걸러진 csn 은 DONE, 건너뛰어 dead-letter 로 기록된 csn 은 FAILED. 이번 실행에서는 다시 가져가지 않음
+        crawlFrontierRepository.markFinished(inFlight);
+        inFlight.clear();
+    }
+}
@@ -0,0 +1,29 @@
+package ceo.peak.data.job;
+
+import ceo.peak.data.repository.CrawlFrontierRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * 목록 Step 의 writer. 찾은 csn 을 crawl_frontier 에 이번 실행의 처리 대상으로 넣는다.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class CrawlFrontierWriter implements ItemWriter<String> {
+
+    private final CrawlFrontierRepository crawlFrontierRepository;
+    private final long runId;
+
+    @Override
+    public void write(Chunk<? extends String> items) {
+        Set<String> csns = new LinkedHashSet<>(items.getItems());
+        int added = crawlFrontierRepository.discover(runId, csns);
+        CrawlCounters.increment(CrawlCounters.DISCOVERED, added);
+        log.info("Added {} of {} company codes to the crawl frontier", added, items.size());
+    }
+}
@@ -0,0 +1,116 @@
+package ceo.peak.data.job;
+
+import ceo.peak.data.crawl.FetchedPage;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 크롤링 단계별 소요 시간과 건수를 Micrometer 타이머/카운터로 기록한다. (/actuator/prometheus 로 노출)
+ * 모든 지표에는 현재 스레드에 등록된 Step 의 step/partition 태그가 붙고,
+ * 같은 값이 {@link CrawlCounters} 로 Step ExecutionContext 에도 누적되어 Job 종료 시 실행별 요약이 된다.
+ * 주소 유사도 비교처럼 호출이 잦은 코드는 직접 측정하지 않고, 호출하는 쪽의 단계(MATCH 등) 시간에 포함해 기록한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class CrawlMetrics {
+
+    public static final String FETCH = "saramin.fetch";
+    public static final String PARSE = "saramin.parse";
+    public static final String MATCH = "saramin.match";
+    public static final String WRITE = "saramin.write";
+    public static final String CHUNK = "saramin.chunk";
+    public static final String PAGES = "saramin.pages";
+    public static final String SKIPS = "saramin.skips";
+    public static final String RETRIES = "saramin.retries";
+
+    public static final String LISTING = "listing";
+    public static final String DETAIL = "detail";
+
+    private static final Map<String, String> SUMMARY_KEYS = Map.of(
+            FETCH, CrawlCounters.FETCH_NANOS,
+            PARSE, CrawlCounters.PARSE_NANOS,
+            MATCH, CrawlCounters.MATCH_NANOS,
+            WRITE, CrawlCounters.WRITE_NANOS,
+            CHUNK, CrawlCounters.CHUNK_NANOS);
+
+    private final MeterRegistry meterRegistry;
+
+    // 항목마다 호출되므로 이름/Step/태그 조합별 타이머를 한 번만 만들어 재사용
+    private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+
+    private record TimerKey(String name, String stepName, List<String> tags) {
+    }
+
+    @FunctionalInterface
+    public interface Fetch {
+        FetchedPage get() throws IOException;
+    }
+
+    /**
+     * 요청 시간을 응답 상태별로 기록하고 페이지 수를 센다. 예외가 나면 status=error 로 기록한다.
+     */
+    public FetchedPage timeFetch(String page, Fetch fetch) throws IOException {
+        long start = System.nanoTime();
+        String status = "error";
+        try {
+            FetchedPage fetched = fetch.get();
+            status = String.valueOf(fetched.statusCode());
+            return fetched;
+        } finally {
+            record(FETCH, start, "page", page, "status", status);
+            meterRegistry.counter(PAGES, stepTags().and("page", page)).increment();
+            CrawlCounters.increment(page.equals(LISTING) ? CrawlCounters.LISTING_PAGES : CrawlCounters.DETAIL_PAGES, 1);
+        }
+    }
+
+    /**
+     * startNanos({@link System#nanoTime()}) 부터 지금까지의 시간을 name 타이머에 기록한다.
+     */
+    public void record(String name, long startNanos, String... tags) {
+        long elapsed = System.nanoTime() - startNanos;
+        String stepName = currentStepName();
+        timers.computeIfAbsent(new TimerKey(name, stepName, List.of(tags)),
+                        key -> Timer.builder(name).tags(stepTags(stepName).and(tags)).register(meterRegistry))
+                .record(elapsed, TimeUnit.NANOSECONDS);
+        String summaryKey = SUMMARY_KEYS.get(name);
+        if (summaryKey != null) {
+            CrawlCounters.increment(summaryKey, elapsed);
+        }
+    }
+
+    public void count(String name, String... tags) {
+        meterRegistry.counter(name, stepTags().and(tags)).increment();
+    }
+
+    private static Tags stepTags() {
+        return stepTags(currentStepName());
+    }
+
+    private static String currentStepName() {
+        StepContext context = StepSynchronizationManager.getContext();
+        return context == null ? null : context.getStepName();
+    }
+
+    // 파티션 Step 이름은 "saraminWorkerStep:partition0" 형태
+    private static Tags stepTags(String stepName) {
+        if (stepName == null) {
+            return Tags.of("step", "none", "partition", "none");
+        }
+        int separator = stepName.indexOf(':');
+        if (separator < 0) {
+            return Tags.of("step", stepName, "partition", "none");
+        }
+        return Tags.of("step", stepName.substring(0, separator), "partition", stepName.substring(separator + 1));
+    }
+}
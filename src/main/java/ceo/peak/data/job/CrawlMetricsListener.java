@@ -0,0 +1,65 @@
+package ceo.peak.data.job;
+
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.SkipListener;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.retry.RetryCallback;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.RetryListener;
+
+/**
+ * 청크 처리 시간(커밋 포함)과 skip/retry 횟수를 {@link CrawlMetrics} 로 기록한다.
+ */
+public class CrawlMetricsListener implements ChunkListener, SkipListener<Object, Object>, RetryListener {
+
+    private static final String CHUNK_START = CrawlMetricsListener.class.getName() + ".start";
+
+    private final CrawlMetrics crawlMetrics;
+
+    public CrawlMetricsListener(CrawlMetrics crawlMetrics) {
+        this.crawlMetrics = crawlMetrics;
+    }
+
+    @Override
+    public void beforeChunk(ChunkContext context) {
+        context.setAttribute(CHUNK_START, System.nanoTime());
+    }
+
+    @Override
+    public void afterChunk(ChunkContext context) {
+        recordChunk(context, "committed");
+    }
+
+    @Override
+    public void afterChunkError(ChunkContext context) {
+        recordChunk(context, "rolledBack");
+    }
+
+    private void recordChunk(ChunkContext context, String outcome) {
+        Object start = context.removeAttribute(CHUNK_START);
+        if (start != null) {
+            crawlMetrics.record(CrawlMetrics.CHUNK, (Long) start, "outcome", outcome);
+        }
+    }
+
+    @Override
+    public void onSkipInRead(Throwable t) {
+        crawlMetrics.count(CrawlMetrics.SKIPS, "phase", "read", "exception", t.getClass().getSimpleName());
+    }
+
+    @Override
+    public void onSkipInProcess(Object item, Throwable t) {
+        crawlMetrics.count(CrawlMetrics.SKIPS, "phase", "process", "exception", t.getClass().getSimpleName());
+    }
+
+    @Override
+    public void onSkipInWrite(Object item, Throwable t) {
+        crawlMetrics.count(CrawlMetrics.SKIPS, "phase", "write", "exception", t.getClass().getSimpleName());
+    }
+
+    @Override
+    public <T, E extends Throwable> void onError(RetryContext context, RetryCallback<T, E> callback, Throwable throwable) {
+        crawlMetrics.count(CrawlMetrics.RETRIES, "exception", throwable.getClass().getSimpleName());
+        CrawlCounters.increment(CrawlCounters.RETRIES, 1);
+    }
+}
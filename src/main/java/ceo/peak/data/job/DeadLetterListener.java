@@ -0,0 +1,77 @@
+package ceo.peak.data.job;
+
+import ceo.peak.data.crawl.CompanySources;
+import ceo.peak.data.crawl.FetchException;
+import ceo.peak.data.entity.CrawlDeadLetter;
+import ceo.peak.data.repository.CrawlDeadLetterRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.SkipListener;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 상세 페이지 요청이 재시도까지 실패해 건너뛴 csn 을 crawl_dead_letter 에 기록하고,
+ * Step 이 끝나면 이번 실행에서 다시 처리해 성공한 csn 을 지운다.
+ * 비동기 처리에서는 요청 실패가 쓰기 단계에서 드러나므로 항목(Future) 대신 예외의 url 에서 csn 을 얻는다.
+ */
+@Slf4j
+public class DeadLetterListener implements SkipListener<Object, Object>, StepExecutionListener {
+
+    private final CrawlDeadLetterRepository crawlDeadLetterRepository;
+    private final CompanySources companySources;
+    private final TransactionTemplate recordTransaction;
+
+    public DeadLetterListener(CrawlDeadLetterRepository crawlDeadLetterRepository, CompanySources companySources,
+                              PlatformTransactionManager transactionManager) {
+        this.crawlDeadLetterRepository = crawlDeadLetterRepository;
+        this.companySources = companySources;
+        this.recordTransaction = new TransactionTemplate(transactionManager);
+        // skip 리스너는 청크 트랜잭션 안에서 호출되므로, 청크가 롤백되어도 실패 기록이 남고 기록 실패가 청크를 롤백하지 않도록 별도 트랜잭션
+        this.recordTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public void onSkipInProcess(Object item, Throwable t) {
+        record(t);
+    }
+
+    @Override
+    public void onSkipInWrite(Object item, Throwable t) {
+        record(t);
+    }
+
+    private void record(Throwable t) {
+        if (!(t instanceof FetchException failure)) {
+            return;
+        }
+        String csn = companySources.codeOf(failure.getUrl());
+        if (csn == null) {
+            return;
+        }
+        CrawlDeadLetter.Kind kind = failure.isTransient() ? CrawlDeadLetter.Kind.TRANSIENT : CrawlDeadLetter.Kind.PERMANENT;
+        Long runId = runId();
+        recordTransaction.executeWithoutResult(status -> crawlDeadLetterRepository.record(runId, csn, failure.getUrl(), kind,
+                failure.getStatusCode(), failure.getMessage()));
+        CrawlCounters.increment(CrawlCounters.DEAD_LETTERS, 1);
+    }
+
+    private static Long runId() {
+        StepContext context = StepSynchronizationManager.getContext();
+        return context == null ? null : context.getStepExecution().getJobExecution().getJobInstance().getInstanceId();
+    }
+
+    @Override
+    public ExitStatus afterStep(StepExecution stepExecution) {
+        int resolved = crawlDeadLetterRepository.resolve(stepExecution.getJobExecution().getJobInstance().getInstanceId());
+        if (resolved > 0) {
+            log.info("Resolved {} dead-lettered company codes. Step: {}", resolved, stepExecution.getStepName());
+        }
+        return null;
+    }
+}
@@ -0,0 +1,34 @@
+package ceo.peak.data.job;
+
+import ceo.peak.data.repository.CrawlDeadLetterRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.repeat.RepeatStatus;
+
+/**
+ * retryFailedJob 첫 Step. crawl_dead_letter 의 csn 을 이번 실행의 crawl_frontier 처리 대상으로 넣어
+ * 다음 Step 이 상세 페이지만 다시 요청하게 한다. 목록 페이지는 읽지 않는다.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class DeadLetterSeedTasklet implements Tasklet {
+
+    private final CrawlDeadLetterRepository crawlDeadLetterRepository;
+    // false 이면 일시적인 실패만 다시 처리
+    private final boolean includePermanent;
+
+    @Override
+    public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) {
+        StepExecution stepExecution = contribution.getStepExecution();
+        long runId = stepExecution.getJobExecution().getJobInstance().getInstanceId();
+        int seeded = crawlDeadLetterRepository.seedFrontier(runId, includePermanent);
+        stepExecution.getExecutionContext().putLong(CrawlCounters.DISCOVERED, seeded);
+        log.info("Seeded {} dead-lettered company codes into crawl frontier. Run: {}, include permanent: {}",
+                seeded, runId, includePermanent);
+        return RepeatStatus.FINISHED;
+    }
+}
@@ -0,0 +1,149 @@
+package ceo.peak.data.job;
+
+import ceo.peak.data.dto.JobProgress;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 청크가 끝날 때마다 진행 상황을 해당 실행을 구독 중인 SSE 클라이언트에 보내고, Job 이 끝나면 스트림을 닫는다.
+ * 전송은 별도 스레드에서 하므로 느린 클라이언트가 청크 처리를 막지 않는다.
+ * 스트림은 STREAM_TIMEOUT 이 지나면 닫히므로, Job 이 더 오래 걸리면 클라이언트가 다시 연결한다 (EventSource 는 자동으로 재연결).
+ */
+@Slf4j
+@Component
+public class JobProgressBroadcaster implements ChunkListener, JobExecutionListener, DisposableBean {
+
+    public static final String PROGRESS_EVENT = "progress";
+    public static final String FINISHED_EVENT = "finished";
+
+    static final Duration STREAM_TIMEOUT = Duration.ofMinutes(30);
+    // 구독 직전에 끝난 실행을 알아보기 위해 이 JVM 에서 최근에 끝난 실행의 마지막 상태를 남겨 둠
+    private static final int FINISHED_HISTORY = 100;
+
+    private final JobExplorer jobExplorer;
+    private final Map<Long, List<SseEmitter>> emitters = new ConcurrentHashMap<>();
+    private final Map<Long, JobProgress> finished = Collections.synchronizedMap(new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, JobProgress> eldest) {
+            return size() > FINISHED_HISTORY;
+        }
+    });
+    private final ExecutorService sender = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "saramin-progress");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public JobProgressBroadcaster(JobExplorer jobExplorer) {
+        this.jobExplorer = jobExplorer;
+    }
+
+    /**
+     * 실행 중인 Job 의 진행 상황 스트림. 이미 끝난 실행이면 마지막 상태만 보내고 닫는다.
+     */
+    public SseEmitter subscribe(JobExecution jobExecution) {
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT.toMillis());
+        Long executionId = jobExecution.getId();
+        if (!jobExecution.isRunning()) {
+            send(emitter, FINISHED_EVENT, JobProgress.of(jobExecution));
+            emitter.complete();
+            return emitter;
+        }
+
+        // afterJob 이 먼저 목록을 가져가 버리면 이 스트림은 닫히지 않으므로, 먼저 등록한 뒤 상태를 다시 확인
+        List<SseEmitter> subscribers = emitters.computeIfAbsent(executionId, id -> new CopyOnWriteArrayList<>());
+        subscribers.add(emitter);
+        emitter.onCompletion(() -> subscribers.remove(emitter));
+        emitter.onTimeout(() -> {
+            subscribers.remove(emitter);
+            emitter.complete();
+        });
+        emitter.onError(e -> subscribers.remove(emitter));
+
+        JobProgress finishedProgress = finishedProgress(executionId);
+        if (finishedProgress != null) {
+            subscribers.remove(emitter);
+            emitters.computeIfPresent(executionId, (id, list) -> list.isEmpty() ? null : list);
+            send(emitter, FINISHED_EVENT, finishedProgress);
+            emitter.complete();
+            return emitter;
+        }
+        send(emitter, PROGRESS_EVENT, JobProgress.of(jobExecution));
+        return emitter;
+    }
+
+    // 이 JVM 에서 끝난 실행은 afterJob 이 남긴 상태, 다른 JVM 에서 실행 중인 Job 은 JobRepository 의 상태로 확인
+    private JobProgress finishedProgress(Long executionId) {
+        JobProgress progress = finished.get(executionId);
+        if (progress != null) {
+            return progress;
+        }
+        JobExecution current = jobExplorer.getJobExecution(executionId);
+        return current != null && !current.isRunning() ? JobProgress.of(current) : null;
+    }
+
+    @Override
+    public void afterChunk(ChunkContext context) {
+        StepExecution stepExecution = context.getStepContext().getStepExecution();
+        JobExecution jobExecution = stepExecution.getJobExecution();
+        List<SseEmitter> subscribers = emitters.get(jobExecution.getId());
+        if (subscribers == null || subscribers.isEmpty()) {
+            return;
+        }
+        // 리더는 페이지를 가져온 뒤 다음 페이지 번호를 저장하므로 읽고 있는 페이지는 그 전 번호
+        int nextPage = stepExecution.getExecutionContext().getInt(CompanyCodeReader.CURRENT_PAGE_KEY, 0);
+        JobProgress progress = JobProgress.of(jobExecution, stepExecution, nextPage > 0 ? nextPage - 1 : null);
+        sender.execute(() -> subscribers.forEach(emitter -> send(emitter, PROGRESS_EVENT, progress)));
+    }
+
+    @Override
+    public void afterJob(JobExecution jobExecution) {
+        JobProgress progress = JobProgress.of(jobExecution);
+        // 목록을 가져가기 전에 남겨야 그 사이에 구독한 스트림도 끝난 실행으로 알아봄
+        finished.put(jobExecution.getId(), progress);
+        List<SseEmitter> subscribers = emitters.remove(jobExecution.getId());
+        if (subscribers == null) {
+            return;
+        }
+        sender.execute(() -> subscribers.forEach(emitter -> {
+            send(emitter, FINISHED_EVENT, progress);
+            emitter.complete();
+        }));
+    }
+
+    private static void send(SseEmitter emitter, String event, JobProgress progress) {
+        try {
+            emitter.send(SseEmitter.event().name(event).data(progress));
+        } catch (IOException e) {
+            // 연결이 끊긴 클라이언트. onError 에서 목록에서 제거됨
+            log.debug("Failed to send job progress to client: {}", e.getMessage());
+            emitter.completeWithError(e);
+        } catch (IllegalStateException e) {
+            log.debug("Job progress stream already closed: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        sender.shutdownNow();
+    }
+}
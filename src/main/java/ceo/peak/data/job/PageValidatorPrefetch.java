@@ -0,0 +1,51 @@
+package ceo.peak.data.job;
+
+import ceo.peak.data.entity.PageValidator;
+import ceo.peak.data.repository.PageValidatorRepository;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 상세 Step 에서 {@link CrawlFrontierReader} 가 가져간 csn 의 검증자(ETag/Last-Modified)를 한 번에 조회해 두고
+ * {@link CompanyDataProcessor} 가 항목마다 꺼내 쓰게 한다. 항목마다 page_validator 를 조회하지 않기 위함.
+ * Step(파티션)마다 하나씩 만들어지며, 비동기 처리에서는 여러 스레드가 꺼내므로 동시 접근이 가능한 맵을 사용한다.
+ */
+public class PageValidatorPrefetch {
+
+    private final PageValidatorRepository pageValidatorRepository;
+    private final boolean enabled;
+
+    // 조회해 둔 csn (검증자가 없는 csn 포함). 꺼내면 지워지므로 처리 중인 배치만큼만 남음
+    private final Set<String> loaded = ConcurrentHashMap.newKeySet();
+    private final Map<String, PageValidator> validators = new ConcurrentHashMap<>();
+
+    public PageValidatorPrefetch(PageValidatorRepository pageValidatorRepository, boolean enabled) {
+        this.pageValidatorRepository = pageValidatorRepository;
+        this.enabled = enabled;
+    }
+
+    /**
+     * reader 가 새로 가져간 csn 의 검증자를 한 번의 쿼리로 조회한다. replay 처럼 조건부 요청을 하지 않으면 조회하지 않는다.
+     */
+    public void load(Collection<String> csns) {
+        if (!enabled || csns.isEmpty()) {
+            return;
+        }
+        pageValidatorRepository.findAllById(csns).forEach(validator -> validators.put(validator.getCsn(), validator));
+        loaded.addAll(csns);
+    }
+
+    /**
+     * 미리 조회한 검증자를 꺼낸다. 미리 조회하지 않은 csn 이면 (frontier 가 아닌 reader 등) 바로 조회한다.
+     */
+    public Optional<PageValidator> take(String csn) {
+        if (loaded.remove(csn)) {
+            return Optional.ofNullable(validators.remove(csn));
+        }
+        return pageValidatorRepository.findById(csn);
+    }
+}
@@ -1,303 +1,582 @@
 package ceo.peak.data.job;
 
+import ceo.peak.data.config.SaraminProperties;
+import ceo.peak.data.crawl.CompanySource;
+import ceo.peak.data.crawl.CompanySources;
+import ceo.peak.data.crawl.PageFetcher;
 import ceo.peak.data.entity.CompanyData;
+import ceo.peak.data.index.CompanyMatchIndex;
+import ceo.peak.data.index.CompanySearchIndex;
 import ceo.peak.data.repository.CompanyDataRepository;
-import ceo.peak.data.util.AddressSimilarity;
+import ceo.peak.data.crawl.TransientFetchException;
+import ceo.peak.data.repository.CrawlDeadLetterRepository;
+import ceo.peak.data.repository.CrawlFrontierRepository;
+import ceo.peak.data.repository.PageValidatorRepository;
+import ceo.peak.data.service.CompanyExportService;
+import ceo.peak.data.service.CompanyQueryService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
-import org.jsoup.nodes.Element;
-import org.jsoup.select.Elements;
+import org.springframework.batch.core.ChunkListener;
 import org.springframework.batch.core.Job;
+import org.springframework.batch.core.SkipListener;
 import org.springframework.batch.core.Step;
-import org.springframework.batch.core.StepExecution;
-import org.springframework.batch.core.annotation.BeforeStep;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.job.builder.FlowBuilder;
+import org.springframework.batch.core.job.builder.FlowJobBuilder;
 import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.job.builder.SimpleJobBuilder;
+import org.springframework.batch.core.job.flow.Flow;
+import org.springframework.batch.core.job.flow.support.SimpleFlow;
 import org.springframework.batch.core.launch.support.RunIdIncrementer;
+import org.springframework.batch.core.partition.support.Partitioner;
 import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.SimpleStepBuilder;
 import org.springframework.batch.core.step.builder.StepBuilder;
-import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.integration.async.AsyncItemProcessor;
+import org.springframework.batch.integration.async.AsyncItemWriter;
+import org.springframework.batch.integration.config.annotation.EnableBatchIntegration;
+import org.springframework.batch.integration.partition.RemotePartitioningManagerStepBuilderFactory;
+import org.springframework.batch.integration.partition.RemotePartitioningWorkerStepBuilderFactory;
 import org.springframework.batch.item.ItemProcessor;
 import org.springframework.batch.item.ItemReader;
 import org.springframework.batch.item.ItemWriter;
+import org.springframework.batch.repeat.CompletionPolicy;
+import org.springframework.batch.repeat.policy.SimpleCompletionPolicy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.dao.DataAccessException;
 import org.springframework.dao.TransientDataAccessException;
+import org.springframework.integration.channel.QueueChannel;
+import org.springframework.integration.jdbc.store.JdbcChannelMessageStore;
+import org.springframework.integration.jdbc.store.channel.PostgresChannelMessageStoreQueryProvider;
+import org.springframework.integration.store.MessageGroupQueue;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.retry.RetryListener;
+import org.springframework.retry.support.RetryTemplate;
 import org.springframework.transaction.PlatformTransactionManager;
 
+import javax.sql.DataSource;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 @Slf4j
 @Configuration
+@EnableBatchIntegration
 @RequiredArgsConstructor
 public class SaraminBatch {
 
     private final JobRepository jobRepository;
     private final CompanyDataRepository companyDataRepository;
+    private final SaraminProperties saraminProperties;
+    private final CompanyMatchIndex companyMatchIndex;
+    private final PageValidatorRepository pageValidatorRepository;
+    private final PageFetcher pageFetcher;
+    private final JdbcTemplate jdbcTemplate;
+    private final CrawlMetrics crawlMetrics;
+    private final JobProgressBroadcaster jobProgressBroadcaster;
+    private final CompanyQueryService companyQueryService;
+    private final CompanySearchIndex companySearchIndex;
+    private final CrawlFrontierRepository crawlFrontierRepository;
+    private final CrawlDeadLetterRepository crawlDeadLetterRepository;
+    private final CompanySources companySources;
+    private final RemotePartitioningManagerStepBuilderFactory managerStepBuilderFactory;
+    private final RemotePartitioningWorkerStepBuilderFactory workerStepBuilderFactory;
 
+    /**
+     * 사람인 외에 활성화된 소스가 있으면 소스마다 목록 -> 상세 흐름을 만들어 동시에 실행하고, 모두 끝난 뒤 내보낸다.
+     * 소스별 Step 은 사람인 Step 과 같은 StepScope reader/writer 빈을 쓰며, 파티션 ExecutionContext 의 source 로 소스를 고른다.
+     */
     @Bean
-    public Job saraminJob(Step saraminStep) {
-        return new JobBuilder("saraminJob", jobRepository)
-                .start(saraminStep)
-                .incrementer(new RunIdIncrementer()) // 파라미터 자동 증가
+    public Job saraminJob(Step saraminDiscoveryStep, Step saraminStep, Step companyExportStep,
+                          CompanyCodeReader companyCodeReader,
+                          ItemWriter<String> crawlFrontierWriter,
+                          CrawlFrontierReader crawlFrontierReader,
+                          ItemProcessor<String, CompanyData> companyDataProcessor,
+                          ItemWriter<CompanyData> saraminWriter,
+                          CompletionPolicy detailChunkPolicy,
+                          PlatformTransactionManager transactionManager) {
+        List<CompanySource> sources = companySources.enabled();
+        List<String> otherStepNames = new ArrayList<>(List.of("saraminDiscoveryStep"));
+        for (CompanySource source : sources.subList(1, sources.size())) {
+            otherStepNames.add(source.name() + "DiscoveryStep");
+            otherStepNames.add(source.name() + "Step");
+        }
+        JobBuilder jobBuilder = new JobBuilder("saraminJob", jobRepository)
+                .listener(new SaraminJobListener("saraminStep", otherStepNames.toArray(String[]::new)))
+                .listener(jobProgressBroadcaster) // 진행 상황 스트림 종료
+                .listener(companySearchIndex) // 바뀐 회사만 검색 색인에 반영
+                .incrementer(new RunIdIncrementer()); // 파라미터 자동 증가
+
+        if (sources.size() == 1) {
+            SimpleJobBuilder builder = jobBuilder
+                    .start(saraminDiscoveryStep) // 목록 페이지 -> crawl_frontier
+                    .next(saraminStep); // crawl_frontier -> 상세 페이지 -> company_data
+            if (saraminProperties.getExport().isEnabled()) {
+                builder.next(companyExportStep);
+            }
+            return builder.build();
+        }
+
+        List<Flow> flows = new ArrayList<>();
+        flows.add(new FlowBuilder<SimpleFlow>("saraminFlow")
+                .start(saraminDiscoveryStep)
+                .next(saraminStep)
+                .build());
+        for (CompanySource source : sources.subList(1, sources.size())) {
+            flows.add(sourceFlow(source, companyCodeReader, crawlFrontierWriter, crawlFrontierReader,
+                    companyDataProcessor, saraminWriter, detailChunkPolicy, transactionManager));
+        }
+        // 소스마다 호스트가 달라 요청 예산이 겹치지 않으므로 흐름 수만큼 스레드를 둠
+        Flow allSources = new FlowBuilder<SimpleFlow>("companySourcesFlow")
+                .split(partitionTaskExecutor("company-source-", flows.size()))
+                .add(flows.toArray(Flow[]::new))
                 .build();
+        FlowBuilder<FlowJobBuilder> builder = jobBuilder.start(allSources);
+        if (saraminProperties.getExport().isEnabled()) {
+            builder = builder.next(companyExportStep);
+        }
+        return builder.end().build();
     }
 
-    @Bean
-    public Step saraminStep(ItemReader<String> saraminCompanyCodeReader,
-                            ItemProcessor<String, CompanyData> saraminCompanyDataProcessor,
+    // 사람인이 아닌 소스의 목록 -> 상세 흐름. 원격 파티션은 사람인 상세 Step 에만 적용되므로 로컬 파티션으로 실행
+    private Flow sourceFlow(CompanySource source,
+                            CompanyCodeReader companyCodeReader,
+                            ItemWriter<String> crawlFrontierWriter,
+                            CrawlFrontierReader crawlFrontierReader,
+                            ItemProcessor<String, CompanyData> companyDataProcessor,
                             ItemWriter<CompanyData> saraminWriter,
-                            JobRepository jobRepository,
+                            CompletionPolicy detailChunkPolicy,
                             PlatformTransactionManager transactionManager) {
+        String name = source.name();
+        SaraminProperties.Source settings = companySources.settings(source);
+
+        Step discoveryWorkerStep = buildDiscoveryWorkerStep(name + "DiscoveryWorkerStep", companyCodeReader,
+                crawlFrontierWriter, transactionManager);
+        Step discoveryStep = new StepBuilder(name + "DiscoveryStep", jobRepository)
+                .partitioner(name + "DiscoveryWorkerStep",
+                        new SaraminPagePartitioner(name, 1, settings.getPages(), settings.getGridSize()))
+                .step(discoveryWorkerStep)
+                .aggregator(new CrawlCountersAggregator())
+                .taskExecutor(partitionTaskExecutor(name + "-discovery-", settings.getGridSize()))
+                .build();
+
+        Step workerStep = buildDetailStep(new StepBuilder(name + "WorkerStep", jobRepository), source,
+                crawlFrontierReader, companyDataProcessor, saraminWriter, detailChunkPolicy, false, transactionManager);
+        Step detailStep = new StepBuilder(name + "Step", jobRepository)
+                .partitioner(name + "WorkerStep", new CrawlFrontierPartitioner(name, settings.getGridSize()))
+                .step(workerStep)
+                .aggregator(new CrawlCountersAggregator())
+                .taskExecutor(partitionTaskExecutor(name + "-partition-", settings.getGridSize()))
+                .listener(companyMatchIndex.oncePerJob())
+                .build();
+
+        return new FlowBuilder<SimpleFlow>(name + "Flow")
+                .start(discoveryStep)
+                .next(detailStep)
+                .build();
+    }
+
+    /**
+     * crawl_dead_letter 에 남은 csn 의 상세 페이지만 다시 처리한다. 성공한 csn 은 dead-letter 에서 지워진다.
+     * includePermanent=true 이면 404/해석 실패까지 포함한다 (추출 규칙을 고친 뒤 등).
+     */
+    @Bean
+    public Job retryFailedJob(Step deadLetterSeedStep, Step retryFailedStep) {
+        return new JobBuilder("retryFailedJob", jobRepository)
+                .start(deadLetterSeedStep) // crawl_dead_letter -> crawl_frontier
+                .next(retryFailedStep) // crawl_frontier -> 상세 페이지 -> company_data
+                .listener(new SaraminJobListener("retryFailedStep", "deadLetterSeedStep"))
+                .listener(companySearchIndex)
+                .incrementer(new RunIdIncrementer())
+                .build();
+    }
+
+    @Bean
+    @StepScope
+    public DeadLetterSeedTasklet deadLetterSeedTasklet(
+            @Value("#{jobParameters['includePermanent'] ?: false}") Boolean includePermanent) {
+        return new DeadLetterSeedTasklet(crawlDeadLetterRepository, includePermanent);
+    }
+
+    @Bean
+    public Step deadLetterSeedStep(DeadLetterSeedTasklet deadLetterSeedTasklet,
+                                   PlatformTransactionManager transactionManager) {
+        return new StepBuilder("deadLetterSeedStep", jobRepository)
+                .tasklet(deadLetterSeedTasklet, transactionManager)
+                .build();
+    }
+
+    // 실패한 csn 은 많지 않으므로 파티션 없이 한 Step 으로 처리
+    @Bean
+    public Step retryFailedStep(CrawlFrontierReader crawlFrontierReader,
+                                ItemProcessor<String, CompanyData> companyDataProcessor,
+                                ItemWriter<CompanyData> saraminWriter,
+                                CompletionPolicy detailChunkPolicy,
+                                PlatformTransactionManager transactionManager) {
+        // 여러 소스의 코드가 섞여 있어도 processor 가 코드 접두어로 소스를 고름
+        return buildDetailStep(new StepBuilder("retryFailedStep", jobRepository), companySources.primary(),
+                crawlFrontierReader, companyDataProcessor, saraminWriter, detailChunkPolicy, true, transactionManager);
+    }
+
+    /**
+     * company_data 전체에서 회사명/주소가 비슷한 중복 행을 합친다. saraminJob 과 별개로 필요할 때 실행한다.
+     */
+    @Bean
+    public Job companyDedupJob(Step companyDedupStep) {
+        return new JobBuilder("companyDedupJob", jobRepository)
+                .start(companyDedupStep)
+                .incrementer(new RunIdIncrementer())
+                .build();
+    }
+
+    @Bean
+    @StepScope
+    public CompanyDedupTasklet companyDedupTasklet(
+            DataSource dataSource,
+            PlatformTransactionManager transactionManager,
+            @Value("#{jobParameters['window'] ?: 20}") Integer window,
+            @Value("#{jobParameters['dryRun'] ?: true}") Boolean dryRun) {
+        return new CompanyDedupTasklet(companyDataRepository, companyQueryService, companySearchIndex, dataSource,
+                transactionManager, window, Runtime.getRuntime().availableProcessors(), dryRun);
+    }
+
+    @Bean
+    public Step companyDedupStep(CompanyDedupTasklet companyDedupTasklet,
+                                 PlatformTransactionManager transactionManager) {
+        // 커서는 트랜잭션 안에서만 나눠 읽으므로 tasklet 트랜잭션 안에서 읽고, 합치기는 tasklet 이 배치마다 따로 커밋
+        return new StepBuilder("companyDedupStep", jobRepository)
+                .tasklet(companyDedupTasklet, transactionManager)
+                .build();
+    }
+
+    // 목록 페이지만 빠르게 읽어 csn 을 crawl_frontier 에 넣음. 느린 상세 페이지 요청과 분리되어 있어 서로 기다리지 않음
+    @Bean
+    public Step saraminDiscoveryStep(Step saraminDiscoveryWorkerStep,
+                                     SaraminPagePartitioner saraminPagePartitioner,
+                                     JobRepository jobRepository) {
+        return new StepBuilder("saraminDiscoveryStep", jobRepository)
+                .partitioner("saraminDiscoveryWorkerStep", saraminPagePartitioner)
+                .step(saraminDiscoveryWorkerStep)
+                .aggregator(new CrawlCountersAggregator())
+                .taskExecutor(partitionTaskExecutor("saramin-discovery-", saraminProperties.getPartition().getMaxThreads()))
+                .build();
+    }
+
+    @Bean
+    public Step saraminDiscoveryWorkerStep(CompanyCodeReader companyCodeReader,
+                                           ItemWriter<String> crawlFrontierWriter,
+                                           PlatformTransactionManager transactionManager) {
+        return buildDiscoveryWorkerStep("saraminDiscoveryWorkerStep", companyCodeReader, crawlFrontierWriter,
+                transactionManager);
+    }
+
+    private Step buildDiscoveryWorkerStep(String stepName,
+                                          CompanyCodeReader companyCodeReader,
+                                          ItemWriter<String> crawlFrontierWriter,
+                                          PlatformTransactionManager transactionManager) {
+        CrawlMetricsListener metricsListener = new CrawlMetricsListener(crawlMetrics);
+
+        return new StepBuilder(stepName, jobRepository)
+                .<String, String>chunk(100, transactionManager)
+                .reader(companyCodeReader)
+                .writer(crawlFrontierWriter)
+                .listener((ChunkListener) metricsListener)
+                .listener((ChunkListener) jobProgressBroadcaster) // 청크마다 진행 상황 전송
+                .faultTolerant()
+                .listener((SkipListener<Object, Object>) metricsListener)
+                .listener((RetryListener) metricsListener)
+                .retry(TransientDataAccessException.class)
+                .retryLimit(3)
+                .skip(IOException.class) // 목록 페이지 요청 실패
+                .skipLimit(100)
+                .build();
+    }
+
+    // 상세 Step 의 파티션들은 같은 crawl_frontier 에서 SKIP LOCKED 로 나눠 가져감
+    @Bean
+    public Step saraminStep(Step saraminWorkerStep,
+                            Partitioner saraminFrontierPartitioner,
+                            ObjectProvider<QueueChannel> saraminPartitionRequests,
+                            JobRepository jobRepository) {
+        SaraminProperties.Partition partition = saraminProperties.getPartition();
+        if (partition.getMode().dispatchesRemotely()) {
+            // 파티션 요청만 채널로 보내고, 작업자 JVM 들이 공유 JobRepository 에 남긴 파티션 결과를 주기적으로 확인
+            return managerStepBuilderFactory.get("saraminStep")
+                    .outputChannel(saraminPartitionRequests.getObject())
+                    .pollInterval(partition.getPollInterval().toMillis())
+                    .partitioner("saraminWorkerStep", saraminFrontierPartitioner)
+                    .aggregator(new CrawlCountersAggregator())
+                    .build();
+        }
+
         return new StepBuilder("saraminStep", jobRepository)
-                .<String, CompanyData>chunk(100, transactionManager)
-                .reader(saraminCompanyCodeReader)
-                .processor(saraminCompanyDataProcessor)
-                .writer(saraminWriter)
+                .partitioner("saraminWorkerStep", saraminFrontierPartitioner)
+                .step(saraminWorkerStep)
+                .aggregator(new CrawlCountersAggregator())
+                .taskExecutor(partitionTaskExecutor("saramin-partition-", saraminProperties.getPartition().getMaxThreads()))
+                // 모든 파티션이 공유하는 매칭 인덱스를 Step 시작 시 적재. 다른 소스의 상세 Step 이 먼저 적재했으면 그대로 사용
+                .listener(companyMatchIndex.oncePerJob())
+                .build();
+    }
+
+    @Bean
+    public Step companyExportStep(CompanyExportService companyExportService,
+                                  JobExplorer jobExplorer,
+                                  PlatformTransactionManager transactionManager) {
+        SaraminProperties.Export export = saraminProperties.getExport();
+        CompanyExportTasklet tasklet = new CompanyExportTasklet(companyExportService, jobExplorer,
+                Path.of(export.getDir()), export.getFormat(), export.isDeltaOnly());
+        // 커서는 트랜잭션 안에서만 나눠 읽으므로 tasklet 트랜잭션 안에서 내보냄
+        return new StepBuilder("companyExportStep", jobRepository)
+                .tasklet(tasklet, transactionManager)
+                .build();
+    }
+
+    /**
+     * 원격 파티션(mode=manager/worker/manager-worker)에서 manager 와 작업자가 주고받는 파티션 요청 채널.
+     * 작업자는 요청을 받아 saraminWorkerStep 을 실행하고 결과는 공유 JobRepository 에 기록한다.
+     */
+    @Bean
+    @ConditionalOnExpression("!'${saramin.partition.mode:local}'.equalsIgnoreCase('local')")
+    public QueueChannel saraminPartitionRequests(DataSource dataSource) {
+        if (saraminProperties.getPartition().getTransport() == SaraminProperties.Partition.Transport.MEMORY) {
+            return new QueueChannel();
+        }
+        // 별도 브로커 없이 공유 PostgreSQL 을 큐로 사용. 한 요청은 한 작업자만 가져감 (FOR UPDATE SKIP LOCKED)
+        JdbcChannelMessageStore messageStore = new JdbcChannelMessageStore(dataSource);
+        messageStore.setChannelMessageStoreQueryProvider(new PostgresChannelMessageStoreQueryProvider());
+        return new QueueChannel(new MessageGroupQueue(messageStore, "saraminPartitionRequests"));
+    }
+
+    @Bean
+    public Step saraminWorkerStep(CrawlFrontierReader crawlFrontierReader,
+                                  ItemProcessor<String, CompanyData> companyDataProcessor,
+                                  ItemWriter<CompanyData> saraminWriter,
+                                  ObjectProvider<QueueChannel> saraminPartitionRequests,
+                                  CompletionPolicy detailChunkPolicy,
+                                  PlatformTransactionManager transactionManager) {
+        StepBuilder stepBuilder = new StepBuilder("saraminWorkerStep", jobRepository);
+        if (saraminProperties.getPartition().getMode().executesRemotely()) {
+            // 채널로 받은 파티션 요청을 이 Step 으로 실행하는 흐름이 함께 등록됨
+            stepBuilder = workerStepBuilderFactory.get("saraminWorkerStep")
+                    .inputChannel(saraminPartitionRequests.getObject());
+        }
+        // 원격 작업자 JVM 에서는 manager Step 의 리스너가 실행되지 않으므로 작업자가 Job 실행마다 한 번 매칭 인덱스를 적재
+        return buildDetailStep(stepBuilder, companySources.primary(), crawlFrontierReader, companyDataProcessor,
+                saraminWriter, detailChunkPolicy, saraminProperties.getPartition().getMode().executesRemotely(), transactionManager);
+    }
+
+    // 순차/비동기 처리의 skip 동작을 함께 확인하기 위해 테스트에서 직접 만듦
+    Step buildDetailStep(StepBuilder stepBuilder,
+                         CompanySource source,
+                         ItemReader<String> reader,
+                         ItemProcessor<String, CompanyData> companyDataProcessor,
+                         ItemWriter<CompanyData> saraminWriter,
+                         CompletionPolicy chunkPolicy,
+                         boolean loadMatchIndex,
+                         PlatformTransactionManager transactionManager) {
+        if (!saraminProperties.getAsync().isEnabled()) {
+            return buildSaraminWorkerStep(stepBuilder, reader, companyDataProcessor, saraminWriter,
+                    chunkPolicy, "sequential", loadMatchIndex, transactionManager);
+        }
+
+        // 상세 페이지 요청은 별도 스레드에서 동시에 수행하고, 쓰기는 청크 스레드에서 읽은 순서대로 수행
+        AsyncItemProcessor<String, CompanyData> asyncProcessor = new AsyncItemProcessor<>();
+        asyncProcessor.setDelegate(companyDataProcessor);
+        asyncProcessor.setTaskExecutor(fetchTaskExecutor(source));
+
+        AsyncItemWriter<CompanyData> asyncWriter = new AsyncItemWriter<>();
+        asyncWriter.setDelegate(saraminWriter);
+
+        return buildSaraminWorkerStep(stepBuilder, reader, asyncProcessor, asyncWriter,
+                chunkPolicy, "async", loadMatchIndex, transactionManager);
+    }
+
+    private <T> Step buildSaraminWorkerStep(StepBuilder stepBuilder,
+                                            ItemReader<String> reader,
+                                            ItemProcessor<String, T> processor,
+                                            ItemWriter<T> writer,
+                                            CompletionPolicy chunkPolicy,
+                                            String mode,
+                                            boolean loadMatchIndex,
+                                            PlatformTransactionManager transactionManager) {
+        CrawlMetricsListener metricsListener = new CrawlMetricsListener(crawlMetrics);
+        DeadLetterListener deadLetterListener = new DeadLetterListener(crawlDeadLetterRepository, companySources, transactionManager);
+
+        SimpleStepBuilder<String, T> builder = stepBuilder
+                .<String, T>chunk(chunkPolicy, transactionManager)
+                .reader(reader)
+                .processor(processor)
+                .writer(writer)
+                .listener(new StepThroughputListener(mode))
+                .listener((ChunkListener) metricsListener)
+                .listener((ChunkListener) jobProgressBroadcaster) // 청크마다 진행 상황 전송
+                .listener((StepExecutionListener) deadLetterListener); // 이번 실행에서 성공한 csn 을 dead-letter 에서 삭제
+        if (loadMatchIndex) {
+            // 한 작업자 JVM 이 같은 Job 실행의 파티션을 여러 개 받아도 한 번만 적재
+            builder.listener(companyMatchIndex.oncePerJob());
+        }
+
+        return builder
                 .faultTolerant()
+                // 건너뛴 항목 때문에 청크가 롤백되어도 나머지 항목의 상세 페이지를 다시 요청하지 않고 처리 결과를 재사용
+                .processorNonTransactional()
+                .listener((SkipListener<Object, Object>) metricsListener)
+                .listener((SkipListener<Object, Object>) deadLetterListener) // 재시도까지 실패한 요청 기록
+                .listener((RetryListener) metricsListener)
                 .retry(DataAccessException.class) // 데이터베이스 연결 실패, SQL 실행 오류, 제약 조건 위반 등 다양한 데이터 액세스 관련 예외
                 .retry(TransientDataAccessException.class) // 데이터베이스 서버 과부하, 네트워크 문제, 일시적인 잠금 등의 예외
                 .retryLimit(3) // 예외 발생 시 최대 3번 재시도
-                .skip(IOException.class)
+                .skip(IOException.class) // 재시도까지 실패한 상세 페이지 요청(FetchException) 포함
                 .noSkip(IllegalArgumentException.class)
                 .noSkip(NullPointerException.class)
                 .skipLimit(100) // skip 가능한 exception 횟수 제한
                 .build();
     }
 
+    // gridSize 는 Job 파라미터라 Step 을 만들 때 알 수 없으므로 스레드 수는 별도 상한으로 제한.
+    // 상한에 도달하면 파티션을 제출하는 manager 스레드가 대기하고, 나머지 파티션은 앞 파티션이 끝난 뒤 실행됨
+    private static TaskExecutor partitionTaskExecutor(String threadNamePrefix, int concurrencyLimit) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+        executor.setConcurrencyLimit(concurrencyLimit);
+        return executor;
+    }
+
+    // 빈으로 등록하면 Spring Boot 의 기본 applicationTaskExecutor 가 생성되지 않으므로 Step 내부에서만 사용
+    private TaskExecutor fetchTaskExecutor(CompanySource source) {
+        SaraminProperties.Async async = saraminProperties.getAsync();
+        Integer sourceConcurrency = companySources.settings(source).getMaxConcurrency();
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(source.name() + "-fetch-");
+        // 상한에 도달하면 제출하는 청크 스레드가 대기하므로 동시 요청 수가 maxConcurrency 를 넘지 않음
+        executor.setConcurrencyLimit(sourceConcurrency != null ? sourceConcurrency : async.getMaxConcurrency());
+        executor.setVirtualThreads(async.isVirtualThreads());
+        return executor;
+    }
 
     @Bean
-    public ItemReader<String> saraminCompanyCodeReader() {
-        return new ItemReader<String>() {
-            private int currentPage = 1;
-            private int maxPage = 100;
-            private List<String> companyCodes;
-            private int nextIndex = 0;
-            private ExecutionContext executionContext;
-
-            @BeforeStep
-            public void beforeStep(StepExecution stepExecution) {
-                executionContext = stepExecution.getExecutionContext();
-                if (executionContext.containsKey("currentPage")) {
-                    currentPage = executionContext.getInt("currentPage");
-                }
-                if (executionContext.containsKey("nextIndex")) {
-                    nextIndex = executionContext.getInt("nextIndex");
-                } else {
-                    currentPage = 1;
-                    nextIndex = 0;
-                }
-            }
+    @StepScope
+    public SaraminPagePartitioner saraminPagePartitioner(
+            @Value("#{jobParameters['startPage'] ?: 1}") Integer startPage,
+            @Value("#{jobParameters['endPage'] ?: 100}") Integer endPage,
+            @Value("#{jobParameters['gridSize'] ?: 4}") Integer gridSize,
+            @Value("#{jobParameters['incremental'] ?: false}") Boolean incremental) {
+        // 증분 모드는 첫 페이지부터 순서대로 읽다가 멈춰야 하므로 구간을 나누지 않음
+        return new SaraminPagePartitioner(companySources.primary().name(), startPage, endPage, incremental ? 1 : gridSize);
+    }
 
-            @Override
-            public String read() throws Exception {
-                if (companyCodes == null || nextIndex >= companyCodes.size()) {
-                    if (currentPage > maxPage) {
-                        log.info("No more company codes to read. Current page: {}, Max page: {}", currentPage, maxPage);
-                        return null; // 더 이상 읽을 데이터가 없음
-                    }
-                    log.info("Fetching company codes from page: {}", currentPage);
-                    companyCodes = performSaraminCompanyCodeCrawling(currentPage);
-                    if (companyCodes.isEmpty()) {
-                        log.warn("No company codes found on page: {}", currentPage);
-                        return null;
-                    }
-                    nextIndex = 0;
-                    currentPage++;
-                }
-
-                String companyCode = companyCodes.get(nextIndex++);
-                executionContext.putInt("currentPage", currentPage);
-                executionContext.putInt("nextIndex", nextIndex);
-                return companyCode;
-            }
+    @Bean
+    @StepScope
+    public Partitioner saraminFrontierPartitioner(@Value("#{jobParameters['gridSize'] ?: 4}") Integer gridSize) {
+        // 증분 모드에서도 상세 페이지는 나눠 처리 가능
+        return new CrawlFrontierPartitioner(companySources.primary().name(), gridSize);
+    }
 
-            private List<String> performSaraminCompanyCodeCrawling(int page) throws IOException {
-                List<String> companyCodes = new ArrayList<>();
-                try {
-                    String baseUrl = "https://www.saramin.co.kr/zf_user/salaries/total-salary/list?";
-                    String params = "order=reg_dt&industry_cd=&company_cd=&rec_status=&group_cd=0&search_company_nm_org=&search_company_nm=&min_salary=1000&max_salary=10000&request_modify_company_nm=";
-                    String url = baseUrl + "page=" + page + "&" + params;
-                    Document doc = Jsoup.connect(url).get();
-                    Elements companyLinks = doc.select("a.link_tit");
-                    for (Element link : companyLinks) {
-                        String href = link.attr("href");
-                        String csn = extractCsn(href);
-                        if (csn != null) {
-                            companyCodes.add(csn);
-                        }
-                    }
-                    log.info("Found {} company codes on page {}", companyCodes.size(), page);
-                } catch (IOException e) {
-                    log.error("Error while crawling company codes from page " + page, e);
-                    throw e; // IOException 발생 시 예외를 던져 Spring Batch가 재시도 또는 스킵하도록 처리
-                }
-                return companyCodes;
-            }
+    @Bean
+    @StepScope
+    public CrawlFrontierReader crawlFrontierReader(
+            @Value("#{stepExecution.jobExecution.jobInstance.instanceId}") Long runId,
+            @Value("#{stepExecution.stepName}") String worker,
+            @Value("#{stepExecutionContext['source']}") String source,
+            @Value("#{jobParameters['chunkSize'] ?: 100}") Integer chunkSize,
+            PageValidatorPrefetch pageValidatorPrefetch,
+            PlatformTransactionManager transactionManager) {
+        // 파티션이 아닌 Step(retryFailedStep)이나 source 가 없던 이전 실행의 파티션은 모든 소스의 코드를 가져감
+        String codePattern = source == null ? null : CompanySources.codePattern(companySources.get(source));
+        // 재시작해도 같은 JobInstance 이므로 이전 실행이 넣은 crawl_frontier 행을 이어서 처리
+        // 청크마다 한 번 가져가도록 청크 크기만큼 가져감
+        return new CrawlFrontierReader(crawlFrontierRepository, pageValidatorPrefetch, transactionManager, runId, codePattern, worker, chunkSize);
+    }
 
-            private String extractCsn(String href) {
-                try {
-                    Pattern pattern = Pattern.compile("csn=([^&]+)");
-                    Matcher matcher = pattern.matcher(href);
-                    if (matcher.find()) {
-                        return matcher.group(1);
-                    } else {
-                        return null;
-                    }
-                } catch (Exception e) {
-                    log.error("Error while extracting CSN from href", e);
-                    return null; // 예외 발생 시 null 반환
-                }
-            }
-        };
+    /**
+     * 상세 Step 의 청크 크기 (기본 100). 청크 하나가 한 트랜잭션과 writer 호출 하나이며,
+     * writeMode=copy 는 청크마다 스테이징 테이블을 거치므로 chunkSize 를 키워 비교한다 (UpsertWriterBenchmark 의 chunkSize).
+     */
+    @Bean
+    @StepScope
+    public CompletionPolicy detailChunkPolicy(@Value("#{jobParameters['chunkSize'] ?: 100}") Integer chunkSize) {
+        return new SimpleCompletionPolicy(chunkSize);
     }
 
     @Bean
-    public ItemProcessor<String, CompanyData> saraminCompanyDataProcessor() {
-        return companyCode -> {
-            String modifiedCompany = "-";
-            String keyExecutive = "-";
-            String industry = "-";
-            String address = "-";
-            String homepage = "-";
-            String sales = "-";
-            String logoUrl = "-";
-
-            try {
-                // 크롤링할 URL
-                String url = "https://www.saramin.co.kr/zf_user/company-info/view?csn=" + companyCode;
-
-                // HTML 문서 가져오기
-                Document doc = Jsoup.connect(url)
-                        .get();
-
-                Element h1Element = doc.selectFirst("h1.tit_company");
-                if (h1Element != null) {
-                    String company = h1Element.attr("title");
-                    // 정규표현식 패턴: 괄호 안의 문자와 "주식회사" 제거
-                    String pattern = "\\([^)]*\\)\\s*|주식회사\\s*"; // 괄호 안의 문자와 그 뒤의 공백, "주식회사" 제거
-
-                    // 문자열에서 패턴을 찾아 빈 문자열로 대체
-                    modifiedCompany = company.replaceAll(pattern, "");
-                    log.info("Processed company: " + modifiedCompany);
-                } else {
-                    log.warn("h1.tit_company element not found.");
-                }
-
-                Elements companyDetailsGroups = doc.select("div.company_details_group");
-                for (Element group : companyDetailsGroups) {
-                    Element dtElement = group.selectFirst("dt.tit");
-                    if (dtElement != null) {
-                        if (dtElement.text().equals("대표자명")) {
-                            Element ddElement = group.selectFirst("dd.desc");
-                            if (ddElement != null) {
-                                keyExecutive = ddElement.text();
-                            }
-                        } else if (dtElement.text().equals("업종")) {
-                            Element ddElement = group.selectFirst("dd.desc");
-                            if (ddElement != null) {
-                                industry = ddElement.text();
-                            }
-                        } else if (dtElement.text().equals("주소")) {
-                            Element ddElement = group.selectFirst("dd.desc");
-                            if (ddElement != null) {
-                                Element pElement = ddElement.selectFirst("p.ellipsis");
-                                if (pElement != null) {
-                                    address = pElement.text();
-                                }
-                            }
-                        } else if (dtElement.text().equals("홈페이지")) {
-                            Element ddElement = group.selectFirst("dd.desc");
-                            if (ddElement != null) {
-                                homepage = ddElement.text();
-                            }
-                        }
-                    }
-                }
-
-                Element companySummary = doc.selectFirst("ul.company_summary");
-                if (companySummary != null) {
-                    Elements companySummaryItems = companySummary.select("li.company_summary_item");
-                    for (Element item : companySummaryItems) {
-                        if (item.selectFirst("p.company_summary_desc") != null &&
-                                item.selectFirst("p.company_summary_desc").text().equals("매출액")) {
-                            Element strongElement = item.selectFirst("strong.company_summary_tit");
-                            if (strongElement != null) {
-                                sales = strongElement.text();
-                            }
-                        }
-                    }
-                }
-
-                Element boxLogo = doc.selectFirst("div.box_logo");
-                if (boxLogo != null) {
-                    Element imgElement = boxLogo.selectFirst("img");
-                    if (imgElement != null) {
-                        logoUrl = imgElement.attr("src");
-                    }
-                }
-
-            } catch (Exception e) {
-                log.error("Error while processing company code: " + companyCode, e);
-                return null; // 예외 발생 시 null 반환하여 skip
-            }
+    @StepScope
+    public ItemWriter<String> crawlFrontierWriter(
+            @Value("#{stepExecution.jobExecution.jobInstance.instanceId}") Long runId) {
+        return new CrawlFrontierWriter(crawlFrontierRepository, runId);
+    }
 
-            return CompanyData.of(modifiedCompany, keyExecutive, industry, address,
-                    homepage, "-", "-", sales, "-", logoUrl);
-        };
+    @Bean
+    @StepScope
+    public CompanyCodeReader companyCodeReader(
+            @Value("#{jobParameters['replay'] ?: false}") Boolean replay,
+            @Value("#{stepExecutionContext['startPage']}") Integer startPage,
+            @Value("#{stepExecutionContext['endPage']}") Integer endPage,
+            @Value("#{jobParameters['incremental'] ?: false}") Boolean incremental,
+            @Value("#{jobParameters['knownRunLimit'] ?: 100}") Integer knownRunLimit,
+            @Value("#{stepExecutionContext['source']}") String source) {
+        CompanySource companySource = source == null ? companySources.primary() : companySources.get(source);
+        // company_data.csn 에는 기본 소스의 코드만 있으므로 증분 모드는 기본 소스에만 적용
+        if (!incremental || !companySource.isPrimary()) {
+            return new CompanyCodeReader(companySource, pageFetcher, crawlMetrics, replay, startPage, endPage);
+        }
+        log.info("Incremental mode. Stop after {} known company codes in a row", knownRunLimit);
+        // 전체 csn 을 메모리에 올리지 않고 목록 페이지마다 그 페이지의 csn 만 조회
+        return new CompanyCodeReader(companySource, pageFetcher, crawlMetrics, replay, startPage, endPage,
+                codes -> new HashSet<>(companyDataRepository.findKnownCsns(codes)), knownRunLimit);
     }
 
+    // reader 와 processor 가 같은 파티션의 인스턴스를 공유하도록 StepScope
     @Bean
-    public ItemWriter<CompanyData> saraminWriter() {
-        return items -> {
-            List<CompanyData> newItems = new ArrayList<>();
-            for (CompanyData item : items) {
-                try {
-                    List<CompanyData> existingDataByCompany = companyDataRepository.findByCompany(item.getCompany());
-
-                    boolean updated = false;
-                    for (CompanyData existingData : existingDataByCompany) {
-                        double addressSimilarity = AddressSimilarity.similarity(existingData.getAddress(), item.getAddress());
-                        if (addressSimilarity > 0.7) { // 주소 유사도가 0.7 이상일 경우 업데이트
-                            existingData.update(
-                                    item.getCompany(),
-                                    item.getKeyExecutive(),
-                                    item.getIndustry(),
-                                    item.getAddress(),
-                                    item.getHomepage(),
-                                    item.getSales(),
-                                    item.getLogoUrl()
-                            );
-                            companyDataRepository.save(existingData);
-                            updated = true;
-                            log.info("Updated existing company data: " + item.getCompany());
-                            break;
-                        }
-                    }
-
-                    if (!updated) {
-                        // 일치하는 데이터가 없으면 새로운 데이터로 추가
-                        newItems.add(item);
-                    }
-                } catch (DataAccessException e) {
-                    log.error("Error while writing data to database for company: " + item.getCompany(), e);
-                }
-            }
-            // 새로운 데이터만 일괄 저장
-            try {
-                if (!newItems.isEmpty()) {
-                    companyDataRepository.saveAll(newItems);
-                    log.info("Saved new company data. Count: " + newItems.size());
-                }
-            } catch (DataAccessException e) {
-                log.error("Error while saving new company data to database.", e);
-            }
+    @StepScope
+    public PageValidatorPrefetch pageValidatorPrefetch(@Value("#{jobParameters['replay'] ?: false}") Boolean replay) {
+        return new PageValidatorPrefetch(pageValidatorRepository, !replay);
+    }
+
+    @Bean
+    @StepScope
+    public ItemProcessor<String, CompanyData> companyDataProcessor(
+            @Value("#{jobParameters['replay'] ?: false}") Boolean replay,
+            PageValidatorPrefetch pageValidatorPrefetch) {
+        return new CompanyDataProcessor(companySources, pageFetcher, pageValidatorPrefetch, crawlMetrics,
+                replay ? RetryTemplate.builder().maxAttempts(1).build() : fetchRetryTemplate(), replay);
+    }
+
+    // 일시적인 실패만 지수 백오프로 다시 요청. 무작위 지연을 더해 동시에 실패한 요청들이 같은 시각에 몰리지 않게 함
+    private RetryTemplate fetchRetryTemplate() {
+        SaraminProperties.Http http = saraminProperties.getHttp();
+        return RetryTemplate.builder()
+                .maxAttempts(http.getRetryMaxAttempts())
+                .exponentialBackoff(http.getRetryInitialBackoff().toMillis(), 2.0, http.getRetryMaxBackoff().toMillis(), true)
+                .retryOn(TransientFetchException.class)
+                .build();
+    }
+
+    // 파티션마다 StepScope 인스턴스가 따로 만들어지며, writer 는 청크 사이에 상태를 두지 않음 (공유 상태는 잠금이 있는 매칭 인덱스뿐)
+    @Bean
+    @StepScope
+    public ItemWriter<CompanyData> saraminWriter(
+            @Value("#{jobParameters['writeMode'] ?: 'upsert'}") String writeMode) {
+        ItemWriter<CompanyData> primaryWriter = switch (writeMode) {
+            case "upsert" -> new SaraminCompanyDataUpsertWriter(jdbcTemplate, companyMatchIndex, pageValidatorRepository, crawlMetrics,
+                    companyQueryService);
+            // COPY 로 스테이징 테이블에 넣은 뒤 한 문장으로 합침. 측정상 upsert 보다 빠르지 않아 기본값이 아님
+            case "copy" -> new SaraminCompanyDataCopyWriter(jdbcTemplate, companyMatchIndex, pageValidatorRepository, crawlMetrics,
+                    companyQueryService);
+            case "jpa" -> new SaraminCompanyDataWriter(companyDataRepository, companyMatchIndex, pageValidatorRepository, crawlMetrics,
+                    companyQueryService);
+            default -> throw new IllegalArgumentException("Unknown writeMode: " + writeMode);
         };
+        // 다른 소스의 항목은 writeMode 와 관계없이 기존 행의 빈 필드만 채움
+        return new CompanyDataMergeWriter(primaryWriter, jdbcTemplate, companyMatchIndex, pageValidatorRepository,
+                crawlMetrics, companyQueryService);
     }
 }
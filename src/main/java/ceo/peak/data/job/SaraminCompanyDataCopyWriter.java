@@ -0,0 +1,122 @@
+package ceo.peak.data.job;
+
+import ceo.peak.data.entity.CompanyData;
+import ceo.peak.data.index.CompanyMatchIndex;
+import ceo.peak.data.repository.PageValidatorRepositoryCustom;
+import ceo.peak.data.service.CompanyQueryService;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * COPY 로 저장하는 writer (writeMode=copy). 청크의 행을 COPY FROM STDIN 으로 임시 스테이징 테이블에 흘려 넣고,
+ * 스테이징 테이블에서 company_data 로 INSERT ... SELECT ... ON CONFLICT 한 문장으로 합친다.
+ * 매칭, 갱신 조건, 집계는 {@link SaraminCompanyDataUpsertWriter} 와 같고 company_data 에 반영하는 방식만 다르다.
+ * UpsertWriterBenchmark(임베디드 PostgreSQL) 에서는 청크 100/1000 건 모두 새 행 저장이 upsert 와 비슷하고
+ * 변경 없음/갱신은 더 느렸으므로, 실제 DB 에서 chunkSize 와 함께 측정해 빠를 때만 사용한다.
+ */
+@Slf4j
+public class SaraminCompanyDataCopyWriter extends SaraminCompanyDataUpsertWriter {
+
+    // 연결마다 한 번 만들어지고, 커밋/롤백 시 비워지므로 청크끼리 섞이지 않음
+    private static final String CREATE_STAGING_SQL =
+            "CREATE TEMP TABLE IF NOT EXISTS company_data_staging (" +
+                    "ord int, csn varchar(50), company varchar(100), key_executive text, industry varchar(100), " +
+                    "address text, homepage varchar(255), email varchar(100), phone_number varchar(50), sales text, " +
+                    "total_funding varchar(100), logo_url varchar(255), content_hash varchar(64)) ON COMMIT DELETE ROWS";
+
+    private static final String COPY_SQL =
+            "COPY company_data_staging (ord, csn, company, key_executive, industry, address, homepage, email, " +
+                    "phone_number, sales, total_funding, logo_url, content_hash) FROM STDIN WITH (FORMAT csv)";
+
+    // id 와 시각은 upsert writer 와 같음: 이미 있는 csn 은 기존 id 를 넘겨 시퀀스 값을 버리지 않고, 시각은 JVM 시각을 파라미터로 받음.
+    // 새 행이 청크 순서대로 id 를 받도록 ord 로 정렬
+    private static final String MERGE_SQL = INSERT_INTO +
+            "SELECT COALESCE(c.id, nextval('company_data_seq')), s.csn, s.company, s.key_executive, s.industry, s.address, " +
+            "s.homepage, s.email, s.phone_number, s.sales, s.total_funding, s.logo_url, s.content_hash, " +
+            "?::timestamp, ?::timestamp FROM company_data_staging s LEFT JOIN company_data c ON c.csn = s.csn ORDER BY s.ord " +
+            ON_CONFLICT_UPDATE;
+
+    private static final List<Function<CompanyData, String>> COLUMNS = List.of(
+            CompanyData::getCsn, CompanyData::getCompany, CompanyData::getKeyExecutive, CompanyData::getIndustry,
+            CompanyData::getAddress, CompanyData::getHomepage, CompanyData::getEmail, CompanyData::getPhoneNumber,
+            CompanyData::getSales, CompanyData::getTotalFunding, CompanyData::getLogoUrl, CompanyData::getContentHash);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SaraminCompanyDataCopyWriter(JdbcTemplate jdbcTemplate, CompanyMatchIndex companyMatchIndex,
+                                        PageValidatorRepositoryCustom pageValidatorRepository, CrawlMetrics crawlMetrics,
+                                        CompanyQueryService companyQueryService) {
+        super(jdbcTemplate, companyMatchIndex, pageValidatorRepository, crawlMetrics, companyQueryService);
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    protected void upsert(List<CompanyData> rows, RowCallbackHandler changed) {
+        // 자동 커밋이면 COPY 직후 스테이징 테이블이 비워지므로 청크 트랜잭션 안에서만 동작
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("writeMode=copy requires an active transaction");
+        }
+        jdbcTemplate.execute(CREATE_STAGING_SQL);
+        // 같은 트랜잭션 안에서 재시도된 경우 남아 있는 행 제거
+        jdbcTemplate.update("DELETE FROM company_data_staging");
+        long copied = jdbcTemplate.execute((ConnectionCallback<Long>) con -> copy(con.unwrap(PGConnection.class), rows));
+        log.debug("Copied {} rows into company_data_staging", copied);
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.query(MERGE_SQL, changed, now, now);
+    }
+
+    @Override
+    protected String mode() {
+        return "copy";
+    }
+
+    private static long copy(PGConnection con, List<CompanyData> rows) throws SQLException {
+        CopyIn copyIn = con.getCopyAPI().copyIn(COPY_SQL);
+        try {
+            StringBuilder line = new StringBuilder(512);
+            for (int i = 0; i < rows.size(); i++) {
+                line.setLength(0);
+                line.append(i);
+                for (Function<CompanyData, String> column : COLUMNS) {
+                    line.append(',');
+                    appendField(line, column.apply(rows.get(i)));
+                }
+                line.append('\n');
+                byte[] bytes = line.toString().getBytes(StandardCharsets.UTF_8);
+                copyIn.writeToCopy(bytes, 0, bytes.length);
+            }
+            return copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    // CSV 형식에서 따옴표 없는 빈 값은 NULL, 따옴표로 감싼 값은 빈 문자열을 포함해 그대로 문자열
+    static void appendField(StringBuilder line, String value) {
+        if (value == null) {
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                line.append('"');
+            }
+            line.append(c);
+        }
+        line.append('"');
+    }
+}
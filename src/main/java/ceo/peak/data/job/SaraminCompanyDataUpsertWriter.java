@@ -0,0 +1,217 @@
+package ceo.peak.data.job;
+
+import ceo.peak.data.entity.CompanyData;
+import ceo.peak.data.entity.PageValidator;
+import ceo.peak.data.index.CompanyMatchIndex;
+import ceo.peak.data.repository.PageValidatorRepositoryCustom;
+import ceo.peak.data.service.CompanyQueryService;
+import ceo.peak.data.util.AddressSimilarity;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * csn 을 기준으로 PostgreSQL INSERT ... ON CONFLICT 한 문장으로 저장하는 writer (writeMode=upsert, 기본값).
+ * 내용 지문이 같은 행은 ON CONFLICT 의 WHERE 조건에 걸려 갱신되지 않는다.
+ * csn 컬럼이 생기기 전에 저장된 행은 회사명/주소가 일치하면 먼저 csn 을 붙여 같은 행으로 이어 쓴다.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class SaraminCompanyDataUpsertWriter implements ItemWriter<CompanyData> {
+
+    static final String INSERT_INTO =
+            "INSERT INTO company_data (id, csn, company, key_executive, industry, address, homepage, email, " +
+                    "phone_number, sales, total_funding, logo_url, content_hash, created_at, updated_at) ";
+
+    static final String ON_CONFLICT_UPDATE =
+            "ON CONFLICT (csn) DO UPDATE SET company = EXCLUDED.company, " +
+                    "key_executive = EXCLUDED.key_executive, industry = EXCLUDED.industry, " +
+                    "address = EXCLUDED.address, homepage = EXCLUDED.homepage, sales = EXCLUDED.sales, " +
+                    "logo_url = EXCLUDED.logo_url, content_hash = EXCLUDED.content_hash, updated_at = EXCLUDED.updated_at " +
+                    "WHERE company_data.content_hash IS DISTINCT FROM EXCLUDED.content_hash " +
+                    "RETURNING id, company, industry, address, (xmax = 0) AS inserted";
+
+    // 청크 전체를 배열 파라미터로 넘겨 한 번에 실행. id 는 JPA 와 같은 시퀀스에서 받되,
+    // 이미 있는 csn 은 기존 id 를 넘겨 충돌로 갱신되는 행마다 시퀀스 값을 버리지 않음 (COALESCE 는 필요한 인자만 평가)
+    // 시각은 JPA Auditing 과 같은 JVM 시각을 파라미터로 받음
+    private static final String UPSERT_SQL = INSERT_INTO +
+            "SELECT COALESCE(c.id, nextval('company_data_seq')), t.*, ?::timestamp, ?::timestamp " +
+            "FROM unnest(?::varchar[], ?::varchar[], ?::text[], ?::varchar[], ?::text[], ?::varchar[], " +
+            "?::varchar[], ?::varchar[], ?::text[], ?::varchar[], ?::varchar[], ?::varchar[]) " +
+            "AS t(csn, company, key_executive, industry, address, homepage, email, " +
+            "phone_number, sales, total_funding, logo_url, content_hash) " +
+            "LEFT JOIN company_data c ON c.csn = t.csn " +
+            ON_CONFLICT_UPDATE;
+
+    private static final String KNOWN_CSN_SQL = "SELECT csn FROM company_data WHERE csn = ANY(?::varchar[])";
+
+    private static final String LEGACY_ROW_SQL =
+            "SELECT id, address FROM company_data WHERE id = ANY(?::bigint[]) AND csn IS NULL";
+
+    private static final String ADOPT_SQL = "UPDATE company_data SET csn = ? WHERE id = ? AND csn IS NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CompanyMatchIndex companyMatchIndex;
+    private final PageValidatorRepositoryCustom pageValidatorRepository;
+    private final CrawlMetrics crawlMetrics;
+    private final CompanyQueryService companyQueryService;
+
+    @Override
+    public void write(Chunk<? extends CompanyData> items) {
+        // 같은 csn 이 한 문장에 두 번 들어가면 ON CONFLICT DO UPDATE 가 실패하므로 마지막 값만 남김
+        Map<String, CompanyData> byCsn = new LinkedHashMap<>();
+        List<PageValidator> validators = new ArrayList<>();
+        for (CompanyData item : items) {
+            if (item.getCsn() == null) {
+                log.warn("Skipping company without csn: {}", item.getCompany());
+                continue;
+            }
+            byCsn.put(item.getCsn(), item);
+            if (item.getEtag() != null || item.getLastModified() != null) {
+                validators.add(PageValidator.of(item.getCsn(), item.getEtag(), item.getLastModified()));
+            }
+        }
+        if (byCsn.isEmpty()) {
+            return;
+        }
+
+        long matchStart = System.nanoTime();
+        adoptLegacyRows(byCsn);
+        crawlMetrics.record(CrawlMetrics.MATCH, matchStart, "writer", mode());
+
+        List<CompanyData> rows = new ArrayList<>(byCsn.values());
+        int[] counts = new int[2]; // [inserted, updated]
+        List<CompanyQueryService.CompanyChange> changes = new ArrayList<>(rows.size());
+        long writeStart = System.nanoTime();
+        upsert(rows, rs -> {
+            // 청크가 롤백되더라도 인덱스에 남은 id 는 조회되지 않으므로 후보에서 자연히 빠짐
+            companyMatchIndex.put(rs.getLong("id"), rs.getString("company"), rs.getString("address"));
+            changes.add(CompanyQueryService.CompanyChange.of(rs.getLong("id"), rs.getString("company"), rs.getString("industry")));
+            counts[rs.getBoolean("inserted") ? 0 : 1]++;
+        });
+
+        pageValidatorRepository.upsertAll(validators);
+        crawlMetrics.record(CrawlMetrics.WRITE, writeStart, "writer", mode());
+        companyQueryService.evict(changes); // 조회 캐시는 커밋 후 무효화
+
+        int unchangedCount = rows.size() - counts[0] - counts[1];
+        CrawlCounters.increment(CrawlCounters.UNCHANGED, unchangedCount);
+        CrawlCounters.increment(CrawlCounters.UPDATED, counts[1]);
+        CrawlCounters.increment(CrawlCounters.INSERTED, counts[0]);
+        log.info("Upserted company data chunk. Unchanged: {}, Updated: {}, Inserted: {}",
+                unchangedCount, counts[1], counts[0]);
+    }
+
+    /**
+     * rows 를 company_data 에 반영하고, 새로 저장되었거나 갱신된 행마다 RETURNING 결과(id, company, industry, address, inserted)를 넘긴다.
+     */
+    protected void upsert(List<CompanyData> rows, RowCallbackHandler changed) {
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(UPSERT_SQL);
+            ps.setObject(1, now);
+            ps.setObject(2, now);
+            ps.setArray(3, column(con, "varchar", rows, CompanyData::getCsn));
+            ps.setArray(4, column(con, "varchar", rows, CompanyData::getCompany));
+            ps.setArray(5, column(con, "text", rows, CompanyData::getKeyExecutive));
+            ps.setArray(6, column(con, "varchar", rows, CompanyData::getIndustry));
+            ps.setArray(7, column(con, "text", rows, CompanyData::getAddress));
+            ps.setArray(8, column(con, "varchar", rows, CompanyData::getHomepage));
+            ps.setArray(9, column(con, "varchar", rows, CompanyData::getEmail));
+            ps.setArray(10, column(con, "varchar", rows, CompanyData::getPhoneNumber));
+            ps.setArray(11, column(con, "text", rows, CompanyData::getSales));
+            ps.setArray(12, column(con, "varchar", rows, CompanyData::getTotalFunding));
+            ps.setArray(13, column(con, "varchar", rows, CompanyData::getLogoUrl));
+            ps.setArray(14, column(con, "varchar", rows, CompanyData::getContentHash));
+            return ps;
+        }, changed);
+    }
+
+    // 지표의 writer 태그
+    protected String mode() {
+        return "upsert";
+    }
+
+    /**
+     * 아직 csn 이 저장되지 않은 항목 중 기존 행(csn 이 null)과 회사명/주소가 일치하는 것은 그 행에 csn 을 붙인다.
+     * 이후 upsert 가 새 행을 만들지 않고 해당 행과 충돌해 갱신하게 된다.
+     */
+    private void adoptLegacyRows(Map<String, CompanyData> byCsn) {
+        Set<String> knownCsns = new HashSet<>(jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(KNOWN_CSN_SQL);
+            ps.setArray(1, con.createArrayOf("varchar", byCsn.keySet().toArray()));
+            return ps;
+        }, (rs, rowNum) -> rs.getString(1)));
+
+        Map<String, Set<Long>> candidateIds = new LinkedHashMap<>();
+        Set<Long> allCandidateIds = new LinkedHashSet<>();
+        for (CompanyData item : byCsn.values()) {
+            if (knownCsns.contains(item.getCsn())) {
+                continue;
+            }
+            Set<Long> ids = companyMatchIndex.candidates(item.getCompany(), item.getAddress());
+            if (!ids.isEmpty()) {
+                candidateIds.put(item.getCsn(), ids);
+                allCandidateIds.addAll(ids);
+            }
+        }
+        if (allCandidateIds.isEmpty()) {
+            return;
+        }
+
+        Map<Long, String> legacyAddresses = new HashMap<>();
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(LEGACY_ROW_SQL);
+            ps.setArray(1, con.createArrayOf("bigint", allCandidateIds.toArray()));
+            return ps;
+        }, rs -> {
+            legacyAddresses.put(rs.getLong("id"), rs.getString("address"));
+        });
+
+        List<Object[]> adoptions = new ArrayList<>();
+        Set<Long> adopted = new HashSet<>();
+        for (Map.Entry<String, Set<Long>> entry : candidateIds.entrySet()) {
+            String address = byCsn.get(entry.getKey()).getAddress();
+            for (Long id : entry.getValue()) {
+                // 주소가 비슷한 첫 후보에 연결. 한 행은 하나의 csn 에만 연결
+                if (legacyAddresses.containsKey(id) && !adopted.contains(id)
+                        && AddressSimilarity.isSimilar(legacyAddresses.get(id), address, AddressSimilarity.SAME_COMPANY_THRESHOLD)) {
+                    adopted.add(id);
+                    adoptions.add(new Object[]{entry.getKey(), id});
+                    break;
+                }
+            }
+        }
+        if (!adoptions.isEmpty()) {
+            jdbcTemplate.batchUpdate(ADOPT_SQL, adoptions);
+            log.info("Assigned csn to {} existing rows", adoptions.size());
+        }
+    }
+
+    static Array column(Connection con, String type, List<CompanyData> rows,
+                        Function<CompanyData, String> getter) throws SQLException {
+        String[] values = new String[rows.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = getter.apply(rows.get(i));
+        }
+        return con.createArrayOf(type, values);
+    }
+}
@@ -0,0 +1,177 @@
+package ceo.peak.data.job;
+
+import ceo.peak.data.entity.CompanyData;
+import ceo.peak.data.entity.PageValidator;
+import ceo.peak.data.index.CompanyMatchIndex;
+import ceo.peak.data.repository.CompanyDataRepository;
+import ceo.peak.data.repository.PageValidatorRepositoryCustom;
+import ceo.peak.data.service.CompanyQueryService;
+import ceo.peak.data.util.AddressSimilarity;
+import ceo.peak.data.util.CompanyNames;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * JPA 로 저장하는 writer (writeMode=jpa). csn 이 같은 행을 먼저 찾고, 없으면
+ * {@link CompanyMatchIndex} 에서 후보 id 를 구해 후보 행을 한 번에 조회한 뒤
+ * 주소 유사도가 {@link AddressSimilarity#SAME_COMPANY_THRESHOLD} 를 넘는 행은 내용 지문이 다를 때만 갱신하고, 일치하는 행이 없으면 새로 저장한다.
+ * 갱신/저장은 청크 트랜잭션 안에서 flush 되며 hibernate.jdbc.batch_size 단위로 묶여 실행된다.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class SaraminCompanyDataWriter implements ItemWriter<CompanyData> {
+
+    private final CompanyDataRepository companyDataRepository;
+    private final CompanyMatchIndex companyMatchIndex;
+    private final PageValidatorRepositoryCustom pageValidatorRepository;
+    private final CrawlMetrics crawlMetrics;
+    private final CompanyQueryService companyQueryService;
+
+    @Override
+    public void write(Chunk<? extends CompanyData> items) {
+        long matchStart = System.nanoTime();
+        // csn 이 같은 행이 있으면 회사명/주소와 관계없이 같은 회사
+        Set<String> csns = new LinkedHashSet<>();
+        for (CompanyData item : items) {
+            if (item.getCsn() != null) {
+                csns.add(item.getCsn());
+            }
+        }
+        Map<String, CompanyData> existingByCsn = new HashMap<>();
+        if (!csns.isEmpty()) {
+            for (CompanyData existingData : companyDataRepository.findByCsnIn(csns)) {
+                existingByCsn.put(existingData.getCsn(), existingData);
+            }
+        }
+
+        List<Set<Long>> candidateIds = new ArrayList<>(items.size());
+        Set<Long> allCandidateIds = new LinkedHashSet<>();
+        for (CompanyData item : items) {
+            Set<Long> ids = companyMatchIndex.candidates(item.getCompany(), item.getAddress());
+            candidateIds.add(ids);
+            allCandidateIds.addAll(ids);
+        }
+
+        // 청크 전체의 후보 행을 id IN 쿼리 한 번으로 조회
+        Map<Long, CompanyData> candidatesById = new HashMap<>();
+        if (!allCandidateIds.isEmpty()) {
+            for (CompanyData existingData : companyDataRepository.findAllById(allCandidateIds)) {
+                candidatesById.put(existingData.getId(), existingData);
+            }
+        }
+
+        List<CompanyData> newItems = new ArrayList<>();
+        List<CompanyData> updatedItems = new ArrayList<>();
+        List<PageValidator> validators = new ArrayList<>();
+        int unchangedCount = 0;
+        int index = 0;
+        for (CompanyData item : items) {
+            CompanyData matched = item.getCsn() == null ? null : existingByCsn.get(item.getCsn());
+            Set<Long> ids = candidateIds.get(index++);
+            if (matched == null) {
+                for (Long id : ids) {
+                    CompanyData candidate = candidatesById.get(id);
+                    // 주소가 비슷하면 업데이트 (다른 csn 이 이미 붙은 행은 다른 회사)
+                    if (candidate != null && isSameSource(candidate, item)
+                            && AddressSimilarity.isSimilar(candidate.getAddress(), item.getAddress(), AddressSimilarity.SAME_COMPANY_THRESHOLD)) {
+                        matched = candidate;
+                        break;
+                    }
+                }
+            }
+            if (matched == null) {
+                // 같은 청크에서 먼저 저장될 항목과 중복인지 확인
+                matched = findPending(newItems, item);
+            }
+            if (matched != null && matched.getCsn() == null && item.getCsn() != null) {
+                matched.assignCsn(item.getCsn()); // csn 이 없던 기존 행에 csn 연결
+            }
+
+            if (item.getEtag() != null || item.getLastModified() != null) {
+                validators.add(PageValidator.of(item.getCsn(), item.getEtag(), item.getLastModified()));
+            }
+
+            if (matched == null) {
+                // 일치하는 데이터가 없으면 새로운 데이터로 추가
+                newItems.add(item);
+            } else if (Objects.equals(matched.getContentHash(), item.getContentHash())) {
+                // 내용이 같으면 UPDATE 하지 않아 updatedAt 도 그대로 유지
+                unchangedCount++;
+            } else {
+                // 영속 상태의 엔티티이므로 flush 시 변경 감지로 UPDATE 가 배치 실행됨
+                matched.update(
+                        item.getCompany(),
+                        item.getKeyExecutive(),
+                        item.getIndustry(),
+                        item.getAddress(),
+                        item.getHomepage(),
+                        item.getSales(),
+                        item.getLogoUrl()
+                );
+                if (matched.getId() != null) { // 같은 청크의 신규 항목에 합쳐진 경우는 신규 저장으로만 집계
+                    updatedItems.add(matched);
+                }
+            }
+        }
+
+        crawlMetrics.record(CrawlMetrics.MATCH, matchStart, "writer", "jpa");
+
+        long writeStart = System.nanoTime();
+        if (!newItems.isEmpty()) {
+            companyDataRepository.saveAll(newItems);
+        }
+        pageValidatorRepository.upsertAll(validators);
+        // 청크 안에서 flush 해야 DB 예외가 Step 의 retry/skip 설정에 걸림
+        companyDataRepository.flush();
+        crawlMetrics.record(CrawlMetrics.WRITE, writeStart, "writer", "jpa");
+
+        // 청크가 롤백되더라도 인덱스에 남은 id 는 조회되지 않으므로 후보에서 자연히 빠짐
+        for (CompanyData data : newItems) {
+            companyMatchIndex.put(data.getId(), data.getCompany(), data.getAddress());
+        }
+        List<CompanyQueryService.CompanyChange> changes = new ArrayList<>(newItems.size() + updatedItems.size());
+        for (CompanyData data : newItems) {
+            changes.add(CompanyQueryService.CompanyChange.of(data.getId(), data.getCompany(), data.getIndustry()));
+        }
+        for (CompanyData data : updatedItems) {
+            companyMatchIndex.put(data.getId(), data.getCompany(), data.getAddress());
+            changes.add(CompanyQueryService.CompanyChange.of(data.getId(), data.getCompany(), data.getIndustry()));
+        }
+        companyQueryService.evict(changes); // 조회 캐시는 커밋 후 무효화
+
+        CrawlCounters.increment(CrawlCounters.UNCHANGED, unchangedCount);
+        CrawlCounters.increment(CrawlCounters.UPDATED, updatedItems.size());
+        CrawlCounters.increment(CrawlCounters.INSERTED, newItems.size());
+        log.info("Wrote company data chunk. Unchanged: {}, Updated: {}, Inserted: {}",
+                unchangedCount, updatedItems.size(), newItems.size());
+    }
+
+    private CompanyData findPending(List<CompanyData> pending, CompanyData item) {
+        String nameKey = CompanyNames.normalize(item.getCompany());
+        for (CompanyData candidate : pending) {
+            if (item.getCsn() != null && item.getCsn().equals(candidate.getCsn())) {
+                return candidate;
+            }
+            if (isSameSource(candidate, item)
+                    && CompanyNames.normalize(candidate.getCompany()).equals(nameKey)
+                    && AddressSimilarity.isSimilar(candidate.getAddress(), item.getAddress(), AddressSimilarity.SAME_COMPANY_THRESHOLD)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isSameSource(CompanyData candidate, CompanyData item) {
+        return candidate.getCsn() == null || item.getCsn() == null || candidate.getCsn().equals(item.getCsn());
+    }
+}
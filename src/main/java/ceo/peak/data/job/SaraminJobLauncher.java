@@ -0,0 +1,249 @@
+package ceo.peak.data.job;
+
+import ceo.peak.data.config.SaraminProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.JobParametersInvalidException;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.launch.support.TaskExecutorJobLauncher;
+import org.springframework.batch.core.repository.JobExecutionAlreadyRunningException;
+import org.springframework.batch.core.repository.JobInstanceAlreadyCompleteException;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.repository.JobRestartException;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * saraminJob 을 별도 스레드에서 실행하고 JobExecution 을 바로 반환한다.
+ * 이미 실행 중인 saraminJob 이 있으면(다른 인스턴스에서 실행한 것 포함) 새로 시작하지 않는다.
+ * 실패한 실행은 같은 JobParameters 로 다시 실행해 같은 JobInstance 를 마지막 커밋 위치부터 재시작한다.
+ * retryFailedJob, companyDedupJob 도 company_data 를 고치므로 셋 중 하나가 실행 중이면 다른 Job 을 시작하지 않는다.
+ * JVM 이 비정상 종료되어 STARTED 로 남은 실행은 staleExecutionTimeout 동안 갱신이 없으면 FAILED 로 표시해 새 실행과 재시작을 막지 않게 한다.
+ */
+@Slf4j
+@Component
+public class SaraminJobLauncher {
+
+    // 같은 인스턴스에 이후 실행이 없는(이미 재시작되지 않은) 실패/중지 실행 중 가장 최근 것
+    private static final String LATEST_FAILED_SQL =
+            "SELECT e.JOB_EXECUTION_ID FROM BATCH_JOB_EXECUTION e " +
+                    "JOIN BATCH_JOB_INSTANCE i ON i.JOB_INSTANCE_ID = e.JOB_INSTANCE_ID " +
+                    "WHERE i.JOB_NAME = ? AND e.STATUS IN ('FAILED', 'STOPPED') AND e.START_TIME > ? " +
+                    "AND NOT EXISTS (SELECT 1 FROM BATCH_JOB_EXECUTION later " +
+                    "WHERE later.JOB_INSTANCE_ID = e.JOB_INSTANCE_ID AND later.JOB_EXECUTION_ID > e.JOB_EXECUTION_ID) " +
+                    "ORDER BY e.START_TIME DESC LIMIT 1";
+
+    private final Job saraminJob;
+    private final Job retryFailedJob;
+    private final Job companyDedupJob;
+    private final JobExplorer jobExplorer;
+    private final JobRepository jobRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration staleExecutionTimeout;
+    private final TaskExecutorJobLauncher jobLauncher;
+    // 이 JVM 에서 시작한 실행. 한 청크가 오래 걸려도 살아 있는 실행이므로 중단된 실행으로 보지 않음
+    private final Map<Long, JobExecution> launched = new ConcurrentHashMap<>();
+
+    public SaraminJobLauncher(Job saraminJob, Job retryFailedJob, Job companyDedupJob, JobExplorer jobExplorer,
+                              JobRepository jobRepository, JdbcTemplate jdbcTemplate,
+                              SaraminProperties saraminProperties) throws Exception {
+        this.saraminJob = saraminJob;
+        this.retryFailedJob = retryFailedJob;
+        this.companyDedupJob = companyDedupJob;
+        this.jobExplorer = jobExplorer;
+        this.jobRepository = jobRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.staleExecutionTimeout = saraminProperties.getStaleExecutionTimeout();
+        // Boot 의 기본 JobLauncher 는 동기 실행이므로 전용 launcher 를 사용. 실행은 한 번에 하나뿐이라 스레드 수 제한은 두지 않음
+        this.jobLauncher = new TaskExecutorJobLauncher();
+        this.jobLauncher.setJobRepository(jobRepository);
+        this.jobLauncher.setTaskExecutor(new SimpleAsyncTaskExecutor("saramin-job-"));
+        this.jobLauncher.afterPropertiesSet();
+    }
+
+    /**
+     * @throws JobExecutionAlreadyRunningException saraminJob 이 이미 실행 중인 경우
+     */
+    public JobExecution launch(JobParameters jobParameters)
+            throws JobExecutionAlreadyRunningException, JobRestartException,
+            JobInstanceAlreadyCompleteException, JobParametersInvalidException {
+        return launch(saraminJob, jobParameters);
+    }
+
+    /**
+     * crawl_dead_letter 에 남은 csn 만 다시 처리하는 retryFailedJob 을 시작한다.
+     *
+     * @param includePermanent false 이면 일시적인 실패(시간 초과, 429/5xx)만
+     * @throws JobExecutionAlreadyRunningException 다른 Job 이 이미 실행 중인 경우
+     */
+    public JobExecution launchRetryFailed(boolean includePermanent)
+            throws JobExecutionAlreadyRunningException, JobRestartException,
+            JobInstanceAlreadyCompleteException, JobParametersInvalidException {
+        JobParameters jobParameters = new JobParametersBuilder()
+                .addLong("time", System.currentTimeMillis())
+                .addString("includePermanent", String.valueOf(includePermanent))
+                .toJobParameters();
+        return launch(retryFailedJob, jobParameters);
+    }
+
+    /**
+     * company_data 의 중복 행을 찾아 합치는 companyDedupJob 을 시작한다.
+     *
+     * @param window 정렬 순서상 앞 몇 개 행과 비교할지
+     * @param dryRun true 이면 묶음 수만 기록하고 합치지 않음
+     * @throws JobExecutionAlreadyRunningException 다른 Job 이 이미 실행 중인 경우
+     */
+    public JobExecution launchDedup(int window, boolean dryRun)
+            throws JobExecutionAlreadyRunningException, JobRestartException,
+            JobInstanceAlreadyCompleteException, JobParametersInvalidException {
+        JobParameters jobParameters = new JobParametersBuilder()
+                .addLong("time", System.currentTimeMillis())
+                .addLong("window", (long) window)
+                .addString("dryRun", String.valueOf(dryRun))
+                .toJobParameters();
+        return launch(companyDedupJob, jobParameters);
+    }
+
+    private synchronized JobExecution launch(Job job, JobParameters jobParameters)
+            throws JobExecutionAlreadyRunningException, JobRestartException,
+            JobInstanceAlreadyCompleteException, JobParametersInvalidException {
+        Optional<JobExecution> running = findRunning()
+                .or(this::findRunningRetryFailed)
+                .or(() -> findRunning(companyDedupJob));
+        if (running.isPresent()) {
+            throw new JobExecutionAlreadyRunningException(running.get().getJobInstance().getJobName()
+                    + " is already running. Execution id: " + running.get().getId());
+        }
+        // run() 은 JobExecution 을 저장한 뒤 반환하므로, 이후의 launch 호출은 findRunning() 에서 이 실행을 보게 됨
+        JobExecution jobExecution = jobLauncher.run(job, jobParameters);
+        launched.values().removeIf(execution -> !execution.isRunning());
+        launched.put(jobExecution.getId(), jobExecution);
+        log.info("Launched {}. Execution id: {}, parameters: {}", job.getName(), jobExecution.getId(), jobParameters);
+        return jobExecution;
+    }
+
+    /**
+     * 실패/중지된 saraminJob 실행의 JobInstance 를 재시작한다. 완료된 파티션은 건너뛰고, 나머지는 각 파티션의 마지막 커밋 위치부터 읽는다.
+     * 갱신 없이 STARTED 로 남은 실행은 FAILED 로 표시한 뒤 재시작한다.
+     *
+     * @throws JobExecutionAlreadyRunningException saraminJob 이 이미 실행 중이거나 failed 가 아직 실행 중인 경우
+     * @throws JobRestartException                 saraminJob 의 실행이 아니거나 FAILED/STOPPED 가 아닌 경우
+     */
+    public JobExecution restart(JobExecution failed)
+            throws JobExecutionAlreadyRunningException, JobRestartException,
+            JobInstanceAlreadyCompleteException, JobParametersInvalidException {
+        if (!saraminJob.getName().equals(failed.getJobInstance().getJobName())) {
+            throw new JobRestartException("Execution " + failed.getId() + " is not a " + saraminJob.getName()
+                    + " execution: " + failed.getJobInstance().getJobName());
+        }
+        if (failed.getStatus().isRunning() && !failIfStale(failed)) {
+            throw new JobExecutionAlreadyRunningException("Execution " + failed.getId() + " is still running");
+        }
+        if (failed.getStatus() != BatchStatus.FAILED && failed.getStatus() != BatchStatus.STOPPED) {
+            throw new JobRestartException("Execution " + failed.getId() + " cannot be restarted. Status: " + failed.getStatus());
+        }
+        log.info("Restarting saraminJob instance: {}, failed execution id: {}",
+                failed.getJobInstance().getInstanceId(), failed.getId());
+        // 새 파라미터를 추가하면 다른 JobInstance 가 되어 처음부터 다시 크롤링하므로 원래 파라미터를 그대로 사용
+        return launch(failed.getJobParameters());
+    }
+
+    /**
+     * since 이후에 시작해 실패(또는 중지)한 뒤 아직 재시작되지 않은 가장 최근 실행.
+     * JVM 이 비정상 종료되어 STARTED 로 남은 실행도 먼저 FAILED 로 표시하므로 함께 찾는다.
+     */
+    public Optional<JobExecution> findLatestFailed(LocalDateTime since) {
+        findRunning();
+        return jdbcTemplate.query(LATEST_FAILED_SQL, (rs, rowNum) -> rs.getLong(1),
+                        saraminJob.getName(), Timestamp.valueOf(since))
+                .stream()
+                .findFirst()
+                .map(jobExplorer::getJobExecution);
+    }
+
+    /**
+     * 갱신 없이 STARTED 로 남은 saraminJob, retryFailedJob, companyDedupJob 실행을 모두 FAILED 로 표시한다.
+     */
+    public void failStaleExecutions() {
+        for (Job job : List.of(saraminJob, retryFailedJob, companyDedupJob)) {
+            jobExplorer.findRunningJobExecutions(job.getName()).forEach(this::failIfStale);
+        }
+    }
+
+    public Optional<JobExecution> findRunning() {
+        return findRunning(saraminJob);
+    }
+
+    public Optional<JobExecution> findRunningRetryFailed() {
+        return findRunning(retryFailedJob);
+    }
+
+    private Optional<JobExecution> findRunning(Job job) {
+        Set<JobExecution> running = jobExplorer.findRunningJobExecutions(job.getName());
+        return running.stream()
+                .filter(execution -> !failIfStale(execution))
+                .findFirst();
+    }
+
+    /**
+     * 다른 JVM 에서 시작했거나 이 JVM 이 재시작되기 전에 시작한 실행이 staleExecutionTimeout 동안 갱신되지 않았으면
+     * 실행 중인 Step 과 함께 FAILED 로 표시한다. FAILED 이므로 같은 JobInstance 를 재시작할 수 있다.
+     *
+     * @return FAILED 로 표시했으면 true
+     */
+    private synchronized boolean failIfStale(JobExecution execution) {
+        if (launched.containsKey(execution.getId())) {
+            return false;
+        }
+        LocalDateTime heartbeat = lastHeartbeat(execution);
+        if (heartbeat.isAfter(LocalDateTime.now().minus(staleExecutionTimeout))) {
+            return false;
+        }
+        log.warn("Marking stale {} execution as FAILED. Execution id: {}, last updated: {}",
+                execution.getJobInstance().getJobName(), execution.getId(), heartbeat);
+        LocalDateTime now = LocalDateTime.now();
+        ExitStatus exitStatus = ExitStatus.FAILED.addExitDescription("No update since " + heartbeat + ". Marked as failed.");
+        for (StepExecution stepExecution : execution.getStepExecutions()) {
+            if (stepExecution.getStatus().isRunning()) {
+                stepExecution.setStatus(BatchStatus.FAILED);
+                stepExecution.setExitStatus(exitStatus);
+                stepExecution.setEndTime(now);
+                jobRepository.update(stepExecution);
+            }
+        }
+        execution.setStatus(BatchStatus.FAILED);
+        execution.setExitStatus(exitStatus);
+        execution.setEndTime(now);
+        jobRepository.update(execution);
+        return true;
+    }
+
+    // 청크가 커밋될 때마다 Step 실행의 LAST_UPDATED 가 갱신되므로 가장 최근 값을 실행이 살아 있다는 신호로 사용
+    static LocalDateTime lastHeartbeat(JobExecution execution) {
+        LocalDateTime heartbeat = Objects.requireNonNullElse(execution.getLastUpdated(), execution.getCreateTime());
+        for (StepExecution stepExecution : execution.getStepExecutions()) {
+            LocalDateTime updated = stepExecution.getLastUpdated();
+            if (updated != null && updated.isAfter(heartbeat)) {
+                heartbeat = updated;
+            }
+        }
+        return heartbeat;
+    }
+}
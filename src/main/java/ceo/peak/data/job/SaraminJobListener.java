@@ -0,0 +1,91 @@
+package ceo.peak.data.job;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Job 종료 시 변경 없음/갱신/신규 저장 건수와 실행 요약(소요 시간, 분당 페이지 수, 단계별 누적 시간, skip/retry 수)을
+ * Job ExecutionContext 에 기록하고 로그로 남긴다. 느린 실행을 나중에 BATCH_JOB_EXECUTION_CONTEXT 에서 비교하기 위함.
+ */
+@Slf4j
+public class SaraminJobListener implements JobExecutionListener {
+
+    public static final String DURATION_MILLIS = "run.durationMillis";
+    public static final String PAGES_PER_MINUTE = "run.pagesPerMinute";
+    public static final String READ_COUNT = "run.readCount";
+    public static final String WRITE_COUNT = "run.writeCount";
+    public static final String SKIP_COUNT = "run.skipCount";
+    public static final String COMMIT_COUNT = "run.commitCount";
+    public static final String ROLLBACK_COUNT = "run.rollbackCount";
+
+    private final String managerStepName;
+    private final List<String> counterStepNames;
+
+    /**
+     * @param managerStepName  실행 건수(read/write/skip 등)를 가져올 manager Step
+     * @param otherStepNames   단계별 누적 시간/페이지 수만 함께 합산할 다른 manager Step
+     */
+    public SaraminJobListener(String managerStepName, String... otherStepNames) {
+        this.managerStepName = managerStepName;
+        this.counterStepNames = new ArrayList<>(List.of(otherStepNames));
+        this.counterStepNames.add(managerStepName);
+    }
+
+    @Override
+    public void afterJob(JobExecution jobExecution) {
+        ExecutionContext summary = jobExecution.getExecutionContext();
+        for (String key : CrawlCounters.KEYS) {
+            summary.remove(key); // 재시작된 실행이면 이전 실행의 값을 덮어씀
+        }
+        for (StepExecution stepExecution : jobExecution.getStepExecutions()) {
+            if (counterStepNames.contains(stepExecution.getStepName())) {
+                CrawlCounters.add(summary, stepExecution.getExecutionContext());
+            }
+            if (stepExecution.getStepName().equals(managerStepName)) {
+                // manager Step 의 건수는 CrawlCountersAggregator 가 파티션 값을 합산한 것
+                summary.putLong(READ_COUNT, stepExecution.getReadCount());
+                summary.putLong(WRITE_COUNT, stepExecution.getWriteCount());
+                summary.putLong(SKIP_COUNT, stepExecution.getSkipCount());
+                summary.putLong(COMMIT_COUNT, stepExecution.getCommitCount());
+                summary.putLong(ROLLBACK_COUNT, stepExecution.getRollbackCount());
+            }
+        }
+
+        long durationMillis = jobExecution.getStartTime() == null ? 0
+                : Duration.between(jobExecution.getStartTime(), LocalDateTime.now()).toMillis();
+        long pages = summary.getLong(CrawlCounters.LISTING_PAGES, 0L) + summary.getLong(CrawlCounters.DETAIL_PAGES, 0L);
+        summary.putLong(DURATION_MILLIS, durationMillis);
+        summary.putDouble(PAGES_PER_MINUTE, pages * 60_000.0 / Math.max(1, durationMillis));
+
+        log.info("Job {} finished with status {}. Unchanged: {} (not modified: {}), Updated: {}, Inserted: {}",
+                jobExecution.getJobInstance().getJobName(), jobExecution.getStatus(),
+                summary.getLong(CrawlCounters.UNCHANGED, 0L) + summary.getLong(CrawlCounters.NOT_MODIFIED, 0L),
+                summary.getLong(CrawlCounters.NOT_MODIFIED, 0L),
+                summary.getLong(CrawlCounters.UPDATED, 0L),
+                summary.getLong(CrawlCounters.INSERTED, 0L));
+        log.info("Job {} took {}ms. Pages: {} ({} pages/min), fetch: {}ms, parse: {}ms, match: {}ms, write: {}ms, " +
+                        "chunks: {}ms, skips: {}, retries: {}",
+                jobExecution.getJobInstance().getJobName(), durationMillis, pages,
+                String.format("%.1f", summary.getDouble(PAGES_PER_MINUTE)),
+                nanosToMillis(summary, CrawlCounters.FETCH_NANOS),
+                nanosToMillis(summary, CrawlCounters.PARSE_NANOS),
+                nanosToMillis(summary, CrawlCounters.MATCH_NANOS),
+                nanosToMillis(summary, CrawlCounters.WRITE_NANOS),
+                nanosToMillis(summary, CrawlCounters.CHUNK_NANOS),
+                summary.getLong(SKIP_COUNT, 0L),
+                summary.getLong(CrawlCounters.RETRIES, 0L));
+    }
+
+    // 동시 처리 중 누적된 시간이므로 fetch/parse 합계는 실행 시간보다 클 수 있음
+    private static long nanosToMillis(ExecutionContext summary, String key) {
+        return summary.getLong(key, 0L) / 1_000_000;
+    }
+}
@@ -0,0 +1,58 @@
+package ceo.peak.data.job;
+
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 소스 하나의 목록 페이지 구간 [startPage, endPage] 를 gridSize 개의 연속된 구간으로 나눈다.
+ * 파티션 수는 Step 설정이 아닌 Job 파라미터로 정해지므로 partition() 의 gridSize 인자는 사용하지 않는다.
+ */
+public class SaraminPagePartitioner implements Partitioner {
+
+    public static final String START_PAGE_KEY = "startPage";
+    public static final String END_PAGE_KEY = "endPage";
+    // 파티션이 처리할 소스 이름. 이 값이 없던 이전 실행을 재시작하면 기본 소스로 처리
+    public static final String SOURCE_KEY = "source";
+
+    private final String source;
+    private final int startPage;
+    private final int endPage;
+    private final int gridSize;
+
+    public SaraminPagePartitioner(String source, int startPage, int endPage, int gridSize) {
+        if (startPage < 1 || endPage < startPage) {
+            throw new IllegalArgumentException("Invalid page range: " + startPage + ".." + endPage);
+        }
+        if (gridSize < 1) {
+            throw new IllegalArgumentException("gridSize must be positive: " + gridSize);
+        }
+        this.source = source;
+        this.startPage = startPage;
+        this.endPage = endPage;
+        this.gridSize = gridSize;
+    }
+
+    @Override
+    public Map<String, ExecutionContext> partition(int ignored) {
+        int totalPages = endPage - startPage + 1;
+        int partitions = Math.min(gridSize, totalPages);
+        int pagesPerPartition = totalPages / partitions;
+        int remainder = totalPages % partitions;
+
+        Map<String, ExecutionContext> result = new LinkedHashMap<>();
+        int from = startPage;
+        for (int i = 0; i < partitions; i++) {
+            int size = pagesPerPartition + (i < remainder ? 1 : 0);
+            ExecutionContext context = new ExecutionContext();
+            context.putInt(START_PAGE_KEY, from);
+            context.putInt(END_PAGE_KEY, from + size - 1);
+            context.putString(SOURCE_KEY, source);
+            result.put("partition" + i, context);
+            from += size;
+        }
+        return result;
+    }
+}
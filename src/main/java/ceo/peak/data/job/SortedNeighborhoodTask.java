@@ -0,0 +1,87 @@
+package ceo.peak.data.job;
+
+import ceo.peak.data.util.AddressSimilarity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * 정렬된 행 목록의 [from, to) 구간에서 각 행을 바로 앞 window - 1 개 행과 비교해 중복 쌍을 찾는다 (sorted-neighborhood).
+ * 앞쪽 행은 읽기만 하므로 구간을 반으로 나눠 ForkJoinPool 에서 병렬로 비교해도 결과는 같다.
+ */
+class SortedNeighborhoodTask extends RecursiveTask<List<SortedNeighborhoodTask.Match>> {
+
+    // 이보다 작은 구간은 나누지 않고 현재 스레드에서 비교
+    private static final int SPLIT_THRESHOLD = 512;
+    private static final double NAME_SIMILARITY_THRESHOLD = 0.8;
+
+    /**
+     * @param nameKey    CompanyNames.normalize 한 회사명
+     * @param addressKey CompanyNames.normalizeAddress 한 주소
+     */
+    record Row(long id, String csn, String nameKey, String addressKey) {
+    }
+
+    record Match(Row left, Row right) {
+    }
+
+    private final List<Row> rows;
+    private final int from;
+    private final int to;
+    private final int window;
+
+    SortedNeighborhoodTask(List<Row> rows, int from, int to, int window) {
+        this.rows = rows;
+        this.from = from;
+        this.to = to;
+        this.window = window;
+    }
+
+    @Override
+    protected List<Match> compute() {
+        if (to - from <= SPLIT_THRESHOLD) {
+            return scan();
+        }
+        int mid = (from + to) >>> 1;
+        SortedNeighborhoodTask left = new SortedNeighborhoodTask(rows, from, mid, window);
+        left.fork();
+        List<Match> right = new SortedNeighborhoodTask(rows, mid, to, window).compute();
+        List<Match> matches = left.join();
+        matches.addAll(right);
+        return matches;
+    }
+
+    private List<Match> scan() {
+        List<Match> matches = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            Row row = rows.get(i);
+            for (int j = Math.max(0, i - window + 1); j < i; j++) {
+                Row previous = rows.get(j);
+                if (isDuplicate(previous, row)) {
+                    matches.add(new Match(previous, row));
+                }
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * 회사명과 주소가 모두 비슷하면 같은 회사로 본다. csn 이 서로 다른 두 행은 사람인에서 다른 회사이므로 합치지 않는다.
+     * 주소가 없는 행은 동명 회사와 구분할 수 없으므로 비교하지 않는다.
+     */
+    static boolean isDuplicate(Row a, Row b) {
+        if (a.csn() != null && b.csn() != null) {
+            return false;
+        }
+        if (a.nameKey().isEmpty() || a.addressKey().isEmpty() || b.addressKey().isEmpty()) {
+            return false;
+        }
+        if (!a.nameKey().equals(b.nameKey())
+                && !AddressSimilarity.isSimilar(a.nameKey(), b.nameKey(), NAME_SIMILARITY_THRESHOLD)) {
+            return false;
+        }
+        return a.addressKey().equals(b.addressKey())
+                || AddressSimilarity.isSimilar(a.addressKey(), b.addressKey(), AddressSimilarity.SAME_COMPANY_THRESHOLD);
+    }
+}
@@ -0,0 +1,38 @@
+package ceo.peak.data.job;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Step 종료 시 처리량(items/sec)을 로그로 남긴다. 순차/동시 처리 모드 비교용.
+ */
+@Slf4j
+public class StepThroughputListener implements StepExecutionListener {
+
+    private final String mode;
+
+    public StepThroughputListener(String mode) {
+        this.mode = mode;
+    }
+
+    @Override
+    public ExitStatus afterStep(StepExecution stepExecution) {
+        LocalDateTime startTime = stepExecution.getStartTime();
+        if (startTime == null) {
+            return null;
+        }
+        long elapsedMillis = Math.max(1, Duration.between(startTime, LocalDateTime.now()).toMillis());
+        long written = stepExecution.getWriteCount();
+        double itemsPerSecond = written * 1000.0 / elapsedMillis;
+
+        log.info("Step {} [{}] read={}, written={}, skipped={}, elapsed={}ms, throughput={} items/sec",
+                stepExecution.getStepName(), mode, stepExecution.getReadCount(), written,
+                stepExecution.getSkipCount(), elapsedMillis, String.format("%.2f", itemsPerSecond));
+        return null;
+    }
+}
@@ -5,10 +5,18 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
-public interface CompanyDataRepository extends JpaRepository<CompanyData, Long> {
+public interface CompanyDataRepository extends JpaRepository<CompanyData, Long>, CompanyDataRepositoryCustom {
 
     @Query("SELECT c FROM CompanyData c WHERE c.company = :company")
     List<CompanyData> findByCompany(@Param("company") String company);
+
+    @Query("SELECT c FROM CompanyData c WHERE c.csn IN :csns")
+    List<CompanyData> findByCsnIn(@Param("csns") Collection<String> csns);
+
+    // 증분 모드에서 목록 페이지의 csn 중 이미 저장된 것만 조회
+    @Query("SELECT c.csn FROM CompanyData c WHERE c.csn IN :csns")
+    List<String> findKnownCsns(@Param("csns") Collection<String> csns);
 }
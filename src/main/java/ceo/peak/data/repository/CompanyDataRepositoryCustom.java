@@ -0,0 +1,25 @@
+package ceo.peak.data.repository;
+
+import ceo.peak.data.dto.CompanyResponse;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface CompanyDataRepositoryCustom {
+
+    Optional<CompanyResponse> findResponseById(long id);
+
+    /**
+     * id 가 afterId 보다 큰 행을 id 순으로 최대 limit 개 조회한다. (OFFSET 없이 인덱스 탐색으로 시작 위치를 찾음)
+     * company/industry 가 null 이면 해당 조건은 적용하지 않는다.
+     */
+    List<CompanyResponse> findResponsesAfter(String company, String industry, Long afterId, int limit);
+
+    /**
+     * survivorIds[i] 행에 loserIds[i] 행을 합친다. 남길 행의 비어 있는("-" 포함) 필드는 합칠 행 중 가장 최근 값으로 채우고,
+     * 합칠 행은 삭제한다. csn 이 있는 행은 삭제하지 않는다.
+     *
+     * @return 삭제한 행 수
+     */
+    int mergeDuplicates(List<Long> survivorIds, List<Long> loserIds);
+}
@@ -0,0 +1,104 @@
+package ceo.peak.data.repository;
+
+import ceo.peak.data.dto.CompanyResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+@RequiredArgsConstructor
+public class CompanyDataRepositoryCustomImpl implements CompanyDataRepositoryCustom {
+
+    private static final String COLUMNS =
+            "SELECT id, csn, company, key_executive, industry, address, homepage, sales, logo_url, updated_at " +
+                    "FROM company_data ";
+
+    private static final RowMapper<CompanyResponse> RESPONSE_MAPPER = (rs, rowNum) -> {
+        Timestamp updatedAt = rs.getTimestamp("updated_at");
+        return new CompanyResponse(rs.getLong("id"),
+                rs.getString("csn"),
+                rs.getString("company"),
+                rs.getString("key_executive"),
+                rs.getString("industry"),
+                rs.getString("address"),
+                rs.getString("homepage"),
+                rs.getString("sales"),
+                rs.getString("logo_url"),
+                updatedAt == null ? null : updatedAt.toLocalDateTime());
+    };
+
+    // 합칠 때 남길 행의 빈 값을 채우는 컬럼
+    private static final String[] FILLABLE_COLUMNS = {"key_executive", "industry", "address", "homepage", "email",
+            "phone_number", "sales", "total_funding", "logo_url"};
+
+    // content_hash 를 비워 다음 크롤링에서 채운 값이 크롤링한 값으로 다시 저장되게 하고, updated_at 으로 검색 색인/내보내기에 반영
+    private static final String FILL_SURVIVORS_SQL = fillSurvivorsSql();
+
+    private static final String DELETE_LOSERS_SQL = "DELETE FROM company_data WHERE id = ANY(?::bigint[]) AND csn IS NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public Optional<CompanyResponse> findResponseById(long id) {
+        return jdbcTemplate.query(COLUMNS + "WHERE id = ?", RESPONSE_MAPPER, id).stream().findFirst();
+    }
+
+    @Override
+    public List<CompanyResponse> findResponsesAfter(String company, String industry, Long afterId, int limit) {
+        // 조건별로 (company, id) / (industry, id) / PK 인덱스를 그대로 탈 수 있도록 필요한 조건만 붙임
+        StringBuilder sql = new StringBuilder(COLUMNS).append("WHERE 1 = 1");
+        List<Object> args = new ArrayList<>(4);
+        if (company != null) {
+            sql.append(" AND company = ?");
+            args.add(company);
+        }
+        if (industry != null) {
+            sql.append(" AND industry = ?");
+            args.add(industry);
+        }
+        if (afterId != null) {
+            sql.append(" AND id > ?");
+            args.add(afterId);
+        }
+        sql.append(" ORDER BY id LIMIT ?");
+        args.add(limit);
+        return jdbcTemplate.query(sql.toString(), RESPONSE_MAPPER, args.toArray());
+    }
+
+    @Override
+    public int mergeDuplicates(List<Long> survivorIds, List<Long> loserIds) {
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(FILL_SURVIVORS_SQL);
+            ps.setArray(1, con.createArrayOf("bigint", survivorIds.toArray()));
+            ps.setArray(2, con.createArrayOf("bigint", loserIds.toArray()));
+            return ps;
+        });
+        return jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(DELETE_LOSERS_SQL);
+            ps.setArray(1, con.createArrayOf("bigint", loserIds.toArray()));
+            return ps;
+        });
+    }
+
+    private static String fillSurvivorsSql() {
+        StringBuilder picked = new StringBuilder();
+        StringBuilder assignments = new StringBuilder();
+        for (String column : FILLABLE_COLUMNS) {
+            picked.append(", (array_agg(l.").append(column).append(" ORDER BY l.updated_at DESC) FILTER (WHERE l.")
+                    .append(column).append(" IS NOT NULL AND l.").append(column).append(" <> '-'))[1] AS ").append(column);
+            assignments.append(column).append(" = CASE WHEN s.").append(column).append(" IS NULL OR s.").append(column)
+                    .append(" = '-' THEN COALESCE(f.").append(column).append(", s.").append(column).append(") ELSE s.")
+                    .append(column).append(" END, ");
+        }
+        return "WITH filled AS (SELECT p.survivor_id" + picked +
+                " FROM unnest(?::bigint[], ?::bigint[]) AS p(survivor_id, loser_id)" +
+                " JOIN company_data l ON l.id = p.loser_id AND l.csn IS NULL GROUP BY p.survivor_id) " +
+                "UPDATE company_data s SET " + assignments +
+                "content_hash = NULL, updated_at = LOCALTIMESTAMP FROM filled f WHERE s.id = f.survivor_id";
+    }
+}
@@ -0,0 +1,9 @@
+package ceo.peak.data.repository;
+
+import ceo.peak.data.entity.CrawlDeadLetter;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface CrawlDeadLetterRepository extends JpaRepository<CrawlDeadLetter, String>, CrawlDeadLetterRepositoryCustom {
+
+    long countByKind(CrawlDeadLetter.Kind kind);
+}
@@ -0,0 +1,26 @@
+package ceo.peak.data.repository;
+
+import ceo.peak.data.entity.CrawlDeadLetter;
+
+public interface CrawlDeadLetterRepositoryCustom {
+
+    /**
+     * 실패를 기록한다. 이미 있는 csn 이면 마지막 실패 정보로 바꾸고 실패 횟수를 1 늘린다.
+     */
+    void record(Long runId, String csn, String url, CrawlDeadLetter.Kind kind, int statusCode, String error);
+
+    /**
+     * 실패한 csn 을 runId 실행의 crawl_frontier 처리 대상으로 넣는다.
+     *
+     * @param includePermanent false 이면 일시적인 실패만
+     * @return 넣은 csn 수
+     */
+    int seedFrontier(long runId, boolean includePermanent);
+
+    /**
+     * runId 실행에서 다시 가져가 끝낸 뒤 새로 실패하지 않은 csn 을 삭제한다.
+     *
+     * @return 삭제한 행 수
+     */
+    int resolve(long runId);
+}
@@ -0,0 +1,53 @@
+package ceo.peak.data.repository;
+
+import ceo.peak.data.entity.CrawlDeadLetter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@RequiredArgsConstructor
+public class CrawlDeadLetterRepositoryCustomImpl implements CrawlDeadLetterRepositoryCustom {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    // crawl_frontier.claimed_at 과 비교하므로 트랜잭션 시작 시각(LOCALTIMESTAMP)이 아닌 실제 시각으로 남김
+    private static final String RECORD_SQL =
+            "INSERT INTO crawl_dead_letter (csn, run_id, url, kind, status_code, error, failures, last_failed_at, " +
+                    "created_at, updated_at) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, 1, clock_timestamp()::timestamp, LOCALTIMESTAMP, LOCALTIMESTAMP) " +
+                    "ON CONFLICT (csn) DO UPDATE SET run_id = EXCLUDED.run_id, url = EXCLUDED.url, kind = EXCLUDED.kind, " +
+                    "status_code = EXCLUDED.status_code, error = EXCLUDED.error, " +
+                    "failures = crawl_dead_letter.failures + 1, last_failed_at = EXCLUDED.last_failed_at, " +
+                    "updated_at = LOCALTIMESTAMP";
+
+    // CrawlFrontierRepository.discover 와 같은 방식으로 넣되, 목록을 애플리케이션으로 가져오지 않고 한 문장으로 처리
+    private static final String SEED_SQL =
+            "INSERT INTO crawl_frontier (csn, run_id, status, attempts, created_at, updated_at) " +
+                    "SELECT d.csn, ?, 'PENDING', 0, LOCALTIMESTAMP, LOCALTIMESTAMP FROM crawl_dead_letter d " +
+                    "WHERE ? OR d.kind = 'TRANSIENT' " +
+                    "ON CONFLICT (csn) DO UPDATE SET run_id = EXCLUDED.run_id, status = 'PENDING', attempts = 0, " +
+                    "claimed_by = NULL, claimed_at = NULL, updated_at = LOCALTIMESTAMP " +
+                    "WHERE crawl_frontier.run_id IS DISTINCT FROM EXCLUDED.run_id";
+
+    // 이번 실행에서 가져가 DONE 이 된 행. 가져간 뒤 다시 실패로 기록된 행은 FAILED 로 끝나므로 제외됨 (시각 비교는 같은 조건의 확인)
+    private static final String RESOLVE_SQL =
+            "DELETE FROM crawl_dead_letter d USING crawl_frontier f " +
+                    "WHERE f.csn = d.csn AND f.run_id = ? AND f.status = 'DONE' AND d.last_failed_at < f.claimed_at";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void record(Long runId, String csn, String url, CrawlDeadLetter.Kind kind, int statusCode, String error) {
+        String truncated = error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+        jdbcTemplate.update(RECORD_SQL, csn, runId, url, kind.name(), statusCode, truncated);
+    }
+
+    @Override
+    public int seedFrontier(long runId, boolean includePermanent) {
+        return jdbcTemplate.update(SEED_SQL, runId, includePermanent);
+    }
+
+    @Override
+    public int resolve(long runId) {
+        return jdbcTemplate.update(RESOLVE_SQL, runId);
+    }
+}
@@ -0,0 +1,7 @@
+package ceo.peak.data.repository;
+
+import ceo.peak.data.entity.CrawlFrontier;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface CrawlFrontierRepository extends JpaRepository<CrawlFrontier, String>, CrawlFrontierRepositoryCustom {
+}
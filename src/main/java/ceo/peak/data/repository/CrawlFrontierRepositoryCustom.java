@@ -0,0 +1,45 @@
+package ceo.peak.data.repository;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+public interface CrawlFrontierRepositoryCustom {
+
+    /**
+     * csn 을 runId 실행의 처리 대상으로 넣는다. 이미 같은 runId 로 들어간 csn 은 그대로 두고,
+     * 이전 실행에서 들어간 csn 은 대기 상태로 되돌린다.
+     *
+     * @return 이번 실행에 새로 추가된 csn 수
+     */
+    int discover(long runId, Collection<String> csns);
+
+    /**
+     * runId 실행의 대기 중인 행(또는 lease 보다 오래 처리 중인 행)을 최대 limit 개 가져가 처리 중으로 표시한다.
+     * 다른 작업자가 잠근 행은 기다리지 않고 건너뛰므로 여러 스레드/JVM 이 동시에 호출할 수 있다.
+     *
+     * @param codePattern csn 이 이 정규식과 일치하는 행만 (한 소스의 코드만). null 이면 전체
+     */
+    List<String> claim(long runId, String codePattern, String worker, int limit, int maxAttempts, Duration lease);
+
+    /**
+     * 청크가 커밋된 뒤 처리 중인 행을 끝낸다. 가져간 뒤에 crawl_dead_letter 에 기록된(건너뛴) 행은 FAILED,
+     * 나머지는 DONE 으로 표시한다.
+     */
+    void markFinished(Collection<String> csns);
+
+    /**
+     * 중단된 이전 실행에서 worker 가 가져간 채 끝내지 못한 행 중 maxAttempts 번보다 적게 가져간 행을 대기 상태로 되돌린다.
+     * 나머지는 {@link #failExhausted} 로 실패 처리한다.
+     */
+    void release(long runId, String worker, int maxAttempts);
+
+    /**
+     * maxAttempts 번 가져갔는데도 처리 중으로 남은 행 중 lease 가 지났거나 worker 가 가져간 행을 FAILED 로 표시하고
+     * crawl_dead_letter 에 일시적인 실패로 기록한다. 이런 행은 claim 이 다시 가져가지 않으므로 정리하지 않으면 계속 처리 중으로 남는다.
+     *
+     * @param worker null 이면 lease 가 지난 행만
+     * @return 실패로 표시한 행 수
+     */
+    int failExhausted(long runId, String worker, int maxAttempts, Duration lease);
+}
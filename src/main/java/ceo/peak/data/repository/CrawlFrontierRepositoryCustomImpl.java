@@ -0,0 +1,110 @@
+package ceo.peak.data.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+@Slf4j
+@RequiredArgsConstructor
+public class CrawlFrontierRepositoryCustomImpl implements CrawlFrontierRepositoryCustom {
+
+    // 같은 csn 이 여러 목록 페이지에 나와도 한 번만 처리되도록 같은 runId 의 행은 갱신하지 않음
+    private static final String DISCOVER_SQL =
+            "INSERT INTO crawl_frontier (csn, run_id, status, attempts, created_at, updated_at) " +
+                    "SELECT DISTINCT t.csn, ?, 'PENDING', 0, LOCALTIMESTAMP, LOCALTIMESTAMP " +
+                    "FROM unnest(?::varchar[]) AS t(csn) " +
+                    "ON CONFLICT (csn) DO UPDATE SET run_id = EXCLUDED.run_id, status = 'PENDING', attempts = 0, " +
+                    "claimed_by = NULL, claimed_at = NULL, updated_at = LOCALTIMESTAMP " +
+                    "WHERE crawl_frontier.run_id IS DISTINCT FROM EXCLUDED.run_id";
+
+    private static final String CLAIM_SQL =
+            "UPDATE crawl_frontier f SET status = 'IN_PROGRESS', attempts = f.attempts + 1, claimed_by = ?, " +
+                    "claimed_at = LOCALTIMESTAMP, updated_at = LOCALTIMESTAMP " +
+                    "WHERE f.csn IN (SELECT csn FROM crawl_frontier " +
+                    "WHERE run_id = ? AND attempts < ? AND (?::text IS NULL OR csn ~ ?) " +
+                    "AND (status = 'PENDING' OR (status = 'IN_PROGRESS' AND claimed_at < LOCALTIMESTAMP - ?::interval)) " +
+                    "ORDER BY created_at, csn LIMIT ? FOR UPDATE SKIP LOCKED) " +
+                    "RETURNING f.csn";
+
+    // 가져간 뒤에 dead-letter 로 기록된(건너뛴) 행은 FAILED, 나머지(저장했거나 변경이 없어 걸러진 행)는 DONE
+    private static final String FINISH_SQL =
+            "UPDATE crawl_frontier f SET status = CASE WHEN EXISTS (SELECT 1 FROM crawl_dead_letter d " +
+                    "WHERE d.csn = f.csn AND d.last_failed_at >= f.claimed_at) THEN 'FAILED' ELSE 'DONE' END, " +
+                    "updated_at = LOCALTIMESTAMP " +
+                    "WHERE f.csn = ANY(?::varchar[]) AND f.status = 'IN_PROGRESS'";
+
+    private static final String RELEASE_SQL =
+            "UPDATE crawl_frontier SET status = 'PENDING', claimed_by = NULL, claimed_at = NULL, updated_at = LOCALTIMESTAMP " +
+                    "WHERE run_id = ? AND claimed_by = ? AND status = 'IN_PROGRESS' AND attempts < ?";
+
+    // 가져갈 수 있는 횟수를 다 쓴 채 끝나지 않은 행(lease 가 지났거나 worker 가 놓고 간 행)을 FAILED 로 바꾸고 dead-letter 에 기록.
+    // 작업자가 죽어 응답을 받지 못한 경우이므로 일시적인 실패로 남겨 retryFailedJob 의 기본 대상이 되게 함
+    private static final String FAIL_EXHAUSTED_SQL =
+            "WITH failed AS (UPDATE crawl_frontier SET status = 'FAILED', updated_at = LOCALTIMESTAMP " +
+                    "WHERE run_id = ? AND status = 'IN_PROGRESS' AND attempts >= ? " +
+                    "AND (claimed_at < LOCALTIMESTAMP - ?::interval OR claimed_by = ?) " +
+                    "RETURNING csn, attempts) " +
+                    "INSERT INTO crawl_dead_letter (csn, run_id, url, kind, status_code, error, failures, last_failed_at, " +
+                    "created_at, updated_at) " +
+                    "SELECT csn, ?, NULL, 'TRANSIENT', 0, 'Not finished after ' || attempts || ' attempts', 1, " +
+                    "clock_timestamp()::timestamp, LOCALTIMESTAMP, LOCALTIMESTAMP FROM failed " +
+                    "ON CONFLICT (csn) DO UPDATE SET run_id = EXCLUDED.run_id, kind = EXCLUDED.kind, " +
+                    "status_code = EXCLUDED.status_code, error = EXCLUDED.error, " +
+                    "failures = crawl_dead_letter.failures + 1, last_failed_at = EXCLUDED.last_failed_at, " +
+                    "updated_at = LOCALTIMESTAMP";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int discover(long runId, Collection<String> csns) {
+        if (csns.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(DISCOVER_SQL);
+            ps.setLong(1, runId);
+            ps.setArray(2, con.createArrayOf("varchar", csns.toArray()));
+            return ps;
+        });
+    }
+
+    @Override
+    public List<String> claim(long runId, String codePattern, String worker, int limit, int maxAttempts, Duration lease) {
+        return jdbcTemplate.queryForList(CLAIM_SQL, String.class,
+                worker, runId, maxAttempts, codePattern, codePattern, lease.toSeconds() + " seconds", limit);
+    }
+
+    @Override
+    public void markFinished(Collection<String> csns) {
+        if (csns.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(FINISH_SQL);
+            ps.setArray(1, con.createArrayOf("varchar", csns.toArray()));
+            return ps;
+        });
+    }
+
+    @Override
+    public void release(long runId, String worker, int maxAttempts) {
+        int released = jdbcTemplate.update(RELEASE_SQL, runId, worker, maxAttempts);
+        if (released > 0) {
+            log.info("Released {} unfinished frontier rows claimed by {}", released, worker);
+        }
+    }
+
+    @Override
+    public int failExhausted(long runId, String worker, int maxAttempts, Duration lease) {
+        int failed = jdbcTemplate.update(FAIL_EXHAUSTED_SQL, runId, maxAttempts, lease.toSeconds() + " seconds", worker, runId);
+        if (failed > 0) {
+            log.warn("Marked {} frontier rows as failed after {} attempts. Run: {}", failed, maxAttempts, runId);
+        }
+        return failed;
+    }
+}
@@ -0,0 +1,7 @@
+package ceo.peak.data.repository;
+
+import ceo.peak.data.entity.PageValidator;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface PageValidatorRepository extends JpaRepository<PageValidator, String>, PageValidatorRepositoryCustom {
+}
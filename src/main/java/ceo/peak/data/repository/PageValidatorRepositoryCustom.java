@@ -0,0 +1,13 @@
+package ceo.peak.data.repository;
+
+import ceo.peak.data.entity.PageValidator;
+
+import java.util.List;
+
+public interface PageValidatorRepositoryCustom {
+
+    /**
+     * csn 기준으로 검증자를 INSERT ... ON CONFLICT 로 일괄 저장한다.
+     */
+    void upsertAll(List<PageValidator> validators);
+}
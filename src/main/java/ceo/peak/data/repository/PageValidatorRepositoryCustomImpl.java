@@ -0,0 +1,36 @@
+package ceo.peak.data.repository;
+
+import ceo.peak.data.entity.PageValidator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class PageValidatorRepositoryCustomImpl implements PageValidatorRepositoryCustom {
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO page_validator (csn, etag, last_modified, created_at, updated_at) " +
+                    "VALUES (?, ?, ?, ?, ?) " +
+                    "ON CONFLICT (csn) DO UPDATE SET etag = EXCLUDED.etag, " +
+                    "last_modified = EXCLUDED.last_modified, updated_at = EXCLUDED.updated_at";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void upsertAll(List<PageValidator> validators) {
+        if (validators.isEmpty()) {
+            return;
+        }
+        // JPA Auditing 으로 저장한 행과 같은 JVM 시각을 사용
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.batchUpdate(UPSERT_SQL, validators, validators.size(), (ps, validator) -> {
+            ps.setString(1, validator.getCsn());
+            ps.setString(2, validator.getEtag());
+            ps.setString(3, validator.getLastModified());
+            ps.setObject(4, now);
+            ps.setObject(5, now);
+        });
+    }
+}
@@ -1,27 +1,32 @@
 package ceo.peak.data.scheduler;
 
+import ceo.peak.data.entity.CrawlDeadLetter;
+import ceo.peak.data.job.SaraminJobLauncher;
+import ceo.peak.data.repository.CrawlDeadLetterRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.batch.core.*;
-import org.springframework.batch.core.explore.JobExplorer;
-import org.springframework.batch.core.launch.JobLauncher;
-import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.repository.JobExecutionAlreadyRunningException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Profile;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
-import java.util.List;
-import java.util.Objects;
+import java.util.Optional;
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
+// 원격 파티션 작업자 JVM 은 Job 을 시작하지 않고 파티션 요청만 처리
+@ConditionalOnExpression("!'${saramin.partition.mode:local}'.equalsIgnoreCase('worker')")
+@Profile("!" + SaraminBatchRunner.PROFILE) // batch 프로필은 실행마다 SaraminBatchRunner 가 한 번 실행
 public class BatchScheduler {
 
-    private final JobLauncher jobLauncher;
-    private final JobExplorer jobExplorer;
-    private final JobRepository jobRepository;
-    private final Job saraminJob; // Job 객체 주입
+    private final SaraminJobLauncher saraminJobLauncher; // 실행 중인 saraminJob 이 있으면 새로 시작하지 않음
+    private final CrawlDeadLetterRepository crawlDeadLetterRepository;
 
     @Scheduled(cron = "0 0 4 * * 6") // 매주 토요일 새벽 4시에 실행
     public String runSaraminJob() throws Exception {
@@ -30,57 +35,58 @@ public class BatchScheduler {
         JobParameters jobParameters = new JobParametersBuilder()
                 .addString("date", value)
                 .addLong("time", System.currentTimeMillis())
+                .addString("incremental", "true") // 지난 실행 이후 새로 등록된 회사까지만 읽음
                 .toJobParameters();
 
         log.info("Starting job with parameters: {}", jobParameters);
 
-        JobExecution jobExecution = jobLauncher.run(saraminJob, jobParameters);
-
-        log.info("Job finished with status: {}", jobExecution.getStatus());
-
-        return "Job status: " + jobExecution.getStatus();
+        try {
+            JobExecution jobExecution = saraminJobLauncher.launch(jobParameters);
+            log.info("Job launched. Execution id: {}", jobExecution.getId());
+            return "Job status: " + jobExecution.getStatus();
+        } catch (JobExecutionAlreadyRunningException e) {
+            log.warn("Skipping scheduled run. {}", e.getMessage());
+            return "Job already running";
+        }
     }
 
     @Scheduled(cron = "0 0 2 * * *") // 매일 새벽 2시에 실행
     public void restartSaraminJob() {
         try {
-            String jobName = "saraminJob";
-            LocalDateTime cutoffTime = LocalDateTime.now().minusHours(24);
-
-            // 1. JobInstance 조회 (최근 100개)
-            List<JobInstance> jobInstances = jobExplorer.findJobInstancesByJobName(jobName, 0, 100);
-
-            // 2. 모든 Execution 추출 + 필터링
-            List<JobExecution> failedExecutions = jobInstances.stream()
-                    .flatMap(instance -> jobExplorer.getJobExecutions(instance).stream())
-                    .filter(exec -> exec.getStatus() == BatchStatus.FAILED)
-                    .filter(exec -> exec.getStartTime() != null
-                            && exec.getStartTime().isAfter(cutoffTime))
-                    .sorted((e1, e2) -> Objects.requireNonNull(e2.getStartTime()).compareTo(e1.getStartTime()))
-                    .toList();
-
-            // 3. 재시작 로직 (이하 동일)
-            if (!failedExecutions.isEmpty()) {
-                JobExecution latestFailed = failedExecutions.get(0);
-                log.info("Restarting failed job: {}", latestFailed.getId());
-
-                JobParameters newJobParameters = new JobParametersBuilder(latestFailed.getJobParameters())
-                        .addLong("time", System.currentTimeMillis())
-                        .toJobParameters();
-
-                jobLauncher.run(saraminJob, newJobParameters);
+            // 최근 24시간 안에 실패한 실행이 있으면 같은 JobInstance 를 마지막 커밋 위치부터 재시작
+            Optional<JobExecution> latestFailed = saraminJobLauncher.findLatestFailed(LocalDateTime.now().minusHours(24));
+            if (latestFailed.isPresent()) {
+                saraminJobLauncher.restart(latestFailed.get());
                 return;
             }
 
-            // 4. 새 작업 실행
+            // 새 작업 실행
             JobParameters params = new JobParametersBuilder()
                     .addLong("time", System.currentTimeMillis())
                     .toJobParameters();
-            jobLauncher.run(saraminJob, params);
+            saraminJobLauncher.launch(params);
 
+        } catch (JobExecutionAlreadyRunningException e) {
+            log.warn("Skipping scheduled run. {}", e.getMessage());
         } catch (Exception e) {
             log.error("Job execution failed", e);
         }
     }
 
+    @Scheduled(cron = "0 0 3 * * *") // 매일 새벽 3시에 실행
+    public void retryFailedFetches() {
+        // 일시적인 실패로 남은 csn 이 있을 때만 해당 상세 페이지를 다시 요청
+        long pending = crawlDeadLetterRepository.countByKind(CrawlDeadLetter.Kind.TRANSIENT);
+        if (pending == 0) {
+            return;
+        }
+        try {
+            log.info("Retrying {} dead-lettered company codes", pending);
+            saraminJobLauncher.launchRetryFailed(false);
+        } catch (JobExecutionAlreadyRunningException e) {
+            log.warn("Skipping scheduled retry. {}", e.getMessage());
+        } catch (Exception e) {
+            log.error("Retry job execution failed", e);
+        }
+    }
 }
@@ -0,0 +1,93 @@
+package ceo.peak.data.scheduler;
+
+import ceo.peak.data.job.SaraminJobLauncher;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.repository.JobExecutionAlreadyRunningException;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ExitCodeGenerator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * batch 프로필로 시작한 실행마다 saraminJob 을 한 번 실행하고 끝날 때까지 기다린다. 상주하는 서비스의 {@link BatchScheduler} 대신
+ * 실행 때마다 컨테이너를 띄우는 용도로, 최근 24시간 안에 실패한 실행이 있으면 그 JobInstance 를 재시작하고 없으면 증분 모드로 새로 시작한다.
+ * 시작하기 전에 staleExecutionTimeout 동안 갱신 없이 STARTED 로 남은 실행(컨테이너가 죽은 이전 실행 등)을 FAILED 로 표시하므로
+ * 그런 실행은 재시작 대상이 된다. Job 이 COMPLETED 로 끝나지 않으면 종료 코드 1,
+ * 아직 갱신되고 있는 다른 실행이 진행 중이라 시작하지 못하면 종료 코드 2 로 끝나 스케줄러가 건너뛴 실행을 알 수 있게 한다.
+ */
+@Slf4j
+@Component
+@Profile(SaraminBatchRunner.PROFILE)
+@RequiredArgsConstructor
+public class SaraminBatchRunner implements ExitCodeGenerator {
+
+    public static final String PROFILE = "batch";
+
+    private static final long POLL_INTERVAL_MILLIS = 1_000;
+
+    static final int FAILED_EXIT_CODE = 1;
+    static final int ALREADY_RUNNING_EXIT_CODE = 2;
+
+    private final SaraminJobLauncher saraminJobLauncher;
+    private final JobExplorer jobExplorer;
+    private final ApplicationArguments applicationArguments;
+
+    private int exitCode;
+
+    // ApplicationRunner 로 실행하면 company_data_seq 보정 등 다른 runner 보다 먼저 실행될 수 있으므로 모든 runner 가 끝난 뒤 시작
+    @EventListener
+    public void run(ApplicationReadyEvent event) throws Exception {
+        saraminJobLauncher.failStaleExecutions();
+        JobExecution jobExecution;
+        try {
+            Optional<JobExecution> latestFailed = saraminJobLauncher.findLatestFailed(LocalDateTime.now().minusHours(24));
+            jobExecution = latestFailed.isPresent()
+                    ? saraminJobLauncher.restart(latestFailed.get())
+                    : saraminJobLauncher.launch(jobParameters());
+        } catch (JobExecutionAlreadyRunningException e) {
+            exitCode = ALREADY_RUNNING_EXIT_CODE;
+            log.warn("Batch run not started. {}, exit code: {}", e.getMessage(), exitCode);
+            return;
+        }
+
+        // launcher 는 별도 스레드에서 실행하므로 JobRepository 에 기록된 상태로 종료를 기다림
+        while (jobExecution.isRunning()) {
+            Thread.sleep(POLL_INTERVAL_MILLIS);
+            jobExecution = jobExplorer.getJobExecution(jobExecution.getId());
+        }
+        exitCode = jobExecution.getStatus() == BatchStatus.COMPLETED ? 0 : FAILED_EXIT_CODE;
+        log.info("Batch run finished. Execution id: {}, status: {}, exit code: {}",
+                jobExecution.getId(), jobExecution.getStatus(), exitCode);
+    }
+
+    @Override
+    public int getExitCode() {
+        return exitCode;
+    }
+
+    // 매주 실행과 같은 증분 모드가 기본. 다른 Job 파라미터는 key=value 인자로 지정 (예: incremental=false endPage=50)
+    private JobParameters jobParameters() {
+        JobParametersBuilder builder = new JobParametersBuilder()
+                .addString("date", LocalDateTime.now().toString())
+                .addLong("time", System.currentTimeMillis())
+                .addString("incremental", "true");
+        for (String arg : applicationArguments.getNonOptionArgs()) {
+            int separator = arg.indexOf('=');
+            if (separator > 0) {
+                builder.addString(arg.substring(0, separator), arg.substring(separator + 1));
+            }
+        }
+        return builder.toJobParameters();
+    }
+}
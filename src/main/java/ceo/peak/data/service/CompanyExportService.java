@@ -0,0 +1,211 @@
+package ceo.peak.data.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * company_data 전체(또는 updatedAt 이후 바뀐 행)를 gzip 으로 압축한 NDJSON/CSV 로 내보낸다.
+ * 엔티티를 만들지 않고 커서로 fetchSize 만큼씩 읽어 바로 쓰므로 행 수와 관계없이 메모리 사용량이 일정하다.
+ */
+@Slf4j
+@Service
+public class CompanyExportService {
+
+    // PostgreSQL 드라이버는 autocommit 이 꺼져 있고 fetchSize 가 있을 때만 서버 측 커서로 나눠 읽음
+    private static final int FETCH_SIZE = 1000;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String[] COLUMNS = {"id", "csn", "company", "key_executive", "industry", "address",
+            "homepage", "email", "phone_number", "sales", "total_funding", "logo_url", "created_at", "updated_at"};
+    private static final String SELECT = "SELECT " + String.join(", ", COLUMNS) + " FROM company_data";
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final JdbcTemplate cursorJdbcTemplate;
+
+    public CompanyExportService(DataSource dataSource) {
+        // 공용 JdbcTemplate 의 설정을 바꾸지 않도록 내보내기 전용 인스턴스 사용
+        this.cursorJdbcTemplate = new JdbcTemplate(dataSource);
+        this.cursorJdbcTemplate.setFetchSize(FETCH_SIZE);
+    }
+
+    public enum Format {
+        NDJSON("ndjson"),
+        CSV("csv");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        public String fileName(String baseName) {
+            return baseName + "." + extension + ".gz";
+        }
+    }
+
+    /**
+     * @param updatedAfter null 이면 전체, 아니면 updated_at 이 이 시각 이후인 행만
+     * @param out          gzip 으로 압축해 쓴다. 닫지는 않음
+     * @return 내보낸 행 수
+     */
+    @Transactional(readOnly = true)
+    public long export(Format format, LocalDateTime updatedAfter, OutputStream out) throws IOException {
+        long startTime = System.currentTimeMillis();
+        GZIPOutputStream gzip = new GZIPOutputStream(out, BUFFER_SIZE);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(gzip, StandardCharsets.UTF_8), BUFFER_SIZE);
+
+        RowWriter rowWriter = format == Format.NDJSON ? new NdjsonRowWriter(writer) : new CsvRowWriter(writer);
+        rowWriter.begin();
+        try {
+            if (updatedAfter == null) {
+                cursorJdbcTemplate.query(SELECT + " ORDER BY id", rowWriter);
+            } else {
+                cursorJdbcTemplate.query(SELECT + " WHERE updated_at > ? ORDER BY id", rowWriter,
+                        Timestamp.valueOf(updatedAfter));
+            }
+        } catch (UncheckedIOException e) {
+            // 클라이언트 연결 끊김 등 쓰기 실패는 원래 예외로 전달
+            throw e.getCause();
+        }
+        rowWriter.end();
+        writer.flush();
+        // gzip 트레일러만 쓰고 out 은 호출한 쪽에서 닫음
+        gzip.finish();
+
+        log.info("Exported {} companies as {}. updatedAfter: {}, elapsed: {}ms",
+                rowWriter.rows, format, updatedAfter, System.currentTimeMillis() - startTime);
+        return rowWriter.rows;
+    }
+
+    private abstract static class RowWriter implements RowCallbackHandler {
+
+        long rows;
+
+        void begin() throws IOException {
+        }
+
+        void end() throws IOException {
+        }
+
+        abstract void write(ResultSet rs) throws IOException, SQLException;
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            try {
+                write(rs);
+                rows++;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private class NdjsonRowWriter extends RowWriter {
+
+        private final Writer writer;
+        private final JsonGenerator generator;
+
+        NdjsonRowWriter(Writer writer) throws IOException {
+            this.writer = writer;
+            this.generator = jsonFactory.createGenerator(writer);
+            // 행마다 flush 해도 응답 스트림까지 flush 되지 않도록 하고, 닫을 때 writer 는 닫지 않음
+            this.generator.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+
+        @Override
+        void write(ResultSet rs) throws IOException, SQLException {
+            generator.writeStartObject();
+            generator.writeNumberField("id", rs.getLong(1));
+            for (int i = 1; i < COLUMNS.length; i++) {
+                generator.writeFieldName(COLUMNS[i]);
+                String value = value(rs, i + 1);
+                if (value == null) {
+                    generator.writeNull();
+                } else {
+                    generator.writeString(value);
+                }
+            }
+            generator.writeEndObject();
+            generator.flush();
+            writer.write('\n');
+        }
+
+        @Override
+        void end() throws IOException {
+            generator.close();
+        }
+    }
+
+    private static class CsvRowWriter extends RowWriter {
+
+        private final Writer writer;
+
+        CsvRowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        void begin() throws IOException {
+            writer.write(String.join(",", COLUMNS));
+            writer.write("\r\n");
+        }
+
+        @Override
+        void write(ResultSet rs) throws IOException, SQLException {
+            for (int i = 0; i < COLUMNS.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writeField(value(rs, i + 1));
+            }
+            writer.write("\r\n");
+        }
+
+        // RFC 4180: 구분자, 따옴표, 줄바꿈이 있으면 따옴표로 감싸고 안의 따옴표는 두 번 씀
+        private void writeField(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+
+    private static String value(ResultSet rs, int column) throws SQLException {
+        if (COLUMNS[column - 1].endsWith("_at")) {
+            Timestamp timestamp = rs.getTimestamp(column);
+            return timestamp == null ? null : timestamp.toLocalDateTime().toString();
+        }
+        return rs.getString(column);
+    }
+}
@@ -0,0 +1,200 @@
+package ceo.peak.data.service;
+
+import ceo.peak.data.config.CacheConfig;
+import ceo.peak.data.dto.CompanyPageResponse;
+import ceo.peak.data.dto.CompanyResponse;
+import ceo.peak.data.repository.CompanyDataRepositoryCustom;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * 회사 데이터 조회. 단건과 목록 페이지를 크기/TTL 제한이 있는 메모리 캐시에 두고,
+ * batch writer 가 행을 바꾸면 {@link #evict(Collection)} 로 바뀐 행이 들어 있거나 들어가게 될 항목만 무효화한다.
+ * 무효화는 writer 의 트랜잭션이 커밋된 뒤에 적용하며, 무효화 전에 DB 를 읽기 시작한 조회 결과는 캐시에 넣지 않는다.
+ */
+@Service
+public class CompanyQueryService {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private final CompanyDataRepositoryCustom companyDataRepository;
+    private final Cache companyCache;
+    private final Cache pageCache;
+
+    // 무효화할 때마다 증가. 조회를 시작한 뒤 값이 바뀌었으면 읽은 값이 무효화 전의 값일 수 있으므로 캐시에 넣지 않음
+    private long generation;
+    // 캐시에 넣기(읽기 잠금)와 세대 증가 + 무효화(쓰기 잠금)가 엇갈리지 않게 함
+    private final ReadWriteLock generationLock = new ReentrantReadWriteLock();
+
+    // JDBC 로 구현한 조회 메서드만 사용하므로 Custom 인터페이스에 의존 (벤치마크는 구현체를 직접 넘김)
+    public CompanyQueryService(CompanyDataRepositoryCustom companyDataRepository, CacheManager cacheManager) {
+        this.companyDataRepository = companyDataRepository;
+        this.companyCache = cacheManager.getCache(CacheConfig.COMPANY_CACHE);
+        this.pageCache = cacheManager.getCache(CacheConfig.COMPANY_PAGE_CACHE);
+    }
+
+    private record PageKey(String company, String industry, Long after, int size) {
+    }
+
+    /**
+     * 저장, 갱신 또는 삭제된 행. company 가 null 이면 목록에 새로 들어갈 수 없는 변경(삭제, 필터 컬럼이 아닌 값 채우기)으로 본다.
+     */
+    public record CompanyChange(long id, String company, String industry) {
+
+        public static CompanyChange of(long id, String company, String industry) {
+            return new CompanyChange(id, company, industry);
+        }
+
+        // 목록 구성이 바뀌지 않는 변경. 이 행이 들어 있는 목록만 무효화
+        public static CompanyChange inPlace(long id) {
+            return new CompanyChange(id, null, null);
+        }
+    }
+
+    public Optional<CompanyResponse> findById(long id) {
+        // 없는 id 도 null 로 캐시되며, 해당 id 로 저장되면 evict 로 지워짐
+        return Optional.ofNullable(cached(companyCache, id, () -> companyDataRepository.findResponseById(id).orElse(null)));
+    }
+
+    public CompanyPageResponse findPage(String company, String industry, Long after, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        PageKey key = new PageKey(company, industry, after, limit);
+        return cached(pageCache, key, () -> {
+            List<CompanyResponse> items = companyDataRepository.findResponsesAfter(company, industry, after, limit);
+            Long nextCursor = items.size() < limit ? null : items.get(items.size() - 1).id();
+            return new CompanyPageResponse(items, nextCursor);
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T cached(Cache cache, Object key, Supplier<T> loader) {
+        Cache.ValueWrapper hit = cache.get(key);
+        if (hit != null) {
+            return (T) hit.get();
+        }
+        long startGeneration = currentGeneration();
+        T value = loader.get();
+        generationLock.readLock().lock();
+        try {
+            if (generation == startGeneration) {
+                cache.put(key, value);
+            }
+        } finally {
+            generationLock.readLock().unlock();
+        }
+        return value;
+    }
+
+    private long currentGeneration() {
+        generationLock.readLock().lock();
+        try {
+            return generation;
+        } finally {
+            generationLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 바뀐 행의 단건 캐시를 지우고, 목록 캐시는 그 행이 들어 있는 페이지와 그 행이 새로 들어갈 수 있는 페이지
+     * (회사명/업종 조건이 맞고 id 가 페이지 구간에 속하는 페이지)만 지운다. 트랜잭션 안에서 호출하면 커밋 후에 적용된다.
+     */
+    public void evict(Collection<CompanyChange> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        List<CompanyChange> copy = List.copyOf(changes);
+        afterCommit(() -> invalidate(copy, false));
+    }
+
+    /**
+     * 행이 삭제되어 어느 목록이 바뀌었는지 따지기 어려운 경우(중복 합치기 등). 단건 캐시는 id 로, 목록 캐시는 모두 지운다.
+     */
+    public void evictAllPages(Collection<Long> changedIds) {
+        if (changedIds.isEmpty()) {
+            return;
+        }
+        List<CompanyChange> copy = changedIds.stream().map(CompanyChange::inPlace).toList();
+        afterCommit(() -> invalidate(copy, true));
+    }
+
+    private static void afterCommit(Runnable invalidation) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidation.run();
+                }
+            });
+        } else {
+            invalidation.run();
+        }
+    }
+
+    private void invalidate(List<CompanyChange> changes, boolean allPages) {
+        generationLock.writeLock().lock();
+        try {
+            generation++;
+            for (CompanyChange change : changes) {
+                companyCache.evictIfPresent(change.id());
+            }
+            Map<Object, Object> pages = nativeMap(pageCache);
+            if (allPages || pages == null) {
+                pageCache.invalidate();
+            } else {
+                Set<Long> ids = new HashSet<>();
+                changes.forEach(change -> ids.add(change.id()));
+                pages.entrySet().removeIf(entry -> entry.getKey() instanceof PageKey key
+                        && entry.getValue() instanceof CompanyPageResponse page
+                        && isAffected(key, page, ids, changes));
+            }
+        } finally {
+            generationLock.writeLock().unlock();
+        }
+    }
+
+    private static boolean isAffected(PageKey key, CompanyPageResponse page, Set<Long> ids, List<CompanyChange> changes) {
+        for (CompanyResponse item : page.items()) {
+            if (ids.contains(item.id())) {
+                return true;
+            }
+        }
+        for (CompanyChange change : changes) {
+            if (change.company() != null
+                    && (key.company() == null || key.company().equals(change.company()))
+                    && (key.industry() == null || Objects.equals(key.industry(), change.industry()))
+                    && (key.after() == null || change.id() > key.after())
+                    && (page.nextCursor() == null || change.id() <= page.nextCursor())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // 키와 값으로 골라 지우기 위해 캐시 구현(Caffeine, ConcurrentMap)의 Map 을 직접 사용. 지원하지 않으면 null
+    @SuppressWarnings("unchecked")
+    private static Map<Object, Object> nativeMap(Cache cache) {
+        Object nativeCache = cache.getNativeCache();
+        if (nativeCache instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine) {
+            return (Map<Object, Object>) caffeine.asMap();
+        }
+        if (nativeCache instanceof ConcurrentMap<?, ?> map) {
+            return (Map<Object, Object>) map;
+        }
+        return null;
+    }
+}
@@ -1,6 +1,15 @@
 package ceo.peak.data.util;
 
 public class AddressSimilarity {
+
+    /**
+     * 회사명이 같은 두 행을 같은 회사로 보는 주소 유사도. 저장 writer 들과 중복 정리 Job 이 같은 기준을 쓰도록 한 곳에 둔다.
+     */
+    public static final double SAME_COMPANY_THRESHOLD = 0.7;
+
+    // 스레드마다 재사용하는 DP 행 버퍼 (isSimilar 호출 시 배열을 새로 할당하지 않기 위함)
+    private static final ThreadLocal<int[][]> ROW_BUFFERS = ThreadLocal.withInitial(() -> new int[2][64]);
+
     public static int levenshteinDistance(String s1, String s2) {
         int[] costs = new int[s2.length() + 1];
         for (int i = 0; i <= s1.length(); i++) {
@@ -29,4 +38,102 @@ public class AddressSimilarity {
         int maxLength = Math.max(s1.length(), s2.length());
         return 1.0 - ((double) distance / maxLength);
     }
+
+    /**
+     * {@code similarity(s1, s2) > threshold} 와 항상 같은 결과를 반환한다.
+     * 임계값으로 허용 가능한 최대 편집 거리 k 를 먼저 구한 뒤, 길이 차이가 k 를 넘으면 바로 false 를 반환하고,
+     * 그 외에는 폭 2k+1 의 대각선 구간만 계산하다가 한 행의 최솟값이 k 를 넘는 순간 중단한다.
+     */
+    public static boolean isSimilar(String s1, String s2, double threshold) {
+        int maxLength = Math.max(s1.length(), s2.length());
+        int maxDistance = maxAllowedDistance(maxLength, threshold);
+        if (maxDistance < 0) {
+            return false;
+        }
+        if (Math.abs(s1.length() - s2.length()) > maxDistance) {
+            return false;
+        }
+        return boundedLevenshteinDistance(s1, s2, maxDistance) <= maxDistance;
+    }
+
+    /**
+     * similarity 와 동일한 부동소수점 식을 만족하는 가장 큰 편집 거리. 만족하는 값이 없으면 -1.
+     */
+    private static int maxAllowedDistance(int maxLength, double threshold) {
+        if (maxLength == 0) {
+            return -1; // similarity 는 0/0 으로 NaN 이 되어 어떤 임계값과 비교해도 false
+        }
+        int distance = (int) Math.max(-1, Math.min(maxLength, Math.floor((1.0 - threshold) * maxLength)));
+        while (distance < maxLength && exceedsThreshold(distance + 1, maxLength, threshold)) {
+            distance++;
+        }
+        while (distance >= 0 && !exceedsThreshold(distance, maxLength, threshold)) {
+            distance--;
+        }
+        return distance;
+    }
+
+    private static boolean exceedsThreshold(int distance, int maxLength, double threshold) {
+        return 1.0 - ((double) distance / maxLength) > threshold;
+    }
+
+    /**
+     * 편집 거리가 maxDistance 이하이면 정확한 거리를, 그보다 크면 maxDistance + 1 을 반환한다.
+     */
+    private static int boundedLevenshteinDistance(String s1, String s2, int maxDistance) {
+        int n = s1.length();
+        int m = s2.length();
+        int limit = maxDistance + 1;
+
+        int[][] buffers = ROW_BUFFERS.get();
+        if (buffers[0].length < m + 2) {
+            int size = Math.max(m + 2, buffers[0].length * 2);
+            buffers = new int[][]{new int[size], new int[size]};
+            ROW_BUFFERS.set(buffers);
+        }
+        int[] previous = buffers[0];
+        int[] current = buffers[1];
+
+        int firstRowEnd = Math.min(m, maxDistance);
+        for (int j = 0; j <= firstRowEnd; j++) {
+            previous[j] = j;
+        }
+        if (firstRowEnd < m) {
+            previous[firstRowEnd + 1] = limit;
+        }
+
+        for (int i = 1; i <= n; i++) {
+            int from = Math.max(1, i - maxDistance);
+            int to = Math.min(m, i + maxDistance);
+            int rowMin;
+            if (from == 1) {
+                current[0] = i;
+                rowMin = i;
+            } else {
+                current[from - 1] = limit;
+                rowMin = limit;
+            }
+
+            char c1 = s1.charAt(i - 1);
+            for (int j = from; j <= to; j++) {
+                int value = previous[j - 1] + (c1 == s2.charAt(j - 1) ? 0 : 1);
+                value = Math.min(value, previous[j] + 1);
+                value = Math.min(value, current[j - 1] + 1);
+                value = Math.min(value, limit);
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (to < m) {
+                current[to + 1] = limit;
+            }
+            if (rowMin > maxDistance) {
+                return limit;
+            }
+
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[m], limit);
+    }
 }
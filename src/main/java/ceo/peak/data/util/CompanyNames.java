@@ -0,0 +1,35 @@
+package ceo.peak.data.util;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+public class CompanyNames {
+
+    // 괄호 안의 문자와 그 뒤의 공백, "주식회사" 제거
+    private static final Pattern LEGAL_FORM_PATTERN = Pattern.compile("\\([^)]*\\)\\s*|주식회사\\s*");
+    private static final Pattern WHITESPACE_PATTERN = Pattern.compile("\\s+");
+
+    private CompanyNames() {
+    }
+
+    /**
+     * 크롤링한 회사명에서 괄호 안의 문자와 "주식회사" 를 제거한다. 저장되는 company 값.
+     */
+    public static String strip(String company) {
+        return LEGAL_FORM_PATTERN.matcher(company).replaceAll("");
+    }
+
+    /**
+     * 매칭용 키. strip 결과에서 공백을 모두 제거하고 소문자로 바꾼다.
+     */
+    public static String normalize(String company) {
+        return WHITESPACE_PATTERN.matcher(strip(company)).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 주소 매칭용 키. 공백을 모두 제거하고 소문자로 바꾼다.
+     */
+    public static String normalizeAddress(String address) {
+        return WHITESPACE_PATTERN.matcher(address).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,40 @@
+package ceo.peak.data.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+public class ContentFingerprint {
+
+    // 필드 경계를 구분하기 위한 구분자 (크롤링한 텍스트에 나오지 않는 제어 문자)
+    private static final byte FIELD_SEPARATOR = 0x1F;
+
+    private ContentFingerprint() {
+    }
+
+    /**
+     * 필드 값들을 순서대로 이어 SHA-256 으로 해시한 16진수 문자열. null 과 빈 문자열은 구분된다.
+     */
+    public static String of(String... fields) {
+        MessageDigest digest = sha256();
+        for (String field : fields) {
+            if (field == null) {
+                digest.update((byte) 0);
+            } else {
+                digest.update((byte) 1);
+                digest.update(field.getBytes(StandardCharsets.UTF_8));
+            }
+            digest.update(FIELD_SEPARATOR);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package ceo.peak.data.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CacheConfigTest {
+
+    @Test
+    void createsOnlyCompanyCachesWithConfiguredSpec() {
+        CacheManager cacheManager = new CacheConfig().cacheManager("maximumSize=2");
+
+        assertNotNull(cacheManager.getCache(CacheConfig.COMPANY_CACHE));
+        assertNotNull(cacheManager.getCache(CacheConfig.COMPANY_PAGE_CACHE));
+        // 캐시 이름을 고정했으므로 오타로 새 캐시가 만들어지지 않음
+        assertNull(cacheManager.getCache("companies"));
+
+        Cache cache = cacheManager.getCache(CacheConfig.COMPANY_CACHE);
+        for (long id = 0; id < 10; id++) {
+            cache.put(id, "회사" + id);
+        }
+        com.github.benmanes.caffeine.cache.Cache<?, ?> nativeCache =
+                (com.github.benmanes.caffeine.cache.Cache<?, ?>) cache.getNativeCache();
+        nativeCache.cleanUp();
+        assertEquals(2, nativeCache.estimatedSize());
+    }
+
+    @Test
+    void cachesNullForMissingCompanies() {
+        Cache cache = new CacheConfig().cacheManager("maximumSize=10").getCache(CacheConfig.COMPANY_CACHE);
+        cache.put(1L, null);
+
+        assertNotNull(cache.get(1L));
+        assertNull(cache.get(1L).get());
+    }
+}
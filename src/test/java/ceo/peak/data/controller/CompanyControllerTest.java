@@ -0,0 +1,58 @@
+package ceo.peak.data.controller;
+
+import ceo.peak.data.index.CompanySearchIndex;
+import ceo.peak.data.service.CompanyExportService;
+import ceo.peak.data.service.CompanyQueryService;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.OutputStream;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class CompanyControllerTest {
+
+    private final CompanyExportService exportService = mock(CompanyExportService.class);
+    private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new CompanyController(
+            mock(CompanyQueryService.class), mock(CompanySearchIndex.class), exportService)).build();
+
+    @Test
+    void streamsExportWithItsOwnAsyncTimeout() throws Exception {
+        when(exportService.export(eq(CompanyExportService.Format.CSV), isNull(), any())).thenAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(2).write("gz".getBytes());
+            return 1L;
+        });
+
+        MvcResult result = mockMvc.perform(get("/api/v1/companies/export").param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        // 전역 spring.mvc.async.request-timeout 이 아니라 내보내기 요청에만 긴 제한 시간
+        assertEquals(Duration.ofMinutes(30).toMillis(), result.getRequest().getAsyncContext().getTimeout());
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/gzip"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"companies.csv.gz\""))
+                .andExpect(content().string("gz"));
+    }
+
+    @Test
+    void rejectsUnknownFormat() throws Exception {
+        mockMvc.perform(get("/api/v1/companies/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,117 @@
+package ceo.peak.data.crawl;
+
+import ceo.peak.data.config.SaraminProperties;
+import ceo.peak.data.entity.CompanyData;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompanySourcesTest {
+
+    private final SaraminProperties properties = new SaraminProperties();
+    private final CompanySource saramin = new SaraminCompanySource();
+    private final CompanySource other = new TestSource("other", false);
+
+    @Test
+    void qualifiesOnlySecondaryCodes() {
+        CompanySources sources = sources(List.of(other, saramin));
+
+        assertSame(saramin, sources.primary());
+        assertEquals(List.of(saramin, other), sources.enabled());
+        assertEquals("abc", CompanySources.qualify(saramin, "abc"));
+        assertEquals("other:abc", CompanySources.qualify(other, "abc"));
+
+        assertEquals(new CompanySources.Code(saramin, "abc"), sources.resolve("abc"));
+        assertEquals(new CompanySources.Code(other, "a:b"), sources.resolve("other:a:b"));
+        assertThrows(IllegalArgumentException.class, () -> sources.resolve("unknown:abc"));
+    }
+
+    @Test
+    void codePatternSelectsOneSource() {
+        Pattern primary = Pattern.compile(CompanySources.codePattern(saramin));
+        Pattern secondary = Pattern.compile(CompanySources.codePattern(other));
+
+        assertTrue(primary.matcher("abc").find());
+        assertFalse(primary.matcher("other:abc").find());
+        assertTrue(secondary.matcher("other:abc").find());
+        assertFalse(secondary.matcher("abc").find());
+        assertFalse(secondary.matcher("otherx:abc").find());
+    }
+
+    @Test
+    void resolvesDetailUrlByHost() {
+        CompanySources sources = sources(List.of(saramin, other));
+
+        assertEquals("abc", sources.codeOf(saramin.detailUrl("abc")));
+        assertEquals("other:abc", sources.codeOf(other.detailUrl("abc")));
+        assertNull(sources.codeOf("https://unknown.example.com/company?id=abc"));
+    }
+
+    @Test
+    void skipsDisabledSecondarySource() {
+        SaraminProperties.Source disabled = new SaraminProperties.Source();
+        disabled.setEnabled(false);
+        properties.getSources().put("other", disabled);
+
+        assertEquals(List.of(saramin), sources(List.of(saramin, other)).enabled());
+    }
+
+    @Test
+    void requiresExactlyOnePrimarySource() {
+        assertThrows(IllegalStateException.class, () -> sources(List.of(other)));
+        assertThrows(IllegalStateException.class, () -> sources(List.of(saramin, new TestSource("second", true))));
+        assertThrows(IllegalStateException.class, () -> sources(List.of(saramin, new TestSource("Other", false))));
+    }
+
+    private CompanySources sources(List<CompanySource> list) {
+        return new CompanySources(list, properties, new PageFetcher(properties));
+    }
+
+    private record TestSource(String name, boolean isPrimary) implements CompanySource {
+
+        @Override
+        public String host() {
+            return name + ".example.com";
+        }
+
+        @Override
+        public String listingUrl(int page) {
+            return "https://" + host() + "/list?page=" + page;
+        }
+
+        @Override
+        public List<String> extractCodes(Document listingPage) {
+            return List.of();
+        }
+
+        @Override
+        public String detailUrl(String code) {
+            return "https://" + host() + "/company?id=" + code;
+        }
+
+        @Override
+        public String codeOf(String detailUrl) {
+            int index = detailUrl.indexOf("id=");
+            return index < 0 ? null : detailUrl.substring(index + 3);
+        }
+
+        @Override
+        public ExtractionSpec detailPage() {
+            return ExtractionSpec.builder().build();
+        }
+
+        @Override
+        public CompanyData map(ExtractionSpec.Result fields) {
+            return null;
+        }
+    }
+}
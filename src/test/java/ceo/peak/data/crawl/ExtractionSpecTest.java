@@ -0,0 +1,122 @@
+package ceo.peak.data.crawl;
+
+import ceo.peak.data.entity.CompanyData;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 사람인 상세 페이지 추출 규칙을 벤치마크와 같은 fixture 로 확인하고, 한 번 순회하는 추출의 규칙
+ * (필드마다 첫 번째로 값이 나온 요소를 쓰고, 모든 필드를 찾으면 멈춤)을 확인한다.
+ */
+class ExtractionSpecTest {
+
+    private static final String URL = "https://www.saramin.co.kr/zf_user/company-info/view?csn=1234567890";
+
+    private final SaraminCompanySource saramin = new SaraminCompanySource();
+
+    @Test
+    void extractsCompanyPageFixtures() throws IOException {
+        assertCompany("small", "피크데이터", "김민수", "응용 소프트웨어 개발 및 공급업",
+                "서울 강남구 테헤란로 152 강남파이낸스센터 21층", "152억 3,000만원", "https://example.com/logo/24205.png");
+        assertCompany("medium", "한빛정밀", "이서연, 박지훈", "기타 산업용 기계 및 장비 제조업",
+                "경기 성남시 분당구 판교역로 235 에이치스퀘어 N동 7층", "1,203억 5,112만원", "https://example.com/logo/60312.png");
+        assertCompany("large", "대한물류시스템", "정우성", "일반 화물자동차 운송업",
+                "부산 해운대구 해운대로 383 (우동, 해운대 센텀 비즈니스 타워) 12층 1201호", "3조 2,110억원",
+                "https://example.com/logo/1544.png");
+    }
+
+    @Test
+    void firstLabelWithValueWins() {
+        Document document = Jsoup.parse("<h1 class=\"tit_company\" title=\"(주)피크\">(주)피크</h1><dl>"
+                + group("대표자명", "<dd class=\"desc\">김대표</dd>")
+                + group("대표자명", "<dd class=\"desc\">이대표</dd>")
+                // 값이 없는 첫 번째 항목은 건너뛰고 다음 항목의 값을 씀
+                + group("업종", "")
+                + group("업종", "<dd class=\"desc\">소프트웨어 개발</dd>")
+                + "</dl>", URL);
+
+        CompanyData companyData = saramin.map(saramin.detailPage().extract(document));
+
+        assertEquals("피크", companyData.getCompany());
+        assertEquals("김대표", companyData.getKeyExecutive());
+        assertEquals("소프트웨어 개발", companyData.getIndustry());
+        assertEquals("-", companyData.getAddress());
+    }
+
+    @Test
+    void stopsTraversalOnceEveryFieldIsFound() {
+        ExtractionSpec spec = ExtractionSpec.builder()
+                .field("title", "h1", Element::text)
+                .field("address", "p.address", Element::text)
+                .build();
+        AtomicBoolean visited = new AtomicBoolean();
+
+        Document complete = Jsoup.parse("<h1>피크</h1><p class=\"address\">서울</p>", URL);
+        complete.body().appendChild(trap(visited));
+        ExtractionSpec.Result result = spec.extract(complete);
+        assertEquals("피크", result.get("title", null));
+        assertEquals("서울", result.get("address", null));
+        assertFalse(visited.get());
+
+        // 찾지 못한 필드가 있으면 끝까지 순회
+        Document partial = Jsoup.parse("<h1>피크</h1>", URL);
+        partial.body().appendChild(trap(visited));
+        assertEquals("-", spec.extract(partial).get("address", "-"));
+        assertTrue(visited.get());
+    }
+
+    @Test
+    void rejectsDuplicateAndUnknownFields() {
+        ExtractionSpec.Builder builder = ExtractionSpec.builder().field("title", "h1", Element::text);
+        assertThrows(IllegalArgumentException.class, () -> builder.field("title", "h2", Element::text));
+
+        ExtractionSpec.Result result = builder.build().extract(Jsoup.parse("<h1>피크</h1>", URL));
+        assertThrows(IllegalArgumentException.class, () -> result.get("address", null));
+    }
+
+    private void assertCompany(String fixture, String company, String keyExecutive, String industry, String address,
+                               String sales, String logoUrl) throws IOException {
+        CompanyData companyData = saramin.map(saramin.detailPage().extract(Jsoup.parse(read(fixture), URL)));
+
+        assertEquals(company, companyData.getCompany(), fixture);
+        assertEquals(keyExecutive, companyData.getKeyExecutive(), fixture);
+        assertEquals(industry, companyData.getIndustry(), fixture);
+        assertEquals(address, companyData.getAddress(), fixture);
+        assertEquals("https://example.com", companyData.getHomepage(), fixture);
+        assertEquals(sales, companyData.getSales(), fixture);
+        assertEquals(logoUrl, companyData.getLogoUrl(), fixture);
+    }
+
+    private static String group(String label, String desc) {
+        return "<div class=\"company_details_group\"><dt class=\"tit\">" + label + "</dt>" + desc + "</div>";
+    }
+
+    // 순회가 이 요소에 도달해 자식을 확인하면 표시되는 요소
+    private static Element trap(AtomicBoolean visited) {
+        return new Element("p") {
+            @Override
+            public int childNodeSize() {
+                visited.set(true);
+                return super.childNodeSize();
+            }
+        };
+    }
+
+    private static String read(String fixture) throws IOException {
+        try (InputStream in = ExtractionSpecTest.class.getResourceAsStream("/fixtures/company-" + fixture + ".html")) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package ceo.peak.data.crawl;
+
+import ceo.peak.data.config.SaraminProperties;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PageFetcherTest {
+
+    private HttpServer server;
+    private String baseUrl;
+    private SaraminProperties properties;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+
+        properties = new SaraminProperties();
+        properties.getArchive().setEnabled(false);
+        properties.getHttp().setInitialRate(10.0);
+        properties.getHttp().setInitialConcurrency(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void decodesGzipBodyAndForwardsConditionalHeaders() throws Exception {
+        AtomicReference<String> ifNoneMatch = new AtomicReference<>();
+        server.createContext("/company", exchange -> {
+            ifNoneMatch.set(exchange.getRequestHeaders().getFirst("If-None-Match"));
+            byte[] body = gzip("<html>피크 데이터</html>");
+            exchange.getResponseHeaders().add("Content-Type", "text/html; charset=UTF-8");
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            exchange.getResponseHeaders().add("ETag", "\"v2\"");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+
+        PageFetcher fetcher = new PageFetcher(properties);
+        FetchedPage page = fetcher.fetch(baseUrl + "/company", Map.of("If-None-Match", "\"v1\""), false);
+
+        assertEquals(200, page.statusCode());
+        assertEquals("<html>피크 데이터</html>", page.body());
+        assertEquals("\"v2\"", page.header(FetchedPage.ETAG));
+        assertEquals("\"v1\"", ifNoneMatch.get());
+    }
+
+    @Test
+    void backsOffWhenServerReturnsTooManyRequests() throws Exception {
+        server.createContext("/busy", exchange -> {
+            exchange.sendResponseHeaders(429, -1);
+            exchange.close();
+        });
+
+        PageFetcher fetcher = new PageFetcher(properties);
+        FetchedPage page = fetcher.fetch(baseUrl + "/busy", Map.of(), false);
+
+        HostRateLimiter limiter = fetcher.rateLimiter("127.0.0.1");
+        assertEquals(429, page.statusCode());
+        assertEquals(5.0, limiter.getRate());
+        assertEquals(2, limiter.getConcurrencyLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void increasesRateWhileResponsesAreFast() throws Exception {
+        server.createContext("/ok", exchange -> {
+            byte[] body = "ok".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+
+        PageFetcher fetcher = new PageFetcher(properties);
+        for (int i = 0; i < 5; i++) {
+            fetcher.fetch(baseUrl + "/ok", Map.of(), false);
+        }
+
+        HostRateLimiter limiter = fetcher.rateLimiter("127.0.0.1");
+        assertTrue(limiter.getRate() > 10.0);
+        assertEquals(5, limiter.getConcurrencyLimit());
+        assertEquals(Map.of("127.0.0.1", limiter.getRate()), fetcher.currentRates());
+    }
+
+    @Test
+    void waitsForProbeWhileCircuitIsOpen() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        AtomicBoolean down = new AtomicBoolean(true);
+        server.createContext("/down", exchange -> {
+            requests.incrementAndGet();
+            exchange.sendResponseHeaders(down.get() ? 503 : 200, -1);
+            exchange.close();
+        });
+        properties.getHttp().setCircuitFailureThreshold(3);
+        properties.getHttp().setCircuitOpenDuration(Duration.ofMillis(300));
+
+        PageFetcher fetcher = new PageFetcher(properties);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(503, fetcher.fetch(baseUrl + "/down", Map.of(), false).statusCode());
+        }
+        assertEquals(HostCircuitBreaker.State.OPEN, fetcher.circuitBreaker("127.0.0.1").getState());
+
+        // 열려 있는 동안의 요청은 실패하지 않고 openDuration 이 지날 때까지 기다렸다가 시험 요청으로 보내짐
+        down.set(false);
+        long start = System.nanoTime();
+        assertEquals(200, fetcher.fetch(baseUrl + "/down", Map.of(), false).statusCode());
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() >= 250);
+        assertEquals(4, requests.get());
+        assertEquals(HostCircuitBreaker.State.CLOSED, fetcher.circuitBreaker("127.0.0.1").getState());
+    }
+
+    @Test
+    void waitingRequestsFollowProbeResult() throws Exception {
+        properties.getHttp().setCircuitFailureThreshold(1);
+        properties.getHttp().setCircuitOpenDuration(Duration.ofMillis(200));
+        HostCircuitBreaker breaker = new HostCircuitBreaker("host", properties.getHttp());
+        breaker.onFailure();
+
+        breaker.acquire(); // openDuration 뒤 시험 요청
+        assertEquals(HostCircuitBreaker.State.HALF_OPEN, breaker.getState());
+        AtomicBoolean acquired = new AtomicBoolean();
+        Thread waiter = new Thread(() -> {
+            try {
+                breaker.acquire();
+                acquired.set(true);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        waiter.start();
+
+        // 시험 요청이 실패하면 다시 열리므로 기다리는 요청은 계속 기다림
+        Thread.sleep(50);
+        breaker.onFailure();
+        Thread.sleep(50);
+        assertFalse(acquired.get());
+        assertEquals(HostCircuitBreaker.State.OPEN, breaker.getState());
+
+        // 다음 시험 요청을 기다리던 요청이 맡고, 성공하면 닫힘
+        waiter.join(1000);
+        assertTrue(acquired.get());
+        assertEquals(HostCircuitBreaker.State.HALF_OPEN, breaker.getState());
+        breaker.onSuccess();
+        assertEquals(HostCircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void interruptedFetchLeavesRateAndCircuitUnchanged() throws Exception {
+        CountDownLatch received = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        server.createContext("/slow", exchange -> {
+            received.countDown();
+            try {
+                finish.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        PageFetcher fetcher = new PageFetcher(properties);
+        HostRateLimiter limiter = fetcher.rateLimiter("127.0.0.1");
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        Thread fetching = new Thread(() -> {
+            try {
+                fetcher.fetch(baseUrl + "/slow", Map.of(), false);
+            } catch (Exception e) {
+                failure.set(e);
+            }
+        });
+        fetching.start();
+
+        // 응답을 기다리는 중에 인터럽트되면 슬롯만 돌려주고 속도와 회로 상태는 그대로
+        assertTrue(received.await(5, TimeUnit.SECONDS));
+        fetching.interrupt();
+        fetching.join(5000);
+        finish.countDown();
+        assertInstanceOf(InterruptedIOException.class, failure.get());
+        assertEquals(10.0, limiter.getRate());
+        assertEquals(4, limiter.getConcurrencyLimit());
+        assertEquals(0, limiter.getInFlight());
+        assertEquals(HostCircuitBreaker.State.CLOSED, fetcher.circuitBreaker("127.0.0.1").getState());
+    }
+
+    @Test
+    void abandonedProbeIsHandedToNextRequest() throws Exception {
+        properties.getHttp().setCircuitFailureThreshold(1);
+        properties.getHttp().setCircuitOpenDuration(Duration.ofMillis(200));
+        HostCircuitBreaker breaker = new HostCircuitBreaker("host", properties.getHttp());
+        breaker.onFailure();
+        assertTrue(breaker.acquire());
+        assertEquals(HostCircuitBreaker.State.HALF_OPEN, breaker.getState());
+
+        // 시험 요청이 결과 없이 끝나면 실패로 세지 않고, 다음 요청이 openDuration 을 다시 기다리지 않고 시험을 맡음
+        breaker.abandon(true);
+        long start = System.nanoTime();
+        assertTrue(breaker.acquire());
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 100);
+        assertEquals(HostCircuitBreaker.State.HALF_OPEN, breaker.getState());
+        breaker.onSuccess();
+
+        // 닫힌 회로에서 그만둔 요청은 상태를 바꾸지 않음
+        assertFalse(breaker.acquire());
+        breaker.abandon(false);
+        assertEquals(HostCircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void classifiesFailuresAsTransientOrPermanent() {
+        assertTrue(FetchException.forStatus("u", 503).isTransient());
+        assertTrue(FetchException.forStatus("u", 429).isTransient());
+        assertFalse(FetchException.forStatus("u", 404).isTransient());
+        assertTrue(FetchException.of("u", new HttpTimeoutException("timed out")).isTransient());
+        assertFalse(FetchException.of("u", new FileNotFoundException("not archived")).isTransient());
+        assertFalse(FetchException.of("u", new IllegalStateException("bad html")).isTransient());
+    }
+
+    @Test
+    void keepsFetchExceptionAndWrapsOtherCauses() {
+        FetchException original = FetchException.forStatus("u", 503);
+        assertSame(original, FetchException.of("other", original));
+
+        IOException reset = new IOException("Connection reset");
+        FetchException wrapped = FetchException.of("u", reset);
+        assertInstanceOf(TransientFetchException.class, wrapped);
+        assertEquals("u", wrapped.getUrl());
+        assertEquals(0, wrapped.getStatusCode());
+        assertSame(reset, wrapped.getCause());
+        assertEquals("IOException fetching u: Connection reset", wrapped.getMessage());
+        assertInstanceOf(PermanentFetchException.class, FetchException.of("u", new FileNotFoundException("not archived")));
+    }
+
+    private static byte[] gzip(String text) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+}
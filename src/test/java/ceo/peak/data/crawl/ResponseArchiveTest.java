@@ -0,0 +1,69 @@
+package ceo.peak.data.crawl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResponseArchiveTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void returnsLatestResponseAfterReopen() throws Exception {
+        String url = "https://www.saramin.co.kr/zf_user/company-info/view?csn=abc";
+        try (ResponseArchive archive = ResponseArchive.open(directory)) {
+            archive.append(page(url, "<html>첫 번째</html>", 1_000L));
+            archive.append(page(url, "<html>두 번째</html>", 2_000L));
+            archive.append(page("https://example.com/other", "<html>other</html>", 3_000L));
+        }
+
+        try (ResponseArchive archive = ResponseArchive.open(directory)) {
+            FetchedPage found = archive.find(url).orElseThrow();
+            assertEquals("<html>두 번째</html>", found.body());
+            assertEquals(2_000L, found.fetchedAt());
+            assertEquals(200, found.statusCode());
+            assertEquals("\"v1\"", found.header("ETag"));
+            assertEquals(2, archive.size());
+        }
+    }
+
+    @Test
+    void returnsEmptyForUnknownUrl() throws Exception {
+        try (ResponseArchive archive = ResponseArchive.open(directory)) {
+            archive.append(page("https://example.com/a", "a", 1L));
+            assertEquals(Optional.empty(), archive.find("https://example.com/b"));
+        }
+    }
+
+    @Test
+    void ignoresIncompleteIndexEntry() throws Exception {
+        String url = "https://example.com/a";
+        try (ResponseArchive archive = ResponseArchive.open(directory)) {
+            archive.append(page(url, "a", 1L));
+        }
+        // 인덱스 항목을 쓰는 도중 중단된 상황
+        try (FileChannel index = FileChannel.open(directory.resolve(ResponseArchive.INDEX_FILE), StandardOpenOption.APPEND)) {
+            index.write(ByteBuffer.wrap(new byte[ResponseArchive.INDEX_ENTRY_SIZE / 2]));
+        }
+
+        try (ResponseArchive archive = ResponseArchive.open(directory)) {
+            assertTrue(archive.find(url).isPresent());
+            archive.append(page(url, "b", 2L));
+            assertEquals("b", archive.find(url).orElseThrow().body());
+        }
+    }
+
+    private static FetchedPage page(String url, String body, long fetchedAt) {
+        return new FetchedPage(url, 200, body, Map.of(FetchedPage.ETAG, "\"v1\""), fetchedAt);
+    }
+}
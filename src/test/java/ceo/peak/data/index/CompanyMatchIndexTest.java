@@ -0,0 +1,112 @@
+package ceo.peak.data.index;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompanyMatchIndexTest {
+
+    private static final String ADDRESS = "서울 강남구 테헤란로 152";
+
+    private static EmbeddedPostgres postgres;
+    private static JdbcTemplate jdbcTemplate;
+
+    private CompanyMatchIndex index;
+
+    @BeforeAll
+    static void startDatabase() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        jdbcTemplate = new JdbcTemplate(postgres.getPostgresDatabase());
+        try (InputStream in = CompanyMatchIndexTest.class.getResourceAsStream("/schema.sql")) {
+            for (String statement : new String(in.readAllBytes(), StandardCharsets.UTF_8).split(";")) {
+                if (!statement.isBlank()) {
+                    jdbcTemplate.execute(statement);
+                }
+            }
+        }
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("TRUNCATE company_data");
+        insert(1, "피크데이터", ADDRESS);
+        insert(2, "에이비씨", ADDRESS);
+        insert(3, "피크데이터", "부산 해운대구 해운대로 383");
+        index = new CompanyMatchIndex(jdbcTemplate);
+        index.load();
+    }
+
+    @Test
+    void matchesNameVariants() {
+        // "(주)" 를 뺀 회사명이 같으면 주소와 관계없이 후보
+        assertEquals(Set.of(1L, 3L), index.candidates("(주)피크데이터", null));
+        // 한 글자 오타는 주소 bigram 이 겹치는 행에서만 후보
+        assertEquals(Set.of(1L), index.candidates("피크데이타", ADDRESS));
+        // 회사명이 앞부분만 같으면 유사도 0.4 로 NAME_SIMILARITY_THRESHOLD 미만
+        assertEquals(Set.of(), index.candidates("(주)피크", ADDRESS));
+    }
+
+    @Test
+    void addressOverlapAloneIsNotEnough() {
+        // 주소가 같아도 회사명이 다르면 후보가 아니고, 회사명이 비슷해도 주소가 겹치지 않으면 후보가 아님
+        assertEquals(Set.of(), index.candidates("피크랩스", ADDRESS));
+        assertEquals(Set.of(), index.candidates("피크데이타", "대전 유성구 대학로 99"));
+        assertEquals(Set.of(), index.candidates("피크데이타", null));
+        // 주소 bigram 이 MIN_GRAM_OVERLAP 미만으로 겹치면 후보가 아님 (8 개 중 "서울", "울강", "강남", "남구" 4 개)
+        assertEquals(Set.of(), index.candidates("피크데이타", "서울 강남구 역삼로 7"));
+    }
+
+    @Test
+    void capsFuzzyCandidatesByAddressOverlap() {
+        // 주소 bigram 이 모두 겹치는 5 건과 "52" 하나가 빠진 25 건. 회사명이 비슷한 후보는 겹친 수가 많은 순으로 20 건만
+        for (long id = 10; id < 15; id++) {
+            insert(id, "피크데이타", ADDRESS);
+        }
+        for (long id = 20; id < 45; id++) {
+            insert(id, "피크데이타", "서울 강남구 테헤란로 15");
+        }
+        index.load();
+
+        Set<Long> candidates = index.candidates("피크데이터", ADDRESS);
+
+        // 회사명이 같은 1, 3 은 개수 제한과 관계없이 포함
+        assertEquals(22, candidates.size());
+        assertTrue(candidates.containsAll(Set.of(1L, 3L, 10L, 11L, 12L, 13L, 14L)), candidates.toString());
+    }
+
+    @Test
+    void reflectsRowsPutInSameChunk() {
+        // 아직 커밋되지 않은 행도 put 하면 같은 청크의 다음 항목부터 후보
+        index.put(4, "(주)새회사", "경기 성남시 분당구 판교역로 235");
+        assertEquals(Set.of(4L), index.candidates("새회사", null));
+        assertEquals(Set.of(4L), index.candidates("새회사이", "경기 성남시 분당구 판교역로 235"));
+
+        // 회사명/주소가 바뀌면 이전 키로는 찾지 않음
+        index.put(1, "피크랩", "대전 유성구 대학로 99");
+        assertEquals(Set.of(3L), index.candidates("피크데이터", null));
+        assertEquals(Set.of(), index.candidates("피크데이타", ADDRESS));
+        assertEquals(Set.of(1L), index.candidates("피크랩", null));
+        assertEquals(4, index.size());
+    }
+
+    private static void insert(long id, String company, String address) {
+        jdbcTemplate.update("INSERT INTO company_data (id, company, address, created_at, updated_at) " +
+                "VALUES (?, ?, ?, LOCALTIMESTAMP, LOCALTIMESTAMP)", id, company, address);
+    }
+}
@@ -0,0 +1,97 @@
+package ceo.peak.data.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobInstance;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.explore.JobExplorer;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * 다른 JVM 에서 끝난 Job 실행을 Job 실행 기록으로 찾아 검색 색인에 반영하는지 확인한다.
+ */
+class CompanySearchIndexInitializerTest {
+
+    private final JobExplorer jobExplorer = mock(JobExplorer.class);
+    private final CompanySearchIndex companySearchIndex = mock(CompanySearchIndex.class);
+    private CompanySearchIndexInitializer initializer;
+
+    @BeforeEach
+    void setUp() {
+        when(jobExplorer.getJobInstances(anyString(), eq(0), eq(1))).thenReturn(List.of());
+        initializer = new CompanySearchIndexInitializer(companySearchIndex, jobExplorer);
+    }
+
+    @Test
+    void skipsPollingUntilIndexIsBuilt() {
+        finished("saraminJob", 1L, 10L);
+
+        initializer.refreshAfterFinishedJobs();
+
+        verifyNoInteractions(companySearchIndex);
+    }
+
+    @Test
+    void refreshesOnceForExecutionFinishedAfterStartup() {
+        finished("saraminJob", 1L, 10L);
+        initializer.onApplicationReady();
+        verify(companySearchIndex).rebuild();
+
+        // 시작 전에 끝난 실행은 전체 색인에 들어 있으므로 반영하지 않음
+        initializer.refreshAfterFinishedJobs();
+        verify(companySearchIndex, never()).refresh();
+
+        finished("saraminJob", 2L, 20L);
+        initializer.refreshAfterFinishedJobs();
+        initializer.refreshAfterFinishedJobs();
+        verify(companySearchIndex).refresh();
+    }
+
+    @Test
+    void waitsUntilRunningExecutionEnds() {
+        initializer.onApplicationReady();
+        JobExecution running = finished("retryFailedJob", 3L, 30L);
+        running.setEndTime(null);
+
+        initializer.refreshAfterFinishedJobs();
+        verify(companySearchIndex, never()).refresh();
+
+        running.setEndTime(LocalDateTime.now());
+        initializer.refreshAfterFinishedJobs();
+        verify(companySearchIndex).refresh();
+    }
+
+    @Test
+    void rebuildsAfterDedupBecauseDeletesHaveNoWatermark() {
+        initializer.onApplicationReady();
+        clearInvocations(companySearchIndex);
+        finished("saraminJob", 1L, 10L);
+        finished("companyDedupJob", 2L, 20L);
+
+        initializer.refreshAfterFinishedJobs();
+
+        verify(companySearchIndex).rebuild();
+        verify(companySearchIndex, never()).refresh();
+    }
+
+    private JobExecution finished(String jobName, long instanceId, long executionId) {
+        JobInstance instance = new JobInstance(instanceId, jobName);
+        JobExecution execution = new JobExecution(instance, executionId, new JobParameters());
+        execution.setEndTime(LocalDateTime.now());
+        when(jobExplorer.getJobInstances(jobName, 0, 1)).thenReturn(List.of(instance));
+        when(jobExplorer.getLastJobExecution(instance)).thenReturn(execution);
+        return execution;
+    }
+}
@@ -0,0 +1,147 @@
+package ceo.peak.data.index;
+
+import ceo.peak.data.dto.CompanySearchHit;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompanySearchIndexTest {
+
+    private static EmbeddedPostgres postgres;
+    private static JdbcTemplate jdbcTemplate;
+
+    private CompanySearchIndex index;
+
+    @BeforeAll
+    static void startDatabase() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        jdbcTemplate = new JdbcTemplate(postgres.getPostgresDatabase());
+        try (InputStream in = CompanySearchIndexTest.class.getResourceAsStream("/schema.sql")) {
+            for (String statement : new String(in.readAllBytes(), StandardCharsets.UTF_8).split(";")) {
+                if (!statement.isBlank()) {
+                    jdbcTemplate.execute(statement);
+                }
+            }
+        }
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("TRUNCATE company_data");
+        insert(1, "피크", "소프트웨어 개발", "서울 강남구 테헤란로 1");
+        insert(2, "피크랩스", "소프트웨어 개발", "서울 서초구 서초대로 2");
+        insert(3, "에이비씨", "제조", "경기 성남시 피크로 3");
+        insert(4, "픽크", "유통", "부산 해운대구 4");
+        index = new CompanySearchIndex(jdbcTemplate);
+        index.rebuild();
+    }
+
+    @Test
+    void ranksNameMatchesAboveAddressMatches() {
+        // 회사명에 검색어가 들어 있는 1, 2 가 주소에만 들어 있는 3 보다 앞. 글자가 다른 "픽크" 는 제외
+        assertRanked(index.search("피크", 10), Set.of(1L, 2L), Set.of(3L));
+    }
+
+    @Test
+    void ranksByNameSimilarity() {
+        insert(5, "피크랩", "교육", "대전 유성구 5");
+        index.refresh();
+
+        List<CompanySearchHit> hits = index.search("피크랩스", 10);
+
+        assertEquals(List.of(2L, 5L), ids(hits));
+        assertTrue(hits.get(0).score() > hits.get(1).score());
+    }
+
+    @Test
+    void matchesNameWithLegalForm() {
+        // 회사명은 "(주)" 를 뺀 "피크" 로 비교하므로 회사명 점수가 최고점이고, "(주)" 의 bigram 은 후보 기준에 들어가지 않음
+        List<CompanySearchHit> hits = index.search("(주)피크", 10);
+
+        assertRanked(hits, Set.of(1L, 2L), Set.of(3L));
+        assertTrue(hits.get(1).score() > 0.7);
+    }
+
+    @Test
+    void rejectsSingleBigramOverlap() {
+        // "피크마켓" 의 bigram 3 개 중 "피크" 하나만 겹치는 문서는 회사명 가중치가 커도 후보가 아님
+        assertEquals(List.of(), index.search("피크마켓", 10));
+
+        insert(5, "피크마트", "유통", "서울 송파구 5");
+        index.refresh();
+
+        assertEquals(List.of(5L), ids(index.search("피크마켓", 10)));
+    }
+
+    @Test
+    void toleratesTypoInLongerName() {
+        assertEquals(2L, index.search("피크랩수", 10).get(0).id());
+    }
+
+    @Test
+    void refreshReplacesChangedRowsAndRebuildDropsDeletedRows() {
+        jdbcTemplate.update("UPDATE company_data SET company = '새이름', updated_at = LOCALTIMESTAMP + INTERVAL '1 minute' WHERE id = 1");
+        insert(5, "피크스튜디오", "디자인", "서울 마포구 5");
+        jdbcTemplate.update("UPDATE company_data SET updated_at = LOCALTIMESTAMP + INTERVAL '1 minute' WHERE id = 5");
+        index.refresh();
+
+        assertEquals(5, index.size());
+        assertRanked(index.search("피크", 10), Set.of(2L, 5L), Set.of(3L));
+        assertEquals(List.of(1L), ids(index.search("새이름", 10)));
+
+        jdbcTemplate.update("DELETE FROM company_data WHERE id = 2");
+        index.rebuild();
+
+        assertEquals(4, index.size());
+        assertEquals(List.of(5L, 3L), ids(index.search("피크", 10)));
+    }
+
+    @Test
+    void keepsSearchingAfterCompactingDeletedDocs() {
+        // 4 건 중 3 건이 바뀌면 삭제 표시 비율을 넘어 남은 문서로 색인을 다시 만듦
+        jdbcTemplate.update("UPDATE company_data SET industry = '서비스', updated_at = LOCALTIMESTAMP + INTERVAL '1 minute' WHERE id IN (1, 2, 3)");
+        index.refresh();
+
+        assertEquals(4, index.size());
+        assertRanked(index.search("피크", 10), Set.of(1L, 2L), Set.of(3L));
+        assertRanked(index.search("서비스", 10), Set.of(1L, 2L, 3L));
+    }
+
+    // 같은 점수의 순서는 정하지 않으므로 묶음 단위로 비교
+    @SafeVarargs
+    private static void assertRanked(List<CompanySearchHit> hits, Set<Long>... groups) {
+        List<Long> ids = ids(hits);
+        int from = 0;
+        for (Set<Long> group : groups) {
+            assertEquals(group, Set.copyOf(ids.subList(from, Math.min(ids.size(), from + group.size()))));
+            from += group.size();
+        }
+        assertEquals(from, ids.size());
+    }
+
+    private static List<Long> ids(List<CompanySearchHit> hits) {
+        return hits.stream().map(CompanySearchHit::id).toList();
+    }
+
+    private static void insert(long id, String company, String industry, String address) {
+        jdbcTemplate.update("INSERT INTO company_data (id, company, industry, address, created_at, updated_at) " +
+                "VALUES (?, ?, ?, ?, LOCALTIMESTAMP, LOCALTIMESTAMP)", id, company, industry, address);
+    }
+}
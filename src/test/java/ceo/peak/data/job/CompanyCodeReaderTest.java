@@ -0,0 +1,118 @@
+package ceo.peak.data.job;
+
+import ceo.peak.data.crawl.FetchedPage;
+import ceo.peak.data.crawl.PageFetcher;
+import ceo.peak.data.crawl.SaraminCompanySource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CompanyCodeReaderTest {
+
+    private final SaraminCompanySource source = new SaraminCompanySource();
+    private PageFetcher pageFetcher;
+    private CrawlMetrics crawlMetrics;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        pageFetcher = mock(PageFetcher.class);
+        crawlMetrics = new CrawlMetrics(new SimpleMeterRegistry());
+        when(pageFetcher.fetch(contains("page=1&"), anyMap(), anyBoolean())).thenReturn(listing("a", "b", "c"));
+        when(pageFetcher.fetch(contains("page=2&"), anyMap(), anyBoolean())).thenReturn(listing("d", "e"));
+    }
+
+    @Test
+    void resumesInsideListingPageWithoutFetchingItAgain() throws Exception {
+        ExecutionContext executionContext = new ExecutionContext();
+        CompanyCodeReader reader = new CompanyCodeReader(source, pageFetcher, crawlMetrics, false, 1, 2);
+        reader.open(executionContext);
+        assertEquals("a", reader.read());
+        assertEquals("b", reader.read());
+        // 청크 커밋 시점에 저장된 위치로 실패 후 재시작
+        reader.update(executionContext);
+
+        CompanyCodeReader restarted = new CompanyCodeReader(source, pageFetcher, crawlMetrics, false, 1, 2);
+        restarted.open(executionContext);
+
+        assertEquals(List.of("c", "d", "e"), readAll(restarted));
+        verify(pageFetcher, times(1)).fetch(contains("page=1&"), anyMap(), anyBoolean());
+    }
+
+    @Test
+    void refetchesListingPageForContextWithoutSavedCodes() throws Exception {
+        ExecutionContext executionContext = new ExecutionContext();
+        executionContext.putInt(CompanyCodeReader.CURRENT_PAGE_KEY, 2);
+        executionContext.putInt("nextIndex", 2);
+
+        CompanyCodeReader reader = new CompanyCodeReader(source, pageFetcher, crawlMetrics, false, 1, 2);
+        reader.open(executionContext);
+
+        assertEquals(List.of("c", "d", "e"), readAll(reader));
+    }
+
+    @Test
+    void continuesWithNextPageWhenSavedPageIsFinished() throws Exception {
+        ExecutionContext executionContext = new ExecutionContext();
+        CompanyCodeReader reader = new CompanyCodeReader(source, pageFetcher, crawlMetrics, false, 1, 2);
+        reader.open(executionContext);
+        readAll(reader);
+        reader.update(executionContext);
+
+        CompanyCodeReader restarted = new CompanyCodeReader(source, pageFetcher, crawlMetrics, false, 1, 2);
+        restarted.open(executionContext);
+
+        assertNull(restarted.read());
+        verify(pageFetcher, never()).fetch(contains("page=3&"), anyMap(), anyBoolean());
+    }
+
+    @Test
+    void stopsAfterKnownRunCheckingEachListingPage() throws Exception {
+        List<List<String>> lookups = new ArrayList<>();
+        Set<String> known = Set.of("c", "d");
+        CompanyCodeReader reader = new CompanyCodeReader(source, pageFetcher, crawlMetrics, false, 1, 2,
+                codes -> {
+                    lookups.add(List.copyOf(codes));
+                    return codes.stream().filter(known::contains).collect(Collectors.toSet());
+                }, 2);
+        reader.open(new ExecutionContext());
+
+        // c, d 가 연속으로 이미 저장되어 있으므로 d 까지 읽고 멈춤
+        assertEquals(List.of("a", "b", "c", "d"), readAll(reader));
+        assertEquals(List.of(List.of("a", "b", "c"), List.of("d", "e")), lookups);
+    }
+
+    private static List<String> readAll(CompanyCodeReader reader) throws Exception {
+        List<String> codes = new ArrayList<>();
+        for (String csn = reader.read(); csn != null; csn = reader.read()) {
+            codes.add(csn);
+        }
+        return codes;
+    }
+
+    private static FetchedPage listing(String... csns) {
+        StringBuilder body = new StringBuilder("<html><body>");
+        for (String csn : csns) {
+            body.append("<a class=\"link_tit\" href=\"/zf_user/company-info/view?csn=").append(csn).append("\">회사</a>");
+        }
+        body.append("</body></html>");
+        return new FetchedPage("https://www.saramin.co.kr/list", 200, body.toString(), Map.of(), 0L);
+    }
+}
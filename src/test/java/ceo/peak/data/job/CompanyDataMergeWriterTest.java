@@ -0,0 +1,179 @@
+package ceo.peak.data.job;
+
+import ceo.peak.data.config.CacheConfig;
+import ceo.peak.data.entity.CompanyData;
+import ceo.peak.data.index.CompanyMatchIndex;
+import ceo.peak.data.repository.PageValidatorRepository;
+import ceo.peak.data.service.CompanyQueryService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 다른 소스의 항목이 사람인 행의 비어 있는 필드만 채우고, 일치하는 행이 없으면 csn 없이 저장되었다가
+ * 사람인에서 같은 회사를 찾으면 upsert writer 가 그 행을 이어 쓰는지 확인한다.
+ */
+class CompanyDataMergeWriterTest {
+
+    private static final String ROW_SQL = "SELECT csn, company, key_executive, industry, email, phone_number, sales, " +
+            "total_funding, content_hash, updated_at FROM company_data WHERE company = ?";
+
+    private static EmbeddedPostgres postgres;
+    private static JdbcTemplate jdbcTemplate;
+    private static TransactionTemplate transactionTemplate;
+
+    private CompanyMatchIndex companyMatchIndex;
+    private CompanyDataMergeWriter writer;
+
+    @BeforeAll
+    static void startDatabase() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        jdbcTemplate = new JdbcTemplate(postgres.getPostgresDatabase());
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(postgres.getPostgresDatabase()));
+        try (InputStream in = CompanyDataMergeWriterTest.class.getResourceAsStream("/schema.sql")) {
+            for (String statement : new String(in.readAllBytes(), StandardCharsets.UTF_8).split(";")) {
+                if (!statement.isBlank()) {
+                    jdbcTemplate.execute(statement);
+                }
+            }
+        }
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("TRUNCATE company_data");
+        // 사람인에서 저장한 행. 이메일은 없고 전화번호는 "-", 투자 유치 금액은 있음
+        write(primaryWriter(), saramin("s-1", "피크", "서울 강남구 테헤란로 1", null, "-", "10억"));
+        jdbcTemplate.update("UPDATE company_data SET created_at = TIMESTAMP '2026-01-01', updated_at = TIMESTAMP '2026-01-01'");
+        companyMatchIndex = new CompanyMatchIndex(jdbcTemplate);
+        companyMatchIndex.load();
+        CompanyQueryService companyQueryService = new CompanyQueryService(null,
+                new ConcurrentMapCacheManager(CacheConfig.COMPANY_CACHE, CacheConfig.COMPANY_PAGE_CACHE));
+        CrawlMetrics crawlMetrics = new CrawlMetrics(new SimpleMeterRegistry());
+        PageValidatorRepository pageValidatorRepository = mock(PageValidatorRepository.class);
+        writer = new CompanyDataMergeWriter(
+                new SaraminCompanyDataUpsertWriter(jdbcTemplate, companyMatchIndex, pageValidatorRepository, crawlMetrics, companyQueryService),
+                jdbcTemplate, companyMatchIndex, pageValidatorRepository, crawlMetrics, companyQueryService);
+    }
+
+    @Test
+    void fillsOnlyMissingFieldsAndKeepsSaraminColumns() {
+        Map<String, Object> before = jdbcTemplate.queryForMap(ROW_SQL, "피크");
+
+        write(writer, other("jobkorea:1", "(주)피크", "서울 강남구 테헤란로 1", "a@peak.ceo", "02-123-4567", "99억"));
+
+        Map<String, Object> after = jdbcTemplate.queryForMap(ROW_SQL, "피크");
+        assertEquals("a@peak.ceo", after.get("email"));
+        assertEquals("02-123-4567", after.get("phone_number"));
+        // 이미 값이 있는 필드와 사람인이 관리하는 필드(회사명, 대표자, 업종, 매출, 내용 지문)는 그대로
+        assertEquals("10억", after.get("total_funding"));
+        for (String column : List.of("csn", "company", "key_executive", "industry", "sales", "content_hash")) {
+            assertEquals(before.get(column), after.get(column), column);
+        }
+        assertEquals(1, count());
+    }
+
+    @Test
+    void leavesRowUntouchedWhenNothingToFill() {
+        Map<String, Object> before = jdbcTemplate.queryForMap(ROW_SQL, "피크");
+
+        // "-" 는 채울 값으로 보지 않고, 값이 있는 투자 유치 금액은 덮어쓰지 않음
+        write(writer, other("jobkorea:1", "피크", "서울 강남구 테헤란로 1", "-", null, "99억"));
+
+        assertEquals(before, jdbcTemplate.queryForMap(ROW_SQL, "피크"));
+    }
+
+    @Test
+    void firstItemWinsWhenSeveralMatchSameRow() {
+        write(writer,
+                other("jobkorea:1", "피크", "서울 강남구 테헤란로 1", "first@peak.ceo", null, null),
+                other("jobkorea:2", "피크", "서울 강남구 테헤란로 1", "second@peak.ceo", "02-000-0000", null));
+
+        Map<String, Object> row = jdbcTemplate.queryForMap(ROW_SQL, "피크");
+        assertEquals("first@peak.ceo", row.get("email"));
+        assertEquals("-", row.get("phone_number"));
+        assertEquals(1, count());
+    }
+
+    @Test
+    void insertsUnmatchedItemWithoutCsnAndUpsertWriterAdoptsIt() {
+        write(writer, other("jobkorea:3", "새회사", "부산 해운대구 센텀로 2", "new@peak.ceo", null, "5억"));
+
+        Map<String, Object> inserted = jdbcTemplate.queryForMap(ROW_SQL, "새회사");
+        assertNull(inserted.get("csn"));
+        assertEquals("new@peak.ceo", inserted.get("email"));
+        long id = jdbcTemplate.queryForObject("SELECT id FROM company_data WHERE company = '새회사'", Long.class);
+
+        // 나중에 사람인에서 같은 회사를 찾으면 같은 행에 csn 을 붙여 사람인 필드를 쓰고, 채워 둔 값은 유지
+        write(writer, saramin("s-2", "새회사", "부산 해운대구 센텀로 2", null, null, null));
+
+        Map<String, Object> adopted = jdbcTemplate.queryForMap(ROW_SQL, "새회사");
+        assertEquals("s-2", adopted.get("csn"));
+        assertEquals("대표", adopted.get("key_executive"));
+        assertEquals("new@peak.ceo", adopted.get("email"));
+        assertEquals("5억", adopted.get("total_funding"));
+        assertEquals(id, jdbcTemplate.queryForObject("SELECT id FROM company_data WHERE csn = 's-2'", Long.class));
+        assertEquals(2, count());
+    }
+
+    private SaraminCompanyDataUpsertWriter primaryWriter() {
+        CompanyMatchIndex emptyIndex = new CompanyMatchIndex(jdbcTemplate);
+        return new SaraminCompanyDataUpsertWriter(jdbcTemplate, emptyIndex, mock(PageValidatorRepository.class),
+                new CrawlMetrics(new SimpleMeterRegistry()),
+                new CompanyQueryService(null, new ConcurrentMapCacheManager(CacheConfig.COMPANY_CACHE, CacheConfig.COMPANY_PAGE_CACHE)));
+    }
+
+    private static CompanyData saramin(String csn, String company, String address, String email,
+                                       String phoneNumber, String totalFunding) {
+        CompanyData companyData = CompanyData.of(company, "대표", "소프트웨어 개발", address, "https://example.com",
+                email, phoneNumber, "1억", totalFunding, null);
+        companyData.attachSource(csn, null, null);
+        return companyData;
+    }
+
+    private static CompanyData other(String sourceCode, String company, String address, String email,
+                                     String phoneNumber, String totalFunding) {
+        CompanyData companyData = CompanyData.of(company, "다른대표", "다른업종", address, null,
+                email, phoneNumber, "999억", totalFunding, null);
+        companyData.attachSecondarySource(sourceCode, null, null);
+        return companyData;
+    }
+
+    private static void write(ItemWriter<CompanyData> writer, CompanyData... items) {
+        transactionTemplate.executeWithoutResult(status -> {
+            try {
+                writer.write(new Chunk<>(List.of(items)));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    private static int count() {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM company_data", Integer.class);
+    }
+}
@@ -0,0 +1,95 @@
+package ceo.peak.data.job;
+
+import ceo.peak.data.config.SaraminProperties;
+import ceo.peak.data.crawl.CompanySources;
+import ceo.peak.data.crawl.FetchedPage;
+import ceo.peak.data.crawl.PageFetcher;
+import ceo.peak.data.crawl.PermanentFetchException;
+import ceo.peak.data.crawl.SaraminCompanySource;
+import ceo.peak.data.crawl.TransientFetchException;
+import ceo.peak.data.entity.CompanyData;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.retry.support.RetryTemplate;
+
+import java.net.http.HttpTimeoutException;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CompanyDataProcessorTest {
+
+    private static final String URL = "https://www.saramin.co.kr/zf_user/company-info/view?csn=101";
+
+    private final PageFetcher pageFetcher = mock(PageFetcher.class);
+    private final CompanyDataProcessor processor;
+
+    CompanyDataProcessorTest() {
+        SaraminProperties properties = new SaraminProperties();
+        CompanySources companySources = new CompanySources(List.of(new SaraminCompanySource()), properties, pageFetcher);
+        // 운영 설정과 같은 조건으로 다시 요청하되 백오프 없이
+        RetryTemplate fetchRetry = RetryTemplate.builder()
+                .maxAttempts(3)
+                .noBackoff()
+                .retryOn(TransientFetchException.class)
+                .build();
+        processor = new CompanyDataProcessor(companySources, pageFetcher, new PageValidatorPrefetch(null, false),
+                new CrawlMetrics(new SimpleMeterRegistry()), fetchRetry, true);
+    }
+
+    @Test
+    void retriesTransientFailuresUntilSuccess() throws Exception {
+        when(pageFetcher.fetch(eq(URL), anyMap(), eq(true)))
+                .thenThrow(new HttpTimeoutException("timed out"))
+                .thenReturn(page(503, ""))
+                .thenReturn(page(200, "<html><h1 class=\"tit_company\" title=\"(주)피크\">피크</h1></html>"));
+
+        CompanyData data = processor.process("101");
+
+        assertEquals("피크", data.getCompany());
+        assertEquals("101", data.getCsn());
+        verify(pageFetcher, times(3)).fetch(eq(URL), anyMap(), eq(true));
+    }
+
+    @Test
+    void givesUpAfterMaxAttempts() throws Exception {
+        when(pageFetcher.fetch(eq(URL), anyMap(), eq(true))).thenReturn(page(503, ""));
+
+        TransientFetchException e = assertThrows(TransientFetchException.class, () -> processor.process("101"));
+
+        assertEquals(503, e.getStatusCode());
+        verify(pageFetcher, times(3)).fetch(eq(URL), anyMap(), eq(true));
+    }
+
+    @Test
+    void doesNotRetryPermanentFailures() throws Exception {
+        when(pageFetcher.fetch(eq(URL), anyMap(), eq(true))).thenReturn(page(404, ""));
+
+        PermanentFetchException e = assertThrows(PermanentFetchException.class, () -> processor.process("101"));
+
+        assertEquals(404, e.getStatusCode());
+        verify(pageFetcher, times(1)).fetch(eq(URL), anyMap(), eq(true));
+    }
+
+    @Test
+    void failsPermanentlyWhenCompanyNameIsMissing() throws Exception {
+        when(pageFetcher.fetch(eq(URL), anyMap(), eq(true))).thenReturn(page(200, "<html><body>점검 중</body></html>"));
+
+        PermanentFetchException e = assertThrows(PermanentFetchException.class, () -> processor.process("101"));
+
+        assertEquals(200, e.getStatusCode());
+        verify(pageFetcher, times(1)).fetch(eq(URL), anyMap(), eq(true));
+    }
+
+    private static FetchedPage page(int statusCode, String body) {
+        return new FetchedPage(URL, statusCode, body, Map.of(), System.currentTimeMillis());
+    }
+}
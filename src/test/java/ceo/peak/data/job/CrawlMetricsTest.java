@@ -0,0 +1,32 @@
+package ceo.peak.data.job;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CrawlMetricsTest {
+
+    @Test
+    void reusesTimerPerStepAndTags() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        CrawlMetrics crawlMetrics = new CrawlMetrics(meterRegistry);
+
+        crawlMetrics.record(CrawlMetrics.MATCH, System.nanoTime(), "writer", "upsert");
+        crawlMetrics.record(CrawlMetrics.MATCH, System.nanoTime(), "writer", "upsert");
+        crawlMetrics.record(CrawlMetrics.MATCH, System.nanoTime(), "writer", "jpa");
+        StepSynchronizationManager.register(new JobExecution(1L).createStepExecution("saraminWorkerStep:partition0"));
+        try {
+            crawlMetrics.record(CrawlMetrics.MATCH, System.nanoTime(), "writer", "upsert");
+        } finally {
+            StepSynchronizationManager.close();
+        }
+
+        assertEquals(3, meterRegistry.get(CrawlMetrics.MATCH).timers().size());
+        assertEquals(2, meterRegistry.get(CrawlMetrics.MATCH).tags("step", "none", "writer", "upsert").timer().count());
+        assertEquals(1, meterRegistry.get(CrawlMetrics.MATCH)
+                .tags("step", "saraminWorkerStep", "partition", "partition0", "writer", "upsert").timer().count());
+    }
+}
@@ -0,0 +1,95 @@
+package ceo.peak.data.job;
+
+import ceo.peak.data.config.SaraminProperties;
+import ceo.peak.data.crawl.CompanySources;
+import ceo.peak.data.crawl.PageFetcher;
+import ceo.peak.data.crawl.PermanentFetchException;
+import ceo.peak.data.crawl.SaraminCompanySource;
+import ceo.peak.data.entity.CompanyData;
+import ceo.peak.data.entity.CrawlDeadLetter;
+import ceo.peak.data.repository.CrawlDeadLetterRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.repository.support.ResourcelessJobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.item.ItemProcessor;
+import org.springframework.batch.item.support.ListItemReader;
+import org.springframework.batch.repeat.policy.SimpleCompletionPolicy;
+import org.springframework.batch.support.transaction.ResourcelessTransactionManager;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * 상세 페이지 요청 실패가 순차 처리와 비동기 처리(AsyncItemProcessor/Writer) 모두에서 같은 방식으로 건너뛰어지고
+ * skip 리스너(dead-letter 기록, skip 지표)에 전달되는지 확인한다.
+ */
+class DetailStepSkipTest {
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void skipsFailedFetchAndNotifiesSkipListeners(boolean async) throws Exception {
+        SaraminProperties properties = new SaraminProperties();
+        properties.getAsync().setEnabled(async);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        CrawlDeadLetterRepository crawlDeadLetterRepository = mock(CrawlDeadLetterRepository.class);
+        SaraminCompanySource saramin = new SaraminCompanySource();
+        CompanySources companySources = new CompanySources(List.of(saramin), properties, new PageFetcher(properties));
+        ResourcelessJobRepository jobRepository = new ResourcelessJobRepository();
+
+        SaraminBatch batch = new SaraminBatch(jobRepository, null, properties, null, null, null, null,
+                new CrawlMetrics(meterRegistry), mock(JobProgressBroadcaster.class), null, null, null,
+                crawlDeadLetterRepository, companySources, null, null);
+
+        // 리소스가 없으므로 dead-letter 기록용 REQUIRES_NEW 트랜잭션이 청크 트랜잭션을 일시 중단할 때 할 일이 없음
+        PlatformTransactionManager transactionManager = new ResourcelessTransactionManager() {
+            @Override
+            protected Object doSuspend(Object transaction) {
+                return null;
+            }
+
+            @Override
+            protected void doResume(Object transaction, Object suspendedResources) {
+            }
+        };
+        ItemProcessor<String, CompanyData> processor = code -> {
+            if (code.equals("missing")) {
+                throw new PermanentFetchException("HTTP 404", saramin.detailUrl(code), 404, null);
+            }
+            CompanyData data = CompanyData.of("회사" + code, "-", "-", "-", "-", "-", "-", "-", "-", "-");
+            data.attachSource(code, null, null);
+            return data;
+        };
+        List<String> written = new CopyOnWriteArrayList<>();
+        Step step = batch.buildDetailStep(new StepBuilder("detailStep", jobRepository), saramin,
+                new ListItemReader<>(List.of("a", "missing", "b")), processor,
+                chunk -> chunk.forEach(item -> written.add(item.getCsn())),
+                new SimpleCompletionPolicy(100), false, transactionManager);
+
+        JobExecution jobExecution = jobRepository.createJobExecution("detailJob", new JobParameters());
+        StepExecution stepExecution = jobExecution.createStepExecution("detailStep");
+        step.execute(stepExecution);
+
+        assertEquals(BatchStatus.COMPLETED, stepExecution.getStatus());
+        assertEquals(1, stepExecution.getSkipCount());
+        assertEquals(List.of("a", "b"), written);
+        verify(crawlDeadLetterRepository).record(any(), eq("missing"), anyString(),
+                eq(CrawlDeadLetter.Kind.PERMANENT), eq(404), anyString());
+        // 비동기 처리에서는 요청 실패가 Future 를 꺼내는 쓰기 단계에서 드러남
+        assertEquals(1.0, meterRegistry.get(CrawlMetrics.SKIPS).tag("phase", async ? "write" : "process").counter().count());
+    }
+}
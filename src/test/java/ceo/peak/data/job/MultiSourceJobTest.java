@@ -0,0 +1,267 @@
+package ceo.peak.data.job;
+
+import ceo.peak.data.crawl.CompanySource;
+import ceo.peak.data.crawl.ExtractionSpec;
+import ceo.peak.data.crawl.FetchedPage;
+import ceo.peak.data.crawl.ResponseArchive;
+import ceo.peak.data.crawl.SaraminCompanySource;
+import ceo.peak.data.entity.CompanyData;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 사람인과 두 번째 소스를 함께 활성화한 saraminJob 을 실행해 두 소스의 흐름이 모두 실행되고,
+ * 각 상세 Step 이 자기 소스의 코드만 가져가며, 두 흐름이 끝난 뒤에 내보내기가 실행되는지 확인한다. 페이지는 아카이브에서 replay.
+ */
+@SpringBootTest
+class MultiSourceJobTest {
+
+    private static final List<String> SARAMIN_CODES = List.of("101", "102");
+    private static final List<String> STUB_CODES = List.of("7", "8");
+
+    private static final EmbeddedPostgres postgres;
+    private static final Path archiveDir;
+    private static final Path exportDir;
+
+    static {
+        try {
+            postgres = EmbeddedPostgres.start();
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(postgres.getPostgresDatabase());
+            try (InputStream in = MultiSourceJobTest.class.getResourceAsStream("/schema.sql")) {
+                for (String statement : new String(in.readAllBytes(), StandardCharsets.UTF_8).split(";")) {
+                    if (!statement.isBlank()) {
+                        jdbcTemplate.execute(statement);
+                    }
+                }
+            }
+            archiveDir = Files.createTempDirectory("multi-source-archive");
+            exportDir = Files.createTempDirectory("multi-source-export");
+            SaraminCompanySource saramin = new SaraminCompanySource();
+            StubCompanySource stub = new StubCompanySource();
+            try (ResponseArchive archive = ResponseArchive.open(archiveDir)) {
+                StringBuilder saraminListing = new StringBuilder("<html>");
+                for (String code : SARAMIN_CODES) {
+                    saraminListing.append("<a class=\"link_tit\" href=\"/zf_user/company-info/view?csn=").append(code).append("\">회사</a>");
+                    archive.append(page(saramin.detailUrl(code),
+                            "<h1 class=\"tit_company\" title=\"사람인회사" + code + "\">사람인회사" + code + "</h1>"));
+                }
+                archive.append(page(saramin.listingUrl(1), saraminListing + "</html>"));
+                StringBuilder stubListing = new StringBuilder("<html>");
+                for (String code : STUB_CODES) {
+                    stubListing.append("<a class=\"company\" href=\"/company/").append(code).append("\">회사</a>");
+                    archive.append(page(stub.detailUrl(code),
+                            "<h1>다른소스회사" + code + "</h1><p class=\"address\">부산 해운대구 " + code + "</p>"
+                                    + "<p class=\"email\">c" + code + "@example.com</p>"));
+                }
+                archive.append(page(stub.listingUrl(1), stubListing + "</html>"));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+        registry.add("spring.batch.jdbc.initialize-schema", () -> "always");
+        registry.add("spring.jpa.show-sql", () -> "false");
+        registry.add("saramin.archive.dir", archiveDir::toString);
+        registry.add("saramin.sources.stub.pages", () -> "1");
+        registry.add("saramin.sources.stub.grid-size", () -> "2");
+        registry.add("saramin.export.enabled", () -> "true");
+        registry.add("saramin.export.dir", exportDir::toString);
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        postgres.close();
+    }
+
+    private static FetchedPage page(String url, String body) {
+        return new FetchedPage(url, 200, body, Map.of(), System.currentTimeMillis());
+    }
+
+    // 목록 페이지의 a.company 에서 코드를 찾고 상세 페이지의 회사명/주소/이메일만 뽑는 두 번째 소스
+    static class StubCompanySource implements CompanySource {
+
+        private static final Pattern CODE_PATTERN = Pattern.compile("/company/([0-9]+)");
+        private static final ExtractionSpec DETAIL_PAGE = ExtractionSpec.builder()
+                .field("company", "h1", Element::text)
+                .field("address", "p.address", Element::text)
+                .field("email", "p.email", Element::text)
+                .build();
+
+        @Override
+        public String name() {
+            return "stub";
+        }
+
+        @Override
+        public String host() {
+            return "stub.example.com";
+        }
+
+        @Override
+        public String listingUrl(int page) {
+            return "https://stub.example.com/companies?page=" + page;
+        }
+
+        @Override
+        public List<String> extractCodes(Document listingPage) {
+            List<String> codes = new ArrayList<>();
+            for (Element link : listingPage.select("a.company")) {
+                String code = codeOf(link.attr("href"));
+                if (code != null) {
+                    codes.add(code);
+                }
+            }
+            return codes;
+        }
+
+        @Override
+        public String detailUrl(String code) {
+            return "https://stub.example.com/company/" + code;
+        }
+
+        @Override
+        public String codeOf(String detailUrl) {
+            Matcher matcher = CODE_PATTERN.matcher(detailUrl);
+            return matcher.find() ? matcher.group(1) : null;
+        }
+
+        @Override
+        public ExtractionSpec detailPage() {
+            return DETAIL_PAGE;
+        }
+
+        @Override
+        public CompanyData map(ExtractionSpec.Result fields) {
+            String company = fields.get("company", null);
+            if (company == null) {
+                return null;
+            }
+            return CompanyData.of(company, "-", "-", fields.get("address", null), "-",
+                    fields.get("email", null), "-", "-", "-", "-");
+        }
+    }
+
+    @TestConfiguration
+    static class StubSourceConfig {
+
+        @Bean
+        CompanySource stubCompanySource() {
+            return new StubCompanySource();
+        }
+    }
+
+    @Autowired
+    private JobLauncher jobLauncher;
+
+    @Autowired
+    @Qualifier("saraminJob")
+    private Job job;
+
+    @Autowired
+    private JobExplorer jobExplorer;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void runsEverySourceFlowAndExportsAfterSplit() throws Exception {
+        JobExecution execution = jobLauncher.run(job, new JobParametersBuilder()
+                .addString("replay", "true")
+                .addLong("startPage", 1L)
+                .addLong("endPage", 1L)
+                .addLong("gridSize", 2L)
+                .addLong("time", System.currentTimeMillis())
+                .toJobParameters());
+
+        assertEquals(BatchStatus.COMPLETED, execution.getStatus());
+        List<StepExecution> steps = new ArrayList<>(jobExplorer.getJobExecution(execution.getId()).getStepExecutions());
+        for (String name : List.of("saraminDiscoveryStep", "saraminStep", "stubDiscoveryStep", "stubStep", "companyExportStep")) {
+            assertEquals(BatchStatus.COMPLETED, step(steps, name).getStatus(), name);
+        }
+        assertEquals(SARAMIN_CODES.size(), writeCount(steps, "saraminWorkerStep:"));
+        assertEquals(STUB_CODES.size(), writeCount(steps, "stubWorkerStep:"));
+
+        // 각 소스의 상세 Step 파티션은 자기 소스의 코드만 가져감
+        long runId = execution.getJobInstance().getInstanceId();
+        List<Map<String, Object>> frontier = jdbcTemplate.queryForList(
+                "SELECT csn, status, claimed_by FROM crawl_frontier WHERE run_id = ? ORDER BY csn", runId);
+        assertEquals(List.of("101", "102", "stub:7", "stub:8"), frontier.stream().map(row -> row.get("csn")).toList());
+        for (Map<String, Object> row : frontier) {
+            String expectedWorker = ((String) row.get("csn")).startsWith("stub:") ? "stubWorkerStep:" : "saraminWorkerStep:";
+            assertTrue(((String) row.get("claimed_by")).startsWith(expectedWorker), row.toString());
+            assertEquals("DONE", row.get("status"));
+        }
+
+        // 사람인 항목은 csn 과 함께, 다른 소스 항목은 일치하는 행이 없어 csn 없이 저장
+        assertEquals(List.of("사람인회사101", "사람인회사102"), jdbcTemplate.queryForList(
+                "SELECT company FROM company_data WHERE csn IS NOT NULL ORDER BY csn", String.class));
+        assertEquals(List.of("다른소스회사7", "다른소스회사8"), jdbcTemplate.queryForList(
+                "SELECT company FROM company_data WHERE csn IS NULL ORDER BY company", String.class));
+
+        // 내보내기는 두 흐름이 모두 끝난 뒤 시작해 네 행을 모두 담음
+        LocalDateTime exportStart = step(steps, "companyExportStep").getStartTime();
+        for (String name : List.of("saraminStep", "stubStep")) {
+            assertFalse(exportStart.isBefore(step(steps, name).getEndTime()), name);
+        }
+        List<Path> exports;
+        try (Stream<Path> files = Files.list(exportDir)) {
+            exports = files.toList();
+        }
+        assertEquals(1, exports.size());
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(exports.get(0)))) {
+            assertEquals(4, new String(in.readAllBytes(), StandardCharsets.UTF_8).lines().count());
+        }
+    }
+
+    private static StepExecution step(List<StepExecution> steps, String name) {
+        return steps.stream().filter(step -> step.getStepName().equals(name)).findFirst().orElseThrow(() ->
+                new AssertionError("Step not executed: " + name));
+    }
+
+    private static long writeCount(List<StepExecution> steps, String prefix) {
+        return steps.stream().filter(step -> step.getStepName().startsWith(prefix)).mapToLong(StepExecution::getWriteCount).sum();
+    }
+}
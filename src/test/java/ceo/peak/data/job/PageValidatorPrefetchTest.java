@@ -0,0 +1,57 @@
+package ceo.peak.data.job;
+
+import ceo.peak.data.entity.PageValidator;
+import ceo.peak.data.repository.PageValidatorRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PageValidatorPrefetchTest {
+
+    private final PageValidatorRepository pageValidatorRepository = mock(PageValidatorRepository.class);
+
+    @Test
+    void takesPrefetchedValidatorsWithoutQueryingPerItem() {
+        when(pageValidatorRepository.findAllById(List.of("a", "b")))
+                .thenReturn(List.of(PageValidator.of("a", "\"etag-a\"", null)));
+        PageValidatorPrefetch prefetch = new PageValidatorPrefetch(pageValidatorRepository, true);
+
+        prefetch.load(List.of("a", "b"));
+
+        assertEquals("\"etag-a\"", prefetch.take("a").orElseThrow().getEtag());
+        assertTrue(prefetch.take("b").isEmpty());
+        verify(pageValidatorRepository, never()).findById(any());
+    }
+
+    @Test
+    void fallsBackToSingleLookupForCodesNotPrefetched() {
+        when(pageValidatorRepository.findById("c")).thenReturn(Optional.of(PageValidator.of("c", null, "Mon")));
+        PageValidatorPrefetch prefetch = new PageValidatorPrefetch(pageValidatorRepository, true);
+
+        prefetch.load(List.of("a"));
+
+        assertEquals("Mon", prefetch.take("c").orElseThrow().getLastModified());
+        // 한 번 꺼낸 csn 은 남겨 두지 않음
+        prefetch.take("a");
+        prefetch.take("a");
+        verify(pageValidatorRepository).findById("a");
+    }
+
+    @Test
+    void skipsLoadingWhenDisabled() {
+        PageValidatorPrefetch prefetch = new PageValidatorPrefetch(pageValidatorRepository, false);
+
+        prefetch.load(List.of("a"));
+
+        verify(pageValidatorRepository, never()).findAllById(any());
+    }
+}
@@ -0,0 +1,155 @@
+package ceo.peak.data.job;
+
+import ceo.peak.data.crawl.FetchedPage;
+import ceo.peak.data.crawl.ResponseArchive;
+import ceo.peak.data.repository.CrawlFrontierRepository;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * manager 와 작업자를 한 JVM 에 띄워(mode=manager-worker, transport=memory) 파티션 요청이 채널을 거쳐
+ * 작업자 Step 으로 실행되고 결과가 공유 JobRepository 로 manager 에 모이는지 확인한다. 상세 페이지는 아카이브에서 replay.
+ */
+@SpringBootTest
+class RemotePartitioningTest {
+
+    private static final List<String> CODES = List.of("101", "102", "103");
+
+    private static final EmbeddedPostgres postgres;
+    private static final Path archiveDir;
+
+    static {
+        try {
+            postgres = EmbeddedPostgres.start();
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(postgres.getPostgresDatabase());
+            try (InputStream in = RemotePartitioningTest.class.getResourceAsStream("/schema.sql")) {
+                for (String statement : new String(in.readAllBytes(), StandardCharsets.UTF_8).split(";")) {
+                    if (!statement.isBlank()) {
+                        jdbcTemplate.execute(statement);
+                    }
+                }
+            }
+            archiveDir = Files.createTempDirectory("remote-partitioning-archive");
+            try (ResponseArchive archive = ResponseArchive.open(archiveDir)) {
+                for (String code : CODES) {
+                    archive.append(new FetchedPage("https://www.saramin.co.kr/zf_user/company-info/view?csn=" + code, 200,
+                            "<html><h1 class=\"tit_company\" title=\"회사" + code + "\">회사" + code + "</h1></html>",
+                            Map.of(), System.currentTimeMillis()));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+        registry.add("spring.batch.jdbc.initialize-schema", () -> "always");
+        registry.add("spring.jpa.show-sql", () -> "false");
+        registry.add("saramin.partition.mode", () -> "manager-worker");
+        registry.add("saramin.partition.transport", () -> "memory");
+        registry.add("saramin.partition.poll-interval", () -> "200ms");
+        registry.add("spring.integration.poller.fixed-delay", () -> "100ms");
+        registry.add("saramin.archive.dir", archiveDir::toString);
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        postgres.close();
+    }
+
+    @TestConfiguration
+    static class FrontierJobConfig {
+
+        // 목록 페이지 대신 crawl_frontier 를 직접 채운 뒤 원격 파티션 상세 Step 실행
+        @Bean
+        Job remotePartitioningTestJob(JobRepository jobRepository, PlatformTransactionManager transactionManager,
+                                      CrawlFrontierRepository crawlFrontierRepository, Step saraminStep) {
+            Step seedStep = new StepBuilder("seedFrontierStep", jobRepository)
+                    .tasklet((contribution, chunkContext) -> {
+                        long runId = chunkContext.getStepContext().getStepExecution().getJobExecution().getJobInstance().getInstanceId();
+                        crawlFrontierRepository.discover(runId, CODES);
+                        return RepeatStatus.FINISHED;
+                    }, transactionManager)
+                    .build();
+            return new JobBuilder("remotePartitioningTestJob", jobRepository)
+                    .start(seedStep)
+                    .next(saraminStep)
+                    .build();
+        }
+    }
+
+    @Autowired
+    private JobLauncher jobLauncher;
+
+    @Autowired
+    @Qualifier("remotePartitioningTestJob")
+    private Job job;
+
+    @Autowired
+    private JobExplorer jobExplorer;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void workersExecutePartitionsSentThroughChannel() throws Exception {
+        JobExecution execution = jobLauncher.run(job, new JobParametersBuilder()
+                .addString("replay", "true")
+                .addLong("gridSize", 2L)
+                .addLong("time", System.currentTimeMillis())
+                .toJobParameters());
+
+        assertEquals(BatchStatus.COMPLETED, execution.getStatus());
+        // manager Step 이 보낸 두 파티션을 작업자 Step 이 실행하고, manager 는 JobRepository 에서 결과를 모음
+        List<StepExecution> workerExecutions = jobExplorer.getJobExecution(execution.getId()).getStepExecutions().stream()
+                .filter(stepExecution -> stepExecution.getStepName().startsWith("saraminWorkerStep:partition"))
+                .toList();
+        assertEquals(2, workerExecutions.size());
+        assertTrue(workerExecutions.stream().allMatch(stepExecution -> stepExecution.getStatus() == BatchStatus.COMPLETED));
+        assertEquals(CODES.size(), workerExecutions.stream().mapToLong(StepExecution::getWriteCount).sum());
+
+        assertEquals(List.of("회사101", "회사102", "회사103"),
+                jdbcTemplate.queryForList("SELECT company FROM company_data ORDER BY csn", String.class));
+        assertEquals(List.of("DONE"), jdbcTemplate.queryForList(
+                "SELECT DISTINCT status FROM crawl_frontier WHERE run_id = ?", String.class,
+                execution.getJobInstance().getInstanceId()));
+    }
+}
@@ -0,0 +1,282 @@
+package ceo.peak.data.job;
+
+import ceo.peak.data.config.CacheConfig;
+import ceo.peak.data.entity.CompanyData;
+import ceo.peak.data.index.CompanyMatchIndex;
+import ceo.peak.data.repository.CompanyDataRepository;
+import ceo.peak.data.repository.PageValidatorRepository;
+import ceo.peak.data.service.CompanyQueryService;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 같은 청크를 upsert writer, copy writer, JPA writer 로 각각 저장한 뒤 company_data 의 최종 상태가 같은지 비교한다.
+ */
+class SaraminCompanyDataCopyWriterTest {
+
+    private static final String SNAPSHOT_SQL = "SELECT id = 0 AS legacy, csn, company, key_executive, industry, address, " +
+            "homepage, email, phone_number, sales, total_funding, logo_url, content_hash, created_at = updated_at AS untouched " +
+            "FROM company_data ORDER BY csn NULLS FIRST, company";
+
+    private static EmbeddedPostgres postgres;
+    private static HikariDataSource dataSource;
+    private static JdbcTemplate jdbcTemplate;
+    private static TransactionTemplate transactionTemplate;
+    private static AnnotationConfigApplicationContext jpaContext;
+
+    @BeforeAll
+    static void startDatabase() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        HikariConfig config = new HikariConfig();
+        config.setDataSource(postgres.getPostgresDatabase());
+        // 연결을 재사용해 이미 만들어진 스테이징 테이블로 다음 청크를 쓰는 경우도 확인
+        config.setMaximumPoolSize(1);
+        dataSource = new HikariDataSource(config);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        try (InputStream in = SaraminCompanyDataCopyWriterTest.class.getResourceAsStream("/schema.sql")) {
+            for (String statement : new String(in.readAllBytes(), StandardCharsets.UTF_8).split(";")) {
+                if (!statement.isBlank()) {
+                    jdbcTemplate.execute(statement);
+                }
+            }
+        }
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        if (jpaContext != null) {
+            jpaContext.close();
+        }
+        dataSource.close();
+        postgres.close();
+    }
+
+    @Test
+    void producesSameEndStateAsUpsertWriter() {
+        List<Map<String, Object>> upserted = run(writerFactory(false));
+        List<Map<String, Object>> copied = run(writerFactory(true));
+
+        assertEquals(7, upserted.size());
+        assertEquals(upserted, copied);
+    }
+
+    @Test
+    void jpaWriterProducesSameEndStateExceptRowsWithoutCsn() {
+        List<Map<String, Object>> upserted = run(writerFactory(false));
+        List<Map<String, Object>> saved = run(jpaWriterFactory(), jpaTransactionTemplate());
+
+        // JPA writer 는 csn 이 없는 항목도 새 행으로 저장하고, upsert/copy writer 는 건너뜀
+        List<Map<String, Object>> withoutCsn = saved.stream()
+                .filter(row -> row.get("csn") == null && !(Boolean) row.get("legacy"))
+                .toList();
+        assertEquals(1, withoutCsn.size());
+        assertEquals("csn없음", withoutCsn.get(0).get("company"));
+        assertEquals(upserted, saved.stream().filter(row -> !withoutCsn.contains(row)).toList());
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void takesSequenceValuesOnlyForNewRows(boolean copy) {
+        WriterFactory factory = writerFactory(copy);
+        run(factory);
+        // 첫 청크의 c-1..c-4, 두 번째 청크의 c-5, c-6 만 새 행 (c-legacy 는 기존 행에 연결). 시퀀스 증가 단위는 100
+        assertEquals(501L, jdbcTemplate.queryForObject("SELECT last_value FROM company_data_seq", Long.class));
+
+        write(factory.create(loadedIndex()), secondChunk());
+        assertEquals(501L, jdbcTemplate.queryForObject("SELECT last_value FROM company_data_seq", Long.class));
+    }
+
+    @Test
+    void requiresTransaction() {
+        ItemWriter<CompanyData> writer = writerFactory(true).create(loadedIndex());
+        assertThrows(IllegalStateException.class, () -> writer.write(firstChunk()));
+    }
+
+    @Test
+    void quotesOnlyNonNullFields() {
+        StringBuilder line = new StringBuilder();
+        SaraminCompanyDataCopyWriter.appendField(line, null);
+        line.append(',');
+        SaraminCompanyDataCopyWriter.appendField(line, "");
+        line.append(',');
+        SaraminCompanyDataCopyWriter.appendField(line, "a\"b,c");
+        assertEquals(",\"\",\"a\"\"b,c\"", line.toString());
+    }
+
+    private interface WriterFactory {
+        ItemWriter<CompanyData> create(CompanyMatchIndex companyMatchIndex);
+    }
+
+    private static WriterFactory writerFactory(boolean copy) {
+        return companyMatchIndex -> {
+            CompanyQueryService companyQueryService = new CompanyQueryService(null,
+                    new ConcurrentMapCacheManager(CacheConfig.COMPANY_CACHE, CacheConfig.COMPANY_PAGE_CACHE));
+            PageValidatorRepository pageValidatorRepository = mock(PageValidatorRepository.class);
+            CrawlMetrics crawlMetrics = new CrawlMetrics(new SimpleMeterRegistry());
+            return copy
+                    ? new SaraminCompanyDataCopyWriter(jdbcTemplate, companyMatchIndex, pageValidatorRepository, crawlMetrics, companyQueryService)
+                    : new SaraminCompanyDataUpsertWriter(jdbcTemplate, companyMatchIndex, pageValidatorRepository, crawlMetrics, companyQueryService);
+        };
+    }
+
+    // JPA writer 는 EntityManager 와 JPA Auditing(createdAt/updatedAt)이 필요하므로 같은 DB 에 JPA 만 띄움
+    @Configuration
+    @EnableJpaAuditing
+    @EnableJpaRepositories(basePackageClasses = CompanyDataRepository.class,
+            includeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = CompanyDataRepository.class))
+    static class JpaConfig {
+
+        @Bean
+        DataSource dataSource() {
+            return dataSource;
+        }
+
+        @Bean
+        JdbcTemplate jdbcTemplate() {
+            return jdbcTemplate;
+        }
+
+        @Bean
+        LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource) {
+            LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+            factory.setDataSource(dataSource);
+            factory.setPackagesToScan(CompanyData.class.getPackageName());
+            factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+            // 운영(Spring Boot)과 같은 컬럼 이름과 배치 설정. 테이블은 schema.sql 로 만듦
+            factory.setJpaPropertyMap(Map.of(
+                    "hibernate.physical_naming_strategy", CamelCaseToUnderscoresNamingStrategy.class.getName(),
+                    "hibernate.hbm2ddl.auto", "none",
+                    "hibernate.jdbc.batch_size", 100,
+                    "hibernate.order_inserts", true,
+                    "hibernate.order_updates", true));
+            return factory;
+        }
+
+        @Bean
+        PlatformTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+            return new JpaTransactionManager(entityManagerFactory);
+        }
+    }
+
+    private static AnnotationConfigApplicationContext jpaContext() {
+        if (jpaContext == null) {
+            jpaContext = new AnnotationConfigApplicationContext(JpaConfig.class);
+        }
+        return jpaContext;
+    }
+
+    private static TransactionTemplate jpaTransactionTemplate() {
+        return new TransactionTemplate(jpaContext().getBean(PlatformTransactionManager.class));
+    }
+
+    private static WriterFactory jpaWriterFactory() {
+        return companyMatchIndex -> new SaraminCompanyDataWriter(jpaContext().getBean(CompanyDataRepository.class),
+                companyMatchIndex, mock(PageValidatorRepository.class), new CrawlMetrics(new SimpleMeterRegistry()),
+                new CompanyQueryService(null, new ConcurrentMapCacheManager(CacheConfig.COMPANY_CACHE, CacheConfig.COMPANY_PAGE_CACHE)));
+    }
+
+    private static List<Map<String, Object>> run(WriterFactory factory) {
+        return run(factory, transactionTemplate);
+    }
+
+    private static List<Map<String, Object>> run(WriterFactory factory, TransactionTemplate transaction) {
+        jdbcTemplate.execute("TRUNCATE company_data");
+        jdbcTemplate.execute("ALTER SEQUENCE company_data_seq RESTART");
+        // csn 컬럼이 생기기 전에 저장된 행. 회사명/주소가 같은 항목이 오면 csn 이 붙어야 함
+        jdbcTemplate.update("INSERT INTO company_data (id, company, address, sales, created_at, updated_at) " +
+                "VALUES (0, '피크데이터랩', '서울 강남구 테헤란로 1', '1억', TIMESTAMP '2024-01-01', TIMESTAMP '2024-01-01')");
+
+        ItemWriter<CompanyData> writer = factory.create(loadedIndex());
+        write(writer, firstChunk(), transaction);
+        write(writer, secondChunk(), transaction);
+        return jdbcTemplate.queryForList(SNAPSHOT_SQL);
+    }
+
+    private static CompanyMatchIndex loadedIndex() {
+        CompanyMatchIndex companyMatchIndex = new CompanyMatchIndex(jdbcTemplate);
+        companyMatchIndex.load();
+        return companyMatchIndex;
+    }
+
+    private static void write(ItemWriter<CompanyData> writer, Chunk<CompanyData> chunk) {
+        write(writer, chunk, transactionTemplate);
+    }
+
+    private static void write(ItemWriter<CompanyData> writer, Chunk<CompanyData> chunk, TransactionTemplate transaction) {
+        transaction.executeWithoutResult(status -> {
+            try {
+                writer.write(chunk);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    private static Chunk<CompanyData> firstChunk() {
+        List<CompanyData> items = new ArrayList<>();
+        items.add(company("c-legacy", "피크데이터랩", "서울 강남구 테헤란로 1", "2억"));
+        // CSV 구분자, 따옴표, 줄바꿈, 역슬래시, 빈 문자열이 그대로 저장되어야 함
+        items.add(company("c-1", "\"큰따옴표\", 쉼표 기업", "부산 해운대구\n센텀로 2", "C:\\매출"));
+        items.add(company("c-2", "빈값기업", "", null));
+        items.add(company("c-3", "중복기업", "대구 중구 1", "1억"));
+        items.add(company("c-3", "중복기업", "대구 중구 1", "3억")); // 같은 청크의 같은 csn 은 마지막 값
+        items.add(company("c-4", "변경예정", "광주 북구 4", "4억"));
+        items.add(company(null, "csn없음", "제주 1", "1억")); // 저장하지 않음
+        return new Chunk<>(items);
+    }
+
+    private static Chunk<CompanyData> secondChunk() {
+        List<CompanyData> items = new ArrayList<>();
+        items.add(company("c-1", "\"큰따옴표\", 쉼표 기업", "부산 해운대구\n센텀로 2", "C:\\매출")); // 변경 없음
+        items.add(company("c-4", "변경예정", "광주 북구 4", "5억")); // 매출 변경
+        items.add(company("c-5", "신규기업", "인천 남동구 5", null));
+        items.add(company("c-6", "NULL", "\\N", "NULL"));
+        return new Chunk<>(items);
+    }
+
+    private static CompanyData company(String csn, String name, String address, String sales) {
+        CompanyData data = CompanyData.of(name, "대표", "소프트웨어 개발", address, "https://example.com",
+                null, "-", sales, null, null);
+        data.attachSource(csn, null, null);
+        return data;
+    }
+}
@@ -0,0 +1,147 @@
+package ceo.peak.data.job;
+
+import ceo.peak.data.config.SaraminProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InOrder;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobInstance;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.repository.JobExecutionAlreadyRunningException;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.repository.JobRestartException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SaraminJobLauncherTest {
+
+    private final JobExplorer jobExplorer = mock(JobExplorer.class);
+    private final JobRepository jobRepository = mock(JobRepository.class);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private SaraminJobLauncher launcher;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        SaraminProperties properties = new SaraminProperties();
+        properties.setStaleExecutionTimeout(Duration.ofHours(1));
+        when(jobExplorer.findRunningJobExecutions(anyString())).thenReturn(Set.of());
+        launcher = new SaraminJobLauncher(job("saraminJob"), job("retryFailedJob"), job("companyDedupJob"),
+                jobExplorer, jobRepository, jdbcTemplate, properties);
+    }
+
+    @Test
+    void marksExecutionWithoutRecentUpdatesAsFailed() {
+        JobExecution stale = execution(LocalDateTime.now().minusHours(3));
+        StepExecution worker = stale.createStepExecution("saraminWorkerStep:partition0");
+        worker.setStatus(BatchStatus.STARTED);
+        worker.setLastUpdated(LocalDateTime.now().minusHours(2));
+        when(jobExplorer.findRunningJobExecutions("saraminJob")).thenReturn(Set.of(stale));
+
+        assertTrue(launcher.findRunning().isEmpty());
+        assertEquals(BatchStatus.FAILED, stale.getStatus());
+        assertEquals(BatchStatus.FAILED, worker.getStatus());
+        verify(jobRepository).update(worker);
+        verify(jobRepository).update(stale);
+    }
+
+    @Test
+    void keepsExecutionWhoseStepsAreStillCommitting() {
+        JobExecution running = execution(LocalDateTime.now().minusHours(3));
+        StepExecution worker = running.createStepExecution("saraminWorkerStep:partition0");
+        worker.setStatus(BatchStatus.STARTED);
+        worker.setLastUpdated(LocalDateTime.now().minusMinutes(5));
+        when(jobExplorer.findRunningJobExecutions("saraminJob")).thenReturn(Set.of(running));
+
+        assertEquals(running, launcher.findRunning().orElseThrow());
+        assertEquals(BatchStatus.STARTED, running.getStatus());
+        verify(jobRepository, never()).update(any(JobExecution.class));
+    }
+
+    @Test
+    void findsStaleStartedExecutionAsLatestFailed() {
+        JobExecution stale = execution(LocalDateTime.now().minusHours(3));
+        when(jobExplorer.findRunningJobExecutions("saraminJob")).thenReturn(Set.of(stale));
+        when(jdbcTemplate.query(anyString(), ArgumentMatchers.<RowMapper<Long>>any(), any(), any())).thenReturn(List.of(10L));
+        when(jobExplorer.getJobExecution(10L)).thenReturn(stale);
+
+        assertEquals(stale, launcher.findLatestFailed(LocalDateTime.now().minusHours(24)).orElseThrow());
+        // 조회 전에 STARTED 로 남은 실행을 FAILED 로 표시해야 FAILED/STOPPED 조회에 포함됨
+        InOrder inOrder = inOrder(jobRepository, jdbcTemplate);
+        inOrder.verify(jobRepository).update(stale);
+        inOrder.verify(jdbcTemplate).query(contains("STATUS IN ('FAILED', 'STOPPED')"), ArgumentMatchers.<RowMapper<Long>>any(), any(), any());
+    }
+
+    @Test
+    void failsStaleExecutionsOfEveryJob() {
+        JobExecution staleSaramin = execution(LocalDateTime.now().minusHours(3));
+        JobExecution running = new JobExecution(new JobInstance(3L, "saraminJob"), 30L, new JobParameters());
+        running.setStatus(BatchStatus.STARTED);
+        running.setLastUpdated(LocalDateTime.now().minusMinutes(5));
+        JobExecution staleDedup = new JobExecution(new JobInstance(2L, "companyDedupJob"), 20L, new JobParameters());
+        staleDedup.setStatus(BatchStatus.STARTED);
+        staleDedup.setCreateTime(LocalDateTime.now().minusHours(2));
+        when(jobExplorer.findRunningJobExecutions("saraminJob")).thenReturn(Set.of(staleSaramin, running));
+        when(jobExplorer.findRunningJobExecutions("companyDedupJob")).thenReturn(Set.of(staleDedup));
+
+        launcher.failStaleExecutions();
+
+        assertEquals(BatchStatus.FAILED, staleSaramin.getStatus());
+        assertEquals(BatchStatus.FAILED, staleDedup.getStatus());
+        assertEquals(BatchStatus.STARTED, running.getStatus());
+    }
+
+    @Test
+    void rejectsRestartOfOtherJobOrCompletedExecution() {
+        JobExecution dedup = new JobExecution(new JobInstance(2L, "companyDedupJob"), 20L, new JobParameters());
+        dedup.setStatus(BatchStatus.FAILED);
+        assertThrows(JobRestartException.class, () -> launcher.restart(dedup));
+
+        JobExecution completed = execution(LocalDateTime.now());
+        completed.setStatus(BatchStatus.COMPLETED);
+        assertThrows(JobRestartException.class, () -> launcher.restart(completed));
+    }
+
+    @Test
+    void rejectsRestartOfExecutionThatIsStillRunning() {
+        JobExecution running = execution(LocalDateTime.now().minusMinutes(1));
+        assertThrows(JobExecutionAlreadyRunningException.class, () -> launcher.restart(running));
+        verify(jobRepository, never()).update(any(JobExecution.class));
+    }
+
+    private static JobExecution execution(LocalDateTime lastUpdated) {
+        JobExecution execution = new JobExecution(new JobInstance(1L, "saraminJob"), 10L, new JobParameters());
+        execution.setStatus(BatchStatus.STARTED);
+        execution.setCreateTime(lastUpdated);
+        execution.setStartTime(lastUpdated);
+        execution.setLastUpdated(lastUpdated);
+        return execution;
+    }
+
+    private static Job job(String name) {
+        Job job = mock(Job.class);
+        when(job.getName()).thenReturn(name);
+        return job;
+    }
+}
@@ -0,0 +1,70 @@
+package ceo.peak.data.job;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SortedNeighborhoodTaskTest {
+
+    private static SortedNeighborhoodTask.Row row(long id, String csn, String name, String address) {
+        return new SortedNeighborhoodTask.Row(id, csn, name, address);
+    }
+
+    @Test
+    void comparesOnlyWithinWindow() {
+        List<SortedNeighborhoodTask.Row> rows = new ArrayList<>();
+        rows.add(row(1, null, "피크데이터랩", "서울강남구테헤란로1"));
+        for (int i = 0; i < 3; i++) {
+            rows.add(row(10 + i, null, "다른회사" + i, "부산해운대구" + i));
+        }
+        rows.add(row(2, "c2", "피크데이타랩", "서울강남구테헤란로1"));
+
+        List<SortedNeighborhoodTask.Match> narrow = ForkJoinPool.commonPool()
+                .invoke(new SortedNeighborhoodTask(rows, 0, rows.size(), 4));
+        List<SortedNeighborhoodTask.Match> wide = ForkJoinPool.commonPool()
+                .invoke(new SortedNeighborhoodTask(rows, 0, rows.size(), 5));
+
+        assertTrue(narrow.isEmpty());
+        assertEquals(1, wide.size());
+        assertEquals(1, wide.get(0).left().id());
+        assertEquals(2, wide.get(0).right().id());
+    }
+
+    @Test
+    void splitsLargeRangesWithoutMissingNeighbors() {
+        List<SortedNeighborhoodTask.Row> rows = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            // 같은 회사가 두 행씩 이어서 나옴
+            rows.add(row(i, null, "회사" + (i / 2), "서울중구세종대로" + (i / 2)));
+        }
+
+        List<SortedNeighborhoodTask.Match> matches = new ForkJoinPool(4)
+                .invoke(new SortedNeighborhoodTask(rows, 0, rows.size(), 3));
+
+        assertEquals(1_000, matches.size());
+        assertTrue(matches.stream().allMatch(m -> m.left().id() / 2 == m.right().id() / 2));
+    }
+
+    @Test
+    void neverMergesRowsWithDifferentCsns() {
+        assertFalse(SortedNeighborhoodTask.isDuplicate(row(1, "a", "피크데이터", "서울강남구"), row(2, "b", "피크데이터", "서울강남구")));
+        assertFalse(SortedNeighborhoodTask.isDuplicate(row(1, null, "피크데이터", ""), row(2, null, "피크데이터", "")));
+
+        CompanyClusters clusters = new CompanyClusters();
+        assertTrue(clusters.union(1, "a", 3, null));
+        assertFalse(clusters.union(3, null, 2, "b")); // 3 을 거쳐 csn 이 다른 1, 2 가 묶이지 않음
+        assertTrue(clusters.union(4, null, 3, null));
+
+        Map<Long, List<Long>> survivors = clusters.survivors();
+        assertEquals(1, clusters.getRejected());
+        assertEquals(Map.of(1L, List.of(3L, 4L)), Map.of(1L, survivors.get(1L).stream().sorted().toList()));
+        assertEquals(1, survivors.size());
+    }
+}
@@ -0,0 +1,96 @@
+package ceo.peak.data.repository;
+
+import ceo.peak.data.dto.CompanyResponse;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompanyDataRepositoryCustomImplTest {
+
+    private static EmbeddedPostgres postgres;
+    private static JdbcTemplate jdbcTemplate;
+    private static CompanyDataRepositoryCustomImpl repository;
+
+    @BeforeAll
+    static void startDatabase() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        jdbcTemplate = new JdbcTemplate(postgres.getPostgresDatabase());
+        try (InputStream in = CompanyDataRepositoryCustomImplTest.class.getResourceAsStream("/schema.sql")) {
+            for (String statement : new String(in.readAllBytes(), StandardCharsets.UTF_8).split(";")) {
+                if (!statement.isBlank()) {
+                    jdbcTemplate.execute(statement);
+                }
+            }
+        }
+        repository = new CompanyDataRepositoryCustomImpl(jdbcTemplate);
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("TRUNCATE company_data");
+        insert(1, "csn-1", "피크", "IT", "-", "2024-01-01");
+        insert(2, null, "피크", "IT", "010-1111-2222", "2024-02-01");
+        insert(3, null, "피크", "-", "010-3333-4444", "2024-03-01");
+        insert(4, "csn-4", "다른회사", "제조", null, "2024-01-01");
+        insert(5, null, "다른회사", "IT", null, "2024-01-01");
+    }
+
+    @Test
+    void findsResponseById() {
+        CompanyResponse response = repository.findResponseById(4).orElseThrow();
+        assertEquals("csn-4", response.csn());
+        assertEquals("제조", response.industry());
+        assertTrue(repository.findResponseById(99).isEmpty());
+    }
+
+    @Test
+    void pagesByIdWithOptionalFilters() {
+        assertEquals(List.of(1L, 2L), ids(repository.findResponsesAfter(null, null, null, 2)));
+        assertEquals(List.of(3L, 4L), ids(repository.findResponsesAfter(null, null, 2L, 2)));
+        assertEquals(List.of(1L, 2L, 5L), ids(repository.findResponsesAfter(null, "IT", null, 10)));
+        assertEquals(List.of(5L), ids(repository.findResponsesAfter("다른회사", "IT", null, 10)));
+        assertEquals(List.of(3L), ids(repository.findResponsesAfter("피크", null, 2L, 10)));
+    }
+
+    @Test
+    void mergesDuplicatesIntoSurvivorWithLatestValues() {
+        // 1 에 2, 3 을 합치고, csn 이 있는 4 는 합칠 대상으로 넘어와도 지우지 않음
+        int deleted = repository.mergeDuplicates(List.of(1L, 1L, 1L), List.of(2L, 3L, 4L));
+
+        assertEquals(2, deleted);
+        Map<String, Object> survivor = jdbcTemplate.queryForMap(
+                "SELECT industry, phone_number, content_hash FROM company_data WHERE id = 1");
+        assertEquals("IT", survivor.get("industry")); // 이미 값이 있으면 유지
+        assertEquals("010-3333-4444", survivor.get("phone_number")); // "-" 는 가장 최근 값으로 채움
+        assertNull(survivor.get("content_hash"));
+        assertEquals(List.of(1L, 4L, 5L), jdbcTemplate.queryForList("SELECT id FROM company_data ORDER BY id", Long.class));
+    }
+
+    private static List<Long> ids(List<CompanyResponse> responses) {
+        return responses.stream().map(CompanyResponse::id).toList();
+    }
+
+    private static void insert(long id, String csn, String company, String industry, String phoneNumber, String updatedAt) {
+        jdbcTemplate.update("INSERT INTO company_data (id, csn, company, industry, phone_number, content_hash, created_at, updated_at) " +
+                        "VALUES (?, ?, ?, ?, ?, 'hash', ?::timestamp, ?::timestamp)",
+                id, csn, company, industry, phoneNumber, updatedAt, updatedAt);
+    }
+}
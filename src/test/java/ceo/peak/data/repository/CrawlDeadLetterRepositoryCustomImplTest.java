@@ -0,0 +1,98 @@
+package ceo.peak.data.repository;
+
+import ceo.peak.data.entity.CrawlDeadLetter;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CrawlDeadLetterRepositoryCustomImplTest {
+
+    private static EmbeddedPostgres postgres;
+    private static JdbcTemplate jdbcTemplate;
+    private static CrawlDeadLetterRepositoryCustomImpl repository;
+    private static CrawlFrontierRepositoryCustomImpl frontierRepository;
+
+    @BeforeAll
+    static void startDatabase() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        jdbcTemplate = new JdbcTemplate(postgres.getPostgresDatabase());
+        try (InputStream in = CrawlDeadLetterRepositoryCustomImplTest.class.getResourceAsStream("/schema.sql")) {
+            for (String statement : new String(in.readAllBytes(), StandardCharsets.UTF_8).split(";")) {
+                if (!statement.isBlank()) {
+                    jdbcTemplate.execute(statement);
+                }
+            }
+        }
+        repository = new CrawlDeadLetterRepositoryCustomImpl(jdbcTemplate);
+        frontierRepository = new CrawlFrontierRepositoryCustomImpl(jdbcTemplate);
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("TRUNCATE crawl_frontier, crawl_dead_letter");
+    }
+
+    @Test
+    void recordsRepeatedFailuresOnOneRow() {
+        repository.record(1L, "1", "url-1", CrawlDeadLetter.Kind.TRANSIENT, 503, "HTTP 503");
+        repository.record(2L, "1", "url-1", CrawlDeadLetter.Kind.PERMANENT, 404, "x".repeat(2000));
+
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "SELECT run_id, kind, status_code, failures, length(error) AS error_length FROM crawl_dead_letter WHERE csn = '1'");
+        assertEquals(Map.of("run_id", 2L, "kind", "PERMANENT", "status_code", 404, "failures", 2, "error_length", 1000), row);
+    }
+
+    @Test
+    void seedsTransientFailuresUnlessPermanentIncluded() {
+        repository.record(1L, "1", "url-1", CrawlDeadLetter.Kind.TRANSIENT, 503, "HTTP 503");
+        repository.record(1L, "2", "url-2", CrawlDeadLetter.Kind.PERMANENT, 404, "HTTP 404");
+
+        assertEquals(1, repository.seedFrontier(10L, false));
+        assertEquals(List.of("1"), frontier(10L));
+
+        // 다른 실행이 다시 넣으면 같은 행을 PENDING 으로 되돌리고, 같은 실행에서 다시 넣으면 바꾸지 않음
+        jdbcTemplate.update("UPDATE crawl_frontier SET status = 'DONE', attempts = 1");
+        assertEquals(2, repository.seedFrontier(11L, true));
+        assertEquals(List.of("1", "2"), frontier(11L));
+        assertEquals(0, repository.seedFrontier(11L, true));
+        assertEquals(List.of("PENDING"), jdbcTemplate.queryForList("SELECT DISTINCT status FROM crawl_frontier", String.class));
+    }
+
+    @Test
+    void resolvesOnlyCodesDoneAfterTheirLastFailure() {
+        repository.record(1L, "1", "url-1", CrawlDeadLetter.Kind.TRANSIENT, 503, "HTTP 503");
+        repository.record(1L, "2", "url-2", CrawlDeadLetter.Kind.TRANSIENT, 503, "HTTP 503");
+        repository.record(1L, "3", "url-3", CrawlDeadLetter.Kind.TRANSIENT, 503, "HTTP 503");
+        repository.seedFrontier(5L, false);
+        frontierRepository.claim(5L, null, "w1", 10, 3, Duration.ofMinutes(30));
+
+        // 1 은 성공, 2 는 가져간 뒤 다시 실패, 3 은 아직 처리 중
+        repository.record(5L, "2", "url-2", CrawlDeadLetter.Kind.TRANSIENT, 503, "HTTP 503");
+        frontierRepository.markFinished(List.of("1", "2"));
+
+        assertEquals(1, repository.resolve(5L));
+        assertEquals(List.of("2", "3"), jdbcTemplate.queryForList("SELECT csn FROM crawl_dead_letter ORDER BY csn", String.class));
+        assertEquals(0, repository.resolve(6L));
+    }
+
+    private static List<String> frontier(long runId) {
+        return jdbcTemplate.queryForList("SELECT csn FROM crawl_frontier WHERE run_id = ? ORDER BY csn", String.class, runId);
+    }
+}
@@ -0,0 +1,154 @@
+package ceo.peak.data.repository;
+
+import ceo.peak.data.entity.CrawlDeadLetter;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CrawlFrontierRepositoryCustomImplTest {
+
+    private static final long RUN_ID = 7L;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final Duration LEASE = Duration.ofMinutes(30);
+
+    private static EmbeddedPostgres postgres;
+    private static DataSource dataSource;
+    private static JdbcTemplate jdbcTemplate;
+    private static CrawlFrontierRepositoryCustomImpl repository;
+
+    @BeforeAll
+    static void startDatabase() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        dataSource = postgres.getPostgresDatabase();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        try (InputStream in = CrawlFrontierRepositoryCustomImplTest.class.getResourceAsStream("/schema.sql")) {
+            for (String statement : new String(in.readAllBytes(), StandardCharsets.UTF_8).split(";")) {
+                if (!statement.isBlank()) {
+                    jdbcTemplate.execute(statement);
+                }
+            }
+        }
+        repository = new CrawlFrontierRepositoryCustomImpl(jdbcTemplate);
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("TRUNCATE crawl_frontier, crawl_dead_letter");
+        repository.discover(RUN_ID, List.of("1", "2", "3", "4", "jobkorea:5"));
+    }
+
+    @Test
+    void claimsPendingRowsOfRunAndSource() {
+        List<String> claimed = repository.claim(RUN_ID, "^[0-9]+$", "w1", 3, MAX_ATTEMPTS, LEASE);
+
+        assertEquals(List.of("1", "2", "3"), claimed.stream().sorted().toList());
+        assertEquals(List.of("4"), repository.claim(RUN_ID, "^[0-9]+$", "w2", 10, MAX_ATTEMPTS, LEASE));
+        assertEquals(List.of("jobkorea:5"), repository.claim(RUN_ID, null, "w3", 10, MAX_ATTEMPTS, LEASE));
+        assertTrue(repository.claim(RUN_ID, null, "w3", 10, MAX_ATTEMPTS, LEASE).isEmpty());
+        assertTrue(repository.claim(RUN_ID + 1, null, "w4", 10, MAX_ATTEMPTS, LEASE).isEmpty());
+        assertEquals(Map.of("status", "IN_PROGRESS", "attempts", 1, "claimed_by", "w1"),
+                jdbcTemplate.queryForMap("SELECT status, attempts, claimed_by FROM crawl_frontier WHERE csn = '1'"));
+    }
+
+    @Test
+    void skipsRowsLockedByConcurrentClaim() {
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        Set<String> first = new HashSet<>();
+        Set<String> second = new HashSet<>();
+        transaction.executeWithoutResult(status -> {
+            // 커밋 전이라 첫 작업자가 가져간 행은 아직 PENDING 으로 보이지만 잠겨 있으므로 기다리지 않고 건너뜀
+            first.addAll(repository.claim(RUN_ID, null, "w1", 2, MAX_ATTEMPTS, LEASE));
+            JdbcTemplate otherConnection = new JdbcTemplate(postgres.getPostgresDatabase());
+            second.addAll(new CrawlFrontierRepositoryCustomImpl(otherConnection)
+                    .claim(RUN_ID, null, "w2", 10, MAX_ATTEMPTS, LEASE));
+        });
+
+        assertEquals(2, first.size());
+        assertEquals(3, second.size());
+        assertTrue(second.stream().noneMatch(first::contains));
+    }
+
+    @Test
+    void releasesUnfinishedRowsAndFailsExhaustedOnes() {
+        repository.claim(RUN_ID, null, "w1", 2, MAX_ATTEMPTS, LEASE);
+        jdbcTemplate.update("UPDATE crawl_frontier SET attempts = 3 WHERE csn = '2'");
+
+        repository.release(RUN_ID, "w1", MAX_ATTEMPTS);
+        assertEquals("PENDING", status("1"));
+        assertEquals("IN_PROGRESS", status("2"));
+
+        assertEquals(1, repository.failExhausted(RUN_ID, "w1", MAX_ATTEMPTS, LEASE));
+        assertEquals("FAILED", status("2"));
+        assertEquals(Map.of("kind", CrawlDeadLetter.Kind.TRANSIENT.name(), "failures", 1, "run_id", RUN_ID),
+                jdbcTemplate.queryForMap("SELECT kind, failures, run_id FROM crawl_dead_letter WHERE csn = '2'"));
+        assertEquals(List.of("1", "3"), repository.claim(RUN_ID, null, "w1", 2, MAX_ATTEMPTS, LEASE).stream().sorted().toList());
+    }
+
+    @Test
+    void reclaimsRowsWhoseLeaseExpiredAndFailsThemAfterMaxAttempts() {
+        repository.claim(RUN_ID, null, "w1", 5, MAX_ATTEMPTS, LEASE);
+        assertTrue(repository.claim(RUN_ID, null, "w2", 5, MAX_ATTEMPTS, LEASE).isEmpty());
+
+        // w1 이 죽어 lease 가 지나면 다른 작업자가 가져감
+        expireLease();
+        assertEquals(5, repository.claim(RUN_ID, null, "w2", 5, MAX_ATTEMPTS, LEASE).size());
+        expireLease();
+        assertEquals(5, repository.claim(RUN_ID, null, "w3", 5, MAX_ATTEMPTS, LEASE).size());
+
+        // 세 번 가져간 행은 lease 가 지나도 다시 가져가지 않고, 정리하면 FAILED + dead-letter
+        expireLease();
+        assertTrue(repository.claim(RUN_ID, null, "w4", 5, MAX_ATTEMPTS, LEASE).isEmpty());
+        assertEquals(0, repository.failExhausted(RUN_ID, null, MAX_ATTEMPTS, Duration.ofHours(2)));
+        assertEquals(5, repository.failExhausted(RUN_ID, null, MAX_ATTEMPTS, LEASE));
+        assertEquals(5, jdbcTemplate.queryForObject("SELECT count(*) FROM crawl_frontier WHERE status = 'FAILED'", Integer.class));
+        assertEquals(5, jdbcTemplate.queryForObject("SELECT count(*) FROM crawl_dead_letter", Integer.class));
+    }
+
+    @Test
+    void finishesDeadLetteredRowsAsFailedAndOthersAsDone() {
+        // 이전 실행에서 실패했던 csn 4 는 이번에 가져가 성공했으므로 DONE
+        jdbcTemplate.update("INSERT INTO crawl_dead_letter (csn, kind, status_code, failures, last_failed_at) " +
+                "VALUES ('4', 'TRANSIENT', 503, 1, LOCALTIMESTAMP - INTERVAL '1 day')");
+        repository.claim(RUN_ID, null, "w1", 5, MAX_ATTEMPTS, LEASE);
+        jdbcTemplate.update("INSERT INTO crawl_dead_letter (csn, kind, status_code, failures, last_failed_at) " +
+                "VALUES ('2', 'PERMANENT', 404, 1, clock_timestamp()::timestamp)");
+
+        repository.markFinished(List.of("1", "2", "4"));
+
+        assertEquals("DONE", status("1"));
+        assertEquals("FAILED", status("2"));
+        assertEquals("DONE", status("4"));
+        assertEquals("IN_PROGRESS", status("3"));
+    }
+
+    private static void expireLease() {
+        jdbcTemplate.update("UPDATE crawl_frontier SET claimed_at = claimed_at - INTERVAL '1 hour'");
+    }
+
+    private static String status(String csn) {
+        return jdbcTemplate.queryForObject("SELECT status FROM crawl_frontier WHERE csn = ?", String.class, csn);
+    }
+}
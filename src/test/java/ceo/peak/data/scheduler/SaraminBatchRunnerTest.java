@@ -0,0 +1,71 @@
+package ceo.peak.data.scheduler;
+
+import ceo.peak.data.job.SaraminJobLauncher;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobInstance;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.repository.JobExecutionAlreadyRunningException;
+import org.springframework.boot.DefaultApplicationArguments;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SaraminBatchRunnerTest {
+
+    private final SaraminJobLauncher saraminJobLauncher = mock(SaraminJobLauncher.class);
+    private final JobExplorer jobExplorer = mock(JobExplorer.class);
+    private final SaraminBatchRunner runner = new SaraminBatchRunner(saraminJobLauncher, jobExplorer,
+            new DefaultApplicationArguments("endPage=5"));
+
+    @Test
+    void exitsWithNonZeroCodeWhenAnotherExecutionIsRunning() throws Exception {
+        when(saraminJobLauncher.findLatestFailed(any())).thenReturn(Optional.empty());
+        when(saraminJobLauncher.launch(any())).thenThrow(new JobExecutionAlreadyRunningException("saraminJob is already running"));
+
+        runner.run(null);
+
+        assertEquals(SaraminBatchRunner.ALREADY_RUNNING_EXIT_CODE, runner.getExitCode());
+    }
+
+    @Test
+    void restartsStaleExecutionAfterMarkingItFailed() throws Exception {
+        JobExecution stale = execution(BatchStatus.FAILED);
+        JobExecution restarted = execution(BatchStatus.COMPLETED);
+        when(saraminJobLauncher.findLatestFailed(any())).thenReturn(Optional.of(stale));
+        when(saraminJobLauncher.restart(stale)).thenReturn(restarted);
+
+        runner.run(null);
+
+        // STARTED 로 남은 실행을 먼저 FAILED 로 표시해야 재시작 대상으로 찾음
+        InOrder inOrder = inOrder(saraminJobLauncher);
+        inOrder.verify(saraminJobLauncher).failStaleExecutions();
+        inOrder.verify(saraminJobLauncher).findLatestFailed(any());
+        inOrder.verify(saraminJobLauncher).restart(stale);
+        assertEquals(0, runner.getExitCode());
+    }
+
+    @Test
+    void exitsWithFailureCodeWhenJobDoesNotComplete() throws Exception {
+        when(saraminJobLauncher.findLatestFailed(any())).thenReturn(Optional.empty());
+        when(saraminJobLauncher.launch(any())).thenReturn(execution(BatchStatus.FAILED));
+
+        runner.run(null);
+
+        assertEquals(SaraminBatchRunner.FAILED_EXIT_CODE, runner.getExitCode());
+    }
+
+    private static JobExecution execution(BatchStatus status) {
+        JobExecution execution = new JobExecution(new JobInstance(1L, "saraminJob"), 10L, new JobParameters());
+        execution.setStatus(status);
+        return execution;
+    }
+}
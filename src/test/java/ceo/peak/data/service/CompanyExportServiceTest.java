@@ -0,0 +1,118 @@
+package ceo.peak.data.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompanyExportServiceTest {
+
+    private static EmbeddedPostgres postgres;
+    private static JdbcTemplate jdbcTemplate;
+    private static CompanyExportService exportService;
+
+    @BeforeAll
+    static void startDatabase() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        jdbcTemplate = new JdbcTemplate(postgres.getPostgresDatabase());
+        try (InputStream in = CompanyExportServiceTest.class.getResourceAsStream("/schema.sql")) {
+            for (String statement : new String(in.readAllBytes(), StandardCharsets.UTF_8).split(";")) {
+                if (!statement.isBlank()) {
+                    jdbcTemplate.execute(statement);
+                }
+            }
+        }
+        exportService = new CompanyExportService(postgres.getPostgresDatabase());
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("TRUNCATE company_data");
+        jdbcTemplate.update("INSERT INTO company_data (id, csn, company, industry, address, created_at, updated_at) " +
+                "VALUES (1, 'csn-1', '피크', 'IT', '서울, 강남구', '2026-01-01 00:00:00', '2026-01-01 00:00:00')");
+        jdbcTemplate.update("INSERT INTO company_data (id, csn, company, industry, address, sales, created_at, updated_at) " +
+                "VALUES (2, 'csn-2', '따옴표 \"회사\"', NULL, E'여러\\n줄 주소', '100억', '2026-01-01 00:00:00', '2026-03-01 12:30:00')");
+    }
+
+    @Test
+    void exportsCsvWithQuotedFields() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = exportService.export(CompanyExportService.Format.CSV, null, out);
+
+        assertEquals(2, rows);
+        String csv = gunzip(out.toByteArray());
+        assertEquals("id,csn,company,key_executive,industry,address,homepage,email,phone_number,sales,total_funding,logo_url,created_at,updated_at\r\n" +
+                "1,csn-1,피크,,IT,\"서울, 강남구\",,,,,,,2026-01-01T00:00,2026-01-01T00:00\r\n" +
+                "2,csn-2,\"따옴표 \"\"회사\"\"\",,,\"여러\n줄 주소\",,,,100억,,,2026-01-01T00:00,2026-03-01T12:30\r\n", csv);
+    }
+
+    @Test
+    void exportsOneJsonObjectPerLine() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(CompanyExportService.Format.NDJSON, null, out);
+
+        String ndjson = gunzip(out.toByteArray());
+        assertTrue(ndjson.endsWith("\n"));
+        List<String> lines = ndjson.lines().toList();
+        assertEquals(2, lines.size());
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        JsonNode first = objectMapper.readTree(lines.get(0));
+        assertTrue(first.get("id").isNumber());
+        assertEquals(1, first.get("id").asLong());
+        assertEquals("서울, 강남구", first.get("address").asText());
+        assertTrue(first.get("sales").isNull());
+        assertEquals(14, first.size());
+        JsonNode second = objectMapper.readTree(lines.get(1));
+        assertEquals("따옴표 \"회사\"", second.get("company").asText());
+        assertEquals("여러\n줄 주소", second.get("address").asText());
+        assertEquals("2026-03-01T12:30", second.get("updated_at").asText());
+    }
+
+    @Test
+    void exportsOnlyRowsUpdatedAfterGivenTime() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = exportService.export(CompanyExportService.Format.NDJSON, LocalDateTime.of(2026, 2, 1, 0, 0), out);
+
+        assertEquals(1, rows);
+        List<String> lines = gunzip(out.toByteArray()).lines().toList();
+        assertEquals(1, lines.size());
+        assertEquals(2, new ObjectMapper().readTree(lines.get(0)).get("id").asLong());
+    }
+
+    @Test
+    void writesValidGzipForEmptyExport() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = exportService.export(CompanyExportService.Format.CSV, LocalDateTime.of(2027, 1, 1, 0, 0), out);
+
+        assertEquals(0, rows);
+        assertTrue(gunzip(out.toByteArray()).startsWith("id,csn,company"));
+    }
+
+    private static String gunzip(byte[] bytes) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package ceo.peak.data.service;
+
+import ceo.peak.data.config.CacheConfig;
+import ceo.peak.data.dto.CompanyResponse;
+import ceo.peak.data.repository.CompanyDataRepositoryCustom;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CompanyQueryServiceTest {
+
+    private final CompanyDataRepositoryCustom repository = mock(CompanyDataRepositoryCustom.class);
+    private CompanyQueryService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new CompanyQueryService(repository, new CacheConfig().cacheManager("maximumSize=100"));
+        when(repository.findResponseById(anyLong())).thenAnswer(invocation -> Optional.of(company(invocation.getArgument(0), "회사", "업종")));
+        when(repository.findResponsesAfter(any(), any(), any(), anyInt())).thenReturn(List.of());
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clear();
+        }
+    }
+
+    @Test
+    void cachesByIdUntilEvicted() {
+        service.findById(1);
+        service.findById(1);
+        verify(repository, times(1)).findResponseById(1);
+
+        service.evict(List.of(CompanyQueryService.CompanyChange.inPlace(1)));
+        service.findById(1);
+        verify(repository, times(2)).findResponseById(1);
+    }
+
+    @Test
+    void evictsOnlyPagesTheChangedRowIsOrCanBeIn() {
+        when(repository.findResponsesAfter(isNull(), eq("IT"), isNull(), eq(2)))
+                .thenReturn(List.of(company(1, "가", "IT"), company(2, "나", "IT")));
+        when(repository.findResponsesAfter(isNull(), eq("IT"), eq(2L), eq(2)))
+                .thenReturn(List.of(company(5, "다", "IT")));
+        when(repository.findResponsesAfter(isNull(), eq("제조"), isNull(), eq(2)))
+                .thenReturn(List.of(company(3, "라", "제조")));
+        service.findPage(null, "IT", null, 2);
+        service.findPage(null, "IT", 2L, 2);
+        service.findPage(null, "제조", null, 2);
+
+        // 새 IT 행(id 7)은 IT 의 마지막 페이지에만 들어갈 수 있음
+        service.evict(List.of(CompanyQueryService.CompanyChange.of(7, "마", "IT")));
+        service.findPage(null, "IT", null, 2);
+        service.findPage(null, "IT", 2L, 2);
+        service.findPage(null, "제조", null, 2);
+        verify(repository, times(1)).findResponsesAfter(null, "IT", null, 2);
+        verify(repository, times(2)).findResponsesAfter(null, "IT", 2L, 2);
+        verify(repository, times(1)).findResponsesAfter(null, "제조", null, 2);
+
+        // 제조 페이지에 있던 행 3 이 바뀌면 그 페이지만 다시 조회
+        service.evict(List.of(CompanyQueryService.CompanyChange.inPlace(3)));
+        service.findPage(null, "IT", null, 2);
+        service.findPage(null, "제조", null, 2);
+        verify(repository, times(1)).findResponsesAfter(null, "IT", null, 2);
+        verify(repository, times(2)).findResponsesAfter(null, "제조", null, 2);
+    }
+
+    @Test
+    void clearsAllPagesWhenRowsAreDeleted() {
+        service.findPage("가", null, null, 20);
+        service.evictAllPages(List.of(99L));
+        service.findPage("가", null, null, 20);
+        verify(repository, times(2)).findResponsesAfter("가", null, null, 20);
+    }
+
+    @Test
+    void appliesEvictionAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        service.findById(1);
+        service.evict(List.of(CompanyQueryService.CompanyChange.inPlace(1)));
+        service.findById(1);
+        verify(repository, times(1)).findResponseById(1);
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        service.findById(1);
+        verify(repository, times(2)).findResponseById(1);
+    }
+
+    @Test
+    void doesNotCacheValueReadBeforeConcurrentEviction() {
+        // 조회가 이전 값을 읽은 뒤, 캐시에 넣기 전에 writer 의 커밋 후 무효화가 일어난 경우
+        when(repository.findResponseById(1)).thenAnswer(invocation -> {
+            Optional<CompanyResponse> old = Optional.of(company(1, "이전 이름", "업종"));
+            service.evict(List.of(CompanyQueryService.CompanyChange.inPlace(1)));
+            return old;
+        });
+        assertEquals("이전 이름", service.findById(1).orElseThrow().company());
+
+        doReturn(Optional.of(company(1, "새 이름", "업종"))).when(repository).findResponseById(1);
+        assertEquals("새 이름", service.findById(1).orElseThrow().company());
+    }
+
+    @Test
+    void cachesMissingCompany() {
+        when(repository.findResponseById(9)).thenReturn(Optional.empty());
+        assertNull(service.findById(9).orElse(null));
+        service.findById(9);
+        verify(repository, times(1)).findResponseById(9);
+    }
+
+    private static CompanyResponse company(long id, String name, String industry) {
+        return new CompanyResponse(id, "csn-" + id, name, "대표", industry, "주소", null, null, null, null);
+    }
+}
@@ -0,0 +1,101 @@
+package ceo.peak.data.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AddressSimilarityTest {
+
+    private static final String[] TOKENS = {
+            "서울특별시", "경기도", "부산광역시", "강남구", "성남시", "분당구", "해운대구",
+            "테헤란로", "판교역로", "센텀중앙로", "123", "45-6", "7층", "B동", "(역삼동)", " ", "-"
+    };
+
+    private static final double[] FIXED_THRESHOLDS = {0.7, 0.0, 0.5, 0.9, 1.0, -0.1};
+
+    @Test
+    void isSimilarMatchesSimilarityOnRandomAddressPairs() {
+        Random random = new Random(20240501L);
+        for (int i = 0; i < 50_000; i++) {
+            String address = randomAddress(random);
+            String other = random.nextBoolean() ? mutate(random, address) : randomAddress(random);
+            for (double threshold : FIXED_THRESHOLDS) {
+                assertSameDecision(address, other, threshold);
+            }
+            assertSameDecision(address, other, random.nextDouble());
+        }
+    }
+
+    @Test
+    void isSimilarMatchesSimilarityOnRandomCharacterStrings() {
+        Random random = new Random(7L);
+        String alphabet = "서울강남구로길동123 -";
+        for (int i = 0; i < 50_000; i++) {
+            String s1 = randomString(random, alphabet, random.nextInt(30));
+            String s2 = random.nextInt(4) == 0 ? randomString(random, alphabet, random.nextInt(30)) : mutate(random, s1);
+            assertSameDecision(s1, s2, 0.7);
+            assertSameDecision(s1, s2, random.nextDouble() * 1.2 - 0.1);
+        }
+    }
+
+    @Test
+    void isSimilarHandlesEdgeCases() {
+        assertSameDecision("", "", 0.7);
+        assertSameDecision("", "서울", 0.7);
+        assertSameDecision("서울", "", 0.7);
+        assertSameDecision("-", "-", 0.7);
+
+        assertTrue(AddressSimilarity.isSimilar("서울특별시 강남구 테헤란로 123", "서울특별시 강남구 테헤란로 123", 0.7));
+        assertTrue(AddressSimilarity.isSimilar("서울특별시 강남구 테헤란로 123", "서울 강남구 테헤란로 123", 0.7));
+        assertFalse(AddressSimilarity.isSimilar("서울특별시 강남구 테헤란로 123", "부산광역시 해운대구 센텀중앙로 45", 0.7));
+        assertFalse(AddressSimilarity.isSimilar("서울", "서울특별시 강남구 테헤란로 123 7층", 0.7));
+    }
+
+    private static void assertSameDecision(String s1, String s2, double threshold) {
+        boolean expected = AddressSimilarity.similarity(s1, s2) > threshold;
+        assertEquals(expected, AddressSimilarity.isSimilar(s1, s2, threshold),
+                () -> "s1=[" + s1 + "], s2=[" + s2 + "], threshold=" + threshold);
+    }
+
+    private static String randomAddress(Random random) {
+        StringBuilder builder = new StringBuilder();
+        int tokens = random.nextInt(8);
+        for (int i = 0; i < tokens; i++) {
+            if (i > 0) {
+                builder.append(' ');
+            }
+            builder.append(TOKENS[random.nextInt(TOKENS.length)]);
+        }
+        return builder.toString();
+    }
+
+    private static String randomString(Random random, String alphabet, int length) {
+        StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            builder.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return builder.toString();
+    }
+
+    // 삽입/삭제/치환을 무작위로 몇 번 적용해 경계값 근처의 쌍을 만든다
+    private static String mutate(Random random, String source) {
+        StringBuilder builder = new StringBuilder(source);
+        int edits = random.nextInt(8);
+        for (int i = 0; i < edits; i++) {
+            int operation = random.nextInt(3);
+            char c = (char) ('가' + random.nextInt(30));
+            if (operation == 0 || builder.length() == 0) {
+                builder.insert(random.nextInt(builder.length() + 1), c);
+            } else if (operation == 1) {
+                builder.deleteCharAt(random.nextInt(builder.length()));
+            } else {
+                builder.setCharAt(random.nextInt(builder.length()), c);
+            }
+        }
+        return builder.toString();
+    }
+}
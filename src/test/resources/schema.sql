@@ -0,0 +1,59 @@
+-- 테스트와 벤치마크(src/jmh)가 함께 쓰는 스키마. 운영에서는 Hibernate(ddl-auto=update)가 엔티티로부터 같은 구조를 만든다.
+CREATE SEQUENCE company_data_seq START WITH 1 INCREMENT BY 100;
+
+CREATE TABLE company_data (
+    id            bigint PRIMARY KEY,
+    company       varchar(100) NOT NULL,
+    key_executive text,
+    industry      varchar(100),
+    address       text,
+    homepage      varchar(255),
+    email         varchar(100),
+    phone_number  varchar(50),
+    sales         text,
+    total_funding varchar(100),
+    logo_url      varchar(255),
+    content_hash  varchar(64),
+    csn           varchar(50),
+    created_at    timestamp(6),
+    updated_at    timestamp(6)
+);
+
+CREATE UNIQUE INDEX ux_company_data_csn ON company_data (csn);
+CREATE INDEX ix_company_data_company_id ON company_data (company, id);
+CREATE INDEX ix_company_data_industry_id ON company_data (industry, id);
+CREATE INDEX ix_company_data_updated_at ON company_data (updated_at);
+
+CREATE TABLE page_validator (
+    csn           varchar(50) PRIMARY KEY,
+    etag          varchar(255),
+    last_modified varchar(100),
+    created_at    timestamp(6),
+    updated_at    timestamp(6)
+);
+
+CREATE TABLE crawl_frontier (
+    csn        varchar(50) PRIMARY KEY,
+    run_id     bigint      NOT NULL,
+    status     varchar(20) NOT NULL,
+    attempts   integer     NOT NULL,
+    claimed_by varchar(100),
+    claimed_at timestamp(6),
+    created_at timestamp(6),
+    updated_at timestamp(6)
+);
+
+CREATE INDEX ix_crawl_frontier_run_status ON crawl_frontier (run_id, status);
+
+CREATE TABLE crawl_dead_letter (
+    csn            varchar(50) PRIMARY KEY,
+    run_id         bigint,
+    url            varchar(500),
+    kind           varchar(20) NOT NULL,
+    status_code    integer     NOT NULL,
+    error          varchar(1000),
+    failures       integer     NOT NULL,
+    last_failed_at timestamp(6),
+    created_at     timestamp(6),
+    updated_at     timestamp(6)
+);